@@ -34,10 +34,20 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
 import java.util.Stack;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IContainer;
@@ -64,6 +74,7 @@ import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.core.builder.IComposerExtensionClass;
 import de.ovgu.featureide.core.builder.IComposerObject;
 import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass;
+import de.ovgu.featureide.core.builder.preprocessor.PreprocessorFileCache;
 import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirective;
 import de.ovgu.featureide.core.signature.documentation.base.ADocumentationCommentParser;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -84,11 +95,45 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	/** antenna preprocessor used from external library */
 	private Preprocessor preprocessor;
 
+	/** comma separated list of the activated features of the current build */
+	private String defines = "";
+
+	/** results of the last build for each source file */
+	private final PreprocessorFileCache fileCache = new PreprocessorFileCache();
+
 	private AntennaModelBuilder antennaModelBuilder;
 
 	/** pattern for replacing preprocessor commands like "//#if" */
 	static final Pattern replaceCommandPattern = Pattern.compile("//\\s*\\#(.+?)\\s");
 
+	/** pattern for finding preprocessor commands */
+	private static final Pattern directivePattern = Pattern.compile("//\\s*\\#");
+
+	/** pattern for splitting preprocessor commands into names */
+	private static final Pattern namePattern = Pattern.compile("\\W+");
+
+	/**
+	 * The outcome of reading and preprocessing a single source file.
+	 */
+	private static final class FileResult {
+
+		private final IFile file;
+		private final String key;
+		private Vector<String> lines;
+		private Vector<String> preprocessedLines;
+		private Set<String> referencedFeatures;
+		private String charset;
+		private boolean upToDate;
+		private boolean changed;
+		private PPException exception;
+
+		private FileResult(IFile file) {
+			this.file = file;
+			key = getCacheKey(file);
+		}
+
+	}
+
 	public AntennaPreprocessor() {
 		super(ANTENNA);
 		nodereader.setIgnoreMissingFeatures(true);
@@ -143,6 +188,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			// add activated features as definitions to preprocessor
 			preprocessor.clearDefines();
 			preprocessor.addDefines(featureList.toString());
+			defines = featureList.toString();
 
 			// preprocess for all files in source folder
 			startPreprocessingSourceFiles(featureProject.getBuildFolder(), true);
@@ -245,6 +291,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 
 	@Override
 	public void postModelChanged() {
+		fileCache.clear();
 		deleteAllPreprocessorAnotationMarkers();
 		prepareFullBuild(null);
 		startPreprocessingSourceFiles(featureProject.getBuildFolder(), false);
@@ -272,55 +319,179 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	 * @throws IOException
 	 */
 	private void preprocessSourceFiles(IFolder sourceFolder, boolean performFullBuild) throws CoreException, FileNotFoundException, IOException {
-		for (final IResource res : sourceFolder.members()) {
+		final List<IFile> files = new ArrayList<>();
+		collectSourceFiles(sourceFolder, files);
+
+		if (!performFullBuild) {
+			// all annotation markers were removed, thus, every file has to be checked again
+			fileCache.clear();
+			for (final IFile file : files) {
+				processLinesOfFile(loadStringsFromFile(file), file);
+			}
+			return;
+		}
+
+		// compare a hash instead of the feature model node, as Node.equals is quadratic in the number of clauses
+		fileCache.setContext(PreprocessorFileCache
+				.hash(Arrays.asList(featureModel.toString(), String.valueOf(patternIsAbstractFeature), String.valueOf(patternIsConcreteFeature))));
+		final Set<String> selectedFeatures = new HashSet<>(activatedFeatures);
+		final ThreadLocal<Preprocessor> preprocessors = new ThreadLocal<Preprocessor>() {
+
+			@Override
+			protected Preprocessor initialValue() {
+				final Preprocessor threadPreprocessor = new Preprocessor(new AntennaLogger(), new AntennaLineFilter());
+				try {
+					threadPreprocessor.addDefines(defines);
+				} catch (final PPException e) {
+					// cannot happen, as the defines were already added to the preprocessor of the builder
+					throw new IllegalStateException(e);
+				}
+				return threadPreprocessor;
+			}
+		};
+
+		// files are read and preprocessed in parallel, but all workspace modifications are done by the builder thread in the original order
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), files.size())));
+		try {
+			final List<Future<FileResult>> results = new ArrayList<>(files.size());
+			for (final IFile file : files) {
+				results.add(executor.submit(new Callable<FileResult>() {
+
+					@Override
+					public FileResult call() throws Exception {
+						return preprocessFile(file, preprocessors.get(), selectedFeatures);
+					}
+				}));
+			}
+			for (final Future<FileResult> result : results) {
+				try {
+					applyResult(result.get(), selectedFeatures);
+				} catch (final ExecutionException e) {
+					AntennaCorePlugin.getDefault().logError(e.getCause());
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		final List<String> fileKeys = new ArrayList<>(files.size());
+		for (final IFile file : files) {
+			fileKeys.add(getCacheKey(file));
+		}
+		fileCache.retainAll(fileKeys);
+	}
+
+	private void collectSourceFiles(IFolder folder, List<IFile> files) throws CoreException {
+		for (final IResource res : folder.members()) {
 			if (res instanceof IFolder) {
 				// for folders do recursively
-				preprocessSourceFiles((IFolder) res, performFullBuild);
+				collectSourceFiles((IFolder) res, files);
 			} else if (res instanceof IFile) {
-				// delete all existing builder markers
-				if (performFullBuild) {
-					featureProject.deleteBuilderMarkers(res, 0);
-				}
+				files.add((IFile) res);
+			}
+		}
+	}
 
-				// get all lines from file
-				final Vector<String> lines = loadStringsFromFile((IFile) res);
+	private static String getCacheKey(IFile file) {
+		return file.getFullPath().toString();
+	}
 
-				// do checking and some stuff
-				processLinesOfFile(lines, (IFile) res);
+	/**
+	 * Reads and preprocesses the given file without modifying the workspace. Called by the worker threads of
+	 * {@link #preprocessSourceFiles(IFolder, boolean)}.
+	 */
+	private FileResult preprocessFile(IFile file, Preprocessor threadPreprocessor, Set<String> selectedFeatures) throws CoreException, IOException {
+		final FileResult result = new FileResult(file);
+		result.lines = loadStringsFromFile(file);
+		if (fileCache.isUpToDate(result.key, PreprocessorFileCache.hash(result.lines), selectedFeatures)) {
+			result.upToDate = true;
+			return result;
+		}
 
-				if (!performFullBuild) {
-					continue;
-				}
+		result.referencedFeatures = getReferencedNames(result.lines);
+		result.charset = file.getCharset();
+		result.preprocessedLines = new Vector<>(result.lines);
+		try {
+			// run antenna preprocessor
+			result.changed = threadPreprocessor.preprocess(result.preprocessedLines, result.charset);
+		} catch (final PPException e) {
+			result.exception = e;
+		}
+		return result;
+	}
 
-				boolean changed = false;
+	/**
+	 * Checks the annotations of a preprocessed file and writes its new content. Must be called by the builder thread.
+	 */
+	private void applyResult(FileResult result, Set<String> selectedFeatures) throws CoreException, IOException {
+		final IFile res = result.file;
+		if (result.upToDate) {
+			// markers of the last build are still valid
+			usedFeatures.addAll(fileCache.getUsedFeatures(result.key));
+			return;
+		}
 
-				try {
-					// run antenna preprocessor
-					changed = preprocessor.preprocess(lines, ((IFile) res).getCharset());
-				} catch (final PPException e) {
-					final int lineNumber = e.getLineNumber();
-					featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
-							IMarker.SEVERITY_ERROR);
-					AntennaCorePlugin.getDefault().logError(e);
+		// delete all existing builder markers
+		featureProject.deleteBuilderMarkers(res, 0);
+
+		// do checking and some stuff, while remembering the features used in this file
+		final HashSet<String> allUsedFeatures = usedFeatures;
+		final HashSet<String> fileUsedFeatures = new HashSet<>();
+		usedFeatures = fileUsedFeatures;
+		try {
+			processLinesOfFile(result.lines, res);
+		} finally {
+			usedFeatures = allUsedFeatures;
+		}
+		usedFeatures.addAll(fileUsedFeatures);
+
+		if (result.exception != null) {
+			final PPException e = result.exception;
+			final int lineNumber = e.getLineNumber();
+			featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
+					IMarker.SEVERITY_ERROR);
+			AntennaCorePlugin.getDefault().logError(e);
+			fileCache.remove(result.key);
+			return;
+		}
+
+		// if preprocessor changed file: save & refresh
+		if (result.changed) {
+			FileOutputStream ostr = null;
+			try {
+				ostr = new FileOutputStream(res.getRawLocation().toOSString());
+				Preprocessor.saveStrings(result.preprocessedLines, ostr, result.charset);
+			} finally {
+				if (ostr != null) {
+					ostr.close();
 				}
+			}
+			// use touch to support e.g. linux
+			res.touch(null);
+			res.refreshLocal(IResource.DEPTH_ZERO, null);
+		}
+		fileCache.update(result.key, PreprocessorFileCache.hash(result.preprocessedLines), result.referencedFeatures, selectedFeatures, fileUsedFeatures);
+	}
 
-				// if preprocessor changed file: save & refresh
-				if (changed) {
-					FileOutputStream ostr = null;
-					try {
-						ostr = new FileOutputStream(res.getRawLocation().toOSString());
-						Preprocessor.saveStrings(lines, ostr, ((IFile) res).getCharset());
-					} finally {
-						if (ostr != null) {
-							ostr.close();
-						}
+	/**
+	 * Returns all names that occur in a preprocessor directive of the given lines. Thus, the result contains all features that may influence the
+	 * preprocessing of the file.
+	 */
+	private static Set<String> getReferencedNames(List<String> lines) {
+		final Set<String> names = new HashSet<>();
+		for (final String line : lines) {
+			final Matcher matcher = directivePattern.matcher(line);
+			if (matcher.find()) {
+				for (final String name : namePattern.split(line.substring(matcher.end()))) {
+					if (!name.isEmpty()) {
+						names.add(name);
 					}
-					// use touch to support e.g. linux
-					res.touch(null);
-					res.refreshLocal(IResource.DEPTH_ZERO, null);
 				}
 			}
 		}
+		return names;
 	}
 
 	/**
@@ -28,6 +28,7 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -81,6 +82,7 @@ import de.ovgu.featureide.featurehouse.errorpropagation.ErrorPropagation;
 import de.ovgu.featureide.featurehouse.meta.FeatureIDEModelInfo;
 import de.ovgu.featureide.featurehouse.meta.featuremodel.FeatureModelClassGenerator;
 import de.ovgu.featureide.featurehouse.model.FeatureHouseModelBuilder;
+import de.ovgu.featureide.featurehouse.model.FeatureModuleCache;
 import de.ovgu.featureide.featurehouse.signature.documentation.DocumentationCommentParser;
 import de.ovgu.featureide.fm.core.FMCorePlugin;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -149,6 +151,9 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 	private ErrorPropagation errorPropagation = null;
 
+	/** the parsed feature modules of the last builds */
+	private final FeatureModuleCache featureModuleCache = new FeatureModuleCache();
+
 	private final IParseErrorListener listener = createParseErrorListener();
 
 	private IParseErrorListener createParseErrorListener() {
@@ -859,29 +864,58 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		 * It is necessary to also build the model of the current product, because the line numbers of generated elements (e.g., methods) are necessary for
 		 * error propagation.
 		 **/
-		fhModelBuilder.buildModel(composer.getFstnodes(), false);
+		final ArrayList<FSTNode> productNodes = composer.getFstnodes();
+		fhModelBuilder.buildModel(productNodes, false);
 
 		// build the complete fst model
-		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
-		composer = composerExtension;
-		composerExtension.addParseErrorListener(listener);
-		final List<String> featureOrder = featureProject.getFeatureModel().getFeatureOrderList();
-		final String[] features = new String[featureOrder.size()];
-		int i = 0;
-		for (final String f : featureOrder) {
-			features[i++] = f;
-		}
-		try {
-			composerExtension.buildFullFST(getArguments(configPath, basePath, outputPath, getContractParameter()), features);
-		} catch (final TokenMgrError e) {
-			createBuilderProblemMarker(getTokenMgrErrorLine(e.getMessage()), getTokenMgrErrorMessage(e.getMessage()));
-		} catch (final Error e) {
-			LOGGER.logError(e);
+		final ArrayList<FSTNode> fstnodes = new ArrayList<>();
+		if (productNodes != null) {
+			fstnodes.addAll(productNodes);
+			productNodes.clear();
 		}
-		final ArrayList<FSTNode> fstnodes = composer.getFstnodes();
-		if (fstnodes != null) {
-			fhModelBuilder.buildModel(fstnodes, true);
+		fstnodes.addAll(buildFullFST(configPath, basePath, outputPath));
+		fhModelBuilder.buildModel(fstnodes, true);
+	}
+
+	/**
+	 * Builds the full FST of all feature modules. Only feature modules that were modified since the last call are parsed again, the nodes of all other
+	 * modules are taken from the {@link #featureModuleCache}.
+	 *
+	 * @param configPath
+	 * @param basePath
+	 * @param outputPath
+	 * @return the nodes of the full FST in feature order
+	 */
+	private ArrayList<FSTNode> buildFullFST(final String configPath, final String basePath, final String outputPath) {
+		final List<String> featureOrder = featureProject.getFeatureModel().getFeatureOrderList();
+		final String[] features = featureOrder.toArray(new String[featureOrder.size()]);
+		final String contractParameter = getContractParameter();
+		final String[] changedFeatures =
+			featureModuleCache.getChangedFeatures(new File(basePath), features, Arrays.asList(basePath, contractParameter, FSTGenComposerExtension.key));
+		if (changedFeatures.length > 0) {
+			final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
+			composer = composerExtension;
+			composerExtension.addParseErrorListener(listener);
+			boolean parsed = false;
+			try {
+				composerExtension.buildFullFST(getArguments(configPath, basePath, outputPath, contractParameter), changedFeatures);
+				parsed = true;
+			} catch (final TokenMgrError e) {
+				createBuilderProblemMarker(getTokenMgrErrorLine(e.getMessage()), getTokenMgrErrorMessage(e.getMessage()));
+			} catch (final Error e) {
+				LOGGER.logError(e);
+			}
+			final ArrayList<FSTNode> fstnodes = composerExtension.getFstnodes();
+			if (fstnodes != null) {
+				featureModuleCache.setNodes(changedFeatures, fstnodes);
+				fstnodes.clear();
+			}
+			if (!parsed || ((composerExtension.getErrorFiles() != null) && !composerExtension.getErrorFiles().isEmpty())) {
+				// modules with syntax errors are parsed again by the next build, such that their errors are reported again
+				featureModuleCache.invalidate(changedFeatures);
+			}
 		}
+		return featureModuleCache.getNodes(features);
 	}
 
 	/**
@@ -1016,30 +1050,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 			return;
 		}
 
-		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
-		composer = composerExtension;
-		composerExtension.addParseErrorListener(listener);
-
-		final List<String> featureOrderList = featureProject.getFeatureModel().getFeatureOrderList();
-		final String[] features = new String[featureOrderList.size()];
-		int i = 0;
-		for (final String f : featureOrderList) {
-			features[i++] = f;
-		}
-
-		try {
-			composerExtension.buildFullFST(getArguments(configPath, basePath, outputPath, getContractParameter()), features);
-		} catch (final TokenMgrError e) {
-			createBuilderProblemMarker(getTokenMgrErrorLine(e.getMessage()), getTokenMgrErrorMessage(e.getMessage()));
-		} catch (final Error e) {
-			LOGGER.logError(e);
-		}
-
-		final ArrayList<FSTNode> fstnodes = composer.getFstnodes();
-		if (fstnodes != null) {
-			fhModelBuilder.buildModel(fstnodes, false);
-			fstnodes.clear();
-		}
+		fhModelBuilder.buildModel(buildFullFST(configPath, basePath, outputPath), false);
 	}
 
 	@Override
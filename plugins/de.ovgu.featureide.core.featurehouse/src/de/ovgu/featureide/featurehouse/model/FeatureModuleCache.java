@@ -0,0 +1,224 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse.model;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.ovgu.cide.fstgen.ast.FSTNode;
+
+/**
+ * Caches the parsed FSTNodes of each feature module of a FeatureHouse project, such that only modified feature modules need to be parsed again.</br> A
+ * feature module is identified by a content hash over all files in its folder. The hash of each file is reused as long as its size and time stamp do not
+ * change.</br> The nodes of a full FST, as created by {@code FSTGenComposerExtension.buildFullFST}, consist of one segment per feature module, each starting
+ * with a {@link FHNodeTypes#NODE_TYPE_FEATURE feature node}. Thus, the full FST can be assembled from the segments of the single modules.
+ */
+public class FeatureModuleCache implements FHNodeTypes {
+
+	private static final long NO_HASH = 0;
+	private static final long MISSING_HASH = 1;
+
+	private static final class FileHash {
+
+		private final long lastModified;
+		private final long length;
+		private final long hash;
+
+		private FileHash(long lastModified, long length, long hash) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.hash = hash;
+		}
+
+	}
+
+	private static final class Module {
+
+		private final long hash;
+		private final List<FSTNode> nodes;
+
+		private Module(long hash, List<FSTNode> nodes) {
+			this.hash = hash;
+			this.nodes = nodes;
+		}
+
+	}
+
+	private final Map<File, FileHash> fileHashes = new HashMap<>();
+	private final Map<String, Module> modules = new HashMap<>();
+	private final Map<String, Long> currentHashes = new HashMap<>();
+
+	private Object context;
+
+	/**
+	 * Computes the hashes of the given feature modules and returns all modules that were modified since their nodes were {@link #setNodes(String[], List)
+	 * stored}.
+	 *
+	 * @param baseDirectory the folder containing one folder per feature module
+	 * @param features the names of the feature modules
+	 * @param context all further parameters of the parser (e.g., the contract style). If they are not equal to the previous ones, all modules are returned.
+	 * @return the modified feature modules in the given order
+	 */
+	public String[] getChangedFeatures(File baseDirectory, String[] features, Object context) {
+		if ((this.context == null) || !this.context.equals(context)) {
+			clear();
+			this.context = context;
+		}
+
+		currentHashes.clear();
+		final Set<File> visitedFiles = new HashSet<>();
+		final List<String> changedFeatures = new ArrayList<>();
+		for (final String feature : features) {
+			final long hash = getHash(new File(baseDirectory, feature), visitedFiles);
+			currentHashes.put(feature, hash);
+			final Module module = modules.get(feature);
+			if ((module == null) || (module.hash == NO_HASH) || (module.hash != hash)) {
+				changedFeatures.add(feature);
+			}
+		}
+		fileHashes.keySet().retainAll(visitedFiles);
+		modules.keySet().retainAll(Arrays.asList(features));
+		return changedFeatures.toArray(new String[changedFeatures.size()]);
+	}
+
+	/**
+	 * Stores the nodes of the given feature modules.
+	 *
+	 * @param features the parsed feature modules, which were previously returned by {@link #getChangedFeatures(File, String[], Object)}
+	 * @param nodes the nodes of the full FST of the given feature modules
+	 */
+	public void setNodes(String[] features, List<FSTNode> nodes) {
+		final Map<String, List<FSTNode>> segments = new LinkedHashMap<>();
+		for (final String feature : features) {
+			segments.put(feature, new ArrayList<FSTNode>());
+		}
+		List<FSTNode> segment = null;
+		for (final FSTNode node : nodes) {
+			if (NODE_TYPE_FEATURE.equals(node.getType())) {
+				segment = segments.get(node.getName());
+			}
+			// nodes before the first feature node do not belong to any module and are ignored by the model builder
+			if (segment != null) {
+				segment.add(node);
+			}
+		}
+		for (final String feature : features) {
+			final Long hash = currentHashes.get(feature);
+			modules.put(feature, new Module((hash == null) ? NO_HASH : hash, segments.get(feature)));
+		}
+	}
+
+	/**
+	 * Marks the given feature modules as modified (e.g., because they contain a syntax error), while keeping their nodes.
+	 *
+	 * @param features the feature modules
+	 */
+	public void invalidate(String... features) {
+		for (final String feature : features) {
+			final Module module = modules.get(feature);
+			if (module != null) {
+				modules.put(feature, new Module(NO_HASH, module.nodes));
+			}
+		}
+	}
+
+	/**
+	 * @param features the names of the feature modules in composition order
+	 * @return the nodes of the full FST of the given feature modules
+	 */
+	public ArrayList<FSTNode> getNodes(String[] features) {
+		final ArrayList<FSTNode> nodes = new ArrayList<>();
+		for (final String feature : features) {
+			final Module module = modules.get(feature);
+			if (module != null) {
+				nodes.addAll(module.nodes);
+			}
+		}
+		return nodes;
+	}
+
+	public void clear() {
+		modules.clear();
+		fileHashes.clear();
+		context = null;
+	}
+
+	private long getHash(File file, Collection<File> visitedFiles) {
+		if (file.isDirectory()) {
+			final File[] children = file.listFiles();
+			if (children == null) {
+				return NO_HASH;
+			}
+			Arrays.sort(children);
+			long hash = 17;
+			for (final File child : children) {
+				hash = (hash * 31) + child.getName().hashCode();
+				hash = (hash * 31) + getHash(child, visitedFiles);
+			}
+			return ((hash == NO_HASH) || (hash == MISSING_HASH)) ? 2 : hash;
+		} else if (file.isFile()) {
+			visitedFiles.add(file);
+			final long lastModified = file.lastModified();
+			final long length = file.length();
+			final FileHash fileHash = fileHashes.get(file);
+			if ((fileHash != null) && (fileHash.lastModified == lastModified) && (fileHash.length == length)) {
+				return fileHash.hash;
+			}
+			final long hash = getContentHash(file);
+			if (hash != NO_HASH) {
+				fileHashes.put(file, new FileHash(lastModified, length, hash));
+			}
+			return hash;
+		}
+		return MISSING_HASH;
+	}
+
+	/**
+	 * Computes a 64-bit FNV-1a hash of the content of the given file.
+	 */
+	private static long getContentHash(File file) {
+		long hash = 0xcbf29ce484222325L;
+		try (InputStream in = new FileInputStream(file)) {
+			final byte[] buffer = new byte[8192];
+			for (int length = in.read(buffer); length >= 0; length = in.read(buffer)) {
+				for (int i = 0; i < length; i++) {
+					hash = (hash ^ (buffer[i] & 0xff)) * 0x100000001b3L;
+				}
+			}
+		} catch (final IOException e) {
+			// a file that cannot be read is treated as modified
+			return NO_HASH;
+		}
+		return ((hash == NO_HASH) || (hash == MISSING_HASH)) ? 2 : hash;
+	}
+
+}
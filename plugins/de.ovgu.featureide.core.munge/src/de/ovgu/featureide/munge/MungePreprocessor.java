@@ -32,10 +32,20 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
 import java.util.Stack;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -59,6 +69,7 @@ import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.core.builder.IComposerExtensionClass;
 import de.ovgu.featureide.core.builder.IComposerObject;
 import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass;
+import de.ovgu.featureide.core.builder.preprocessor.PreprocessorFileCache;
 import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirective;
 import de.ovgu.featureide.core.signature.documentation.base.ADocumentationCommentParser;
 import de.ovgu.featureide.fm.core.FMCorePlugin;
@@ -95,11 +106,28 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 	/** compiled regular expression for instructions and comment symbols */
 	public static final Pattern OP_COM_PATTERN = Pattern.compile("(" + OPERATORS + ")|/\\*|\\*/");
 
+	/** pattern for splitting the arguments of instructions into names */
+	private static final Pattern NAME_PATTERN = Pattern.compile("\\W+");
+
 	/**
 	 * is true if actual line is in comment section (between <code>&#47;*</code> and <code>*&#47;</code>)
 	 */
 	private boolean commentSection;
 
+	/** results of the last build for each generated file of the build folder */
+	private final PreprocessorFileCache fileCache = new PreprocessorFileCache();
+
+	/** results of the last annotation checking for each source file */
+	private final PreprocessorFileCache annotationCache = new PreprocessorFileCache();
+
+	/** runs Munge for single files during {@link #preprocessSourceFiles(IFolder)}; {@code null} outside of it */
+	private ExecutorService executor;
+	private List<Future<?>> tasks;
+	private List<String> outputFiles;
+	private Set<String> selectedFeatures;
+	private boolean useFileCache;
+	private Charset charset;
+
 	public MungePreprocessor() {
 		super("Munge");
 	}
@@ -151,13 +179,21 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 		annotationChecking();
 	}
 
+	/**
+	 * Checks the annotations of all source files in a background job. A file is skipped, if neither its content nor the feature model changed since it was
+	 * last checked, as its markers are still valid.
+	 */
 	protected void annotationChecking() {
-		deleteAllPreprocessorAnotationMarkers();
 		final Job job = new Job(PREPROCESSOR_ANNOTATION_CHECKING) {
 
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
-				annotationChecking(featureProject.getSourceFolder());
+				// compare a hash instead of the feature model node, as Node.equals is quadratic in the number of clauses
+				annotationCache.setContext(PreprocessorFileCache
+						.hash(Arrays.asList(featureModel.toString(), String.valueOf(patternIsAbstractFeature), String.valueOf(patternIsConcreteFeature))));
+				final List<String> fileKeys = new ArrayList<>();
+				annotationChecking(featureProject.getSourceFolder(), fileKeys);
+				annotationCache.retainAll(fileKeys);
 				setModelMarkers();
 				return Status.OK_STATUS;
 			}
@@ -166,15 +202,24 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 		job.schedule();
 	}
 
-	private void annotationChecking(IFolder folder) {
+	private void annotationChecking(IFolder folder, List<String> fileKeys) {
 		try {
 			for (final IResource res : folder.members()) {
 				if (res instanceof IFolder) {
-					annotationChecking((IFolder) res);
+					annotationChecking((IFolder) res, fileKeys);
 				} else if (res instanceof IFile) {
-					final Vector<String> lines = loadStringsFromFile((IFile) res);
-					// do checking and some stuff
-					processLinesOfFile(lines, (IFile) res);
+					final IFile file = (IFile) res;
+					final String key = file.getFullPath().toString();
+					fileKeys.add(key);
+					final Vector<String> lines = loadStringsFromFile(file);
+					final long hash = PreprocessorFileCache.hash(lines);
+					// the checking does not depend on the selected features
+					if (annotationCache.isUpToDate(key, hash, Collections.<String> emptySet())) {
+						addUsedFeatures(annotationCache.getUsedFeatures(key));
+					} else {
+						deletePreprocessorAnotationMarkers(file);
+						annotationCache.update(key, hash, Collections.<String> emptySet(), Collections.<String> emptySet(), checkFile(lines, file));
+					}
 				}
 			}
 		} catch (final CoreException e) {
@@ -182,13 +227,33 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 		}
 	}
 
+	synchronized private void addUsedFeatures(Set<String> fileUsedFeatures) {
+		usedFeatures.addAll(fileUsedFeatures);
+	}
+
+	/**
+	 * Checks the annotations of the given file.
+	 *
+	 * @return the features used in the annotations of the file
+	 */
+	synchronized private Set<String> checkFile(Vector<String> lines, IFile res) {
+		final HashSet<String> allUsedFeatures = usedFeatures;
+		final HashSet<String> fileUsedFeatures = new HashSet<>();
+		usedFeatures = fileUsedFeatures;
+		try {
+			processLinesOfFile(lines, res);
+		} finally {
+			usedFeatures = allUsedFeatures;
+		}
+		usedFeatures.addAll(fileUsedFeatures);
+		return fileUsedFeatures;
+	}
+
 	/**
-	 * preprocess all files in folder
+	 * preprocess all files in folder</br> The files are preprocessed in parallel, each by its own instance of Munge. For the build folder of the project, a
+	 * file is skipped, if neither its content nor the selection of the features its instructions refer to changed since the last build.
 	 *
-	 * @param sourceFolder folder with files to preprocess
 	 * @param buildFolder folder for preprocessed files
-	 * @param annotationChecking <code>true</code> if preprocessor annotations should be checked
-	 * @param performFullBuild <code>true</code> if the munge should be called
 	 * @throws CoreException
 	 */
 	protected void preprocessSourceFiles(IFolder buildFolder) throws CoreException {
@@ -197,7 +262,44 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 			args.add("-D" + feature);
 		}
 
-		runMunge(args, featureProject.getSourceFolder(), buildFolder);
+		// build folders of configurations are generated only once, so the cache is not used for them
+		useFileCache = buildFolder.equals(featureProject.getBuildFolder());
+		selectedFeatures = new HashSet<>(activatedFeatures);
+		charset = getCharset();
+		if (useFileCache) {
+			// the selection of the features is checked for each file, all other options and the encoding affect all files
+			final List<String> context = new ArrayList<>();
+			for (final String arg : args) {
+				if (!arg.startsWith("-D")) {
+					context.add(arg);
+				}
+			}
+			context.add(charset.name());
+			fileCache.setContext(PreprocessorFileCache.hash(context));
+		}
+		outputFiles = new ArrayList<>();
+		tasks = new ArrayList<>();
+		// build folders are created by the builder thread, files are preprocessed in parallel
+		executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+		try {
+			runMunge(args, featureProject.getSourceFolder(), buildFolder);
+			for (final Future<?> task : tasks) {
+				try {
+					task.get();
+				} catch (final ExecutionException e) {
+					MungeCorePlugin.getDefault().logError(e.getCause());
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+			executor = null;
+			tasks = null;
+		}
+		if (useFileCache) {
+			fileCache.retainAll(outputFiles);
+		}
 	}
 
 	/**
@@ -332,10 +434,109 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 		}
 	}
 
+	/**
+	 * Runs Munge with the given command line.</br> During {@link #preprocessSourceFiles(IFolder)}, each file is preprocessed by a separate task. Otherwise,
+	 * all files are preprocessed immediately.
+	 *
+	 * @param args -DFEATURE1 -DFEATURE2 ... File1 File2 ... outputDirectory
+	 */
 	protected void runMunge(LinkedList<String> args) {
-		// run Munge
+		if (executor == null) {
+			// run Munge
+			final Munge m = new Munge();
+			m.setCharset(getCharset());
+			m.main(args.toArray(new String[0]), featureProject);
+			return;
+		}
+
+		final List<String> defines = new ArrayList<>();
+		final List<String> inputFiles = new ArrayList<>();
+		for (final String arg : args.subList(0, args.size() - 1)) {
+			if (arg.startsWith("-D")) {
+				defines.add(arg);
+			} else {
+				inputFiles.add(arg);
+			}
+		}
+		final String outputDirectory = args.getLast();
+		for (final String inputFile : inputFiles) {
+			final String outputFile = new File(outputDirectory, new File(inputFile).getName()).getAbsolutePath();
+			outputFiles.add(outputFile);
+			final String[] fileArgs = new String[defines.size() + 2];
+			defines.toArray(fileArgs);
+			fileArgs[defines.size()] = inputFile;
+			fileArgs[defines.size() + 1] = outputDirectory;
+			tasks.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					runMunge(fileArgs, inputFile, outputFile);
+					return null;
+				}
+			}));
+		}
+	}
+
+	/**
+	 * Preprocesses a single file, unless the cache shows that its output is up to date. Called by the worker threads of
+	 * {@link #preprocessSourceFiles(IFolder)}.
+	 */
+	private void runMunge(String[] args, String inputFile, String outputFile) throws IOException {
+		final List<String> lines = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(inputFile), charset))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		final long hash = PreprocessorFileCache.hash(lines);
+		if (useFileCache && new File(outputFile).exists() && fileCache.isUpToDate(outputFile, hash, selectedFeatures)) {
+			return;
+		}
+
 		final Munge m = new Munge();
-		m.main(args.toArray(new String[0]), featureProject);
+		m.setCharset(charset);
+		m.main(args, featureProject);
+
+		if (useFileCache) {
+			if (m.hasErrors()) {
+				// process again on the next build to recreate the error markers
+				fileCache.remove(outputFile);
+			} else {
+				fileCache.update(outputFile, hash, getReferencedNames(lines), selectedFeatures, Collections.<String> emptySet());
+			}
+		}
+	}
+
+	/**
+	 * @return the default encoding of the project; the encoding of the platform, if it is not available
+	 */
+	private Charset getCharset() {
+		try {
+			return Charset.forName(featureProject.getProject().getDefaultCharset());
+		} catch (CoreException | IllegalArgumentException e) {
+			MungeCorePlugin.getDefault().logError(e);
+			return Charset.defaultCharset();
+		}
+	}
+
+	/**
+	 * Returns all names that occur in a Munge instruction of the given lines. Thus, the result contains all features that may influence the preprocessing of
+	 * the file.
+	 */
+	private static Set<String> getReferencedNames(List<String> lines) {
+		final Set<String> names = new HashSet<>();
+		for (final String line : lines) {
+			final Matcher matcher = OP_PATTERN.matcher(line);
+			while (matcher.find()) {
+				for (final String name : NAME_PATTERN.split(matcher.group(3))) {
+					if (!name.isEmpty()) {
+						names.add(name);
+					}
+				}
+			}
+		}
+		return names;
 	}
 
 	protected void createBuildFolder(IFolder buildFolder) throws CoreException {
@@ -32,15 +32,18 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.UNMATCHED_END_
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.StreamTokenizer;
 import java.io.StringWriter;
+import java.nio.charset.Charset;
 import java.util.EmptyStackException;
 import java.util.Hashtable;
 import java.util.NoSuchElementException;
@@ -112,10 +115,14 @@ import de.ovgu.featureide.munge.MungeCorePlugin;
  */
 public class Munge {
 
-	static Hashtable<String, Object> symbols = new Hashtable<String, Object>(2);
+	// not static, so that several instances can run concurrently with their own definitions
+	Hashtable<String, Object> symbols = new Hashtable<String, Object>(2);
 
-	static Vector<String> oldTextStrings = new Vector<String>();
-	static Vector<String> newTextStrings = new Vector<String>();
+	Vector<String> oldTextStrings = new Vector<String>();
+	Vector<String> newTextStrings = new Vector<String>();
+
+	/** the encoding of the input and output files */
+	Charset charset = Charset.defaultCharset();
 
 	int errors = 0;
 	int line = 1;
@@ -218,14 +225,26 @@ public class Munge {
 		return (errors > 0);
 	}
 
+	/**
+	 * @param charset the encoding of the input and output files of {@link #main(String[], IFeatureProject)}
+	 */
+	public void setCharset(Charset charset) {
+		this.charset = charset;
+	}
+
 	public Munge(String inName, String outName, IFeatureProject featureProject) {
+		this(inName, outName, featureProject, Charset.defaultCharset());
+	}
+
+	public Munge(String inName, String outName, IFeatureProject featureProject, Charset charset) {
 		this.featureProject = featureProject;
+		this.charset = charset;
 		this.inName = inName;
 		if (inName == null) {
 			in = new BufferedReader(new InputStreamReader(System.in));
 		} else {
 			try {
-				in = new BufferedReader(new FileReader(inName));
+				in = new BufferedReader(new InputStreamReader(new FileInputStream(inName), charset));
 			} catch (final FileNotFoundException fnf) {
 				MungeCorePlugin.getDefault().logWarning(CANNOT_FIND_INPUT_FILE + inName);
 				errors++;
@@ -237,7 +256,7 @@ public class Munge {
 			out = new PrintWriter(System.out);
 		} else {
 			try {
-				out = new PrintWriter(new FileWriter(outName));
+				out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(outName), charset));
 			} catch (final IOException ioe) {
 				MungeCorePlugin.getDefault().logError(CANNOT_WRITE_TO_FILE + outName, ioe);
 				errors++;
@@ -545,7 +564,10 @@ public class Munge {
 		// Now do the munging.
 		for (int i = 0; i < inFiles.length; i++) {
 
-			final Munge munge = new Munge(inFiles[i], outFiles[i], featureProject);
+			final Munge munge = new Munge(inFiles[i], outFiles[i], featureProject, charset);
+			munge.symbols = symbols;
+			munge.oldTextStrings = oldTextStrings;
+			munge.newTextStrings = newTextStrings;
 			if (munge.hasErrors()) {
 				munge.printErrorCount();
 
@@ -561,6 +583,7 @@ public class Munge {
 
 			if (munge.hasErrors()) {
 				munge.printErrorCount();
+				errors += munge.errors;
 				// System.exit(munge.errors);
 			}
 		}
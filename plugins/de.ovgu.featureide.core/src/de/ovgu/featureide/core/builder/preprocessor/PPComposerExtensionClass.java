@@ -26,7 +26,6 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.PREPROCESSOR;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -42,12 +41,11 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.prop4j.And;
+import org.prop4j.ContextSatSolver;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
 import org.prop4j.Not;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
@@ -115,6 +113,15 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected boolean voidFeatureModel;
 
+	/**
+	 * Checks all annotations of a build against {@link #featureModel}. Recreated whenever {@link #featureModel} is replaced.</br> The solver is not thread-safe,
+	 * but the annotation checking jobs may use it while the builder prepares the next build. Thus, it is only created and used while holding
+	 * {@link #annotationSolverLock}.
+	 */
+	private ContextSatSolver annotationSolver;
+	private Node annotationSolverModel;
+	private final Object annotationSolverLock = new Object();
+
 	/**
 	 * Preprocessor name used for messages in build markers (must set in subclass).
 	 */
@@ -213,11 +220,14 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		}
 
 		// create expression of feature model
-		featureModel = AdvancedNodeCreator.createNodes(fm);
-		try {
-			voidFeatureModel = !new SatSolver(featureModel, 1000).isSatisfiable();
-		} catch (final TimeoutException e) {
-			voidFeatureModel = false;
+		final Node newFeatureModel = AdvancedNodeCreator.createNodes(fm);
+		synchronized (annotationSolverLock) {
+			featureModel = newFeatureModel;
+			try {
+				voidFeatureModel = !getAnnotationSolver().isSatisfiable();
+			} catch (final TimeoutException e) {
+				voidFeatureModel = false;
+			}
 		}
 
 		featureList = Functional.toList(FeatureUtils.extractFeatureNames(fm.getFeatures()));
@@ -231,63 +241,66 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * @return the status of the annotation
 	 */
 	protected AnnotationStatus isContradictionOrTautology() {
-		final Node expression = expressionStack.peek();
-
-		Node nestedExpressions = null;
-		if (expressionStack.size() > 1) {
-			Node[] children = expressionStack.toArray(new Node[expressionStack.size()]);
-			children = Arrays.copyOfRange(children, 0, children.length - 1); // Exclude the topmost expression because it is examined separately.
-			nestedExpressions = new And(children);
-		}
-
-		try {
-			return isContradictionOrTautology(expression, featureModel, nestedExpressions);
-		} catch (final TimeoutException e) {
-			CorePlugin.getDefault().logError(e);
-			return AnnotationStatus.NORMAL;
-		}
-	}
-
-	private AnnotationStatus isContradictionOrTautology(Node expression, Node featureModel, Node nestedExpressions) throws TimeoutException {
 		if (voidFeatureModel) {
 			return AnnotationStatus.VOID;
 		}
 
-		/*
-		 * -SAT(expression)
-		 */
-		if (!new SatSolver(expression, 1000).isSatisfiable()) {
-			return AnnotationStatus.CONTRADICTION;
-		}
+		final Node expression = expressionStack.peek();
+		// The nested expressions followed by the expression itself.
+		final Node[] expressions = expressionStack.toArray(new Node[expressionStack.size()]);
+		synchronized (annotationSolverLock) {
+			final ContextSatSolver solver = getAnnotationSolver();
+			try {
+				/*
+				 * -SAT(expression)
+				 */
+				if (!solver.isSatisfiable(false, expression)) {
+					return AnnotationStatus.CONTRADICTION;
+				}
 
-		/*
-		 * -SAT(-expression)
-		 */
-		if (!new SatSolver(new Not(expression), 1000).isSatisfiable()) {
-			return AnnotationStatus.TAUTOLOGY;
-		}
+				/*
+				 * -SAT(-expression)
+				 */
+				final Node negatedExpression = new Not(expression);
+				if (!solver.isSatisfiable(false, negatedExpression)) {
+					return AnnotationStatus.TAUTOLOGY;
+				}
 
-		Node context = featureModel;
-		if (nestedExpressions != null) {
-			context = new And(context, nestedExpressions);
-		}
+				/*
+				 * -SAT(FM & nestedExpressions & expression)
+				 */
+				if (!solver.isSatisfiable(true, expressions)) {
+					return AnnotationStatus.DEAD;
+				}
 
-		/*
-		 * -SAT(FM & nestedExpressions & expression)
-		 */
-		if (!new SatSolver(new And(context, expression), 1000).isSatisfiable()) {
-			return AnnotationStatus.DEAD;
+				/*
+				 * TAUT(FM & nestedExpressions => expression) = -SAT(-(FM & nestedExpressions => expression)) =
+				 * -SAT(-(-(FM & nestedExpressions) | expression)) = -SAT(-(-FM | -nestedExpressions | expression)) =
+				 * -SAT(FM & nestedExpressions & -expression)
+				 */
+				expressions[expressions.length - 1] = negatedExpression;
+				if (!solver.isSatisfiable(true, expressions)) {
+					return AnnotationStatus.SUPERFLUOUS;
+				}
+			} catch (final TimeoutException e) {
+				CorePlugin.getDefault().logError(e);
+			}
 		}
+		return AnnotationStatus.NORMAL;
+	}
 
-		/*
-		 * TAUT(FM & nestedExpressions => expression) = -SAT(-(FM & nestedExpressions => expression)) = -SAT(-(-(FM & nestedExpressions) | expression)) =
-		 * -SAT(-(-FM | -nestedExpressions | expression)) = -SAT(FM & nestedExpressions & -expression)
-		 */
-		if (!new SatSolver(new And(context, new Not(expression)), 1000).isSatisfiable()) {
-			return AnnotationStatus.SUPERFLUOUS;
+	/**
+	 * Returns the solver for checking annotations against the current {@link #featureModel}. The solver keeps the feature model and all checked expressions
+	 * between calls, such that the feature model is translated only once per build. Must only be called while holding {@link #annotationSolverLock}.
+	 *
+	 * @return the solver; not null
+	 */
+	private ContextSatSolver getAnnotationSolver() {
+		if ((annotationSolver == null) || (annotationSolverModel != featureModel)) {
+			annotationSolver = new ContextSatSolver(featureModel, 1000);
+			annotationSolverModel = featureModel;
 		}
-
-		return AnnotationStatus.NORMAL;
+		return annotationSolver;
 	}
 
 	/**
@@ -452,6 +465,23 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		}
 	}
 
+	/**
+	 * Deletes the markers of the annotation checking of the given file. Other builder markers (e.g., errors of the preprocessor) are kept.
+	 *
+	 * @param file the file
+	 */
+	protected void deletePreprocessorAnotationMarkers(IFile file) {
+		try {
+			for (final IMarker marker : file.findMarkers(BUILDER_MARKER, false, IResource.DEPTH_ZERO)) {
+				if (isPreprocessorAnotationMarker(marker)) {
+					marker.delete();
+				}
+			}
+		} catch (final CoreException e) {
+			CorePlugin.getDefault().logError(e);
+		}
+	}
+
 	/**
 	 * @param marker
 	 * @return
@@ -0,0 +1,166 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.builder.preprocessor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers for each source file of a preprocessor project the content it had after it was last checked and preprocessed, together with the features its
+ * directives refer to and their selection at that time.</br> An incremental build only needs to process a file again, if its content changed or if one of its
+ * referenced features was selected or deselected since then. All entries become invalid, if the feature model changes.</br> All methods are thread-safe.
+ */
+public class PreprocessorFileCache {
+
+	private static final class Entry {
+
+		private final long hash;
+		private final String[] referencedFeatures;
+		private final boolean[] selection;
+		private final Set<String> usedFeatures;
+
+		private Entry(long hash, String[] referencedFeatures, boolean[] selection, Set<String> usedFeatures) {
+			this.hash = hash;
+			this.referencedFeatures = referencedFeatures;
+			this.selection = selection;
+			this.usedFeatures = usedFeatures;
+		}
+
+	}
+
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private Long context;
+
+	/**
+	 * Computes a 64-bit FNV-1a hash of the given lines including their line breaks.
+	 *
+	 * @param lines the content of a file
+	 * @return the hash value
+	 */
+	public static long hash(List<String> lines) {
+		long hash = 0xcbf29ce484222325L;
+		for (final String line : lines) {
+			for (int i = 0; i < line.length(); i++) {
+				hash = (hash ^ line.charAt(i)) * 0x100000001b3L;
+			}
+			hash = (hash ^ '\n') * 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Sets the context of all entries. If the given context is not equal to the previous one, all entries are removed.
+	 *
+	 * @param context a {@link #hash(List) hash} of everything the entries depend on besides the files themselves (e.g., the feature model)
+	 */
+	public synchronized void setContext(long context) {
+		if ((this.context == null) || (this.context != context)) {
+			entries.clear();
+		}
+		this.context = context;
+	}
+
+	/**
+	 * Checks whether the given file needs to be processed again.
+	 *
+	 * @param file a unique key of the file (e.g., its path)
+	 * @param hash the {@link #hash(List) hash} of the current content of the file
+	 * @param selectedFeatures the names of all currently selected features
+	 * @return {@code true} if the file was processed with the same content and the same selection of its referenced features, {@code false} otherwise
+	 */
+	public synchronized boolean isUpToDate(String file, long hash, Set<String> selectedFeatures) {
+		final Entry entry = entries.get(file);
+		if ((entry == null) || (entry.hash != hash)) {
+			return false;
+		}
+		for (int i = 0; i < entry.referencedFeatures.length; i++) {
+			if (entry.selection[i] != selectedFeatures.contains(entry.referencedFeatures[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the result of processing the given file.
+	 *
+	 * @param file a unique key of the file (e.g., its path)
+	 * @param hash the {@link #hash(List) hash} of the content of the file after it was processed
+	 * @param referencedFeatures all names that the directives of the file refer to (may contain names that are no features)
+	 * @param selectedFeatures the names of all currently selected features
+	 * @param usedFeatures the features that were found in the checked annotations of the file
+	 */
+	public synchronized void update(String file, long hash, Collection<String> referencedFeatures, Set<String> selectedFeatures,
+			Collection<String> usedFeatures) {
+		final String[] names = referencedFeatures.toArray(new String[referencedFeatures.size()]);
+		Arrays.sort(names);
+		final boolean[] selection = new boolean[names.length];
+		for (int i = 0; i < names.length; i++) {
+			selection[i] = selectedFeatures.contains(names[i]);
+		}
+		entries.put(file, new Entry(hash, names, selection, new HashSet<>(usedFeatures)));
+	}
+
+	/**
+	 * @param file a unique key of the file
+	 * @return the features that were found in the checked annotations of the file, when it was last processed
+	 */
+	public synchronized Set<String> getUsedFeatures(String file) {
+		final Entry entry = entries.get(file);
+		return (entry == null) ? Collections.<String> emptySet() : Collections.unmodifiableSet(entry.usedFeatures);
+	}
+
+	public synchronized void remove(String file) {
+		entries.remove(file);
+	}
+
+	/**
+	 * Removes the entries of all files that are not contained in the given collection (e.g., because they were deleted).
+	 *
+	 * @param files the keys of all existing files
+	 */
+	public synchronized void retainAll(Collection<String> files) {
+		final Set<String> fileSet = new HashSet<>(files);
+		for (final Iterator<String> it = entries.keySet().iterator(); it.hasNext();) {
+			if (!fileSet.contains(it.next())) {
+				it.remove();
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		context = null;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+}
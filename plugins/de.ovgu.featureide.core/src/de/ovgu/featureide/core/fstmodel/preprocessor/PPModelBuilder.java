@@ -26,9 +26,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.Vector;
 
 import org.eclipse.core.resources.IFile;
@@ -50,6 +55,7 @@ import de.ovgu.featureide.core.signature.base.AbstractFieldSignature;
 import de.ovgu.featureide.core.signature.base.AbstractMethodSignature;
 import de.ovgu.featureide.core.signature.base.AbstractSignature;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.util.MultiStringMatcher;
 import de.ovgu.featureide.fm.core.functional.Functional;
 
 /**
@@ -66,6 +72,30 @@ public class PPModelBuilder {
 	protected FSTModel modelOutline;
 	protected Collection<String> featureNames = Collections.emptyList();
 
+	/**
+	 * Finds all concrete feature names in a single pass over a file. Recreated whenever the concrete features change.
+	 */
+	private MultiStringMatcher featureMatcher = new MultiStringMatcher(Collections.<String> emptyList());
+
+	/**
+	 * The features referenced by each file, which are reused as long as the file is not modified and the concrete features do not change.
+	 */
+	private final Map<String, FileFeatures> fileFeatures = new HashMap<>();
+
+	private static final class FileFeatures {
+
+		private final long lastModified;
+		private final long length;
+		private final Set<String> features;
+
+		private FileFeatures(long lastModified, long length, Set<String> features) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.features = features;
+		}
+
+	}
+
 	public PPModelBuilder(IFeatureProject featureProject) {
 		model = new FSTModelForPP(featureProject);
 		modelOutline = new FSTModel(featureProject);
@@ -83,11 +113,17 @@ public class PPModelBuilder {
 			model.addFeature(featureName);
 			modelOutline.addFeature(featureName);
 		}
+		if (!featureMatcher.getPatterns().equals(new ArrayList<>(new LinkedHashSet<>(featureNames)))) {
+			featureMatcher = new MultiStringMatcher(featureNames);
+			fileFeatures.clear();
+		}
+		final Set<String> visitedFiles = new HashSet<>();
 		try {
-			buildModel(featureProject.getSourceFolder(), featureProject.getSourcePath());
+			buildModel(featureProject.getSourceFolder(), featureProject.getSourcePath(), visitedFiles);
 		} catch (final CoreException e) {
 			CorePlugin.getDefault().logError(e);
 		}
+		fileFeatures.keySet().retainAll(visitedFiles);
 		featureProject.setFSTModel(model);
 	}
 
@@ -98,19 +134,21 @@ public class PPModelBuilder {
 	 * @param packageName
 	 * @throws CoreException
 	 */
-	private void buildModel(IFolder folder, String packageName) throws CoreException {
+	private void buildModel(IFolder folder, String packageName, Set<String> visitedFiles) throws CoreException {
 		for (final IResource res : folder.members()) {
 			if (res instanceof IFolder) {
-				buildModel((IFolder) res, packageName.isEmpty() ? res.getName() : packageName + "/" + res.getName());
+				buildModel((IFolder) res, packageName.isEmpty() ? res.getName() : packageName + "/" + res.getName(), visitedFiles);
 			} else if (res instanceof IFile) {
 				currentFile = (IFile) res;
-				final String text = getText(currentFile);
 				final String className = packageName.isEmpty() ? res.getName() : packageName + "/" + res.getName();
 
 				final Vector<String> lines = PPComposerExtensionClass.loadStringsFromFile(currentFile);
+				final String key = currentFile.getFullPath().toString();
+				visitedFiles.add(key);
+				final Set<String> referencedFeatures = getReferencedFeatures(currentFile, key);
 				boolean classAdded = false;
 				for (final String feature : featureNames) {
-					if (containsFeature(text, feature)) {
+					if (referencedFeatures.contains(feature)) {
 						model.addRole(feature, model.getAbsoluteClassName(currentFile), currentFile);
 						classAdded = true;
 					}
@@ -269,7 +307,37 @@ public class PPModelBuilder {
 	}
 
 	/**
-	 * This method should be implemented by preprocessor plug-ins. Return true if the file contains the feature.
+	 * Returns all concrete features that are referenced in the given file (i.e., for which {@link #containsFeature(String, String)} returns true). The result
+	 * of the last build is reused, if the file was not modified since then.
+	 *
+	 * @param file the file
+	 * @param key a unique key of the file
+	 * @return the referenced features
+	 */
+	private Set<String> getReferencedFeatures(IFile file, String key) {
+		final File localFile = file.getRawLocation().toFile();
+		final long lastModified = localFile.lastModified();
+		final long length = localFile.length();
+		final FileFeatures cachedFeatures = fileFeatures.get(key);
+		if ((cachedFeatures != null) && (cachedFeatures.lastModified == lastModified) && (cachedFeatures.length == length) && (lastModified != 0)) {
+			return cachedFeatures.features;
+		}
+
+		final String text = getText(file);
+		final Set<String> features = new HashSet<>();
+		// every feature that is contained according to containsFeature also occurs as substring
+		for (final String feature : featureMatcher.findAll(text)) {
+			if (containsFeature(text, feature)) {
+				features.add(feature);
+			}
+		}
+		fileFeatures.put(key, new FileFeatures(lastModified, length, features));
+		return features;
+	}
+
+	/**
+	 * This method should be implemented by preprocessor plug-ins. Return true if the file contains the feature.<br> Is only called for features whose name
+	 * occurs in the text.
 	 *
 	 * @param text The file text.
 	 * @param feature The current feature.
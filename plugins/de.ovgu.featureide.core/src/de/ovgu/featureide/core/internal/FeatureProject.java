@@ -108,14 +108,16 @@ import de.ovgu.featureide.fm.core.base.impl.ExtendedFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
-import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
-import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.configuration.SelectionMatrix;
+import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
 import de.ovgu.featureide.fm.core.filter.HashSetFilter;
 import de.ovgu.featureide.fm.core.filter.base.InverseFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.AnalysisCache;
 import de.ovgu.featureide.fm.core.io.FeatureOrderFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.AFileManager;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
@@ -143,6 +145,8 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 
 	private static final String FEATURE_MODULE_MARKER = "de.ovgu.featureide.core.featureModuleMarker";
 
+	private static final String SELECTION_MATRIX_SUFFIX = "selections";
+
 	public class FeatureModelChangeListner implements IEventListener {
 
 		/**
@@ -274,12 +278,12 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 			next(CALCULATE_CORE_AND_DEAD_FEATURES, workMonitor);
 			final List<String> concreteFeatures = getOptionalConcreteFeatures();
 			next(GET_SELECTION_MATRIX, workMonitor);
-			final boolean[][] selectionMatrix = getSelectionMatrix(concreteFeatures);
+			final SelectionMatrix selectionMatrix = getSelectionMatrix(concreteFeatures);
 			next(GET_FALSE_OPTIONAL_FEATURES, workMonitor);
-			final Collection<String> falseOptionalFeatures = getFalseOptionalConfigurationFeatures(selectionMatrix, concreteFeatures);
+			final Collection<String> falseOptionalFeatures = selectionMatrix.getAlwaysSelectedFeatures();
 			next(GET_UNUSED_FEATURES, workMonitor);
 			workMonitor.checkCancel();
-			final Collection<String> deadFeatures = getUnusedConfigurationFeatures(selectionMatrix, concreteFeatures);
+			final Collection<String> deadFeatures = selectionMatrix.getUnusedFeatures();
 			next("create marker: dead features", workMonitor);
 			if (!deadFeatures.isEmpty()) {
 				createConfigurationMarker(folder, MARKER_NEVER_SELECTED + deadFeatures.size() + (deadFeatures.size() > 1 ? " features are " : " feature is ")
@@ -1149,63 +1153,44 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 
 	@Override
 	public Collection<String> getFalseOptionalConfigurationFeatures() {
-		return getFalseOptionalConfigurationFeatures(getSelectionMatrix(), (List<String>) getOptionalConcreteFeatures());
+		return getSelectionMatrix().getAlwaysSelectedFeatures();
 	}
 
 	public Collection<String> getFalseOptionalConfigurationFeatures(boolean[][] selections, final List<String> concreteFeatures) {
-		return checkValidSelections(selections, false, concreteFeatures);
+		return SelectionMatrix.fromArray(concreteFeatures, selections).getAlwaysSelectedFeatures();
 	}
 
 	@Override
 	public Collection<String> getUnusedConfigurationFeatures() {
-		return getUnusedConfigurationFeatures(getSelectionMatrix(), (List<String>) getOptionalConcreteFeatures());
+		return getSelectionMatrix().getUnusedFeatures();
 	}
 
 	public Collection<String> getUnusedConfigurationFeatures(boolean[][] selections, final List<String> concreteFeatures) {
-		return checkValidSelections(selections, true, concreteFeatures);
-	}
-
-	private List<String> checkValidSelections(boolean[][] selections, boolean selectionState, final List<String> concreteFeatures) {
-		if (selections.length == 0) {
-			return Collections.emptyList();
-		}
-		final List<String> falseOptionalFeatures = new ArrayList<>();
-		columnLoop: for (int column = 0; column < concreteFeatures.size(); column++) {
-			for (int conf = 0; conf < selections.length; conf++) {
-				if (selections[conf][column] == selectionState) {
-					continue columnLoop;
-				}
-			}
-			falseOptionalFeatures.add(concreteFeatures.get(column));
-		}
-		return falseOptionalFeatures;
+		return SelectionMatrix.fromArray(concreteFeatures, selections).getUnusedFeatures();
 	}
 
-	private boolean[][] getSelectionMatrix() {
+	private SelectionMatrix getSelectionMatrix() {
 		return getSelectionMatrix(getOptionalConcreteFeatures());
 	}
 
-	private boolean[][] getSelectionMatrix(final Collection<String> concreteFeatures) {
-		final List<IFile> configurations = getAllConfigurations();
-
-		final boolean[][] selections = new boolean[configurations.size()][concreteFeatures.size()];
-		final Configuration configuration = new Configuration(featureModelManager.getObject(), Configuration.PARAM_IGNOREABSTRACT | Configuration.PARAM_LAZY);
-
-		int row = 0;
-		for (final IFile file : configurations) {
-			final boolean[] currentRow = selections[row++];
-			ConfigurationManager.load(Paths.get(file.getLocationURI()), configuration);
-
-			int column = 0;
-			for (final String feature : concreteFeatures) {
-				final SelectableFeature selectablefeature = configuration.getSelectablefeature(feature);
-				if (selectablefeature != null) {
-					currentRow[column] = selectablefeature.getSelection() == Selection.SELECTED;
-				}
-				column++;
+	/**
+	 * Returns the selections of all configurations. The matrix is restored from the {@link AnalysisCache} of the configuration folder, if neither the features
+	 * nor the configuration files changed since it was stored.
+	 */
+	private SelectionMatrix getSelectionMatrix(final Collection<String> concreteFeatures) {
+		final List<java.nio.file.Path> files = new ArrayList<>();
+		for (final IFile file : getAllConfigurations()) {
+			files.add(Paths.get(file.getLocationURI()));
+		}
+		AnalysisCache cache = null;
+		if (configFolder.isAccessible()) {
+			try {
+				cache = new AnalysisCache(AFileManager.constructExtraPath(Paths.get(configFolder.getLocationURI()), SELECTION_MATRIX_SUFFIX));
+			} catch (final IllegalArgumentException e) {
+				LOGGER.logError(e);
 			}
 		}
-		return selections;
+		return new ConfigurationLoader().loadSelectionMatrix(featureModelManager.getObject(), files, concreteFeatures, cache);
 	}
 
 	private List<String> getOptionalConcreteFeatures() {
@@ -25,6 +25,12 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.ANALYZE;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATE_INDETRMINATE_HIDDEN_FEATURES;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATE_INDETRMINATE_HIDDEN_FEATURES_FOR;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -44,7 +50,11 @@ import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
 import org.prop4j.SatSolver;
+import org.prop4j.analyses.FGBuilder;
 import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.IncrementalCoreDeadAnalysis;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -57,7 +67,11 @@ import de.ovgu.featureide.fm.core.base.IFeatureStructure;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.conf.AFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
 import de.ovgu.featureide.fm.core.editing.NodeCreator;
 import de.ovgu.featureide.fm.core.explanations.Explanation;
 import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanation;
@@ -69,6 +83,7 @@ import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanation
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanationCreator;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.functional.Functional.IFunction;
+import de.ovgu.featureide.fm.core.io.AnalysisCache;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
@@ -157,6 +172,10 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * Defines whether analysis should be performed automatically.
 	 */
 	public boolean runCalculationAutomatically = true;
+	/**
+	 * Defines whether analysis results should be stored in and restored from a persistent {@link AnalysisCache} next to the feature model file.
+	 */
+	private boolean useAnalysisCache = false;
 
 	/**
 	 * A flag indicating that the calculation should be canceled.
@@ -167,6 +186,20 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	private FeatureDependencies dependencies;
 
+	/**
+	 * Keeps the solver for core and dead features alive between analyses. Reset on any structural change of the feature model.
+	 */
+	private IncrementalCoreDeadAnalysis incrementalCoreDeadAnalysis;
+
+	/**
+	 * The structure formula and the variable order {@link #incrementalCoreDeadAnalysis} was built from. Used to detect structural changes that were not
+	 * announced by an event.
+	 */
+	private Node incrementalCoreDeadStructure;
+	private List<String> incrementalCoreDeadFeatureNames;
+
+	private AnalysisCache analysisCache;
+
 	/**
 	 * Returns the cached value. Calculated on the first call and on each call of updateFeatureModel().
 	 *
@@ -563,6 +596,32 @@ public class FeatureModelAnalyzer implements IEventListener {
 	}
 
 	public List<List<IFeature>> getAtomicSets() {
+		final AnalysisCache cache = useAnalysisCache ? getAnalysisCache() : null;
+		byte[] fingerprint = null;
+		if (cache != null) {
+			fingerprint = AnalysisCache.computeFingerprint(fm);
+			final byte[] cachedAtomicSets = cache.getSection(fingerprint, "atomicSets");
+			if (cachedAtomicSets != null) {
+				try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(cachedAtomicSets))) {
+					final ArrayList<List<IFeature>> result = new ArrayList<>();
+					final int size = in.readInt();
+					for (int i = 0; i < size; i++) {
+						final List<IFeature> setList = new ArrayList<>();
+						result.add(setList);
+						for (final String name : AnalysisCache.readNames(in)) {
+							final IFeature feature = fm.getFeature(name);
+							if (feature != null) {
+								setList.add(feature);
+							}
+						}
+					}
+					return result;
+				} catch (final IOException e) {
+					Logger.logError(e);
+				}
+			}
+		}
+
 		final ArrayList<List<IFeature>> result = new ArrayList<>();
 
 		final SatSolver solver = new SatSolver(getCnf(), 1000, false);
@@ -581,9 +640,88 @@ public class FeatureModelAnalyzer implements IEventListener {
 			}
 
 		}
+
+		if (cache != null) {
+			final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(byteOut)) {
+				out.writeInt(result.size());
+				for (final List<IFeature> setList : result) {
+					AnalysisCache.writeNames(out, Functional.map(setList, FeatureUtils.GET_FEATURE_NAME));
+				}
+			} catch (final IOException e) {
+				Logger.logError(e);
+				return result;
+			}
+			cache.putSection(fingerprint, "atomicSets", byteOut.toByteArray());
+		}
 		return result;
 	}
 
+	/**
+	 * Builds the feature graph of the feature model. If the {@link #setUseAnalysisCache(boolean) analysis cache is used}, a previously built graph of an
+	 * unchanged feature model is restored from the {@link AnalysisCache}.
+	 *
+	 * @param monitor the monitor
+	 * @return the feature graph or {@code null} if the computation was canceled
+	 */
+	public IFeatureGraph getFeatureGraph(IMonitor monitor) {
+		final SatInstance satInstance = new SatInstance(getCnf(), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+		final AnalysisCache cache = useAnalysisCache ? getAnalysisCache() : null;
+		byte[] fingerprint = null;
+		if (cache != null) {
+			fingerprint = AnalysisCache.computeFingerprint(fm);
+			final byte[] cachedGraph = cache.getSection(fingerprint, "featureGraph");
+			if (cachedGraph != null) {
+				try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(cachedGraph))) {
+					return AFeatureGraph.readGraph(in, satInstance);
+				} catch (final IOException e) {
+					Logger.logError(e);
+				}
+			}
+		}
+
+		final IFeatureGraph featureGraph = LongRunningWrapper.runMethod(new FGBuilder(satInstance), monitor);
+
+		if ((cache != null) && (featureGraph != null)) {
+			final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(byteOut)) {
+				AFeatureGraph.writeGraph(out, featureGraph);
+			} catch (final IOException e) {
+				Logger.logError(e);
+				return featureGraph;
+			}
+			cache.putSection(fingerprint, "featureGraph", byteOut.toByteArray());
+		}
+		return featureGraph;
+	}
+
+	public boolean isUseAnalysisCache() {
+		return useAnalysisCache;
+	}
+
+	public void setUseAnalysisCache(boolean useAnalysisCache) {
+		this.useAnalysisCache = useAnalysisCache;
+	}
+
+	/**
+	 * Returns the persistent cache for the analysis results of the feature model. Creates it first if necessary.
+	 *
+	 * @return the cache; null if the feature model has no source file
+	 */
+	public AnalysisCache getAnalysisCache() {
+		final Path sourceFile = fm.getSourceFile();
+		if (sourceFile == null) {
+			return null;
+		}
+		final Path cachePath = AnalysisCache.getCachePath(sourceFile);
+		AnalysisCache cache = analysisCache;
+		if ((cache == null) || !cache.getPath().equals(cachePath)) {
+			cache = new AnalysisCache(cachePath);
+			analysisCache = cache;
+		}
+		return cache;
+	}
+
 	/**
 	 * @param monitor
 	 * @return Hashmap: key entry is Feature/Constraint, value usually indicating the kind of attribute
@@ -596,6 +734,10 @@ public class FeatureModelAnalyzer implements IEventListener {
 	public HashMap<Object, Object> analyzeFeatureModel(IMonitor monitor) {
 		this.monitor = monitor == null ? new NullMonitor() : monitor;
 		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		analysis.setIncrementalCoreDeadAnalysis(getIncrementalCoreDeadAnalysis());
+		if (useAnalysisCache) {
+			analysis.setAnalysisCache(getAnalysisCache());
+		}
 		analysis.setCalculateFeatures(calculateFeatures);
 		analysis.setCalculateConstraints(calculateConstraints);
 		analysis.setCalculateRedundantConstraints(calculateRedundantConstraints);
@@ -639,6 +781,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	public void updateFeatures() {
 		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		analysis.setIncrementalCoreDeadAnalysis(getIncrementalCoreDeadAnalysis());
 		analysis.setCalculateFeatures(true);
 		analysis.setCalculateConstraints(false);
 		analysis.updateFeatures();
@@ -817,11 +960,13 @@ public class FeatureModelAnalyzer implements IEventListener {
 	@Override
 	public void propertyChange(FeatureIDEEvent event) {
 		switch (event.getEventType()) {
-		case ALL_FEATURES_CHANGED_NAME_TYPE: // Required because feature names are used as variable names.
-		case CHILDREN_CHANGED:
 		case CONSTRAINT_ADD:
 		case CONSTRAINT_DELETE:
 		case CONSTRAINT_MODIFY:
+			cnf = null;
+			break;
+		case ALL_FEATURES_CHANGED_NAME_TYPE: // Required because feature names are used as variable names.
+		case CHILDREN_CHANGED:
 		case FEATURE_ADD:
 		case FEATURE_ADD_ABOVE:
 		case FEATURE_DELETE:
@@ -836,6 +981,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 		case PARENT_CHANGED:
 		case STRUCTURE_CHANGED:
 			cnf = null;
+			incrementalCoreDeadAnalysis = null;
 			break;
 		default:
 			break;
@@ -858,6 +1004,65 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return cnf;
 	}
 
+	/**
+	 * Returns the incremental analysis for core and dead features. Creates it first if necessary.</br> As not every modification of the feature structure
+	 * fires an event, the cached analysis is only reused if it was built from the current structure formula.
+	 *
+	 * @return the analysis; null if the structure of the feature model is already unsatisfiable
+	 */
+	private IncrementalCoreDeadAnalysis getIncrementalCoreDeadAnalysis() {
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setModelType(ModelType.OnlyStructure);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setUseOldNames(false);
+		final Node structure = nodeCreator.createNodes();
+		final List<String> featureNames = FeatureUtils.getFeatureNamesPreorder(fm);
+
+		IncrementalCoreDeadAnalysis analysis = incrementalCoreDeadAnalysis;
+		if ((analysis == null) || !featureNames.equals(incrementalCoreDeadFeatureNames) || !equalsInOrder(structure, incrementalCoreDeadStructure)) {
+			incrementalCoreDeadAnalysis = null;
+			incrementalCoreDeadStructure = null;
+			incrementalCoreDeadFeatureNames = null;
+			try {
+				analysis = new IncrementalCoreDeadAnalysis(new SatInstance(structure, featureNames));
+			} catch (final ContradictionException e) {
+				return null;
+			}
+			incrementalCoreDeadAnalysis = analysis;
+			incrementalCoreDeadStructure = structure;
+			incrementalCoreDeadFeatureNames = featureNames;
+		}
+		return analysis;
+	}
+
+	/**
+	 * Compares two formulas including the order of their children. In contrast to {@link Node#equals(Object)}, this takes linear time.
+	 *
+	 * @param node1 first formula
+	 * @param node2 second formula; may be null
+	 * @return true if both formulas are syntactically identical
+	 */
+	private static boolean equalsInOrder(Node node1, Node node2) {
+		if ((node2 == null) || (node1.getClass() != node2.getClass())) {
+			return false;
+		}
+		if (node1 instanceof Literal) {
+			return node1.equals(node2);
+		}
+		final Node[] children1 = node1.getChildren();
+		final Node[] children2 = node2.getChildren();
+		if (children1.length != children2.length) {
+			return false;
+		}
+		for (int i = 0; i < children1.length; i++) {
+			if (!equalsInOrder(children1[i], children2[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Creates the feature model as a formula in conjunctive normal form.
 	 *
@@ -0,0 +1,141 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.event;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+
+/**
+ * Delivers events to another listener asynchronously.</br> Can be registered at any {@link IEventManager} instead of an expensive listener, such that firing an
+ * event does not wait for this listener. Events are delivered in the order in which they were fired, but never concurrently. Consecutive events with the same
+ * {@link EventType type} and source that are fired within the coalescing delay (or while the listener is still busy) are combined into a single
+ * {@link BatchedFeatureIDEEvent}. Thus, the listener reacts only once to a bulk edit.</br> A {@link DefaultEventManager} also finds this listener via the wrapped
+ * listener, such that it can be removed with the wrapped listener.
+ */
+public class AsynchronousEventListener implements IEventListener {
+
+	private static final ScheduledThreadPoolExecutor EXECUTOR;
+
+	static {
+		EXECUTOR = new ScheduledThreadPoolExecutor(Math.min(4, Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable r) {
+				final Thread thread = new Thread(r, "FeatureIDE Event Dispatcher");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	private final IEventListener listener;
+	private final long coalescingDelay;
+
+	private final ArrayDeque<List<FeatureIDEEvent>> pendingEvents = new ArrayDeque<>();
+	private boolean scheduled = false;
+
+	private final Runnable delivery = new Runnable() {
+
+		@Override
+		public void run() {
+			while (true) {
+				final List<FeatureIDEEvent> events;
+				synchronized (pendingEvents) {
+					events = pendingEvents.poll();
+					if (events == null) {
+						scheduled = false;
+						pendingEvents.notifyAll();
+						return;
+					}
+				}
+				try {
+					listener.propertyChange(events.size() == 1 ? events.get(0) : new BatchedFeatureIDEEvent(events));
+				} catch (final Throwable e) {
+					Logger.logError(e);
+				}
+			}
+		}
+	};
+
+	/**
+	 * @param listener the listener that receives the events
+	 * @param coalescingDelay the time in milliseconds that the first event waits for following events to be combined with.
+	 */
+	public AsynchronousEventListener(IEventListener listener, long coalescingDelay) {
+		this.listener = listener;
+		this.coalescingDelay = coalescingDelay;
+	}
+
+	@Override
+	public void propertyChange(FeatureIDEEvent event) {
+		synchronized (pendingEvents) {
+			final List<FeatureIDEEvent> lastEvents = pendingEvents.peekLast();
+			if ((lastEvents != null) && canBeCombined(lastEvents.get(0), event)) {
+				lastEvents.add(event);
+			} else {
+				final List<FeatureIDEEvent> events = new ArrayList<>();
+				events.add(event);
+				pendingEvents.add(events);
+			}
+			if (!scheduled) {
+				scheduled = true;
+				EXECUTOR.schedule(delivery, coalescingDelay, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	private static boolean canBeCombined(FeatureIDEEvent firstEvent, FeatureIDEEvent event) {
+		return (firstEvent.getEventType() == event.getEventType()) && (firstEvent.getSource() == event.getSource());
+	}
+
+	/**
+	 * Waits until all pending events are delivered.
+	 *
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @return {@code true} if all events were delivered, {@code false} if the timeout elapsed before
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public boolean waitForDelivery(long timeout) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + timeout;
+		synchronized (pendingEvents) {
+			while (scheduled) {
+				final long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return false;
+				}
+				pendingEvents.wait(remaining);
+			}
+		}
+		return true;
+	}
+
+	public IEventListener getListener() {
+		return listener;
+	}
+
+}
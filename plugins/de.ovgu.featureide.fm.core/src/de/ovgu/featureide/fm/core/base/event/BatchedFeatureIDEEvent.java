@@ -0,0 +1,56 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.event;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Combines several consecutive events with the same {@link EventType type} and source into a single event.</br> The old value is the old value of the first
+ * event and the new value is the new value of the last event. All combined events are available via {@link #getEvents()}.
+ *
+ * @see AsynchronousEventListener
+ */
+public class BatchedFeatureIDEEvent extends FeatureIDEEvent {
+
+	private final List<FeatureIDEEvent> events;
+
+	/**
+	 * @param events the combined events; must not be empty and all events must have the same type and source
+	 */
+	public BatchedFeatureIDEEvent(List<FeatureIDEEvent> events) {
+		super(events.get(0).getSource(), events.get(0).getEventType(), events.get(0).getOldValue(), events.get(events.size() - 1).getNewValue());
+		this.events = Collections.unmodifiableList(events);
+	}
+
+	/**
+	 * @return the combined events in the order in which they were fired.
+	 */
+	public List<FeatureIDEEvent> getEvents() {
+		return events;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchedFeatureIDEEvent [source=" + getSource() + ", eventType=" + getEventType() + ", events=" + events.size() + "]";
+	}
+
+}
@@ -20,29 +20,49 @@
  */
 package de.ovgu.featureide.fm.core.base.event;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import de.ovgu.featureide.fm.core.Logger;
 
 /**
- * Default implementation of {@link IEventManager}.
+ * Default implementation of {@link IEventManager}.</br> Listeners are stored in a copy-on-write list, such that firing an event does not block other threads
+ * and listeners can be added or removed while an event is fired. Expensive listeners can be wrapped in an {@link AsynchronousEventListener}.
  *
  * @author Sebastian Krieter
  */
 public class DefaultEventManager implements IEventManager, IEventListener {
 
-	protected final List<IEventListener> listenerList = new LinkedList<>();
+	protected final List<IEventListener> listenerList = new CopyOnWriteArrayList<>();
 
 	@Override
 	public synchronized void addListener(IEventListener listener) {
-		if (!listenerList.contains(listener)) {
+		if (indexOf(listener) < 0) {
 			listenerList.add(listener);
 		}
 	}
 
+	/**
+	 * An {@link AsynchronousEventListener} is also found via the listener it wraps.
+	 */
+	private int indexOf(IEventListener listener) {
+		final IEventListener unwrappedListener = unwrap(listener);
+		int index = 0;
+		for (final IEventListener otherListener : listenerList) {
+			if (otherListener.equals(listener) || unwrap(otherListener).equals(unwrappedListener)) {
+				return index;
+			}
+			index++;
+		}
+		return -1;
+	}
+
+	private static IEventListener unwrap(IEventListener listener) {
+		return (listener instanceof AsynchronousEventListener) ? ((AsynchronousEventListener) listener).getListener() : listener;
+	}
+
 	@Override
-	public synchronized void fireEvent(FeatureIDEEvent event) {
+	public void fireEvent(FeatureIDEEvent event) {
 		for (final IEventListener listener : listenerList) {
 			callListener(event, listener);
 		}
@@ -58,7 +78,10 @@ public class DefaultEventManager implements IEventManager, IEventListener {
 
 	@Override
 	public synchronized void removeListener(IEventListener listener) {
-		listenerList.remove(listener);
+		final int index = indexOf(listener);
+		if (index >= 0) {
+			listenerList.remove(index);
+		}
 	}
 
 	@Override
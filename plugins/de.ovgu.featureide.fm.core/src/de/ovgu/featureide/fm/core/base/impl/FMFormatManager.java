@@ -23,6 +23,7 @@ package de.ovgu.featureide.fm.core.base.impl;
 import de.ovgu.featureide.fm.core.IExtensionLoader;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
+import de.ovgu.featureide.fm.core.io.binary.BinaryFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.cnf.CNFFormat;
 import de.ovgu.featureide.fm.core.io.dimacs.DIMACSFormat;
 import de.ovgu.featureide.fm.core.io.guidsl.GuidslFormat;
@@ -40,7 +41,7 @@ public final class FMFormatManager extends FormatManager<IFeatureModelFormat> {
 
 	private FMFormatManager() {
 		super(XmlFeatureModelFormat.class, SimpleVelvetFeatureModelFormat.class, DIMACSFormat.class, SXFMFormat.class, GuidslFormat.class,
-				ConquererFMWriter.class, CNFFormat.class);
+				ConquererFMWriter.class, CNFFormat.class, BinaryFeatureModelFormat.class);
 	}
 
 	private static FMFormatManager instance = new FMFormatManager();
@@ -0,0 +1,181 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Finds all occurrences of a fixed set of strings in a text in a single pass (Aho-Corasick automaton).</br> A text is checked in linear time with respect to
+ * its length, independent of the number of strings. Thus, {@link #findAll(CharSequence)} returns the same strings as calling {@link String#contains} for each
+ * string, but is considerably faster for large sets.</br> Instances are immutable and can be used by multiple threads at the same time.
+ */
+public class MultiStringMatcher {
+
+	private final List<String> patterns;
+
+	/** sorted characters of the outgoing transitions of each state */
+	private final char[][] keys;
+	/** target states of the outgoing transitions of each state */
+	private final int[][] targets;
+	/** the state representing the longest proper suffix of each state */
+	private final int[] fail;
+	/** the index of the pattern ending in each state or -1 */
+	private final int[] output;
+	/** the next state on the failure path that has an output or 0 */
+	private final int[] outputLink;
+
+	/**
+	 * @param patterns the strings to search for. Duplicates and empty strings are ignored.
+	 */
+	public MultiStringMatcher(Collection<String> patterns) {
+		final LinkedHashSet<String> patternSet = new LinkedHashSet<>(patterns);
+		patternSet.remove("");
+		this.patterns = Collections.unmodifiableList(new ArrayList<>(patternSet));
+
+		// build trie
+		final List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+		final List<Integer> outputs = new ArrayList<>();
+		transitions.add(new TreeMap<Character, Integer>());
+		outputs.add(-1);
+		for (int i = 0; i < this.patterns.size(); i++) {
+			final String pattern = this.patterns.get(i);
+			int state = 0;
+			for (int j = 0; j < pattern.length(); j++) {
+				final Character c = pattern.charAt(j);
+				final Integer next = transitions.get(state).get(c);
+				if (next == null) {
+					final int newState = transitions.size();
+					transitions.add(new TreeMap<Character, Integer>());
+					outputs.add(-1);
+					transitions.get(state).put(c, newState);
+					state = newState;
+				} else {
+					state = next;
+				}
+			}
+			outputs.set(state, i);
+		}
+
+		final int numberOfStates = transitions.size();
+		keys = new char[numberOfStates][];
+		targets = new int[numberOfStates][];
+		output = new int[numberOfStates];
+		for (int state = 0; state < numberOfStates; state++) {
+			final TreeMap<Character, Integer> stateTransitions = transitions.get(state);
+			final char[] stateKeys = new char[stateTransitions.size()];
+			final int[] stateTargets = new int[stateTransitions.size()];
+			int i = 0;
+			for (final Entry<Character, Integer> entry : stateTransitions.entrySet()) {
+				stateKeys[i] = entry.getKey();
+				stateTargets[i++] = entry.getValue();
+			}
+			keys[state] = stateKeys;
+			targets[state] = stateTargets;
+			output[state] = outputs.get(state);
+		}
+
+		// compute failure and output links in breadth-first order
+		fail = new int[numberOfStates];
+		outputLink = new int[numberOfStates];
+		final Queue<Integer> queue = new ArrayDeque<>();
+		for (final int child : targets[0]) {
+			queue.add(child);
+		}
+		while (!queue.isEmpty()) {
+			final int state = queue.poll();
+			final char[] stateKeys = keys[state];
+			final int[] stateTargets = targets[state];
+			for (int i = 0; i < stateKeys.length; i++) {
+				final int child = stateTargets[i];
+				final int childFail = getNextState(fail[state], stateKeys[i]);
+				fail[child] = childFail;
+				outputLink[child] = (output[childFail] >= 0) ? childFail : outputLink[childFail];
+				queue.add(child);
+			}
+		}
+	}
+
+	private int getChild(int state, char c) {
+		final int index = Arrays.binarySearch(keys[state], c);
+		return (index < 0) ? -1 : targets[state][index];
+	}
+
+	private int getNextState(int state, char c) {
+		while (true) {
+			final int next = getChild(state, c);
+			if (next >= 0) {
+				return next;
+			}
+			if (state == 0) {
+				return 0;
+			}
+			state = fail[state];
+		}
+	}
+
+	/**
+	 * @return the strings to search for in the order they were given (without duplicates)
+	 */
+	public List<String> getPatterns() {
+		return patterns;
+	}
+
+	/**
+	 * Returns all strings that occur at least once in the given text.
+	 *
+	 * @param text the text to search
+	 * @return the found strings in the order of {@link #getPatterns()}
+	 */
+	public List<String> findAll(CharSequence text) {
+		final boolean[] found = new boolean[patterns.size()];
+		int numberOfFound = 0;
+		int state = 0;
+		for (int i = 0, length = text.length(); i < length; i++) {
+			state = getNextState(state, text.charAt(i));
+			for (int s = (output[state] >= 0) ? state : outputLink[state]; s > 0; s = outputLink[s]) {
+				final int pattern = output[s];
+				if (!found[pattern]) {
+					found[pattern] = true;
+					if (++numberOfFound == found.length) {
+						return patterns;
+					}
+				}
+			}
+		}
+		final List<String> result = new ArrayList<>(numberOfFound);
+		for (int i = 0; i < found.length; i++) {
+			if (found[i]) {
+				result.add(patterns.get(i));
+			}
+		}
+		return result;
+	}
+
+}
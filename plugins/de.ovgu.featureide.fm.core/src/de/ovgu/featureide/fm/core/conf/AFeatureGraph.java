@@ -20,6 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.conf;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.prop4j.solver.SatInstance;
 
 public abstract class AFeatureGraph implements IFeatureGraph {
@@ -59,6 +63,72 @@ public abstract class AFeatureGraph implements IFeatureGraph {
 		return isEdge(edge, EDGE_00) || isEdge(edge, EDGE_01) || isEdge(edge, EDGE_10) || isEdge(edge, EDGE_11);
 	}
 
+	/**
+	 * Combines an existing edge with a new edge type. Strong edges replace weak edges of the same selection, an {@link #EDGE_NONE} type removes the edge.
+	 *
+	 * @param oldValue the current edge
+	 * @param edgeType the edge type to add
+	 * @return the new edge
+	 */
+	protected static byte getNewEdge(byte oldValue, byte edgeType) {
+		final int newValue;
+		switch (edgeType) {
+		case EDGE_NONE:
+			newValue = EDGE_NONE;
+			break;
+		case EDGE_00Q:
+			if (!isEdge(oldValue, (byte) (EDGE_00 | EDGE_01))) {
+				newValue = oldValue | EDGE_00Q;
+			} else {
+				newValue = oldValue;
+			}
+			break;
+		case EDGE_00:
+			assert !isEdge(oldValue, EDGE_01);
+			newValue = (oldValue & MASK_0_CLEAR) | EDGE_00;
+			break;
+		case EDGE_01Q:
+			if (!isEdge(oldValue, (byte) (EDGE_00 | EDGE_01))) {
+				newValue = oldValue | EDGE_01Q;
+			} else {
+				newValue = oldValue;
+			}
+			break;
+		case EDGE_01:
+			assert !isEdge(oldValue, EDGE_00);
+			newValue = (oldValue & MASK_0_CLEAR) | EDGE_01;
+			break;
+
+		case EDGE_10Q:
+			if (!isEdge(oldValue, (byte) (EDGE_10 | EDGE_11))) {
+				newValue = oldValue | EDGE_10Q;
+			} else {
+				newValue = oldValue;
+			}
+			break;
+		case EDGE_10:
+			assert !isEdge(oldValue, EDGE_11);
+			newValue = (oldValue & MASK_1_CLEAR) | EDGE_10;
+			break;
+		case EDGE_11Q:
+			if (!isEdge(oldValue, (byte) (EDGE_10 | EDGE_11))) {
+				newValue = oldValue | EDGE_11Q;
+			} else {
+				newValue = oldValue;
+			}
+			break;
+		case EDGE_11:
+			assert !isEdge(oldValue, EDGE_10);
+			newValue = (oldValue & MASK_1_CLEAR) | EDGE_11;
+			break;
+		default:
+			newValue = oldValue;
+			break;
+		}
+
+		return (byte) (0x000000ff & newValue);
+	}
+
 	public AFeatureGraph(SatInstance satInstance, int[] index) {
 		int count = 0;
 		for (int i = 0; i < index.length; i++) {
@@ -108,4 +178,121 @@ public abstract class AFeatureGraph implements IFeatureGraph {
 		return index[satInstance.getVariable(name) - 1];
 	}
 
+	/**
+	 * Sets an edge without combining it with the current edge. Used to restore a graph.
+	 */
+	abstract void putEdge(int from, int to, byte edge);
+
+	/**
+	 * Writes a feature graph in a compact binary layout: the type of the graph, the index, and for each row the number of non-empty edges, the delta- and
+	 * varint-encoded target indices, and the edges.
+	 *
+	 * @param out the output
+	 * @param graph the graph to write
+	 * @throws IOException if the output cannot be written
+	 *
+	 * @see #readGraph(DataInput, SatInstance)
+	 */
+	public static void writeGraph(DataOutput out, IFeatureGraph graph) throws IOException {
+		out.writeBoolean(graph instanceof SparseFeatureGraph);
+		final int[] index = graph.getIndex();
+		out.writeInt(index.length);
+		for (final int i : index) {
+			out.writeInt(i);
+		}
+		final int size = graph.getSize();
+		final int[] rowColumns = new int[size];
+		final byte[] rowEdges = new byte[size];
+		for (int from = 0; from < size; from++) {
+			int rowSize = 0;
+			for (int to = 0; to < size; to++) {
+				final byte edge = graph.getEdge(from, to);
+				if (edge != EDGE_NONE) {
+					rowColumns[rowSize] = to;
+					rowEdges[rowSize++] = edge;
+				}
+			}
+			writeVarInt(out, rowSize);
+			int lastColumn = -1;
+			for (int i = 0; i < rowSize; i++) {
+				writeVarInt(out, rowColumns[i] - lastColumn);
+				lastColumn = rowColumns[i];
+			}
+			out.write(rowEdges, 0, rowSize);
+		}
+	}
+
+	/**
+	 * Reads a feature graph written by {@link #writeGraph(DataOutput, IFeatureGraph)}.
+	 *
+	 * @param in the input
+	 * @param satInstance the sat instance the graph was built for
+	 * @return the restored graph
+	 * @throws IOException if the input cannot be read or does not match the sat instance
+	 */
+	public static AFeatureGraph readGraph(DataInput in, SatInstance satInstance) throws IOException {
+		final boolean sparse = in.readBoolean();
+		final int indexLength = in.readInt();
+		if (indexLength != satInstance.getNumberOfVariables()) {
+			throw new IOException("Feature graph does not match the feature model");
+		}
+		final int[] index = new int[indexLength];
+		int size = 0;
+		for (int i = 0; i < indexLength; i++) {
+			index[i] = in.readInt();
+			if (index[i] >= 0) {
+				size++;
+			} else if (index[i] < -2) {
+				throw new IOException("Invalid feature graph index " + index[i]);
+			}
+		}
+		for (final int i : index) {
+			if (i >= size) {
+				throw new IOException("Invalid feature graph index " + i);
+			}
+		}
+
+		final AFeatureGraph graph = sparse ? new SparseFeatureGraph(satInstance, index) : new MatrixFeatureGraph(satInstance, index);
+		for (int from = 0; from < size; from++) {
+			final int rowSize = readVarInt(in);
+			if ((rowSize < 0) || (rowSize > size)) {
+				throw new IOException("Invalid feature graph row size " + rowSize);
+			}
+			final int[] rowColumns = new int[rowSize];
+			int column = -1;
+			for (int i = 0; i < rowSize; i++) {
+				final int delta = readVarInt(in);
+				if ((delta <= 0) || (delta >= (size - column))) {
+					throw new IOException("Invalid feature graph column");
+				}
+				column += delta;
+				rowColumns[i] = column;
+			}
+			for (int i = 0; i < rowSize; i++) {
+				graph.putEdge(from, rowColumns[i], in.readByte());
+			}
+		}
+		return graph;
+	}
+
+	static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.write((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final int b = in.readUnsignedByte();
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
 }
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.conf;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -30,6 +31,8 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.SatSolver;
 import org.prop4j.SatSolver.ValueType;
+import org.prop4j.analyses.CountSolutionAnalysis;
+import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.Logger;
@@ -122,11 +125,24 @@ public class ConfigurationChanger implements IConfigurationChanger, IConfigurati
 		}
 	}
 
-	public class CountSolutionsMethod implements LongRunningMethod<Long> {
+	public class CountSolutionsMethod implements LongRunningMethod<BigInteger> {
 
+		private final long timeout;
+
+		public CountSolutionsMethod(long timeout) {
+			this.timeout = timeout;
+		}
+
+		/**
+		 * @return the number of solutions or {@link CountSolutionAnalysis#TIMEOUT} if the time budget was exceeded.
+		 */
 		@Override
-		public Long execute(IMonitor monitor) {
-			return new SatSolver(node, 1000, false).countSolutions(getCurrentLiterals(true));
+		public BigInteger execute(IMonitor monitor) {
+			final SatInstance satInstance = new SatInstance(node);
+			final CountSolutionAnalysis analysis = new CountSolutionAnalysis(satInstance, timeout);
+			analysis.setAssumptions(satInstance.convertToInt(getCurrentLiterals(true)));
+			final BigInteger result = LongRunningWrapper.runMethod(analysis, monitor);
+			return result == null ? BigInteger.ZERO : result;
 		}
 	}
 
@@ -612,8 +628,25 @@ public class ConfigurationChanger implements IConfigurationChanger, IConfigurati
 	}
 
 	@Override
-	public CountSolutionsMethod number(long timeout, boolean includeHiddenFeatures) {
-		return new CountSolutionsMethod();
+	public void releaseSolvers() {
+		satSolver1 = null;
+	}
+
+	@Override
+	public LongRunningMethod<Long> number(long timeout, boolean includeHiddenFeatures) {
+		final CountSolutionsMethod method = count(timeout, includeHiddenFeatures);
+		return new LongRunningMethod<Long>() {
+
+			@Override
+			public Long execute(IMonitor monitor) throws Exception {
+				return CountSolutionAnalysis.toLong(method.execute(monitor));
+			}
+		};
+	}
+
+	@Override
+	public CountSolutionsMethod count(long timeout, boolean includeHiddenFeatures) {
+		return new CountSolutionsMethod(timeout);
 	}
 
 	@Override
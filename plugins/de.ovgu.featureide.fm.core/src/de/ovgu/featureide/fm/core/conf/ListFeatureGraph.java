@@ -64,6 +64,9 @@ public class ListFeatureGraph extends AFeatureGraph {
 		return false;
 	}
 
+	@Override
+	void putEdge(int from, int to, byte edge) {}
+
 	@Override
 	public byte getEdge(int fromIndex, int toIndex) {
 		return 0;
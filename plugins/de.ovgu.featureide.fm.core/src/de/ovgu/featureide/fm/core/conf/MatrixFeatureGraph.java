@@ -42,8 +42,17 @@ public class MatrixFeatureGraph extends AFeatureGraph {
 	@Override
 	public void copyValues(IFeatureGraph otherGraph) {
 		super.copyValues(otherGraph);
-		final MatrixFeatureGraph matrixGraph = (MatrixFeatureGraph) otherGraph;
-		adjMatrix = Arrays.copyOf(matrixGraph.adjMatrix, matrixGraph.adjMatrix.length);
+		if (otherGraph instanceof MatrixFeatureGraph) {
+			final MatrixFeatureGraph matrixGraph = (MatrixFeatureGraph) otherGraph;
+			adjMatrix = Arrays.copyOf(matrixGraph.adjMatrix, matrixGraph.adjMatrix.length);
+		} else {
+			adjMatrix = new byte[size * size];
+			for (int from = 0; from < size; from++) {
+				for (int to = 0; to < size; to++) {
+					adjMatrix[(from * size) + to] = otherGraph.getEdge(from, to);
+				}
+			}
+		}
 	}
 
 	@Override
@@ -53,69 +62,18 @@ public class MatrixFeatureGraph extends AFeatureGraph {
 		}
 		final int index = (from * size) + to;
 
-		final int newValue;
-		final byte oldValue;
-		oldValue = adjMatrix[index];
-
-		switch (edgeType) {
-		case EDGE_NONE:
-			newValue = EDGE_NONE;
-			break;
-		case EDGE_00Q:
-			if (!isEdge(oldValue, (byte) (EDGE_00 | EDGE_01))) {
-				newValue = oldValue | EDGE_00Q;
-			} else {
-				newValue = oldValue;
-			}
-			break;
-		case EDGE_00:
-			assert !isEdge(oldValue, EDGE_01);
-			newValue = (oldValue & MASK_0_CLEAR) | EDGE_00;
-			break;
-		case EDGE_01Q:
-			if (!isEdge(oldValue, (byte) (EDGE_00 | EDGE_01))) {
-				newValue = oldValue | EDGE_01Q;
-			} else {
-				newValue = oldValue;
-			}
-			break;
-		case EDGE_01:
-			assert !isEdge(oldValue, EDGE_00);
-			newValue = (oldValue & MASK_0_CLEAR) | EDGE_01;
-			break;
-
-		case EDGE_10Q:
-			if (!isEdge(oldValue, (byte) (EDGE_10 | EDGE_11))) {
-				newValue = oldValue | EDGE_10Q;
-			} else {
-				newValue = oldValue;
-			}
-			break;
-		case EDGE_10:
-			assert !isEdge(oldValue, EDGE_11);
-			newValue = (oldValue & MASK_1_CLEAR) | EDGE_10;
-			break;
-		case EDGE_11Q:
-			if (!isEdge(oldValue, (byte) (EDGE_10 | EDGE_11))) {
-				newValue = oldValue | EDGE_11Q;
-			} else {
-				newValue = oldValue;
-			}
-			break;
-		case EDGE_11:
-			assert !isEdge(oldValue, EDGE_10);
-			newValue = (oldValue & MASK_1_CLEAR) | EDGE_11;
-			break;
-		default:
-			newValue = oldValue;
-			break;
-		}
-
-		adjMatrix[index] = (byte) (0x000000ff & newValue);
+		final byte oldValue = adjMatrix[index];
+		final byte newValue = getNewEdge(oldValue, edgeType);
+		adjMatrix[index] = newValue;
 
 		return oldValue != newValue;
 	}
 
+	@Override
+	void putEdge(int from, int to, byte edge) {
+		adjMatrix[(from * size) + to] = edge;
+	}
+
 	@Override
 	public byte getEdge(int fromIndex, int toIndex) {
 		final int index = (fromIndex * size) + toIndex;
@@ -0,0 +1,234 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Feature graph that only stores non-empty edges. Each row holds the sorted indices of its target features and the corresponding edges in primitive arrays,
+ * such that the memory consumption depends on the number of edges instead of the squared number of features (as in {@link MatrixFeatureGraph}).</br> When
+ * serialized, the target indices of each row are delta- and varint-encoded.
+ */
+public class SparseFeatureGraph extends AFeatureGraph {
+
+	private static final long serialVersionUID = -3264617430561389512L;
+
+	private static final int INITIAL_ROW_CAPACITY = 4;
+	private static final int[] EMPTY_COLUMNS = new int[0];
+	private static final byte[] EMPTY_EDGES = new byte[0];
+
+	private transient int[][] columns;
+	private transient byte[][] edges;
+	private transient int[] rowSizes;
+
+	public SparseFeatureGraph(SatInstance satInstance, int[] index) {
+		super(satInstance, index);
+		initRows();
+	}
+
+	public SparseFeatureGraph() {
+		super();
+	}
+
+	private void initRows() {
+		columns = new int[size][];
+		edges = new byte[size][];
+		rowSizes = new int[size];
+		Arrays.fill(columns, EMPTY_COLUMNS);
+		Arrays.fill(edges, EMPTY_EDGES);
+	}
+
+	@Override
+	public void copyValues(IFeatureGraph otherGraph) {
+		super.copyValues(otherGraph);
+		initRows();
+		if (otherGraph instanceof SparseFeatureGraph) {
+			final SparseFeatureGraph sparseGraph = (SparseFeatureGraph) otherGraph;
+			for (int from = 0; from < size; from++) {
+				final int rowSize = sparseGraph.rowSizes[from];
+				if (rowSize > 0) {
+					columns[from] = Arrays.copyOf(sparseGraph.columns[from], rowSize);
+					edges[from] = Arrays.copyOf(sparseGraph.edges[from], rowSize);
+					rowSizes[from] = rowSize;
+				}
+			}
+		} else {
+			for (int from = 0; from < size; from++) {
+				for (int to = 0; to < size; to++) {
+					final byte edge = otherGraph.getEdge(from, to);
+					if (edge != EDGE_NONE) {
+						insert(from, rowSizes[from], to, edge);
+					}
+				}
+			}
+			trimToSize();
+		}
+	}
+
+	@Override
+	public boolean setEdge(int from, int to, byte edgeType) {
+		if (from == to) {
+			return false;
+		}
+		final int position = find(from, to);
+		final byte oldValue = (position >= 0) ? edges[from][position] : EDGE_NONE;
+		final byte newValue = getNewEdge(oldValue, edgeType);
+		if (oldValue == newValue) {
+			return false;
+		}
+		if (position < 0) {
+			insert(from, -(position + 1), to, newValue);
+		} else if (newValue == EDGE_NONE) {
+			remove(from, position);
+		} else {
+			edges[from][position] = newValue;
+		}
+		return true;
+	}
+
+	@Override
+	public byte getEdge(int fromIndex, int toIndex) {
+		final int position = find(fromIndex, toIndex);
+		return (position >= 0) ? edges[fromIndex][position] : EDGE_NONE;
+	}
+
+	@Override
+	public byte getValue(int fromIndex, int toIndex, boolean fromSelected) {
+		final byte edge = getEdge(fromIndex, toIndex);
+		return (byte) ((fromSelected ? (edge >>> 4) : edge) & 0x0000000f);
+	}
+
+	@Override
+	public byte getValueInternal(int fromIndex, int toIndex, boolean fromSelected) {
+		final int internalFrom = index[fromIndex];
+		final int internalTo = index[toIndex];
+		if ((internalFrom < 0) || (internalTo < 0)) {
+			return -1;
+		}
+		return getValue(internalFrom, internalTo, fromSelected);
+	}
+
+	/**
+	 * @return the number of non-empty edges in this graph.
+	 */
+	public long getNumberOfEdges() {
+		long count = 0;
+		for (final int rowSize : rowSizes) {
+			count += rowSize;
+		}
+		return count;
+	}
+
+	/**
+	 * Releases the unused capacity of all rows.
+	 */
+	public void trimToSize() {
+		for (int from = 0; from < size; from++) {
+			final int rowSize = rowSizes[from];
+			if (columns[from].length > rowSize) {
+				columns[from] = (rowSize == 0) ? EMPTY_COLUMNS : Arrays.copyOf(columns[from], rowSize);
+				edges[from] = (rowSize == 0) ? EMPTY_EDGES : Arrays.copyOf(edges[from], rowSize);
+			}
+		}
+	}
+
+	private int find(int from, int to) {
+		return Arrays.binarySearch(columns[from], 0, rowSizes[from], to);
+	}
+
+	private void insert(int from, int position, int to, byte edge) {
+		final int rowSize = rowSizes[from];
+		int[] rowColumns = columns[from];
+		byte[] rowEdges = edges[from];
+		if (rowSize == rowColumns.length) {
+			final int newCapacity = Math.max(INITIAL_ROW_CAPACITY, rowSize + (rowSize >> 1));
+			rowColumns = Arrays.copyOf(rowColumns, newCapacity);
+			rowEdges = Arrays.copyOf(rowEdges, newCapacity);
+			columns[from] = rowColumns;
+			edges[from] = rowEdges;
+		}
+		System.arraycopy(rowColumns, position, rowColumns, position + 1, rowSize - position);
+		System.arraycopy(rowEdges, position, rowEdges, position + 1, rowSize - position);
+		rowColumns[position] = to;
+		rowEdges[position] = edge;
+		rowSizes[from] = rowSize + 1;
+	}
+
+	@Override
+	void putEdge(int from, int to, byte edge) {
+		final int position = find(from, to);
+		if (position < 0) {
+			insert(from, -(position + 1), to, edge);
+		} else {
+			edges[from][position] = edge;
+		}
+	}
+
+	private void remove(int from, int position) {
+		final int rowSize = rowSizes[from] - 1;
+		System.arraycopy(columns[from], position + 1, columns[from], position, rowSize - position);
+		System.arraycopy(edges[from], position + 1, edges[from], position, rowSize - position);
+		rowSizes[from] = rowSize;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		for (int from = 0; from < size; from++) {
+			final int rowSize = rowSizes[from];
+			final int[] rowColumns = columns[from];
+			writeVarInt(out, rowSize);
+			int lastColumn = -1;
+			for (int i = 0; i < rowSize; i++) {
+				final int column = rowColumns[i];
+				writeVarInt(out, column - lastColumn);
+				lastColumn = column;
+			}
+			out.write(edges[from], 0, rowSize);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		initRows();
+		for (int from = 0; from < size; from++) {
+			final int rowSize = readVarInt(in);
+			if (rowSize > 0) {
+				final int[] rowColumns = new int[rowSize];
+				final byte[] rowEdges = new byte[rowSize];
+				int column = -1;
+				for (int i = 0; i < rowSize; i++) {
+					column += readVarInt(in);
+					rowColumns[i] = column;
+				}
+				in.readFully(rowEdges);
+				columns[from] = rowColumns;
+				edges[from] = rowEdges;
+				rowSizes[from] = rowSize;
+			}
+		}
+	}
+
+}
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -339,13 +340,27 @@ public class Configuration implements Cloneable {
 	 * @param timeout Timeout in milliseconds.
 	 * @param includeHiddenFeatures {@code true} if hidden feature should be considered, {@code false} otherwise
 	 *
-	 * @return a positive value equal to the number of solutions (if the method terminated in time)</br> or a negative value (if a timeout occured) that
-	 *         indicates that there are more solutions than the absolute value
+	 * @return a positive value equal to the number of solutions (if the method terminated in time)</br> or -1 (if a timeout occured). Numbers larger
+	 *         than {@link Long#MAX_VALUE} are truncated.
 	 */
 	public long number(long timeout, boolean includeHiddenFeatures) {
 		return LongRunningWrapper.runMethod(propagator.number(timeout, includeHiddenFeatures));
 	}
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @param timeout Time budget in milliseconds.
+	 * @param includeHiddenFeatures {@code true} if hidden feature should be considered, {@code false} otherwise
+	 *
+	 * @return the number of solutions (if the method terminated in time) or a negative value (if a timeout occurred)
+	 *
+	 * @see #number(long, boolean)
+	 */
+	public BigInteger count(long timeout, boolean includeHiddenFeatures) {
+		return LongRunningWrapper.runMethod(propagator.count(timeout, includeHiddenFeatures));
+	}
+
 	public void resetValues() {
 		for (final SelectableFeature feature : features) {
 			feature.setManual(Selection.UNDEFINED);
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -36,11 +37,13 @@ import org.prop4j.analyses.ConditionallyCoreDeadAnalysis;
 import org.prop4j.analyses.CountSolutionAnalysis;
 import org.prop4j.analyses.CoverAnalysis;
 import org.prop4j.analyses.GetSolutionAnalysis;
+import org.prop4j.analyses.IncrementalConditionallyCoreDeadAnalysis;
 import org.prop4j.analyses.RedundantAnalysis;
 import org.prop4j.analyses.ResolveAnalysis;
 import org.prop4j.solver.BasicSolver;
 import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.SatInstance;
+import org.prop4j.solver.SolverPool;
 import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
@@ -128,29 +131,33 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 			final BasicSolver solver;
 			try {
-				solver = new BasicSolver(rootNode);
+				solver = solverPool.borrow();
 			} catch (final ContradictionException e) {
 				Logger.logError(e);
 				return false;
 			}
 
-			Iterable<SelectableFeature> features = getFeatures();
-			features = includeHiddenFeatures ? features : Functional.filter(features, visibleFilter);
-			features = includeUndefinedFeatures ? features : Functional.filter(features, selectedFilter);
-			for (final SelectableFeature feature : features) {
-				final int variable = rootNode.getVariable(feature.getFeature().getName());
-				solver.assignmentPush((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
-			}
+			try {
+				Iterable<SelectableFeature> features = getFeatures();
+				features = includeHiddenFeatures ? features : Functional.filter(features, visibleFilter);
+				features = includeUndefinedFeatures ? features : Functional.filter(features, selectedFilter);
+				for (final SelectableFeature feature : features) {
+					final int variable = rootNode.getVariable(feature.getFeature().getName());
+					solver.assignmentPush((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
+				}
 
-			final SatResult satResult = solver.isSatisfiable();
-			switch (satResult) {
-			case FALSE:
-			case TIMEOUT:
-				return false;
-			case TRUE:
-				return true;
-			default:
-				throw new AssertionError(satResult);
+				final SatResult satResult = solver.isSatisfiable();
+				switch (satResult) {
+				case FALSE:
+				case TIMEOUT:
+					return false;
+				case TRUE:
+					return true;
+				default:
+					throw new AssertionError(satResult);
+				}
+			} finally {
+				solverPool.release(solver);
 			}
 		}
 	}
@@ -171,13 +178,20 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				feature.setManual(Selection.UNDEFINED);
 			}
 
-			final int[] manualFeatures = LongRunningWrapper.runMethod(new ResolveAnalysis(rootNode, rootNode.convertToInt(oldManualSelected)));
-			for (final int feature : manualFeatures) {
-				configuration.getSelectablefeature((String) rootNode.getVariableObject(feature))
-						.setManual(feature > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+			final BasicSolver solver = solverPool.borrow();
+			try {
+				final int[] manualFeatures = LongRunningWrapper.runMethod(new ResolveAnalysis(solver, rootNode.convertToInt(oldManualSelected)));
+				for (final int feature : manualFeatures) {
+					configuration.getSelectablefeature((String) rootNode.getVariableObject(feature))
+							.setManual(feature > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+				}
+				solver.reset();
+				setToAutomatic(manualFeatures, new ConditionallyCoreDeadAnalysis(solver));
+				solver.reset();
+				setToAutomatic(manualFeatures, new RedundantAnalysis(solver));
+			} finally {
+				solverPool.release(solver);
 			}
-			setToAutomatic(manualFeatures, new ConditionallyCoreDeadAnalysis(rootNode));
-			setToAutomatic(manualFeatures, new RedundantAnalysis(rootNode));
 
 			return null;
 		}
@@ -192,7 +206,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	}
 
-	public class CountSolutionsMethod implements LongRunningMethod<Long> {
+	public class CountSolutionsMethod implements LongRunningMethod<BigInteger> {
 
 		private final long timeout;
 		private final boolean includeHiddenFeatures;
@@ -202,10 +216,13 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			this.includeHiddenFeatures = includeHiddenFeatures;
 		}
 
+		/**
+		 * @return the number of solutions or {@link CountSolutionAnalysis#TIMEOUT} if the time budget was exceeded.
+		 */
 		@Override
-		public Long execute(IMonitor monitor) {
+		public BigInteger execute(IMonitor monitor) {
 			if (rootNode == null) {
-				return 0L;
+				return BigInteger.ZERO;
 			}
 			final List<Literal> definedFeatures = new ArrayList<>();
 
@@ -218,8 +235,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			final SatInstance node = includeHiddenFeatures ? rootNode : rootNodeWithoutHidden;
 			final CountSolutionAnalysis analysis = new CountSolutionAnalysis(node, timeout);
 			analysis.setAssumptions(node.convertToInt(definedFeatures));
-			final Long result = LongRunningWrapper.runMethod(analysis);
-			return result == null ? 0 : result;
+			final BigInteger result = LongRunningWrapper.runMethod(analysis, monitor);
+			return result == null ? BigInteger.ZERO : result;
 		}
 	}
 
@@ -372,10 +389,20 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				literals[index++] = (selection ? rootNode.getVariable(feature) : -rootNode.getVariable(feature));
 			}
 
-			final CoverAnalysis analysis = new CoverAnalysis(rootNode, literals);
-			analysis.setAssumptions(rootNode.convertToInt(definedFeatures));
-
-			final List<int[]> solutions = LongRunningWrapper.runMethod(analysis);
+			final BasicSolver solver;
+			try {
+				solver = solverPool.borrow();
+			} catch (final ContradictionException e) {
+				return Collections.emptyList();
+			}
+			final List<int[]> solutions;
+			try {
+				final CoverAnalysis analysis = new CoverAnalysis(solver, literals);
+				analysis.setAssumptions(rootNode.convertToInt(definedFeatures));
+				solutions = LongRunningWrapper.runMethod(analysis);
+			} finally {
+				solverPool.release(solver);
+			}
 			if (solutions == null) {
 				return Collections.emptyList();
 			}
@@ -523,8 +550,13 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			final Iterable<IFeature> features = featureModel.getFeatures();
 			rootNodeWithoutHidden =
 				new SatInstance(buildThread1.getResults(), Functional.mapToList(features, new InverseFilter<>(filter1), FeatureUtils.GET_FEATURE_NAME));
-			rootNode = new SatInstance(buildThread2.getResults(),
+			final SatInstance newRootNode = new SatInstance(buildThread2.getResults(),
 					Functional.mapToList(features, filter2 == null ? null : new InverseFilter<>(filter2), FeatureUtils.GET_FEATURE_NAME));
+			// both refer to the variables of the previous formula
+			occurrences = null;
+			lastPropagation = null;
+			solverPool = new SolverPool(newRootNode);
+			rootNode = newRootNode;
 			return null;
 		}
 
@@ -568,10 +600,24 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(rootNode);
 			final int[] intLiterals = rootNode.convertToInt(manualLiterals);
-			analysis.setAssumptions(intLiterals);
-			final int[] impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			final int[] impliedFeatures;
+			try {
+				final BasicSolver solver = solverPool.borrow();
+				try {
+					final Propagation previous = lastPropagation;
+					final IncrementalConditionallyCoreDeadAnalysis analysis = new IncrementalConditionallyCoreDeadAnalysis(solver, getOccurrences(),
+							previous == null ? null : previous.manualLiterals, previous == null ? null : previous.impliedLiterals);
+					analysis.setAssumptions(intLiterals);
+					impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+					lastPropagation = ((impliedFeatures != null) && analysis.isSatisfiable())
+						? new Propagation(Arrays.copyOf(intLiterals, intLiterals.length), impliedFeatures) : null;
+				} finally {
+					solverPool.release(solver);
+				}
+			} catch (final ContradictionException e) {
+				return null;
+			}
 
 			// if there is a contradiction within the configuration
 			if (impliedFeatures == null) {
@@ -600,12 +646,19 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals) {
 			final BasicSolver solver;
 			try {
-				solver = new BasicSolver(rootNode);
+				solver = solverPool.borrow();
 			} catch (final ContradictionException e) {
 				Logger.logError(e);
 				return;
 			}
+			try {
+				computeRedundantManual(workMonitor, intLiterals, solver);
+			} finally {
+				solverPool.release(solver);
+			}
+		}
 
+		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals, final BasicSolver solver) {
 			for (final int feature : intLiterals) {
 				solver.assignmentPush(feature);
 			}
@@ -638,10 +691,37 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	}
 
+	/**
+	 * The manual and implied literals of the last update, which are reused by the next one.
+	 */
+	private static final class Propagation {
+
+		private final int[] manualLiterals;
+		private final int[] impliedLiterals;
+
+		private Propagation(int[] manualLiterals, int[] impliedLiterals) {
+			this.manualLiterals = manualLiterals;
+			this.impliedLiterals = impliedLiterals;
+		}
+
+	}
+
 	private final Configuration configuration;
 
 	private SatInstance rootNode = null, rootNodeWithoutHidden = null;
 
+	/**
+	 * Keeps initialized solvers for {@link #rootNode}, which are shared with all clones of this propagator.
+	 */
+	private SolverPool solverPool = null;
+
+	/**
+	 * The clause indices of each variable of {@link #rootNode}, which are shared with all clones of this propagator.
+	 */
+	private volatile int[][] occurrences = null;
+
+	private volatile Propagation lastPropagation = null;
+
 	/**
 	 * This method creates a clone of the given {@link ConfigurationPropagator}
 	 *
@@ -660,6 +740,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		if (propagator.isLoaded()) {
 			rootNode = propagator.rootNode;
 			rootNodeWithoutHidden = propagator.rootNodeWithoutHidden;
+			solverPool = propagator.solverPool;
+			occurrences = propagator.occurrences;
 		}
 	}
 
@@ -711,6 +793,15 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new IsValidMethod(true, false);
 	}
 
+	@Override
+	public void releaseSolvers() {
+		if (solverPool != null) {
+			solverPool.invalidate();
+		}
+		occurrences = null;
+		lastPropagation = null;
+	}
+
 	@Override
 	public LeadToValidConfiguration leadToValidConfiguration(List<SelectableFeature> featureList) {
 		return new LeadToValidConfiguration(featureList);
@@ -729,11 +820,23 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 	/**
 	 * Counts the number of possible solutions.
 	 *
-	 * @return a positive value equal to the number of solutions (if the method terminated in time)</br> or a negative value (if a timeout occurred) that
-	 *         indicates that there are more solutions than the absolute value
+	 * @return a positive value equal to the number of solutions (if the method terminated in time)</br> or -1 (if a timeout occurred). Numbers larger
+	 *         than {@link Long#MAX_VALUE} are truncated.
 	 */
 	@Override
-	public CountSolutionsMethod number(long timeout, boolean includeHiddenFeatures) {
+	public LongRunningMethod<Long> number(long timeout, boolean includeHiddenFeatures) {
+		final CountSolutionsMethod method = count(timeout, includeHiddenFeatures);
+		return new LongRunningMethod<Long>() {
+
+			@Override
+			public Long execute(IMonitor monitor) throws Exception {
+				return CountSolutionAnalysis.toLong(method.execute(monitor));
+			}
+		};
+	}
+
+	@Override
+	public CountSolutionsMethod count(long timeout, boolean includeHiddenFeatures) {
 		return new CountSolutionsMethod(timeout, includeHiddenFeatures);
 	}
 
@@ -752,6 +855,13 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return update(false, null);
 	}
 
+	private synchronized int[][] getOccurrences() {
+		if ((occurrences == null) && (rootNode != null)) {
+			occurrences = IncrementalConditionallyCoreDeadAnalysis.computeOccurrences(rootNode);
+		}
+		return occurrences;
+	}
+
 	protected ConfigurationPropagator clone(Configuration configuration) {
 		return new ConfigurationPropagator(this, configuration);
 	}
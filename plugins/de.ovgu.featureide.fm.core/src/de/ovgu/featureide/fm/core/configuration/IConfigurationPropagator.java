@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.List;
 
 import org.prop4j.Node;
@@ -57,6 +58,12 @@ public interface IConfigurationPropagator {
 
 	LongRunningMethod<Void> load();
 
+	/**
+	 * Discards all solvers that are kept for subsequent calls. Should be called if the configuration is not used anymore (e.g., because the feature model
+	 * has changed).
+	 */
+	void releaseSolvers();
+
 	LongRunningMethod<Void> leadToValidConfiguration(List<SelectableFeature> featureList);
 
 	LongRunningMethod<Void> leadToValidConfiguration(List<SelectableFeature> featureList, int mode);
@@ -64,11 +71,20 @@ public interface IConfigurationPropagator {
 	/**
 	 * Counts the number of possible solutions.
 	 *
-	 * @return a positive value equal to the number of solutions (if the method terminated in time)</br> or a negative value (if a timeout occurred) that
-	 *         indicates that there are more solutions than the absolute value
+	 * @return a positive value equal to the number of solutions (if the method terminated in time)</br> or -1 (if a timeout occurred). Numbers larger
+	 *         than {@link Long#MAX_VALUE} are truncated.
 	 */
 	LongRunningMethod<Long> number(long timeout, boolean includeHiddenFeatures);
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @param timeout the time budget in milliseconds
+	 * @param includeHiddenFeatures {@code true} if hidden feature should be considered, {@code false} otherwise
+	 * @return the number of solutions or a negative value if the time budget was exceeded
+	 */
+	LongRunningMethod<BigInteger> count(long timeout, boolean includeHiddenFeatures);
+
 	LongRunningMethod<Void> update(boolean redundantManual, List<SelectableFeature> featureOrder);
 
 	LongRunningMethod<Void> update(boolean redundantManual);
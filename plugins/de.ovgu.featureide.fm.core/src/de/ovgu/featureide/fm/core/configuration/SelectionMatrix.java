@@ -0,0 +1,261 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.io.AnalysisCache;
+
+/**
+ * Stores the selections of many configurations as a bit matrix.</br> Each column (i.e., feature) is stored as a packed array of longs with one bit per row
+ * (i.e., configuration). Thus, statistics over all configurations (e.g., unused or always selected features) only need one pass over the longs of a column.
+ * The matrix can be written in a binary format and read again without parsing the configuration files. The
+ * {@link de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader ConfigurationLoader} caches it this way.
+ */
+public class SelectionMatrix {
+
+	private static final int MAGIC_NUMBER = 0x4649534D;
+	private static final int VERSION = 1;
+
+	private final List<String> features;
+	private final Map<String, Integer> featureIndex;
+	private final List<String> rowNames = new ArrayList<>();
+
+	private long[][] columns;
+	private int numberOfWords = 1;
+	private int numberOfRows = 0;
+
+	/**
+	 * @param features the features of the columns
+	 */
+	public SelectionMatrix(Collection<String> features) {
+		this.features = Collections.unmodifiableList(new ArrayList<>(features));
+		featureIndex = new HashMap<>(this.features.size() << 1);
+		for (int i = 0; i < this.features.size(); i++) {
+			featureIndex.put(this.features.get(i), i);
+		}
+		columns = new long[this.features.size()][1];
+	}
+
+	/**
+	 * Creates a matrix from a boolean array with one row per configuration.
+	 *
+	 * @param features the features of the columns
+	 * @param selections the selections; each row must contain one entry per feature
+	 */
+	public static SelectionMatrix fromArray(Collection<String> features, boolean[][] selections) {
+		final SelectionMatrix matrix = new SelectionMatrix(features);
+		for (final boolean[] selectionRow : selections) {
+			final int row = matrix.newRow(null);
+			for (int column = 0; column < matrix.columns.length; column++) {
+				if (selectionRow[column]) {
+					matrix.set(row, column);
+				}
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * Adds a row for the given configuration. Features of the configuration that are not a column of this matrix are ignored.
+	 *
+	 * @param name the name of the configuration
+	 * @param configuration the configuration
+	 * @return the index of the new row
+	 */
+	public int addRow(String name, Configuration configuration) {
+		final int row = newRow(name);
+		for (int column = 0; column < features.size(); column++) {
+			final SelectableFeature feature = configuration.getSelectablefeature(features.get(column));
+			if ((feature != null) && (feature.getSelection() == Selection.SELECTED)) {
+				set(row, column);
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Adds a row in which exactly the given features are selected. Features that are not a column of this matrix are ignored.
+	 *
+	 * @param name the name of the configuration
+	 * @param selectedFeatures the names of the selected features
+	 * @return the index of the new row
+	 */
+	public int addRow(String name, Iterable<String> selectedFeatures) {
+		final int row = newRow(name);
+		for (final String feature : selectedFeatures) {
+			final Integer column = featureIndex.get(feature);
+			if (column != null) {
+				set(row, column);
+			}
+		}
+		return row;
+	}
+
+	private int newRow(String name) {
+		final int row = numberOfRows++;
+		if ((row >>> 6) >= numberOfWords) {
+			numberOfWords <<= 1;
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = Arrays.copyOf(columns[i], numberOfWords);
+			}
+		}
+		rowNames.add(name == null ? "" : name);
+		return row;
+	}
+
+	private void set(int row, int column) {
+		columns[column][row >>> 6] |= 1L << row;
+	}
+
+	public boolean isSelected(int row, int column) {
+		if ((row < 0) || (row >= numberOfRows)) {
+			throw new IndexOutOfBoundsException(Integer.toString(row));
+		}
+		return (columns[column][row >>> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 * @return the number of configurations in which the feature of the given column is selected.
+	 */
+	public int getSelectionCount(int column) {
+		int count = 0;
+		for (final long word : columns[column]) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of configurations in which the given feature is selected or -1 if it is not a column of this matrix.
+	 */
+	public int getSelectionCount(String feature) {
+		final Integer column = featureIndex.get(feature);
+		return column == null ? -1 : getSelectionCount(column);
+	}
+
+	/**
+	 * @return the features that are not selected in any configuration. If there are no configurations, the list is empty.
+	 */
+	public List<String> getUnusedFeatures() {
+		return getFeaturesWithSelectionCount(0);
+	}
+
+	/**
+	 * @return the features that are selected in all configurations. If there are no configurations, the list is empty.
+	 */
+	public List<String> getAlwaysSelectedFeatures() {
+		return getFeaturesWithSelectionCount(numberOfRows);
+	}
+
+	private List<String> getFeaturesWithSelectionCount(int count) {
+		if (numberOfRows == 0) {
+			return Collections.emptyList();
+		}
+		final List<String> result = new ArrayList<>();
+		for (int column = 0; column < features.size(); column++) {
+			if (getSelectionCount(column) == count) {
+				result.add(features.get(column));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the selections as a boolean array with one row per configuration.
+	 */
+	public boolean[][] toArray() {
+		final boolean[][] array = new boolean[numberOfRows][features.size()];
+		for (int column = 0; column < features.size(); column++) {
+			final long[] words = columns[column];
+			for (int row = 0; row < numberOfRows; row++) {
+				array[row][column] = (words[row >>> 6] & (1L << row)) != 0;
+			}
+		}
+		return array;
+	}
+
+	public List<String> getFeatures() {
+		return features;
+	}
+
+	public List<String> getRowNames() {
+		return Collections.unmodifiableList(rowNames);
+	}
+
+	public int getNumberOfRows() {
+		return numberOfRows;
+	}
+
+	public int getNumberOfColumns() {
+		return features.size();
+	}
+
+	/**
+	 * Writes this matrix in a binary format to the given stream.
+	 */
+	public void write(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC_NUMBER);
+		out.writeInt(VERSION);
+		AnalysisCache.writeNames(out, features);
+		AnalysisCache.writeNames(out, rowNames);
+		final int usedWords = (numberOfRows + 63) >>> 6;
+		for (final long[] column : columns) {
+			for (int i = 0; i < usedWords; i++) {
+				out.writeLong(column[i]);
+			}
+		}
+	}
+
+	/**
+	 * Reads a matrix written by {@link #write(DataOutputStream)}.
+	 *
+	 * @throws IOException if the stream does not contain a matrix in the current format
+	 */
+	public static SelectionMatrix read(DataInputStream in) throws IOException {
+		if ((in.readInt() != MAGIC_NUMBER) || (in.readInt() != VERSION)) {
+			throw new IOException("Unknown format");
+		}
+		final SelectionMatrix matrix = new SelectionMatrix(AnalysisCache.readNames(in));
+		matrix.rowNames.addAll(AnalysisCache.readNames(in));
+		matrix.numberOfRows = matrix.rowNames.size();
+		final int usedWords = (matrix.numberOfRows + 63) >>> 6;
+		matrix.numberOfWords = Math.max(1, usedWords);
+		for (int column = 0; column < matrix.columns.length; column++) {
+			final long[] words = new long[matrix.numberOfWords];
+			for (int i = 0; i < usedWords; i++) {
+				words[i] = in.readLong();
+			}
+			matrix.columns[column] = words;
+		}
+		return matrix;
+	}
+
+}
@@ -20,6 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.configuration.io;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -27,19 +31,36 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
+import de.ovgu.featureide.fm.core.configuration.SelectionMatrix;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.AnalysisCache;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
 
 /**
- * This class loads all configurations of a given IFeatureModel.
+ * This class loads all configurations of a given IFeatureModel.</br> Files are parsed in parallel by a fixed number of threads, while the folder is still
+ * walked. At most {@link #getMaxPendingConfigurations() a bounded number} of parsed configurations wait for delivery. The callback is always notified in the
+ * calling thread and in the order in which the files were visited. All configurations share the formula and solvers of one initial configuration, such that
+ * the feature model is translated only once, even if the configurations are propagated.
  *
  * @author Paul Maximilian Bittner
  * @author Antje Moench
@@ -47,8 +68,21 @@ import de.ovgu.featureide.fm.core.io.manager.FileHandler;
  */
 public class ConfigurationLoader {
 
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable r) {
+			final Thread thread = new Thread(r, "ConfigurationLoader");
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	private static final String SELECTION_MATRIX_SECTION = "selectionMatrix";
+
 	private final IConfigurationLoaderCallback callback;
 	private boolean propagateConfigs;
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
 
 	public ConfigurationLoader() {
 		this(null);
@@ -74,6 +108,27 @@ public class ConfigurationLoader {
 		this.propagateConfigs = propagateConfigs;
 	}
 
+	/**
+	 * @return The number of threads that parse configuration files. The default value is the number of available processors.
+	 */
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @param numberOfThreads the number of threads that parse configuration files. If less than 2, all files are parsed in the calling thread.
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * @return The maximum number of configurations that are parsed but not yet delivered.
+	 */
+	public int getMaxPendingConfigurations() {
+		return numberOfThreads << 2;
+	}
+
 	public List<Configuration> loadConfigurations(IFeatureModel featureModel, String path) {
 		return loadConfigurations(featureModel, Paths.get(path));
 	}
@@ -88,12 +143,125 @@ public class ConfigurationLoader {
 
 	public List<Configuration> loadConfigurations(final IFeatureModel featureModel, Path path, final String excludeFile) {
 		final List<Configuration> configs = new ArrayList<>();
+		loadConfigurations(featureModel, path, excludeFile, configs);
+		return configs;
+	}
+
+	/**
+	 * Loads all configurations like {@link #loadConfigurations(IFeatureModel, Path, String)}, but passes them only to the callback. Thus, the configurations
+	 * are not kept in memory by the loader.
+	 *
+	 * @return the number of loaded configurations
+	 */
+	public int processConfigurations(IFeatureModel featureModel, Path path, String excludeFile) {
+		return loadConfigurations(featureModel, path, excludeFile, null);
+	}
+
+	/**
+	 * Parses the given configuration files like {@link #processConfigurations(IFeatureModel, Path, String)}, but keeps only their selections. Thus, the
+	 * configurations are not kept in memory by the loader.
+	 *
+	 * @param featureModel the feature model of the configurations
+	 * @param files the configuration files
+	 * @param features the features of the columns of the matrix
+	 * @return a matrix with one row for each file that could be parsed (named like the file), in the order of the given files
+	 */
+	public SelectionMatrix loadSelectionMatrix(IFeatureModel featureModel, List<Path> files, Collection<String> features) {
+		if (callback != null) {
+			callback.onLoadingStarted();
+		}
+
+		final LoadRun run = new LoadRun(featureModel, null, new SelectionMatrix(features));
+		try {
+			for (final Path file : files) {
+				run.add(file);
+			}
+			run.finish();
+		} catch (final IOException e) {
+			Logger.logError(e);
+			if (callback != null) {
+				callback.onLoadingError(e);
+			}
+		} finally {
+			run.cancel();
+		}
+
+		if (callback != null) {
+			callback.onLoadingFinished();
+		}
+
+		return run.matrix;
+	}
+
+	/**
+	 * Loads the selection matrix like {@link #loadSelectionMatrix(IFeatureModel, List, Collection)}, but restores it from the given cache, if neither the
+	 * features of the feature model, the features of the columns, nor the files (i.e., their paths, sizes, and modification times) changed since it was
+	 * stored.
+	 *
+	 * @param cache the cache; if {@code null}, the matrix is always loaded from the files
+	 */
+	public SelectionMatrix loadSelectionMatrix(IFeatureModel featureModel, List<Path> files, Collection<String> features, AnalysisCache cache) {
+		if (cache == null) {
+			return loadSelectionMatrix(featureModel, files, features);
+		}
+		final byte[] fingerprint;
+		try {
+			fingerprint = computeFingerprint(featureModel, files, features);
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return loadSelectionMatrix(featureModel, files, features);
+		}
+		final byte[] cachedMatrix = cache.getSection(fingerprint, SELECTION_MATRIX_SECTION);
+		if (cachedMatrix != null) {
+			try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(cachedMatrix))) {
+				return SelectionMatrix.read(in);
+			} catch (final IOException e) {
+				Logger.logError(e);
+			}
+		}
+
+		final SelectionMatrix matrix = loadSelectionMatrix(featureModel, files, features);
+		final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(byteOut)) {
+			matrix.write(out);
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return matrix;
+		}
+		cache.putSection(fingerprint, SELECTION_MATRIX_SECTION, byteOut.toByteArray());
+		return matrix;
+	}
+
+	private static byte[] computeFingerprint(IFeatureModel featureModel, List<Path> files, Collection<String> features) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(byteOut)) {
+			// a configuration file may only be parsed, if all features it refers to exist
+			AnalysisCache.writeNames(out, Functional.map(featureModel.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+			AnalysisCache.writeNames(out, features);
+			out.writeInt(files.size());
+			for (final Path file : files) {
+				out.writeUTF(file.toAbsolutePath().toString());
+				out.writeLong(Files.size(file));
+				out.writeLong(Files.getLastModifiedTime(file).toMillis());
+			}
+		}
+		return digest.digest(byteOut.toByteArray());
+	}
+
+	private int loadConfigurations(final IFeatureModel featureModel, Path path, final String excludeFile, final List<Configuration> configs) {
 		final HashSet<String> configurationNames = new HashSet<>();
 
 		if (callback != null) {
 			callback.onLoadingStarted();
 		}
 
+		final LoadRun run = new LoadRun(featureModel, configs, null);
 		try {
 			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
 
@@ -105,31 +273,155 @@ public class ConfigurationLoader {
 						final int extensionIndex = fileName.lastIndexOf('.');
 						final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
 						if (configurationNames.add(configurationName)) {
-							final Configuration currentConfiguration = new Configuration(featureModel, propagateConfigs);
-							final FileHandler<Configuration> fileHandler = ConfigurationManager.load(file, currentConfiguration);
-							if (!fileHandler.getLastProblems().containsError()) {
-								configs.add(currentConfiguration);
-								if (callback != null) {
-									callback.onConfigurationLoaded(currentConfiguration, file);
-								}
-							}
+							run.add(file);
 						}
 					}
 					return super.visitFile(file, attrs);
 				}
 			});
+			run.finish();
 		} catch (final IOException e) {
 			Logger.logError(e);
 			if (callback != null) {
 				callback.onLoadingError(e);
 			}
+		} finally {
+			run.cancel();
 		}
 
 		if (callback != null) {
 			callback.onLoadingFinished();
 		}
 
-		return configs;
+		return run.count;
+	}
+
+	/**
+	 * Parses the added files in parallel and delivers the parsed configurations in the order in which the files were added.
+	 */
+	private final class LoadRun {
+
+		private final Configuration template;
+		private final List<Configuration> configs;
+		private final SelectionMatrix matrix;
+		private final ExecutorService executor;
+		private final ArrayDeque<PendingConfiguration> pendingConfigurations = new ArrayDeque<>();
+		private int count = 0;
+
+		/**
+		 * @param configs the list that receives the configurations; may be {@code null}
+		 * @param matrix the matrix that receives the selections of the configurations; may be {@code null}
+		 */
+		public LoadRun(IFeatureModel featureModel, List<Configuration> configs, SelectionMatrix matrix) {
+			this.configs = configs;
+			this.matrix = matrix;
+			template = new Configuration(featureModel, propagateConfigs);
+			executor = (numberOfThreads > 1) ? Executors.newFixedThreadPool(numberOfThreads, THREAD_FACTORY) : null;
+		}
+
+		public void add(Path file) throws IOException {
+			final LoadTask task = new LoadTask(template, file);
+			if (executor == null) {
+				deliver(task.call(), file);
+			} else {
+				if (pendingConfigurations.size() >= getMaxPendingConfigurations()) {
+					final PendingConfiguration pending = pendingConfigurations.poll();
+					deliver(pending.get(), pending.path);
+				}
+				pendingConfigurations.add(new PendingConfiguration(executor.submit(task), file));
+			}
+		}
+
+		/**
+		 * Waits for all pending configurations and delivers them.
+		 */
+		public void finish() throws IOException {
+			while (!pendingConfigurations.isEmpty()) {
+				final PendingConfiguration pending = pendingConfigurations.poll();
+				deliver(pending.get(), pending.path);
+			}
+		}
+
+		/**
+		 * Cancels all pending configurations and stops the threads.
+		 */
+		public void cancel() {
+			if (executor != null) {
+				for (final PendingConfiguration pending : pendingConfigurations) {
+					pending.future.cancel(true);
+				}
+				executor.shutdownNow();
+			}
+		}
+
+		private void deliver(Configuration configuration, Path file) {
+			if (configuration == null) {
+				return;
+			}
+			count++;
+			if (configs != null) {
+				configs.add(configuration);
+			}
+			if (matrix != null) {
+				matrix.addRow(file.getFileName().toString(), configuration);
+			}
+			if (callback != null) {
+				callback.onConfigurationLoaded(configuration, file);
+			}
+		}
+
+	}
+
+	/**
+	 * Parses a single file into a copy of the template configuration, which shares the template's formula and solvers.
+	 */
+	private static final class LoadTask implements Callable<Configuration> {
+
+		private final Configuration template;
+		private final Path file;
+
+		public LoadTask(Configuration template, Path file) {
+			this.template = template;
+			this.file = file;
+		}
+
+		@Override
+		public Configuration call() {
+			final Configuration currentConfiguration = template.clone();
+			final FileHandler<Configuration> fileHandler = ConfigurationManager.load(file, currentConfiguration);
+			return fileHandler.getLastProblems().containsError() ? null : currentConfiguration;
+		}
+
+	}
+
+	private static final class PendingConfiguration {
+
+		private final Future<Configuration> future;
+		private final Path path;
+
+		public PendingConfiguration(Future<Configuration> future, Path path) {
+			this.future = future;
+			this.path = path;
+		}
+
+		/**
+		 * Waits for the parsed configuration.
+		 *
+		 * @return the configuration or {@code null} if the file could not be parsed
+		 * @throws IOException if the calling thread was interrupted
+		 */
+		public Configuration get() throws IOException {
+			try {
+				return future.get();
+			} catch (final ExecutionException e) {
+				Logger.logError(e.getCause());
+				return null;
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+		}
+
 	}
 
 }
@@ -30,6 +30,14 @@ import java.util.Arrays;
 public abstract class Base64Encoder {
 
 	private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+	private static final byte[] DECODE_TABLE = new byte[128];
+
+	static {
+		Arrays.fill(DECODE_TABLE, (byte) -1);
+		for (int i = 0; i < ALPHABET.length(); i++) {
+			DECODE_TABLE[ALPHABET.charAt(i)] = (byte) i;
+		}
+	}
 
 	public static String encode(final char[] result, int index, byte[] message) {
 		final int length = ((result.length - index) >> 2) * 3;
@@ -73,7 +81,8 @@ public abstract class Base64Encoder {
 		for (int i = 0; i < charArray.length; i += 4) {
 			int x = 0;
 			for (int j = 0; j < 4; j++) {
-				final int indexOf = ALPHABET.indexOf(charArray[i + j]);
+				final char c = charArray[i + j];
+				final int indexOf = (c < DECODE_TABLE.length) ? DECODE_TABLE[c] : -1;
 				if (indexOf >= 0) {
 					x |= indexOf << (j * 6);
 				} else {
@@ -0,0 +1,270 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.io.manager.AFileManager;
+
+/**
+ * Persistent cache for analysis results of a feature model.</br> All results are stored in one binary file in the {@code .featureide} folder next to the
+ * feature model file. The file is identified by a fingerprint of the feature model (i.e., a hash of its normalized CNF, its feature tree, and its constraints).
+ * If the fingerprint of the current model does not match the stored one, the stored results are discarded. Each analysis stores its results in a separate
+ * section, which is identified by a key.
+ */
+public class AnalysisCache {
+
+	public static final String SUFFIX = "analysis";
+
+	private static final int MAGIC_NUMBER = 0x46494143;
+	private static final int VERSION = 2;
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Computes the fingerprint of a feature model. Two feature models with the same fingerprint yield the same analysis results.
+	 *
+	 * @param featureModel the feature model
+	 * @return a SHA-256 hash over the normalized CNF (clauses and literals in lexicographical order), the feature tree, and the constraints (in their order)
+	 */
+	public static byte[] computeFingerprint(IFeatureModel featureModel) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+
+		final Node[] clauses = AdvancedNodeCreator.createRegularCNF(featureModel).getChildren();
+		final List<String> normalizedClauses = new ArrayList<>(clauses.length);
+		for (final Node clause : clauses) {
+			final Node[] literals = clause.getChildren();
+			final String[] normalizedLiterals = new String[literals.length];
+			for (int i = 0; i < literals.length; i++) {
+				final Literal literal = (Literal) literals[i];
+				normalizedLiterals[i] = (literal.positive ? "+" : "-") + literal.var;
+			}
+			Arrays.sort(normalizedLiterals);
+			final StringBuilder sb = new StringBuilder();
+			for (final String literal : normalizedLiterals) {
+				sb.append(literal).append(' ');
+			}
+			normalizedClauses.add(sb.toString());
+		}
+		Collections.sort(normalizedClauses);
+		for (final String clause : normalizedClauses) {
+			update(digest, clause);
+		}
+
+		update(digest, "#features");
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final IFeatureStructure structure = feature.getStructure();
+			final IFeatureStructure parent = structure.getParent();
+			update(digest, feature.getName() + ' ' + (parent == null ? "" : parent.getFeature().getName()) + ' ' + structure.isMandatorySet()
+				+ structure.isAnd() + structure.isOr() + structure.isAlternative() + structure.isHidden());
+		}
+		update(digest, "#constraints");
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			update(digest, constraint.getNode().toString());
+		}
+		return digest.digest();
+	}
+
+	private static void update(MessageDigest digest, String text) {
+		digest.update(text.getBytes(CHARSET));
+		digest.update((byte) '\n');
+	}
+
+	/**
+	 * @param modelFile the path of the feature model file
+	 * @return the path of the cache file for the given feature model file
+	 */
+	public static Path getCachePath(Path modelFile) {
+		return AFileManager.constructExtraPath(modelFile, SUFFIX);
+	}
+
+	private final Path path;
+
+	private byte[] fingerprint = null;
+	private final Map<String, byte[]> sections = new LinkedHashMap<>();
+	private boolean loaded = false;
+
+	/**
+	 * @param path the path of the cache file
+	 */
+	public AnalysisCache(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Returns the stored data for the given section.
+	 *
+	 * @param fingerprint the fingerprint of the current feature model
+	 * @param key the key of the section
+	 * @return the stored data or {@code null}, if there is no data for this section or the fingerprint does not match
+	 */
+	public synchronized byte[] getSection(byte[] fingerprint, String key) {
+		load();
+		if (!Arrays.equals(this.fingerprint, fingerprint)) {
+			return null;
+		}
+		return sections.get(key);
+	}
+
+	/**
+	 * Stores data for the given section and writes the cache file. If the fingerprint differs from the stored one, all other sections are discarded.
+	 *
+	 * @param fingerprint the fingerprint of the current feature model
+	 * @param key the key of the section
+	 * @param data the data to store
+	 */
+	public synchronized void putSection(byte[] fingerprint, String key, byte[] data) {
+		load();
+		if (!Arrays.equals(this.fingerprint, fingerprint)) {
+			sections.clear();
+			this.fingerprint = Arrays.copyOf(fingerprint, fingerprint.length);
+		}
+		sections.put(key, data);
+		save();
+	}
+
+	/**
+	 * Removes all stored data.
+	 */
+	public synchronized void clear() {
+		fingerprint = null;
+		sections.clear();
+		loaded = true;
+		if (FileSystem.exists(path)) {
+			try {
+				FileSystem.delete(path);
+			} catch (final IOException e) {
+				Logger.logError(e);
+			}
+		}
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (!FileSystem.exists(path)) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(FileSystem.read(path)))) {
+			if ((in.readInt() != MAGIC_NUMBER) || (in.readInt() != VERSION)) {
+				return;
+			}
+			final byte[] storedFingerprint = new byte[in.readInt()];
+			in.readFully(storedFingerprint);
+			final int numberOfSections = in.readInt();
+			for (int i = 0; i < numberOfSections; i++) {
+				final String key = in.readUTF();
+				final byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				sections.put(key, data);
+			}
+			fingerprint = storedFingerprint;
+		} catch (final IOException e) {
+			sections.clear();
+			Logger.logError(e);
+		}
+	}
+
+	private void save() {
+		final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(byteOut)) {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(VERSION);
+			out.writeInt(fingerprint.length);
+			out.write(fingerprint);
+			out.writeInt(sections.size());
+			for (final Entry<String, byte[]> entry : sections.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue().length);
+				out.write(entry.getValue());
+			}
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return;
+		}
+		try {
+			FileSystem.write(path, byteOut.toByteArray());
+		} catch (final IOException e) {
+			Logger.logError(e);
+		}
+	}
+
+	/**
+	 * Writes a list of names to the given stream.
+	 */
+	public static void writeNames(DataOutputStream out, Iterable<String> names) throws IOException {
+		final List<String> list = new ArrayList<>();
+		for (final String name : names) {
+			list.add(name);
+		}
+		out.writeInt(list.size());
+		for (final String name : list) {
+			out.writeUTF(name);
+		}
+	}
+
+	/**
+	 * Reads a list of names written by {@link #writeNames(DataOutputStream, Iterable)}.
+	 */
+	public static List<String> readNames(DataInputStream in) throws IOException {
+		final int size = in.readInt();
+		final List<String> names = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			names.add(in.readUTF());
+		}
+		return names;
+	}
+
+}
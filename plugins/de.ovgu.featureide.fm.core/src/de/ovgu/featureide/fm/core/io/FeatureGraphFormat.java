@@ -23,16 +23,21 @@ package de.ovgu.featureide.fm.core.io;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.charset.Charset;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.functional.Base64Encoder;
 
 /**
- * Reads / Writes a feature graph.
+ * Reads / Writes a feature graph.</br> The serialized graph is deflated and Base64-encoded, such that the binary data survives the conversion to a string.
+ * Files written by older versions (containing the raw serialized graph) can still be read.
  *
  * @author Sebastian Krieter
  */
@@ -43,7 +48,11 @@ public class FeatureGraphFormat extends APersistentFormat<IFeatureGraph> impleme
 	@Override
 	public ProblemList read(IFeatureGraph object, CharSequence source) {
 		final ProblemList problems = new ProblemList();
-		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(Charset.forName("UTF-8"))))) {
+		final String content = source.toString();
+		final byte[] data = ((content.length() % 4) == 0) ? Base64Encoder.decode(content) : null;
+		final InputStream dataIn = (data != null) ? new InflaterInputStream(new ByteArrayInputStream(data))
+			: new ByteArrayInputStream(content.getBytes(Charset.forName("UTF-8")));
+		try (final ObjectInputStream in = new ObjectInputStream(dataIn)) {
 			final IFeatureGraph featureGraph = (IFeatureGraph) in.readObject();
 			object.copyValues(featureGraph);
 		} catch (IOException | ClassNotFoundException e) {
@@ -55,14 +64,13 @@ public class FeatureGraphFormat extends APersistentFormat<IFeatureGraph> impleme
 	@Override
 	public String write(IFeatureGraph object) {
 		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		String ret = null;
-		try (final ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
+		try (final ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(byteArrayOutputStream))) {
 			out.writeObject(object);
-			ret = byteArrayOutputStream.toString("UTF-8");
 		} catch (final IOException e) {
 			Logger.logError(e);
+			return null;
 		}
-		return ret;
+		return Base64Encoder.encode(byteArrayOutputStream.toByteArray());
 	}
 
 	@Override
@@ -0,0 +1,759 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.PluginID;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.functional.Base64Encoder;
+import de.ovgu.featureide.fm.core.io.AFeatureModelFormat;
+import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.LazyReader;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+
+/**
+ * Reads / Writes feature models in a compact binary format.</br> The file consists of a string table holding all names, the feature tree as parallel
+ * arrays in pre-order (name index, parent index, flags), and the constraints as prefix-encoded node arrays. Descriptions, custom properties, and comments are
+ * stored in a separate section at the end of the file.</br> Files written via {@link #write(IFeatureModel, Path)} contain the raw data and are memory-mapped
+ * when read via {@link #read(IFeatureModel, Path)}. Using {@link #readStructure(IFeatureModel, Path)} the property section is not touched at all and can be
+ * loaded later via {@link #readProperties(IFeatureModel, Path)}. As the {@link de.ovgu.featureide.fm.core.io.IPersistentFormat IPersistentFormat}
+ * interface is based on strings, {@link #write(IFeatureModel)} returns the same data in Base64 encoding. The path-based methods can read both variants.
+ */
+public class BinaryFeatureModelFormat extends AFeatureModelFormat {
+
+	public static final String ID = PluginID.PLUGIN_ID + ".format.fm." + BinaryFeatureModelFormat.class.getSimpleName();
+
+	public static final String FILE_EXTENSION = "fmb";
+
+	private static final int MAGIC_NUMBER = 0x4649464D;
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 12;
+
+	/**
+	 * The Base64 encoding of the first three bytes of the magic number.
+	 */
+	private static final String ENCODED_PREFIX = Base64Encoder.encode(Arrays.copyOf(ByteBuffer.allocate(4).putInt(MAGIC_NUMBER).array(), 3));
+
+	private static final int FLAG_ABSTRACT = 1;
+	private static final int FLAG_MANDATORY = 1 << 1;
+	private static final int FLAG_HIDDEN = 1 << 2;
+	private static final int FLAG_OR = 1 << 3;
+	private static final int FLAG_ALTERNATIVE = 1 << 4;
+
+	private static final int CALCULATE_AUTO = 1;
+	private static final int CALCULATE_FEATURES = 1 << 1;
+	private static final int CALCULATE_CONSTRAINTS = 1 << 2;
+	private static final int CALCULATE_REDUNDANT = 1 << 3;
+	private static final int CALCULATE_TAUTOLOGY = 1 << 4;
+
+	private static final int NODE_LITERAL = 1;
+	private static final int NODE_NOT = 2;
+	private static final int NODE_AND = 3;
+	private static final int NODE_OR = 4;
+	private static final int NODE_IMPLIES = 5;
+	private static final int NODE_EQUALS = 6;
+	private static final int NODE_AT_MOST = 7;
+	private static final int NODE_AT_LEAST = 8;
+	private static final int NODE_CHOOSE = 9;
+
+	private static final int NODE_TYPE_SHIFT = 24;
+	private static final int NODE_ARITY_MASK = (1 << NODE_TYPE_SHIFT) - 1;
+
+	/**
+	 * Provides access to the names of a binary feature model. Names are only decoded when they are requested.
+	 */
+	private static final class StringTable {
+
+		private final ByteBuffer buffer;
+		private final int start;
+		private final int[] offsets;
+		private final String[] strings;
+
+		private StringTable(ByteBuffer buffer) throws UnsupportedModelException {
+			if (buffer.getInt(0) != MAGIC_NUMBER) {
+				throw new UnsupportedModelException("Not a binary feature model", 0);
+			}
+			if (buffer.getInt(4) != VERSION) {
+				throw new UnsupportedModelException("Unsupported version of binary feature model: " + buffer.getInt(4), 0);
+			}
+			buffer.position(HEADER_SIZE);
+			strings = new String[buffer.getInt()];
+			offsets = readInts(buffer, strings.length + 1);
+			start = buffer.position();
+			buffer.position(start + offsets[strings.length]);
+			this.buffer = buffer;
+		}
+
+		private String get(int index) {
+			String string = strings[index];
+			if (string == null) {
+				string = decodeString(buffer, start + offsets[index], offsets[index + 1] - offsets[index]);
+				strings[index] = string;
+			}
+			return string;
+		}
+
+	}
+
+	public BinaryFeatureModelFormat() {}
+
+	protected BinaryFeatureModelFormat(BinaryFeatureModelFormat oldFormat) {
+		super(oldFormat);
+	}
+
+	@Override
+	public ProblemList read(IFeatureModel featureModel, CharSequence source) {
+		final ProblemList problems = new ProblemList();
+		try {
+			final ByteBuffer buffer = ByteBuffer.wrap(Base64Encoder.decode(source.toString().trim()));
+			readStructure(featureModel, buffer);
+			readProperties(featureModel, buffer);
+		} catch (final UnsupportedModelException e) {
+			problems.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	/**
+	 * Reads the complete feature model from the given file.
+	 *
+	 * @param featureModel the feature model to fill
+	 * @param path the file to read
+	 * @return a list of problems that occurred during reading
+	 */
+	public ProblemList read(IFeatureModel featureModel, Path path) {
+		final ProblemList problems = new ProblemList();
+		try {
+			final ByteBuffer buffer = map(path);
+			readStructure(featureModel, buffer);
+			readProperties(featureModel, buffer);
+		} catch (final UnsupportedModelException e) {
+			problems.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	/**
+	 * Reads only the features, constraints, feature order, and calculation settings from the given file. Descriptions, custom properties, and comments are
+	 * skipped.
+	 *
+	 * @param featureModel the feature model to fill
+	 * @param path the file to read
+	 * @return a list of problems that occurred during reading
+	 *
+	 * @see #readProperties(IFeatureModel, Path)
+	 */
+	public ProblemList readStructure(IFeatureModel featureModel, Path path) {
+		final ProblemList problems = new ProblemList();
+		try {
+			readStructure(featureModel, map(path));
+		} catch (final UnsupportedModelException e) {
+			problems.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	/**
+	 * Reads the descriptions, custom properties, and comments from the given file into a feature model that was previously read from the same file via
+	 * {@link #readStructure(IFeatureModel, Path)}.
+	 *
+	 * @param featureModel the feature model to complete
+	 * @param path the file to read
+	 * @return a list of problems that occurred during reading
+	 */
+	public ProblemList readProperties(IFeatureModel featureModel, Path path) {
+		final ProblemList problems = new ProblemList();
+		try {
+			readProperties(featureModel, map(path));
+		} catch (final UnsupportedModelException e) {
+			problems.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	@Override
+	public String write(IFeatureModel featureModel) {
+		try {
+			return Base64Encoder.encode(toByteArray(featureModel));
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the feature model in raw binary form to the given file.
+	 *
+	 * @param featureModel the feature model to write
+	 * @param path the target file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(IFeatureModel featureModel, Path path) throws IOException {
+		FileSystem.write(path, toByteArray(featureModel));
+	}
+
+	private static ByteBuffer map(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if ((buffer.remaining() >= 4) && (buffer.getInt(0) == MAGIC_NUMBER)) {
+				return buffer;
+			}
+			return ByteBuffer.wrap(Base64Encoder.decode(StandardCharsets.US_ASCII.decode(buffer).toString().trim()));
+		}
+	}
+
+	private byte[] toByteArray(IFeatureModel featureModel) throws IOException {
+		final Map<String, Integer> stringTable = new LinkedHashMap<>();
+
+		final ByteArrayOutputStream structureBytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(structureBytes)) {
+			final List<IFeature> features = new ArrayList<>(featureModel.getNumberOfFeatures());
+			final IFeature root = featureModel.getStructure().getRoot() == null ? null : featureModel.getStructure().getRoot().getFeature();
+			if (root != null) {
+				collectFeatures(root, features);
+			}
+			final int[] parents = new int[features.size()];
+			final Map<IFeature, Integer> featureIndex = new LinkedHashMap<>();
+			out.writeInt(features.size());
+			for (int i = 0; i < features.size(); i++) {
+				final IFeature feature = features.get(i);
+				featureIndex.put(feature, i);
+				final IFeatureStructure parent = feature.getStructure().getParent();
+				parents[i] = (parent == null) ? -1 : featureIndex.get(parent.getFeature());
+				out.writeInt(getIndex(stringTable, feature.getName()));
+			}
+			for (final int parent : parents) {
+				out.writeInt(parent);
+			}
+			for (final IFeature feature : features) {
+				out.writeByte(getFlags(feature.getStructure()));
+			}
+
+			final List<IConstraint> constraints = featureModel.getConstraints();
+			out.writeInt(constraints.size());
+			final List<Integer> tokens = new ArrayList<>();
+			for (final IConstraint constraint : constraints) {
+				tokens.clear();
+				encodeNode(constraint.getNode(), tokens, stringTable);
+				out.writeInt(tokens.size());
+				for (final int token : tokens) {
+					out.writeInt(token);
+				}
+			}
+
+			final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+			out.writeByte((analyser.runCalculationAutomatically ? CALCULATE_AUTO : 0) | (analyser.calculateFeatures ? CALCULATE_FEATURES : 0)
+				| (analyser.calculateConstraints ? CALCULATE_CONSTRAINTS : 0) | (analyser.calculateRedundantConstraints ? CALCULATE_REDUNDANT : 0)
+				| (analyser.calculateTautologyConstraints ? CALCULATE_TAUTOLOGY : 0));
+
+			out.writeBoolean(featureModel.isFeatureOrderUserDefined());
+			final List<String> featureOrderList =
+				featureModel.isFeatureOrderUserDefined() ? featureModel.getFeatureOrderList() : Collections.<String> emptyList();
+			out.writeInt(featureOrderList.size());
+			for (final String featureName : featureOrderList) {
+				out.writeInt(getIndex(stringTable, featureName));
+			}
+		}
+
+		final ByteArrayOutputStream propertyBytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(propertyBytes)) {
+			final List<IFeature> describedFeatures = new ArrayList<>();
+			final List<IFeature> featuresWithProperties = new ArrayList<>();
+			for (final IFeature feature : featureModel.getFeatures()) {
+				final String description = feature.getProperty().getDescription();
+				if ((description != null) && !description.isEmpty()) {
+					describedFeatures.add(feature);
+				}
+				if (!feature.getCustomProperties().entrySet().isEmpty()) {
+					featuresWithProperties.add(feature);
+				}
+			}
+
+			out.writeInt(describedFeatures.size());
+			for (final IFeature feature : describedFeatures) {
+				out.writeInt(getIndex(stringTable, feature.getName()));
+				writeString(out, feature.getProperty().getDescription());
+			}
+
+			out.writeInt(featuresWithProperties.size());
+			for (final IFeature feature : featuresWithProperties) {
+				final Set<Entry<String, Type, Object>> entries = feature.getCustomProperties().entrySet();
+				out.writeInt(getIndex(stringTable, feature.getName()));
+				out.writeInt(entries.size());
+				for (final Entry<String, Type, Object> entry : entries) {
+					writeString(out, entry.getKey());
+					out.writeByte(entry.getType().ordinal());
+					writeValue(out, entry.getType(), entry.getValue());
+				}
+			}
+
+			final List<IConstraint> constraints = featureModel.getConstraints();
+			int describedConstraints = 0;
+			for (final IConstraint constraint : constraints) {
+				if ((constraint.getDescription() != null) && !constraint.getDescription().isEmpty()) {
+					describedConstraints++;
+				}
+			}
+			out.writeInt(describedConstraints);
+			for (int i = 0; i < constraints.size(); i++) {
+				final String description = constraints.get(i).getDescription();
+				if ((description != null) && !description.isEmpty()) {
+					out.writeInt(i);
+					writeString(out, description);
+				}
+			}
+
+			final List<String> comments = new ArrayList<>();
+			for (final String comment : featureModel.getProperty().getComments()) {
+				comments.add(comment);
+			}
+			out.writeInt(comments.size());
+			for (final String comment : comments) {
+				writeString(out, comment);
+			}
+		}
+
+		final ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+		final int[] stringOffsets = new int[stringTable.size() + 1];
+		int i = 0;
+		for (final String string : stringTable.keySet()) {
+			stringBytes.write(string.getBytes(StandardCharsets.UTF_8));
+			stringOffsets[++i] = stringBytes.size();
+		}
+
+		final int stringTableSize = 4 + (4 * stringOffsets.length) + stringBytes.size();
+		final ByteArrayOutputStream result =
+			new ByteArrayOutputStream(HEADER_SIZE + stringTableSize + structureBytes.size() + propertyBytes.size());
+		try (DataOutputStream out = new DataOutputStream(result)) {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(VERSION);
+			out.writeInt(HEADER_SIZE + stringTableSize + structureBytes.size());
+			out.writeInt(stringTable.size());
+			for (final int offset : stringOffsets) {
+				out.writeInt(offset);
+			}
+			stringBytes.writeTo(out);
+			structureBytes.writeTo(out);
+			propertyBytes.writeTo(out);
+		}
+		return result.toByteArray();
+	}
+
+	private static void collectFeatures(IFeature feature, List<IFeature> features) {
+		features.add(feature);
+		for (final IFeatureStructure child : feature.getStructure().getChildren()) {
+			collectFeatures(child.getFeature(), features);
+		}
+	}
+
+	private static int getFlags(IFeatureStructure structure) {
+		int flags = 0;
+		if (structure.isAbstract()) {
+			flags |= FLAG_ABSTRACT;
+		}
+		if (structure.isMandatory()) {
+			flags |= FLAG_MANDATORY;
+		}
+		if (structure.isHidden()) {
+			flags |= FLAG_HIDDEN;
+		}
+		if (structure.isOr()) {
+			flags |= FLAG_OR;
+		} else if (structure.isAlternative()) {
+			flags |= FLAG_ALTERNATIVE;
+		}
+		return flags;
+	}
+
+	private static int getIndex(Map<String, Integer> stringTable, String string) {
+		Integer index = stringTable.get(string);
+		if (index == null) {
+			index = stringTable.size();
+			stringTable.put(string, index);
+		}
+		return index;
+	}
+
+	private static void encodeNode(Node node, List<Integer> tokens, Map<String, Integer> stringTable) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			tokens.add((NODE_LITERAL << NODE_TYPE_SHIFT) | (literal.positive ? 1 : 0));
+			tokens.add(getIndex(stringTable, String.valueOf(literal.var)));
+			return;
+		}
+
+		final Node[] children = node.getChildren();
+		final int arity = children.length;
+		if (node instanceof Not) {
+			tokens.add((NODE_NOT << NODE_TYPE_SHIFT) | arity);
+		} else if (node instanceof And) {
+			tokens.add((NODE_AND << NODE_TYPE_SHIFT) | arity);
+		} else if (node instanceof Or) {
+			tokens.add((NODE_OR << NODE_TYPE_SHIFT) | arity);
+		} else if (node instanceof Implies) {
+			tokens.add((NODE_IMPLIES << NODE_TYPE_SHIFT) | arity);
+		} else if (node instanceof Equals) {
+			tokens.add((NODE_EQUALS << NODE_TYPE_SHIFT) | arity);
+		} else if (node instanceof AtMost) {
+			tokens.add((NODE_AT_MOST << NODE_TYPE_SHIFT) | arity);
+			tokens.add(((AtMost) node).max);
+		} else if (node instanceof AtLeast) {
+			tokens.add((NODE_AT_LEAST << NODE_TYPE_SHIFT) | arity);
+			tokens.add(((AtLeast) node).min);
+		} else if (node instanceof Choose) {
+			tokens.add((NODE_CHOOSE << NODE_TYPE_SHIFT) | arity);
+			tokens.add(((Choose) node).n);
+		} else {
+			throw new IllegalArgumentException("Unsupported node type: " + node.getClass().getSimpleName());
+		}
+		for (final Node child : children) {
+			encodeNode(child, tokens, stringTable);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeValue(DataOutputStream out, Type type, Object value) throws IOException {
+		switch (type) {
+		case BOOLEAN:
+			out.writeBoolean((Boolean) value);
+			break;
+		case BYTE:
+			out.writeByte((Byte) value);
+			break;
+		case CHAR:
+			out.writeChar((Character) value);
+			break;
+		case DOUBLE:
+			out.writeDouble((Double) value);
+			break;
+		case FLOAT:
+			out.writeFloat((Float) value);
+			break;
+		case INT:
+			out.writeInt((Integer) value);
+			break;
+		case LONG:
+			out.writeLong((Long) value);
+			break;
+		case SHORT:
+			out.writeShort((Short) value);
+			break;
+		case STRING:
+			writeString(out, String.valueOf(value));
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported value type for property: " + type);
+		}
+	}
+
+	private void readStructure(IFeatureModel featureModel, ByteBuffer buffer) throws UnsupportedModelException {
+		final StringTable strings = new StringTable(buffer);
+
+		featureModel.reset();
+		setFactory(featureModel);
+
+		final int numberOfFeatures = buffer.getInt();
+		final int[] names = readInts(buffer, numberOfFeatures);
+		final int[] parents = readInts(buffer, numberOfFeatures);
+		final IFeature[] features = new IFeature[numberOfFeatures];
+		for (int i = 0; i < numberOfFeatures; i++) {
+			final int flags = buffer.get();
+			final IFeature feature = factory.createFeature(featureModel, strings.get(names[i]));
+			final IFeatureStructure structure = feature.getStructure();
+			if ((flags & FLAG_OR) != 0) {
+				structure.setOr();
+			} else if ((flags & FLAG_ALTERNATIVE) != 0) {
+				structure.setAlternative();
+			} else {
+				structure.setAnd();
+			}
+			structure.setAbstract((flags & FLAG_ABSTRACT) != 0);
+			structure.setMandatory((flags & FLAG_MANDATORY) != 0);
+			structure.setHidden((flags & FLAG_HIDDEN) != 0);
+
+			featureModel.addFeature(feature);
+			if (parents[i] < 0) {
+				featureModel.getStructure().setRoot(structure);
+			} else {
+				features[parents[i]].getStructure().addChild(structure);
+			}
+			features[i] = feature;
+		}
+
+		final int numberOfConstraints = buffer.getInt();
+		for (int i = 0; i < numberOfConstraints; i++) {
+			final int[] tokens = readInts(buffer, buffer.getInt());
+			final int[] position = new int[1];
+			featureModel.addConstraint(factory.createConstraint(featureModel, decodeNode(tokens, position, strings)));
+		}
+
+		final int calculations = buffer.get();
+		final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+		analyser.runCalculationAutomatically = (calculations & CALCULATE_AUTO) != 0;
+		analyser.calculateFeatures = (calculations & CALCULATE_FEATURES) != 0;
+		analyser.calculateConstraints = (calculations & CALCULATE_CONSTRAINTS) != 0;
+		analyser.calculateRedundantConstraints = (calculations & CALCULATE_REDUNDANT) != 0;
+		analyser.calculateTautologyConstraints = (calculations & CALCULATE_TAUTOLOGY) != 0;
+
+		featureModel.setFeatureOrderUserDefined(buffer.get() != 0);
+		final int[] featureOrder = readInts(buffer, buffer.getInt());
+		if (featureOrder.length > 0) {
+			final List<String> featureOrderList = new ArrayList<>(featureOrder.length);
+			for (final int name : featureOrder) {
+				featureOrderList.add(strings.get(name));
+			}
+			featureModel.setFeatureOrderList(featureOrderList);
+		}
+
+		if (featureModel.getStructure().getRoot() == null) {
+			throw new UnsupportedModelException("Feature model has no root feature", 0);
+		}
+	}
+
+	private void readProperties(IFeatureModel featureModel, ByteBuffer buffer) throws UnsupportedModelException {
+		final StringTable strings = new StringTable(buffer);
+		buffer.position(buffer.getInt(8));
+
+		final int describedFeatures = buffer.getInt();
+		for (int i = 0; i < describedFeatures; i++) {
+			final IFeature feature = getFeature(featureModel, strings.get(buffer.getInt()));
+			feature.getProperty().setDescription(readString(buffer));
+		}
+
+		final int featuresWithProperties = buffer.getInt();
+		for (int i = 0; i < featuresWithProperties; i++) {
+			final IFeature feature = getFeature(featureModel, strings.get(buffer.getInt()));
+			final int numberOfEntries = buffer.getInt();
+			for (int j = 0; j < numberOfEntries; j++) {
+				final String key = readString(buffer);
+				final Type type = Type.values()[buffer.get()];
+				feature.getCustomProperties().set(key, type, readValue(buffer, type));
+			}
+		}
+
+		final List<IConstraint> constraints = featureModel.getConstraints();
+		final int describedConstraints = buffer.getInt();
+		for (int i = 0; i < describedConstraints; i++) {
+			final int index = buffer.getInt();
+			if (index >= constraints.size()) {
+				throw new UnsupportedModelException("Unknown constraint: " + index, 0);
+			}
+			constraints.get(index).setDescription(readString(buffer));
+		}
+
+		final int numberOfComments = buffer.getInt();
+		for (int i = 0; i < numberOfComments; i++) {
+			featureModel.getProperty().addComment(readString(buffer));
+		}
+	}
+
+	private static IFeature getFeature(IFeatureModel featureModel, String name) throws UnsupportedModelException {
+		final IFeature feature = featureModel.getFeature(name);
+		if (feature == null) {
+			throw new UnsupportedModelException("Feature \"" + name + "\" does not exists", 0);
+		}
+		return feature;
+	}
+
+	private static Node decodeNode(int[] tokens, int[] position, StringTable strings) throws UnsupportedModelException {
+		final int header = tokens[position[0]++];
+		final int type = header >>> NODE_TYPE_SHIFT;
+		final int arity = header & NODE_ARITY_MASK;
+		if (type == NODE_LITERAL) {
+			return new Literal(strings.get(tokens[position[0]++]), arity != 0);
+		}
+
+		final int parameter = ((type == NODE_AT_MOST) || (type == NODE_AT_LEAST) || (type == NODE_CHOOSE)) ? tokens[position[0]++] : 0;
+		final Node[] children = new Node[arity];
+		for (int i = 0; i < arity; i++) {
+			children[i] = decodeNode(tokens, position, strings);
+		}
+		switch (type) {
+		case NODE_NOT:
+			return new Not(children[0]);
+		case NODE_AND:
+			return new And(children);
+		case NODE_OR:
+			return new Or(children);
+		case NODE_IMPLIES:
+			return new Implies(children[0], children[1]);
+		case NODE_EQUALS:
+			return new Equals(children[0], children[1]);
+		case NODE_AT_MOST:
+			return new AtMost(parameter, children);
+		case NODE_AT_LEAST:
+			return new AtLeast(parameter, children);
+		case NODE_CHOOSE:
+			return new Choose(parameter, children);
+		default:
+			throw new UnsupportedModelException("Unknown node type: " + type, 0);
+		}
+	}
+
+	private static Object readValue(ByteBuffer buffer, Type type) {
+		switch (type) {
+		case BOOLEAN:
+			return buffer.get() != 0;
+		case BYTE:
+			return buffer.get();
+		case CHAR:
+			return buffer.getChar();
+		case DOUBLE:
+			return buffer.getDouble();
+		case FLOAT:
+			return buffer.getFloat();
+		case INT:
+			return buffer.getInt();
+		case LONG:
+			return buffer.getLong();
+		case SHORT:
+			return buffer.getShort();
+		case STRING:
+			return readString(buffer);
+		default:
+			throw new IllegalArgumentException("Unsupported value type for property: " + type);
+		}
+	}
+
+	private static int[] readInts(ByteBuffer buffer, int length) {
+		final int[] ints = new int[length];
+		buffer.asIntBuffer().get(ints);
+		buffer.position(buffer.position() + (4 * length));
+		return ints;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		final String string = decodeString(buffer, buffer.position(), length);
+		buffer.position(buffer.position() + length);
+		return string;
+	}
+
+	private static String decodeString(ByteBuffer buffer, int offset, int length) {
+		if (buffer.hasArray()) {
+			return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+		}
+		final byte[] bytes = new byte[length];
+		final ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position(offset);
+		duplicate.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public boolean supportsContent(CharSequence content) {
+		if (content.length() < ENCODED_PREFIX.length()) {
+			return false;
+		}
+		for (int i = 0; i < ENCODED_PREFIX.length(); i++) {
+			if (content.charAt(i) != ENCODED_PREFIX.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean supportsContent(LazyReader reader) {
+		return supportsContent((CharSequence) reader);
+	}
+
+	@Override
+	public boolean supportsRead() {
+		return true;
+	}
+
+	@Override
+	public boolean supportsWrite() {
+		return true;
+	}
+
+	@Override
+	public BinaryFeatureModelFormat getInstance() {
+		return new BinaryFeatureModelFormat(this);
+	}
+
+	@Override
+	public String getId() {
+		return ID;
+	}
+
+	@Override
+	public String getSuffix() {
+		return FILE_EXTENSION;
+	}
+
+	@Override
+	public String getName() {
+		return "Binary";
+	}
+
+}
@@ -0,0 +1,411 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.GZIPInputStream;
+
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Reads DIMACS CNF files on byte level and passes each clause directly to an {@link IClauseSink} without creating a {@link org.prop4j.Node Node} for the
+ * formula.</br> Plain files are memory-mapped, gzip-compressed input (detected by its magic number) is decompressed on the fly. Thus, the memory consumption
+ * only depends on the sink (e.g., the {@link org.prop4j.solver.ClauseArena ClauseArena} of a {@link SatInstanceSink}).</br> Accepts the same input and
+ * reports the same errors as {@link DimacsReader}.
+ */
+public class DimacsStreamReader {
+
+	/** Maximum size of a memory-mapped region of a file. */
+	private static final long MAPPING_SIZE = 1L << 28;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final int GZIP_MAGIC_1 = 0x1f;
+	private static final int GZIP_MAGIC_2 = 0x8b;
+
+	private static final int LINE_START = 0;
+	private static final int TOKEN_GAP = 1;
+	private static final int COMMENT = 2;
+	private static final int NUMBER = 3;
+	private static final int WORD = 4;
+
+	private static final int EXPECT_PROBLEM = 0;
+	private static final int EXPECT_CNF = 1;
+	private static final int EXPECT_VARIABLE_COUNT = 2;
+	private static final int EXPECT_CLAUSE_COUNT = 3;
+	private static final int EXPECT_CLAUSES = 4;
+
+	/** True to read the variable directory for naming variables. */
+	private boolean readVariableDirectory = false;
+
+	private IClauseSink sink;
+
+	private int state;
+	private int section;
+	private int lineCount;
+
+	private long number;
+	private boolean negative;
+	private boolean hasDigits;
+
+	private byte[] text = new byte[64];
+	private int textLength;
+
+	private int[] clause = new int[16];
+	private int clauseLength;
+
+	private int variableCount;
+	private int clauseCount;
+	private int readClausesCount;
+	private final BitSet variables = new BitSet();
+
+	/**
+	 * Sets the reading variable directory flag. If true, the reader will look for a variable directory in the comments before the first clause. Defaults to
+	 * false.
+	 *
+	 * @param readVariableDirectory whether to read the variable directory
+	 */
+	public void setReadingVariableDirectory(boolean readVariableDirectory) {
+		this.readVariableDirectory = readVariableDirectory;
+	}
+
+	/**
+	 * Reads the given file into a new {@link SatInstance}.
+	 *
+	 * @param path the file to read; either plain or gzip-compressed
+	 * @return the CNF; not null
+	 * @throws IOException if the file cannot be read
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public SatInstance read(Path path) throws ParseException, IOException {
+		final SatInstanceSink satInstanceSink = new SatInstanceSink();
+		read(path, satInstanceSink);
+		return satInstanceSink.getSatInstance();
+	}
+
+	/**
+	 * Reads the given file and passes its content to the given sink.
+	 *
+	 * @param path the file to read; either plain or gzip-compressed
+	 * @param sink the sink receiving the clauses
+	 * @throws IOException if the file cannot be read
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public void read(Path path, IClauseSink sink) throws ParseException, IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final ByteBuffer magic = ByteBuffer.allocate(2);
+			channel.read(magic, 0);
+			if (isGzip(magic.array())) {
+				read(Files.newInputStream(path), sink);
+				return;
+			}
+			start(sink);
+			final long size = channel.size();
+			for (long position = 0; position < size; position += MAPPING_SIZE) {
+				consume(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPING_SIZE, size - position)));
+			}
+			finish();
+		} finally {
+			reset();
+		}
+	}
+
+	/**
+	 * Reads the given stream and passes its content to the given sink. The stream is closed afterwards.
+	 *
+	 * @param in the stream to read from; either plain or gzip-compressed
+	 * @param sink the sink receiving the clauses
+	 * @throws IOException if the stream cannot be read
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public void read(InputStream in, IClauseSink sink) throws ParseException, IOException {
+		try (InputStream input = decompress(new BufferedInputStream(in, BUFFER_SIZE))) {
+			start(sink);
+			final byte[] buffer = new byte[BUFFER_SIZE];
+			final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+			for (int count = input.read(buffer); count >= 0; count = input.read(buffer)) {
+				byteBuffer.limit(count).position(0);
+				consume(byteBuffer);
+			}
+			finish();
+		} finally {
+			reset();
+		}
+	}
+
+	private static InputStream decompress(InputStream in) throws IOException {
+		in.mark(2);
+		final byte[] magic = new byte[2];
+		int count = 0;
+		while (count < 2) {
+			final int read = in.read(magic, count, 2 - count);
+			if (read < 0) {
+				break;
+			}
+			count += read;
+		}
+		in.reset();
+		return ((count == 2) && isGzip(magic)) ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+	}
+
+	private static boolean isGzip(byte[] magic) {
+		return ((magic[0] & 0xff) == GZIP_MAGIC_1) && ((magic[1] & 0xff) == GZIP_MAGIC_2);
+	}
+
+	private void start(IClauseSink sink) {
+		this.sink = sink;
+		state = LINE_START;
+		section = EXPECT_PROBLEM;
+		lineCount = 1;
+		textLength = 0;
+		clauseLength = 0;
+		variableCount = -1;
+		clauseCount = -1;
+		readClausesCount = 0;
+		variables.clear();
+	}
+
+	private void reset() {
+		sink = null;
+		variables.clear();
+	}
+
+	private void consume(ByteBuffer buffer) throws ParseException {
+		while (buffer.hasRemaining()) {
+			final byte b = buffer.get();
+			switch (state) {
+			case NUMBER:
+				if ((b >= '0') && (b <= '9')) {
+					number = (number * 10) + (b - '0');
+					hasDigits = true;
+					if (number > Integer.MAX_VALUE) {
+						throw new ParseException("Illegal literal", lineCount);
+					}
+				} else if (isWhitespace(b)) {
+					endNumber();
+					endToken(b);
+				} else {
+					throw new ParseException("Illegal literal", lineCount);
+				}
+				break;
+			case WORD:
+				if (isWhitespace(b)) {
+					endWord();
+					endToken(b);
+				} else {
+					appendText(b);
+				}
+				break;
+			case COMMENT:
+				if (b == '\n') {
+					endComment();
+					lineCount++;
+					state = LINE_START;
+				} else if (b != '\r') {
+					if ((textLength > 0) || !isWhitespace(b)) {
+						appendText(b);
+					}
+				}
+				break;
+			default:
+				if (isWhitespace(b)) {
+					endToken(b);
+				} else if ((b == DIMACSFormat.COMMENT.charAt(0)) && (state == LINE_START)) {
+					textLength = 0;
+					state = COMMENT;
+				} else if ((b == '-') || ((b >= '0') && (b <= '9'))) {
+					negative = b == '-';
+					number = negative ? 0 : (b - '0');
+					hasDigits = !negative;
+					state = NUMBER;
+				} else {
+					textLength = 0;
+					appendText(b);
+					state = WORD;
+				}
+				break;
+			}
+		}
+	}
+
+	private void finish() throws ParseException {
+		switch (state) {
+		case NUMBER:
+			endNumber();
+			break;
+		case WORD:
+			endWord();
+			break;
+		case COMMENT:
+			endComment();
+			break;
+		default:
+			break;
+		}
+		if (section != EXPECT_CLAUSES) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		if (clauseLength > 0) {
+			endClause();
+		}
+		if (readClausesCount < clauseCount) {
+			throw new ParseException(String.format("Found %d instead of %d clauses", readClausesCount, clauseCount), 1);
+		}
+		final int actualVariableCount = variables.cardinality();
+		if (variableCount != actualVariableCount) {
+			throw new ParseException(String.format("Found %d instead of %d variables", actualVariableCount, variableCount), 1);
+		}
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return (b == ' ') || (b == '\n') || (b == '\t') || (b == '\r') || (b == '\f') || (b == 0x0b);
+	}
+
+	private void endToken(byte b) {
+		if (b == '\n') {
+			lineCount++;
+			state = LINE_START;
+		} else if (state != LINE_START) {
+			state = TOKEN_GAP;
+		}
+	}
+
+	private void appendText(byte b) {
+		if (textLength == text.length) {
+			text = Arrays.copyOf(text, textLength << 1);
+		}
+		text[textLength++] = b;
+	}
+
+	private void endWord() throws ParseException {
+		final String word = new String(text, 0, textLength, StandardCharsets.UTF_8);
+		if ((section == EXPECT_PROBLEM) && DIMACSFormat.PROBLEM.equals(word)) {
+			section = EXPECT_CNF;
+		} else if ((section == EXPECT_CNF) && DIMACSFormat.CNF.equals(word)) {
+			section = EXPECT_VARIABLE_COUNT;
+		} else if (section == EXPECT_CLAUSES) {
+			throw new ParseException("Illegal literal", lineCount);
+		} else {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+	}
+
+	private void endNumber() throws ParseException {
+		if (!hasDigits) {
+			throw new ParseException(section == EXPECT_CLAUSES ? "Illegal literal" : "Invalid problem format", lineCount);
+		}
+		final int value = (int) number;
+		switch (section) {
+		case EXPECT_VARIABLE_COUNT:
+			if (negative) {
+				throw new ParseException("Invalid problem format", lineCount);
+			}
+			if (value <= 0) {
+				throw new ParseException("Variable count is not positive", lineCount);
+			}
+			variableCount = value;
+			section = EXPECT_CLAUSE_COUNT;
+			break;
+		case EXPECT_CLAUSE_COUNT:
+			if (negative) {
+				throw new ParseException("Invalid problem format", lineCount);
+			}
+			if (value <= 0) {
+				throw new ParseException("Clause count is not positive", lineCount);
+			}
+			clauseCount = value;
+			section = EXPECT_CLAUSES;
+			sink.setProblem(variableCount, clauseCount);
+			break;
+		case EXPECT_CLAUSES:
+			if (value == 0) {
+				if (negative) {
+					throw new ParseException("Illegal literal", lineCount);
+				}
+				if (clauseLength == 0) {
+					throw new ParseException("Empty clause", lineCount);
+				}
+				endClause();
+			} else {
+				if (clauseLength == clause.length) {
+					clause = Arrays.copyOf(clause, clauseLength << 1);
+				}
+				clause[clauseLength++] = negative ? -value : value;
+				variables.set(value);
+			}
+			break;
+		default:
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+	}
+
+	private void endClause() throws ParseException {
+		if (readClausesCount == clauseCount) {
+			throw new ParseException(String.format("Found more than %d clauses", clauseCount), 1);
+		}
+		sink.addClause(clause, clauseLength);
+		readClausesCount++;
+		clauseLength = 0;
+	}
+
+	private void endComment() {
+		if (readVariableDirectory && (readClausesCount == 0) && (clauseLength == 0)) {
+			readVariableDirectoryEntry();
+		}
+		textLength = 0;
+	}
+
+	/**
+	 * Reads an entry of the variable directory (i.e., a comment of the form {@code <index> <name>}).
+	 */
+	private void readVariableDirectoryEntry() {
+		int index = 0;
+		int i = 0;
+		for (; i < textLength; i++) {
+			final byte b = text[i];
+			if ((b < '0') || (b > '9')) {
+				break;
+			}
+			index = (index * 10) + (b - '0');
+			if (index < 0) {
+				return;
+			}
+		}
+		if ((i == 0) || (i >= (textLength - 1)) || (text[i] != ' ')) {
+			return;
+		}
+		if (!variables.get(index)) {
+			variables.set(index);
+			sink.setVariableName(index, new String(text, i + 1, textLength - (i + 1), StandardCharsets.UTF_8));
+		}
+	}
+
+}
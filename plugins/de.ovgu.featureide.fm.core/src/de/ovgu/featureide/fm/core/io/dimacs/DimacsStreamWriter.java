@@ -0,0 +1,186 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import org.prop4j.solver.ClauseArena;
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Writes the clauses of a {@link SatInstance} in DIMACS CNF file format. In contrast to {@link DimacsWriter}, the clauses are taken directly from the
+ * {@link ClauseArena} of the instance and encoded into a fixed-size byte buffer, such that no intermediate string of the whole file is created.
+ */
+public class DimacsStreamWriter {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Maximum number of bytes needed to encode a literal including sign and separator. */
+	private static final int MAX_LITERAL_LENGTH = 12;
+	private static final String GZIP_SUFFIX = ".gz";
+
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+	/** Whether the writer should write a variable directory listing the names of the variables. */
+	private boolean writeVariableDirectory = false;
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+	private OutputStream out;
+
+	/**
+	 * Sets the writing variable directory flag. If true, the writer will write a variable directory at the start of the output. Defaults to false.
+	 *
+	 * @param writeVariableDirectory whether to write the variable directory
+	 */
+	public void setWritingVariableDirectory(boolean writeVariableDirectory) {
+		this.writeVariableDirectory = writeVariableDirectory;
+	}
+
+	/**
+	 * Writes the given instance to a file. If the file name ends with {@value #GZIP_SUFFIX}, the output is gzip-compressed.
+	 *
+	 * @param satInstance the CNF to write; not null
+	 * @param path the file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(SatInstance satInstance, Path path) throws IOException {
+		final OutputStream fileOut = Files.newOutputStream(path);
+		final String fileName = path.getFileName().toString();
+		write(satInstance, fileName.endsWith(GZIP_SUFFIX) ? new GZIPOutputStream(fileOut, BUFFER_SIZE) : fileOut);
+	}
+
+	/**
+	 * Writes the given instance to a stream. The stream is closed afterwards.
+	 *
+	 * @param satInstance the CNF to write; not null
+	 * @param out the stream to write to
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void write(SatInstance satInstance, OutputStream out) throws IOException {
+		try {
+			this.out = out;
+			position = 0;
+			if (writeVariableDirectory) {
+				writeVariableDirectory(satInstance);
+			}
+			final ClauseArena clauses = satInstance.getClauses();
+			writeProblem(satInstance.getNumberOfVariables(), clauses.size());
+			writeClauses(clauses);
+			flush();
+		} finally {
+			this.out = null;
+			out.close();
+		}
+	}
+
+	private void writeVariableDirectory(SatInstance satInstance) throws IOException {
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		for (int i = 1; i <= numberOfVariables; i++) {
+			writeText(DIMACSFormat.COMMENT_START);
+			writeInt(i);
+			writeByte(' ');
+			writeText(String.valueOf(satInstance.getVariableObject(i)));
+			writeLineSeparator();
+		}
+	}
+
+	private void writeProblem(int numberOfVariables, int numberOfClauses) throws IOException {
+		writeText(DIMACSFormat.PROBLEM);
+		writeByte(' ');
+		writeText(DIMACSFormat.CNF);
+		writeByte(' ');
+		writeInt(numberOfVariables);
+		writeByte(' ');
+		writeInt(numberOfClauses);
+		writeLineSeparator();
+	}
+
+	private void writeClauses(ClauseArena clauses) throws IOException {
+		final int[] literals = clauses.getLiterals();
+		for (int i = 0; i < clauses.size(); i++) {
+			final int end = clauses.getEnd(i);
+			for (int j = clauses.getStart(i); j < end; j++) {
+				writeInt(literals[j]);
+				writeByte(' ');
+			}
+			writeText(DIMACSFormat.CLAUSE_END);
+			writeLineSeparator();
+		}
+	}
+
+	private void writeText(String text) throws IOException {
+		final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		if ((position + bytes.length) > buffer.length) {
+			flush();
+			if (bytes.length > buffer.length) {
+				out.write(bytes);
+				return;
+			}
+		}
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	private void writeLineSeparator() throws IOException {
+		for (final byte b : LINE_SEPARATOR) {
+			writeByte(b);
+		}
+	}
+
+	private void writeByte(int b) throws IOException {
+		if (position == buffer.length) {
+			flush();
+		}
+		buffer[position++] = (byte) b;
+	}
+
+	private void writeInt(int value) throws IOException {
+		if ((position + MAX_LITERAL_LENGTH) > buffer.length) {
+			flush();
+		}
+		long remaining = value;
+		if (remaining < 0) {
+			buffer[position++] = '-';
+			remaining = -remaining;
+		}
+		final int start = position;
+		do {
+			buffer[position++] = (byte) ('0' + (remaining % 10));
+			remaining /= 10;
+		} while (remaining > 0);
+		for (int i = start, j = position - 1; i < j; i++, j--) {
+			final byte b = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = b;
+		}
+	}
+
+	private void flush() throws IOException {
+		out.write(buffer, 0, position);
+		position = 0;
+	}
+
+}
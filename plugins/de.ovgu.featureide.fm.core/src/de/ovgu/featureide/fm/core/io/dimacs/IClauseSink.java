@@ -0,0 +1,55 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+/**
+ * Receives the content of a DIMACS CNF file from a {@link DimacsStreamReader} while it is parsed.
+ *
+ * @see SatInstanceSink
+ * @see SolverSink
+ */
+public interface IClauseSink {
+
+	/**
+	 * Called once when the problem definition was read and before any clause is passed to this sink.
+	 *
+	 * @param numberOfVariables the declared number of variables
+	 * @param numberOfClauses the declared number of clauses
+	 */
+	void setProblem(int numberOfVariables, int numberOfClauses);
+
+	/**
+	 * Called for each entry of the variable directory. May be called before {@link #setProblem(int, int)}.
+	 *
+	 * @param variable the index of the variable
+	 * @param name the name of the variable
+	 */
+	void setVariableName(int variable, String name);
+
+	/**
+	 * Called for each clause. The given array is reused by the reader and must not be stored.
+	 *
+	 * @param literals a buffer containing the literals of the clause
+	 * @param length the number of literals in the buffer that belong to the clause
+	 */
+	void addClause(int[] literals, int length);
+
+}
@@ -0,0 +1,83 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.prop4j.solver.ClauseArena;
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Collects the clauses of a DIMACS CNF file in a {@link ClauseArena} and creates a {@link SatInstance} from them. Variables without an entry in the variable
+ * directory are named by their index. If the clauses contain indices greater than the declared number of variables, the instance is extended accordingly.
+ */
+public class SatInstanceSink implements IClauseSink {
+
+	private final Map<Integer, String> names = new HashMap<>();
+
+	private ClauseArena clauses = new ClauseArena();
+	private int numberOfVariables = 0;
+
+	@Override
+	public void setProblem(int numberOfVariables, int numberOfClauses) {
+		this.numberOfVariables = Math.max(this.numberOfVariables, numberOfVariables);
+		clauses = new ClauseArena(numberOfClauses, numberOfClauses * 3);
+	}
+
+	@Override
+	public void setVariableName(int variable, String name) {
+		if (!names.containsKey(variable)) {
+			names.put(variable, name);
+			numberOfVariables = Math.max(numberOfVariables, variable);
+		}
+	}
+
+	@Override
+	public void addClause(int[] literals, int length) {
+		for (int i = 0; i < length; i++) {
+			final int literal = literals[i];
+			clauses.addLiteral(literal);
+			numberOfVariables = Math.max(numberOfVariables, Math.abs(literal));
+		}
+		clauses.finishClause();
+	}
+
+	public ClauseArena getClauses() {
+		return clauses;
+	}
+
+	/**
+	 * @return a new instance containing the clauses read so far.
+	 */
+	public SatInstance getSatInstance() {
+		clauses.trimToSize();
+		final List<String> variables = new ArrayList<>(numberOfVariables);
+		for (int i = 1; i <= numberOfVariables; i++) {
+			final String name = names.get(i);
+			variables.add(name == null ? String.valueOf(i) : name);
+		}
+		return new SatInstance(clauses, variables);
+	}
+
+}
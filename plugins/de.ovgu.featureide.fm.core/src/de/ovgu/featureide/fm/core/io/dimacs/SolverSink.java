@@ -0,0 +1,76 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+
+/**
+ * Adds the clauses of a DIMACS CNF file directly to a sat4j {@link ISolver} without keeping a copy of them.
+ */
+public class SolverSink implements IClauseSink {
+
+	private final ISolver solver;
+	private final VecInt clause = new VecInt();
+
+	private boolean contradiction = false;
+
+	public SolverSink(ISolver solver) {
+		this.solver = solver;
+	}
+
+	@Override
+	public void setProblem(int numberOfVariables, int numberOfClauses) {
+		solver.newVar(numberOfVariables);
+		solver.setExpectedNumberOfClauses(numberOfClauses);
+	}
+
+	@Override
+	public void setVariableName(int variable, String name) {}
+
+	@Override
+	public void addClause(int[] literals, int length) {
+		if (!contradiction) {
+			clause.clear();
+			for (int i = 0; i < length; i++) {
+				clause.push(literals[i]);
+			}
+			try {
+				solver.addClause(clause);
+			} catch (final ContradictionException e) {
+				contradiction = true;
+			}
+		}
+	}
+
+	public ISolver getSolver() {
+		return solver;
+	}
+
+	/**
+	 * @return {@code true} if the solver detected a contradiction while adding the clauses (i.e., the formula is unsatisfiable).
+	 */
+	public boolean isContradiction() {
+		return contradiction;
+	}
+
+}
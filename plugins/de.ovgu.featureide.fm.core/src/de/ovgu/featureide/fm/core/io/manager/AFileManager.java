@@ -127,6 +127,19 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 	 * @throws IllegalArgumentException If path is empty.
 	 */
 	public static final Path constructExtraPath(Path path, IPersistentFormat<?> format) throws IllegalArgumentException {
+		return constructExtraPath(path, format.getSuffix());
+	}
+
+	/**
+	 * Constructs a path for a given file to store additional information.
+	 *
+	 * @param path The path pointing to the file.
+	 * @param suffix The file extension of the extra information file.
+	 * @return The path to the extra information file.
+	 *
+	 * @throws IllegalArgumentException If path is empty.
+	 */
+	public static final Path constructExtraPath(Path path, String suffix) throws IllegalArgumentException {
 		final Path mainPath = path.toAbsolutePath();
 		final Path mainFileNamePath = mainPath.getFileName();
 		if (mainFileNamePath != null) {
@@ -144,7 +157,7 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 					}
 				}
 
-				return extraFolder.resolve(mainFileNameString + "." + format.getSuffix());
+				return extraFolder.resolve(mainFileNameString + "." + suffix);
 			}
 		}
 		throw new IllegalArgumentException("Path " + path + " can not be transformed.");
@@ -28,33 +28,53 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.MANDATORY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
 import org.prop4j.And;
 import org.prop4j.AtMost;
 import org.prop4j.Equals;
 import org.prop4j.Implies;
 import org.prop4j.Literal;
+import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
 
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
 import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
 import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
@@ -62,8 +82,8 @@ import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IFeatureNameValidator;
 import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
-import de.ovgu.featureide.fm.core.io.xml.XmlPropertyLoader.PropertiesParser;
 
 /**
  * Reads / Writes a feature model in the FeatureIDE XML format
@@ -80,11 +100,30 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 
 	private static final Pattern CONTENT_REGEX = Pattern.compile("\\A\\s*(<[?]xml\\s.*[?]>\\s*)?<featureModel[\\s>]");
 
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+	private static final String INDENT = "    ";
+
 	private IFeatureModelFactory factory;
 	private IFeatureNameValidator validator;
 
 	private final List<Problem> localProblems = new ArrayList<>();
 
+	/**
+	 * A constraint that was read, but not yet added to the feature model.
+	 */
+	private static final class ConstraintEntry {
+
+		private final Node node;
+		private final String description;
+
+		public ConstraintEntry(Node node, String description) {
+			this.node = node;
+			this.description = description;
+		}
+
+	}
+
 	public XmlFeatureModelFormat() {}
 
 	protected XmlFeatureModelFormat(XmlFeatureModelFormat oldFormat) {
@@ -102,551 +141,743 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		return true;
 	}
 
+	/**
+	 * Reads the feature model with a StAX pull parser.</br> The model is built directly from the event stream without creating a DOM first. Errors are
+	 * reported with the line number of the corresponding element.
+	 */
 	@Override
-	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
-		object.reset();
-
-		factory = FMFactoryManager.getFactory(object);
+	public ProblemList read(IFeatureModel object, CharSequence source) {
+		this.object = object;
+		localProblems.clear();
+
+		final ProblemList lastWarnings = new ProblemList();
+		XMLStreamReader reader = null;
+		try {
+			final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+			inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+			reader = inputFactory.createXMLStreamReader(new StringReader(source.toString()));
+			readStream(reader, lastWarnings);
+		} catch (final XMLStreamException e) {
+			lastWarnings.add(new Problem(e, (e.getLocation() != null) ? e.getLocation().getLineNumber() : 1));
+		} catch (final UnsupportedModelException e) {
+			lastWarnings.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			lastWarnings.add(new Problem(e));
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (final XMLStreamException e) {
+					Logger.logError(e);
+				}
+			}
+		}
 
-		final Collection<PropertiesParser> customProperties = new ArrayList<>();
+		return lastWarnings;
+	}
 
-		for (final Element e : getElements(doc.getElementsByTagName(FEATURE_MODEL))) {
-			parseStruct(e.getElementsByTagName(STRUCT));
-			parseConstraints(e.getElementsByTagName(CONSTRAINTS));
-			parseCalculations(e.getElementsByTagName(CALCULATIONS));
-			parseComments(e.getElementsByTagName(COMMENTS));
-			parseFeatureOrder(e.getElementsByTagName(FEATURE_ORDER));
+	/**
+	 * Writes the feature model with a StAX stream writer.
+	 *
+	 * @see #write(IFeatureModel, Writer)
+	 */
+	@Override
+	public String write(IFeatureModel object) {
+		final StringWriter stringWriter = new StringWriter();
+		try {
+			write(object, stringWriter);
+		} catch (IOException | XMLStreamException e) {
+			Logger.logError(e);
+			return "";
+		}
+		return stringWriter.toString();
+	}
 
-			final XmlPropertyLoader propertyLoader = new XmlPropertyLoader(e.getElementsByTagName(PROPERTIES));
-			customProperties.addAll(propertyLoader.parseProperties());
+	/**
+	 * Writes the feature model directly to the given writer.</br> Apart from the output itself, only constant memory is required (plus a stack frame per level
+	 * of the feature tree).
+	 *
+	 * @param featureModel the feature model to write
+	 * @param output the target of the XML content. The writer is flushed, but not closed.
+	 * @throws IOException if the writer cannot be written
+	 * @throws XMLStreamException if the XML content cannot be written
+	 */
+	public void write(IFeatureModel featureModel, Writer output) throws IOException, XMLStreamException {
+		output.write(XML_DECLARATION);
+		output.write(LINE_SEPARATOR);
+		final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+		try {
+			writeFeatureModel(writer, featureModel);
+			writer.flush();
+		} finally {
+			writer.close();
 		}
+		output.write(LINE_SEPARATOR);
+		output.flush();
+	}
 
-		if (object.getStructure().getRoot() == null) {
-			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
+	/**
+	 * Writes the root element of the feature model and all of its content.
+	 */
+	private void writeFeatureModel(XMLStreamWriter writer, IFeatureModel featureModel) throws XMLStreamException {
+		writer.writeStartElement(FEATURE_MODEL);
+
+		writeProperties(writer, featureModel);
+
+		final IFeature root = FeatureUtils.getRoot(featureModel);
+		if (root == null) {
+			writeEmptyElement(writer, STRUCT, 1);
+		} else {
+			writeStartElement(writer, STRUCT, 1);
+			writeFeature(writer, root, 2);
+			writeEndElement(writer, 1);
 		}
 
-		importCustomProperties(customProperties, object);
-		warnings.addAll(localProblems);
-	}
+		final List<IConstraint> constraints = featureModel.getConstraints();
+		if (constraints.isEmpty()) {
+			writeEmptyElement(writer, CONSTRAINTS, 1);
+		} else {
+			writeStartElement(writer, CONSTRAINTS, 1);
+			for (final IConstraint constraint : constraints) {
+				writeStartElement(writer, RULE, 2);
+				writeDescription(writer, constraint.getDescription(), 3);
+				writeConstraintNode(writer, constraint.getNode(), 3);
+				writeEndElement(writer, 2);
+			}
+			writeEndElement(writer, 1);
+		}
 
-	@Override
-	protected void writeDocument(Document doc) {
-		final Element root = doc.createElement(FEATURE_MODEL);
-		final Element struct = doc.createElement(STRUCT);
-		final Element properties = doc.createElement(PROPERTIES);
-		final Element constraints = doc.createElement(CONSTRAINTS);
-		final Element calculations = doc.createElement(CALCULATIONS);
-		final Element comments = doc.createElement(COMMENTS);
-		final Element order = doc.createElement(FEATURE_ORDER);
-
-		doc.appendChild(root);
-		root.appendChild(properties);
-		createXmlPropertiesPart(doc, properties, object);
-
-		root.appendChild(struct);
-		createXmlDocRec(doc, struct, FeatureUtils.getRoot(object));
-
-		root.appendChild(constraints);
-		for (final IConstraint constraint : object.getConstraints()) {
-			Element rule;
-			rule = doc.createElement(RULE);
-
-			constraints.appendChild(rule);
-			addDescription(doc, constraint, rule);
-			createPropositionalConstraints(doc, rule, constraint.getNode());
-		}
-
-		root.appendChild(calculations);
-		calculations.setAttribute(CALCULATE_AUTO, "" + object.getAnalyser().runCalculationAutomatically);
-		calculations.setAttribute(CALCULATE_FEATURES, "" + object.getAnalyser().calculateFeatures);
-		calculations.setAttribute(CALCULATE_CONSTRAINTS, "" + object.getAnalyser().calculateConstraints);
-		calculations.setAttribute(CALCULATE_REDUNDANT, "" + object.getAnalyser().calculateRedundantConstraints);
-		calculations.setAttribute(CALCULATE_TAUTOLOGY, "" + object.getAnalyser().calculateTautologyConstraints);
-
-		root.appendChild(comments);
-		for (final String comment : object.getProperty().getComments()) {
-			final Element c = doc.createElement(C);
-			comments.appendChild(c);
-			final Text text = doc.createTextNode(comment);
-			c.appendChild(text);
-		}
-		order.setAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
-		root.appendChild(order);
-
-		if (object.isFeatureOrderUserDefined()) {
-			Collection<String> featureOrderList = object.getFeatureOrderList();
+		final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+		writeEmptyElement(writer, CALCULATIONS, 1);
+		writer.writeAttribute(CALCULATE_AUTO, Boolean.toString(analyser.runCalculationAutomatically));
+		writer.writeAttribute(CALCULATE_CONSTRAINTS, Boolean.toString(analyser.calculateConstraints));
+		writer.writeAttribute(CALCULATE_FEATURES, Boolean.toString(analyser.calculateFeatures));
+		writer.writeAttribute(CALCULATE_REDUNDANT, Boolean.toString(analyser.calculateRedundantConstraints));
+		writer.writeAttribute(CALCULATE_TAUTOLOGY, Boolean.toString(analyser.calculateTautologyConstraints));
+
+		final Iterable<String> comments = featureModel.getProperty().getComments();
+		if (!comments.iterator().hasNext()) {
+			writeEmptyElement(writer, COMMENTS, 1);
+		} else {
+			writeStartElement(writer, COMMENTS, 1);
+			for (final String comment : comments) {
+				writeStartElement(writer, C, 2);
+				writer.writeCharacters(comment);
+				writer.writeEndElement();
+			}
+			writeEndElement(writer, 1);
+		}
 
+		Collection<String> featureOrderList = Collections.emptyList();
+		if (featureModel.isFeatureOrderUserDefined()) {
+			featureOrderList = featureModel.getFeatureOrderList();
 			if (featureOrderList.isEmpty()) {
-				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(object);
+				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(featureModel);
 			}
-
+		}
+		if (featureOrderList.isEmpty()) {
+			writeEmptyElement(writer, FEATURE_ORDER, 1);
+			writer.writeAttribute(USER_DEFINED, Boolean.toString(featureModel.isFeatureOrderUserDefined()));
+		} else {
+			writeStartElement(writer, FEATURE_ORDER, 1);
+			writer.writeAttribute(USER_DEFINED, Boolean.toString(featureModel.isFeatureOrderUserDefined()));
 			for (final String featureName : featureOrderList) {
-				final Element feature = doc.createElement(FEATURE);
-				feature.setAttribute(NAME, featureName);
-				order.appendChild(feature);
+				writeEmptyElement(writer, FEATURE, 2);
+				writer.writeAttribute(NAME, featureName);
+			}
+			writeEndElement(writer, 1);
+		}
+
+		writeEndElement(writer, 0);
+	}
+
+	private void writeProperties(XMLStreamWriter writer, IFeatureModel featureModel) throws XMLStreamException {
+		boolean empty = true;
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final Set<Entry<String, Type, Object>> propertyEntries = feature.getCustomProperties().entrySet();
+			if (!propertyEntries.isEmpty()) {
+				if (empty) {
+					writeStartElement(writer, PROPERTIES, 1);
+					empty = false;
+				}
+				writeStartElement(writer, FEATURE, 2);
+				writer.writeAttribute(NAME, feature.getName());
+				for (final Entry<String, Type, Object> entry : propertyEntries) {
+					writeEmptyElement(writer, XmlPropertyLoader.PROPERTY, 3);
+					writer.writeAttribute(XmlPropertyLoader.TYPE, entry.getType().toString());
+					writer.writeAttribute(XmlPropertyLoader.KEY, entry.getKey());
+					writer.writeAttribute(XmlPropertyLoader.VALUE, entry.getValue().toString());
+				}
+				writeEndElement(writer, 2);
 			}
 		}
+		if (empty) {
+			writeEmptyElement(writer, PROPERTIES, 1);
+		} else {
+			writeEndElement(writer, 1);
+		}
 	}
 
-	private Node createFeaturePropertyContainerNode(Document doc, String featureName, Set<Entry<String, Type, Object>> propertyEntries) {
-		final Element result = doc.createElement(FEATURE);
-		result.setAttribute(NAME, featureName);
-		for (final Entry<String, Type, Object> entry : propertyEntries) {
-			result.appendChild(createPropertyEntriesNode(doc, entry));
+	private void writeFeature(XMLStreamWriter writer, IFeature feature, int depth) throws XMLStreamException {
+		final IFeatureStructure structure = feature.getStructure();
+		final String description = feature.getProperty().getDescription();
+		final boolean hasDescription = (description != null) && !description.trim().isEmpty();
+
+		final String elementName;
+		if (!structure.hasChildren()) {
+			elementName = FEATURE;
+		} else if (structure.isAnd()) {
+			elementName = AND;
+		} else if (structure.isOr()) {
+			elementName = OR;
+		} else if (structure.isAlternative()) {
+			elementName = ALT;
+		} else {
+			elementName = UNKNOWN;
+		}
+
+		final boolean empty = !hasDescription && !structure.hasChildren();
+		if (empty) {
+			writeEmptyElement(writer, elementName, depth);
+		} else {
+			writeStartElement(writer, elementName, depth);
+		}
+		if (structure.isAbstract()) {
+			writer.writeAttribute(ABSTRACT, TRUE);
+		}
+		if (structure.isHidden()) {
+			writer.writeAttribute(HIDDEN, TRUE);
+		}
+		if (structure.isMandatory() && ((structure.getParent() == null) || structure.getParent().isAnd())) {
+			writer.writeAttribute(MANDATORY, TRUE);
+		}
+		writer.writeAttribute(NAME, feature.getName());
+
+		if (!empty) {
+			writeDescription(writer, description, depth + 1);
+			for (final IFeatureStructure child : structure.getChildren()) {
+				writeFeature(writer, child.getFeature(), depth + 1);
+			}
+			writeEndElement(writer, depth);
 		}
-		return result;
 	}
 
-	private Node createPropertyEntriesNode(Document doc, Entry<String, Type, Object> entry) {
-		final Element propertyElement = doc.createElement(XmlPropertyLoader.PROPERTY);
-		propertyElement.setAttribute(XmlPropertyLoader.KEY, entry.getKey());
-		propertyElement.setAttribute(XmlPropertyLoader.VALUE, entry.getValue().toString());
-		propertyElement.setAttribute(XmlPropertyLoader.TYPE, entry.getType().toString());
-		return propertyElement;
+	private void writeDescription(XMLStreamWriter writer, String description, int depth) throws XMLStreamException {
+		if ((description != null) && !description.trim().isEmpty()) {
+			writeStartElement(writer, DESCRIPTION, depth);
+			writer.writeCharacters("\n" + description.replace("\r", "") + "\n");
+			writer.writeEndElement();
+		}
 	}
 
-	/**
-	 * Inserts the tags concerning propositional constraints into the DOM document representation
-	 *
-	 * @param doc
-	 * @param FeatMod Parent node for the propositional nodes
-	 */
-	private void createPropositionalConstraints(Document doc, Element xmlNode, org.prop4j.Node node) {
+	private void writeConstraintNode(XMLStreamWriter writer, Node node, int depth) throws XMLStreamException {
 		if (node == null) {
 			return;
 		}
 
-		final Element op;
 		if (node instanceof Literal) {
 			final Literal literal = (Literal) node;
+			int varDepth = depth;
 			if (!literal.positive) {
-				final Element opNot = doc.createElement(NOT);
-				xmlNode.appendChild(opNot);
-				xmlNode = opNot;
+				writeStartElement(writer, NOT, depth);
+				varDepth++;
+			}
+			writeStartElement(writer, VAR, varDepth);
+			writer.writeCharacters(String.valueOf(literal.var));
+			writer.writeEndElement();
+			if (!literal.positive) {
+				writeEndElement(writer, depth);
 			}
-			op = doc.createElement(VAR);
-			op.appendChild(doc.createTextNode(String.valueOf(literal.var)));
-			xmlNode.appendChild(op);
 			return;
-		} else if (node instanceof Or) {
-			op = doc.createElement(DISJ);
+		}
+
+		final String elementName;
+		if (node instanceof Or) {
+			elementName = DISJ;
 		} else if (node instanceof Equals) {
-			op = doc.createElement(EQ);
+			elementName = EQ;
 		} else if (node instanceof Implies) {
-			op = doc.createElement(IMP);
+			elementName = IMP;
 		} else if (node instanceof And) {
-			op = doc.createElement(CONJ);
+			elementName = CONJ;
 		} else if (node instanceof Not) {
-			op = doc.createElement(NOT);
+			elementName = NOT;
 		} else if (node instanceof AtMost) {
-			op = doc.createElement(ATMOST1);
+			elementName = ATMOST1;
 		} else {
-			op = doc.createElement(UNKNOWN);
+			elementName = UNKNOWN;
 		}
-		xmlNode.appendChild(op);
 
-		for (final org.prop4j.Node child : node.getChildren()) {
-			createPropositionalConstraints(doc, op, child);
+		final Node[] children = node.getChildren();
+		if ((children == null) || (children.length == 0)) {
+			writeEmptyElement(writer, elementName, depth);
+		} else {
+			writeStartElement(writer, elementName, depth);
+			for (final Node child : children) {
+				writeConstraintNode(writer, child, depth + 1);
+			}
+			writeEndElement(writer, depth);
+		}
+	}
+
+	private static void writeStartElement(XMLStreamWriter writer, String name, int depth) throws XMLStreamException {
+		writeIndent(writer, depth);
+		writer.writeStartElement(name);
+	}
+
+	private static void writeEmptyElement(XMLStreamWriter writer, String name, int depth) throws XMLStreamException {
+		writeIndent(writer, depth);
+		writer.writeEmptyElement(name);
+	}
+
+	private static void writeEndElement(XMLStreamWriter writer, int depth) throws XMLStreamException {
+		writeIndent(writer, depth);
+		writer.writeEndElement();
+	}
+
+	private static void writeIndent(XMLStreamWriter writer, int depth) throws XMLStreamException {
+		writer.writeCharacters(LINE_SEPARATOR);
+		for (int i = 0; i < depth; i++) {
+			writer.writeCharacters(INDENT);
 		}
 	}
 
 	/**
-	 * Creates document based on feature model step by step
-	 *
-	 * @param doc document to write
-	 * @param node parent node
-	 * @param feat current feature
+	 * Reads all sections of all feature model elements within the stream.</br> The sections may appear in any order. As constraints and the feature order
+	 * refer to features by name, they are buffered and only added to the model after the whole stream has been read.
 	 */
-	private void createXmlDocRec(Document doc, Element node, IFeature feat) {
-		if (feat == null) {
-			return;
-		}
+	private void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
+		object.reset();
 
-		final List<IFeature> children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
+		factory = FMFactoryManager.getFactory(object);
 
-		final Element fnod;
-		if (children.isEmpty()) {
-			fnod = doc.createElement(FEATURE);
-			addDescription(doc, feat, fnod);
-			writeAttributes(node, fnod, feat);
-		} else {
-			if (feat.getStructure().isAnd()) {
-				fnod = doc.createElement(AND);
-			} else if (feat.getStructure().isOr()) {
-				fnod = doc.createElement(OR);
-			} else if (feat.getStructure().isAlternative()) {
-				fnod = doc.createElement(ALT);
-			} else {
-				fnod = doc.createElement(UNKNOWN);// Logger.logInfo("creatXMlDockRec: Unexpected error!");
+		final Map<String, Set<Entry<String, Type, Object>>> customProperties = new LinkedHashMap<>();
+		final List<ConstraintEntry> constraints = new ArrayList<>();
+		final List<String> featureOrder = new ArrayList<>();
+		final Map<String, Integer> featureReferences = new LinkedHashMap<>();
+
+		while (reader.hasNext()) {
+			if ((reader.next() == XMLStreamConstants.START_ELEMENT) && FEATURE_MODEL.equals(reader.getLocalName())) {
+				while (nextElement(reader)) {
+					final String nodeName = reader.getLocalName();
+					if (nodeName.equals(STRUCT)) {
+						while (nextElement(reader)) {
+							readFeature(reader, null);
+						}
+					} else if (nodeName.equals(CONSTRAINTS)) {
+						readConstraints(reader, constraints, featureReferences);
+					} else if (nodeName.equals(CALCULATIONS)) {
+						readCalculations(reader);
+					} else if (nodeName.equals(COMMENTS)) {
+						readComments(reader);
+					} else if (nodeName.equals(FEATURE_ORDER)) {
+						readFeatureOrder(reader, featureOrder, featureReferences);
+					} else if (nodeName.equals(PROPERTIES)) {
+						readProperties(reader, customProperties);
+					} else {
+						skipElement(reader);
+					}
+				}
 			}
+		}
 
-			addDescription(doc, feat, fnod);
-			writeAttributes(node, fnod, feat);
+		if (object.getStructure().getRoot() == null) {
+			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
+		}
 
-			for (final IFeature feature : children) {
-				createXmlDocRec(doc, fnod, feature);
+		for (final Map.Entry<String, Integer> featureReference : featureReferences.entrySet()) {
+			if (object.getFeature(featureReference.getKey()) == null) {
+				throwError("Feature \"" + featureReference.getKey() + "\" does not exists", featureReference.getValue());
 			}
-
+		}
+		for (final ConstraintEntry constraintEntry : constraints) {
+			final IConstraint c = factory.createConstraint(object, constraintEntry.node);
+			if (constraintEntry.description != null) {
+				c.setDescription(constraintEntry.description);
+			}
+			object.addConstraint(c);
+		}
+		if (!featureOrder.isEmpty()) {
+			object.setFeatureOrderList(featureOrder);
 		}
 
+		for (final Map.Entry<String, Set<Entry<String, Type, Object>>> featureProperties : customProperties.entrySet()) {
+			object.getFeature(featureProperties.getKey()).getCustomProperties().setEntrySet(featureProperties.getValue());
+		}
+		warnings.addAll(localProblems);
 	}
 
-	protected void addDescription(Document doc, IFeature feat, Element fnod) {
-		final String description = feat.getProperty().getDescription();
-		if ((description != null) && !description.trim().isEmpty()) {
-			final Element descr = doc.createElement(DESCRIPTION);
-			descr.setTextContent("\n" + description.replace("\r", "") + "\n");
-			fnod.appendChild(descr);
+	private void readFeature(XMLStreamReader reader, IFeature parent) throws XMLStreamException, UnsupportedModelException {
+		final String nodeName = reader.getLocalName();
+		final int lineNumber = reader.getLocation().getLineNumber();
+		if (nodeName.equals(DESCRIPTION)) {
+			final String description = readText(reader);
+			if ((parent != null) && !description.isEmpty()) {
+				parent.getProperty().setDescription(cleanFeatureDescription(description));
+			}
+			return;
 		}
-	}
 
-	protected void addDescription(Document doc, IConstraint constraint, Element fnod) {
-		final String description = constraint.getDescription();
-		if ((description != null) && !description.trim().isEmpty()) {
-			final Element descr = doc.createElement(DESCRIPTION);
-			descr.setTextContent("\n" + description.replace("\r", "") + "\n");
-			fnod.appendChild(descr);
+		boolean mandatory = false;
+		boolean _abstract = false;
+		boolean hidden = false;
+		String name = "";
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(ABSTRACT)) {
+				_abstract = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(MANDATORY)) {
+				mandatory = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(NAME)) {
+				name = attributeValue;
+			} else if (attributeName.equals(HIDDEN)) {
+				hidden = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(COORDINATES)) {
+				// Legacy case, for backwards compatibility
+			} else {
+				throwError("Unknown feature attribute: " + attributeName, lineNumber);
+			}
 		}
-	}
 
-	private void createXmlPropertiesPart(Document doc, Element propertiesNode, IFeatureModel featureModel) {
+		if (object.getFeature(name) != null) {
+			throwError("Duplicate entry for feature: " + name, lineNumber);
+		}
 
-		if ((featureModel == null) || (propertiesNode == null)) {
-			throw new RuntimeException();
+		if ((validator != null) && !validator.isValidFeatureName(name)) {
+			addToProblemsList(name + " is not a valid feature name", lineNumber);
 		}
 
-		// Store per-feature properties
-		for (final IFeature feature : featureModel.getFeatures()) {
-			final String featureName = feature.getName();
-			final Set<Entry<String, Type, Object>> propertyEntries = feature.getCustomProperties().entrySet();
-			if (!propertyEntries.isEmpty()) {
-				propertiesNode.appendChild(createFeaturePropertyContainerNode(doc, featureName, propertyEntries));
-			}
+		final IFeature f = factory.createFeature(object, name);
+		f.getStructure().setMandatory(true);
+		if (nodeName.equals(AND)) {
+			f.getStructure().setAnd();
+		} else if (nodeName.equals(ALT)) {
+			f.getStructure().setAlternative();
+		} else if (nodeName.equals(OR)) {
+			f.getStructure().setOr();
+		} else if (nodeName.equals(FEATURE)) {
+
+		} else {
+			throwError("Unknown feature type: " + nodeName, lineNumber);
 		}
+		f.getStructure().setAbstract(_abstract);
+		f.getStructure().setMandatory(mandatory);
+		f.getStructure().setHidden(hidden);
 
-		// TODO: Add here other property container, e.g., feature model
-		// ...
+		object.addFeature(f);
+		if (parent == null) {
+			object.getStructure().setRoot(f.getStructure());
+		} else {
+			parent.getStructure().addChild(f.getStructure());
+		}
+		while (nextElement(reader)) {
+			readFeature(reader, f);
+		}
 	}
 
-	private void importCustomProperties(Collection<PropertiesParser> customProperties, IFeatureModel object) {
-		for (final PropertiesParser parser : customProperties) {
-			switch (parser.getType()) {
-			case FEATURE_PROPERTIES_PARSER: {
-				for (final String featureName : parser.getIdentifier()) {
-					object.getFeature(featureName).getCustomProperties().setEntrySet(parser.getPropertyEntries(featureName));
+	private void readConstraints(XMLStreamReader reader, List<ConstraintEntry> constraints, Map<String, Integer> featureReferences)
+			throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			final int lineNumber = reader.getLocation().getLineNumber();
+			if (nodeName.equals(RULE)) {
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					final String attributeName = reader.getAttributeLocalName(i);
+					if (attributeName.equals(COORDINATES)) {
+						// Legacy case, for backwards compatibility
+					} else {
+						throwError("Unknown constraint attribute: " + attributeName, lineNumber);
+					}
 				}
-				break;
-			}
-			default:
-				throw new UnsupportedOperationException("Unkown property container parser type " + parser.getType());
+				String description = null;
+				Node node = null;
+				while (nextElement(reader)) {
+					if (reader.getLocalName().equals(DESCRIPTION)) {
+						description = cleanConstraintDescription(readText(reader));
+					} else {
+						final Node child = readConstraintNode(reader, featureReferences);
+						if (node == null) {
+							node = child;
+						}
+					}
+				}
+				if (node == null) {
+					throwError("Missing constraint node", lineNumber);
+				}
+				constraints.add(new ConstraintEntry(node, description));
+			} else {
+				throwError("Unknown constraint node: " + nodeName, lineNumber);
 			}
 		}
 	}
 
 	/**
-	 * Parses the calculations.
+	 * @param featureReferences collects the names of all referenced features together with the line number of their first occurrence
+	 * @return the propositional node of the current element or {@code null} for a description.
 	 */
-	private void parseCalculations(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String nodeName = node.getNodeName();
-					final boolean value = node.getNodeValue().equals(TRUE);
-					if (nodeName.equals(CALCULATE_AUTO)) {
-						object.getAnalyser().runCalculationAutomatically = value;
-					} else if (nodeName.equals(CALCULATE_CONSTRAINTS)) {
-						object.getAnalyser().calculateConstraints = value;
-					} else if (nodeName.equals(CALCULATE_REDUNDANT)) {
-						object.getAnalyser().calculateRedundantConstraints = value;
-					} else if (nodeName.equals(CALCULATE_FEATURES)) {
-						object.getAnalyser().calculateFeatures = value;
-					} else if (nodeName.equals(CALCULATE_TAUTOLOGY)) {
-						object.getAnalyser().calculateTautologyConstraints = value;
-					} else {
-						throwError("Unknown calculations attribute: " + nodeName, e);
-					}
+	private Node readConstraintNode(XMLStreamReader reader, Map<String, Integer> featureReferences)
+			throws XMLStreamException, UnsupportedModelException {
+		final String nodeName = reader.getLocalName();
+		final int lineNumber = reader.getLocation().getLineNumber();
+		if (nodeName.equals(DISJ)) {
+			return new Or(readConstraintNodes(reader, featureReferences));
+		} else if (nodeName.equals(CONJ)) {
+			return new And(readConstraintNodes(reader, featureReferences));
+		} else if (nodeName.equals(EQ)) {
+			final LinkedList<Node> children = readConstraintNodes(reader, featureReferences);
+			return new Equals(children.get(0), children.get(1));
+		} else if (nodeName.equals(IMP)) {
+			final LinkedList<Node> children = readConstraintNodes(reader, featureReferences);
+			return new Implies(children.get(0), children.get(1));
+		} else if (nodeName.equals(NOT)) {
+			return new Not(readConstraintNodes(reader, featureReferences).getFirst());
+		} else if (nodeName.equals(ATMOST1)) {
+			return new AtMost(1, readConstraintNodes(reader, featureReferences));
+		} else if (nodeName.equals(VAR)) {
+			final String featureName = readText(reader);
+			addFeatureReference(featureReferences, featureName, lineNumber);
+			return new Literal(featureName);
+		} else if (nodeName.equals(DESCRIPTION)) {
+			skipElement(reader);
+			return null;
+		} else {
+			throwError("Unknown constraint type: " + nodeName, lineNumber);
+			return null;
+		}
+	}
 
-				}
+	private LinkedList<Node> readConstraintNodes(XMLStreamReader reader, Map<String, Integer> featureReferences)
+			throws XMLStreamException, UnsupportedModelException {
+		final LinkedList<Node> nodes = new LinkedList<>();
+		while (nextElement(reader)) {
+			final Node node = readConstraintNode(reader, featureReferences);
+			if (node != null) {
+				nodes.add(node);
 			}
 		}
+		return nodes;
 	}
 
-	/**
-	 * Parses the comment section.
-	 */
-	private void parseComments(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasChildNodes()) {
-				parseComments2(e.getChildNodes());
+	private void readCalculations(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		final int lineNumber = reader.getLocation().getLineNumber();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final boolean value = reader.getAttributeValue(i).equals(TRUE);
+			if (attributeName.equals(CALCULATE_AUTO)) {
+				object.getAnalyser().runCalculationAutomatically = value;
+			} else if (attributeName.equals(CALCULATE_CONSTRAINTS)) {
+				object.getAnalyser().calculateConstraints = value;
+			} else if (attributeName.equals(CALCULATE_REDUNDANT)) {
+				object.getAnalyser().calculateRedundantConstraints = value;
+			} else if (attributeName.equals(CALCULATE_FEATURES)) {
+				object.getAnalyser().calculateFeatures = value;
+			} else if (attributeName.equals(CALCULATE_TAUTOLOGY)) {
+				object.getAnalyser().calculateTautologyConstraints = value;
+			} else {
+				throwError("Unknown calculations attribute: " + attributeName, lineNumber);
 			}
 		}
+		skipElement(reader);
 	}
 
-	private void parseComments2(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.getNodeName().equals(C)) {
-				object.getProperty().addComment(e.getTextContent());
+	private void readComments(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(C)) {
+				object.getProperty().addComment(readText(reader));
 			} else {
-				throwError("Unknown comment attribute: " + e.getNodeName(), e);
+				throwError("Unknown comment attribute: " + nodeName, reader.getLocation().getLineNumber());
 			}
 		}
 	}
 
-	/**
-	 * Parses the description of a constraint
-	 *
-	 * @param constraint Output parameter: the constraint will have the description set
-	 * @param parentOfDescription The parent tag of the description tag
-	 */
-	private void parseConstraintDescription(IConstraint constraint, final Element parentOfDescription) {
-		for (final Element childOfRule : getElements(parentOfDescription.getChildNodes())) {
-			if (childOfRule.getNodeName().equals(DESCRIPTION)) {
-				String description = childOfRule.getTextContent();
-
-				if ((description != null) && !description.isEmpty()) {
-					description = description.replace("\t", "");
-					description = description.trim();
-				}
+	private void readFeatureOrder(XMLStreamReader reader, List<String> order, Map<String, Integer> featureReferences)
+			throws XMLStreamException, UnsupportedModelException {
+		readFeatureOrderAttributes(reader, order, featureReferences);
+		while (nextElement(reader)) {
+			readFeatureOrderAttributes(reader, order, featureReferences);
+			skipElement(reader);
+		}
+	}
 
-				constraint.setDescription(description);
+	private void readFeatureOrderAttributes(XMLStreamReader reader, List<String> order, Map<String, Integer> featureReferences)
+			throws UnsupportedModelException {
+		final int lineNumber = reader.getLocation().getLineNumber();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(USER_DEFINED)) {
+				object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+			} else if (attributeName.equals(NAME)) {
+				addFeatureReference(featureReferences, attributeValue, lineNumber);
+				order.add(attributeValue);
+			} else {
+				throwError("Unknown feature order attribute: " + attributeName, lineNumber);
 			}
 		}
 	}
 
-	/**
-	 * Parses the constraint section.
-	 */
-	private void parseConstraints(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			for (final Element child : getElements(e.getChildNodes())) {
-				final String nodeName = child.getNodeName();
-				if (nodeName.equals(RULE)) {
-					final IConstraint c = factory.createConstraint(object, parseConstraints2(child.getChildNodes()).getFirst());
-					if (child.hasAttributes()) {
-						final NamedNodeMap nodeMap = child.getAttributes();
-						for (int i = 0; i < nodeMap.getLength(); i++) {
-							final org.w3c.dom.Node node = nodeMap.item(i);
-							final String attributeName = node.getNodeName();
-							if (attributeName.equals(COORDINATES)) {
-								// Legacy case, for backwards compatibility
-							} else {
-								throwError("Unknown constraint attribute: " + attributeName, node);
-							}
-						}
-					}
-					parseConstraintDescription(c, child);
-					object.addConstraint(c);
-				} else {
-					throwError("Unknown constraint node: " + nodeName, child);
+	private void readProperties(XMLStreamReader reader, Map<String, Set<Entry<String, Type, Object>>> customProperties) throws XMLStreamException {
+		while (nextElement(reader)) {
+			final String tagName = reader.getLocalName();
+			if (!tagName.equals(FEATURE)) {
+				throw new UnsupportedOperationException("Unkown domain which contains properties. Don't know where to attach them:" + tagName);
+			}
+			final String featureName = reader.getAttributeValue(null, NAME);
+			if (featureName == null) {
+				throw new UnsupportedOperationException("Property container of type feature is missing required name attribute");
+			}
+			final Set<Entry<String, Type, Object>> propertyEntries = new HashSet<>();
+			while (nextElement(reader)) {
+				if (reader.getLocalName().equals(XmlPropertyLoader.PROPERTY)) {
+					XmlPropertyLoader.addPropertyEntry(propertyEntries, featureName, reader.getAttributeValue(null, XmlPropertyLoader.KEY),
+							reader.getAttributeValue(null, XmlPropertyLoader.TYPE), reader.getAttributeValue(null, XmlPropertyLoader.VALUE));
 				}
+				skipElement(reader);
 			}
+			customProperties.put(featureName, propertyEntries);
 		}
 	}
 
-	private LinkedList<org.prop4j.Node> parseConstraints2(NodeList nodeList) throws UnsupportedModelException {
-		final LinkedList<org.prop4j.Node> nodes = new LinkedList<>();
-		LinkedList<org.prop4j.Node> children;
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
-			if (nodeName.equals(DISJ)) {
-				nodes.add(new Or(parseConstraints2(e.getChildNodes())));
-			} else if (nodeName.equals(CONJ)) {
-				nodes.add(new And(parseConstraints2(e.getChildNodes())));
-			} else if (nodeName.equals(EQ)) {
-				children = parseConstraints2(e.getChildNodes());
-				nodes.add(new Equals(children.get(0), children.get(1)));
-			} else if (nodeName.equals(IMP)) {
-				children = parseConstraints2(e.getChildNodes());
-				nodes.add(new Implies(children.get(0), children.get(1)));
-			} else if (nodeName.equals(NOT)) {
-				nodes.add(new Not((parseConstraints2(e.getChildNodes())).getFirst()));
-			} else if (nodeName.equals(ATMOST1)) {
-				nodes.add(new AtMost(1, parseConstraints2(e.getChildNodes())));
-			} else if (nodeName.equals(VAR)) {
-				final String featureName = e.getTextContent();
-				if (object.getFeature(featureName) != null) {
-					nodes.add(new Literal(featureName));
-				} else {
-					throwError("Feature \"" + featureName + "\" does not exists", e);
-				}
-			} else if (nodeName.equals(DESCRIPTION)) {
-				/**
-				 * The method should return without adding any nodes, and traverse deeper into the tree, because description, has no children just return the
-				 * current list. The actual readout of the description happens at a different point.
-				 */
-			} else {
-				throwError("Unknown constraint type: " + nodeName, e);
-			}
+	private static void addFeatureReference(Map<String, Integer> featureReferences, String featureName, int lineNumber) {
+		if (!featureReferences.containsKey(featureName)) {
+			featureReferences.put(featureName, lineNumber);
 		}
-		return nodes;
 	}
 
 	/**
-	 * Parses the feature order section.
+	 * Moves the reader to the start of the next child element of the current element.
+	 *
+	 * @return {@code true} if the reader is positioned at the start of a child element, {@code false} if the current element has ended.
 	 */
-	private void parseFeatureOrder(NodeList nodeList) throws UnsupportedModelException {
-		final ArrayList<String> order = new ArrayList<>(object.getNumberOfFeatures());
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String attributeName = node.getNodeName();
-					final String attributeValue = node.getNodeValue();
-					if (attributeName.equals(USER_DEFINED)) {
-						object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
-					} else if (attributeName.equals(NAME)) {
-						if (object.getFeature(attributeValue) != null) {
-							order.add(attributeValue);
-						} else {
-							throwError("Feature \"" + attributeValue + "\" does not exists", e);
-						}
-					} else {
-						throwError("Unknown feature order attribute: " + attributeName, e);
-					}
-
-				}
-			}
-			if (e.hasChildNodes()) {
-				parseFeatureOrder(e.getChildNodes());
+	private static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
 			}
 		}
-		if (!order.isEmpty()) {
-			object.setFeatureOrderList(order);
-		}
+		return false;
 	}
 
-	private void parseFeatures(NodeList nodeList, IFeature parent) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
-			if (nodeName.equals(DESCRIPTION)) {
-				/* case: description */
-				if (e.getFirstChild() != null) {
-					String nodeValue = e.getFirstChild().getNodeValue();
-					if ((nodeValue != null) && !nodeValue.isEmpty()) {
-						nodeValue = nodeValue.replace("\t", "");
-						nodeValue = nodeValue.substring(1, nodeValue.length() - 1);
-						nodeValue = nodeValue.trim();
-					}
-					parent.getProperty().setDescription(nodeValue);
-				}
-				continue;
-			}
-			boolean mandatory = false;
-			boolean _abstract = false;
-			boolean hidden = false;
-			String name = "";
-			// FMPoint featureLocation = null;
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String attributeName = node.getNodeName();
-					final String attributeValue = node.getNodeValue();
-					if (attributeName.equals(ABSTRACT)) {
-						_abstract = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(MANDATORY)) {
-						mandatory = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(NAME)) {
-						name = attributeValue;
-					} else if (attributeName.equals(HIDDEN)) {
-						hidden = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(COORDINATES)) {
-						// Legacy case, for backwards compatibility
-					} else {
-						throwError("Unknown feature attribute: " + attributeName, e);
-					}
-
-				}
-			}
-
-			if (object.getFeature(name) != null) {
-				throwError("Duplicate entry for feature: " + name, e);
-			}
-
-			if ((validator != null) && !validator.isValidFeatureName(name)) {
-				addToProblemsList(name + " is not a valid feature name", e);
+	/**
+	 * Reads the text content of the current element including the text of all nested elements and moves the reader to the end of the element.
+	 */
+	private static String readText(XMLStreamReader reader) throws XMLStreamException {
+		final StringBuilder sb = new StringBuilder();
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				sb.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				break;
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				sb.append(reader.getText());
+				break;
+			default:
+				break;
 			}
+		}
+		return sb.toString();
+	}
 
-			final IFeature f = factory.createFeature(object, name);
-			f.getStructure().setMandatory(true);
-			if (nodeName.equals(AND)) {
-				f.getStructure().setAnd();
-			} else if (nodeName.equals(ALT)) {
-				f.getStructure().setAlternative();
-			} else if (nodeName.equals(OR)) {
-				f.getStructure().setOr();
-			} else if (nodeName.equals(FEATURE)) {
-
-			} else {
-				throwError("Unknown feature type: " + nodeName, e);
+	/**
+	 * Moves the reader to the end of the current element.
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
 			}
-			f.getStructure().setAbstract(_abstract);
-			f.getStructure().setMandatory(mandatory);
-			f.getStructure().setHidden(hidden);
+		}
+	}
 
-			object.addFeature(f);
-			if (parent == null) {
-				object.getStructure().setRoot(f.getStructure());
-			} else {
-				parent.getStructure().addChild(f.getStructure());
-			}
-			if (e.hasChildNodes()) {
-				parseFeatures(e.getChildNodes(), f);
-			}
+	private static String cleanFeatureDescription(String description) {
+		description = description.replace("\t", "");
+		if (description.length() > 1) {
+			description = description.substring(1, description.length() - 1);
 		}
+		return description.trim();
+	}
 
+	private static String cleanConstraintDescription(String description) {
+		if (!description.isEmpty()) {
+			description = description.replace("\t", "");
+			description = description.trim();
+		}
+		return description;
 	}
 
 	/**
-	 * Parse the struct section to add features to the model.
+	 * Reads the feature model from a DOM.</br> The document is serialized and read by the same streaming reader as {@link #read(IFeatureModel, CharSequence)}.
+	 * Line numbers in problems refer to the serialized document.
 	 */
-	private void parseStruct(NodeList struct) throws UnsupportedModelException {
-		for (final Element e : getElements(struct)) {
-			parseFeatures(e.getChildNodes(), null);
+	@Override
+	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+		localProblems.clear();
+		final StringWriter stringWriter = new StringWriter();
+		XMLStreamReader reader = null;
+		try {
+			TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(stringWriter));
+			reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(stringWriter.toString()));
+			readStream(reader, warnings);
+		} catch (final TransformerException e) {
+			throw new UnsupportedModelException(e.getMessage(), 1);
+		} catch (final XMLStreamException e) {
+			throw new UnsupportedModelException(e.getMessage(), (e.getLocation() != null) ? e.getLocation().getLineNumber() : 1);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (final XMLStreamException e) {
+					Logger.logError(e);
+				}
+			}
 		}
 	}
 
 	/**
-	 * Throws an error that will be used for error markers
-	 *
-	 * @param message The error message
-	 * @param tempNode The node that causes the error. this node is used for positioning.
+	 * Writes the feature model into a DOM.</br> The content is created by the same streaming writer as {@link #write(IFeatureModel, Writer)} and parsed into
+	 * the given document.
 	 */
-	private void throwError(String message, org.w3c.dom.Node node) throws UnsupportedModelException {
-		throw new UnsupportedModelException(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()));
-	}
-
-	private void addToProblemsList(String message, org.w3c.dom.Node node) {
-		localProblems.add(new Problem(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()),
-				de.ovgu.featureide.fm.core.io.Problem.Severity.ERROR));
+	@Override
+	protected void writeDocument(Document doc) {
+		final StringWriter stringWriter = new StringWriter();
+		try {
+			write(object, stringWriter);
+			TransformerFactory.newInstance().newTransformer().transform(new StreamSource(new StringReader(stringWriter.toString())), new DOMResult(doc));
+		} catch (IOException | XMLStreamException | TransformerException e) {
+			Logger.logError(e);
+		}
 	}
 
-	// TODO implement warnings
-	@SuppressWarnings("unused")
-	private void throwWarning(String message, org.w3c.dom.Node node) throws UnsupportedModelException {
-		throw new UnsupportedModelException(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()));
+	private void throwError(String message, int lineNumber) throws UnsupportedModelException {
+		throw new UnsupportedModelException(message, lineNumber);
 	}
 
-	private void writeAttributes(Element node, Element fnod, IFeature feat) {
-		fnod.setAttribute(NAME, feat.getName());
-		if (feat.getStructure().isHidden()) {
-			fnod.setAttribute(HIDDEN, TRUE);
-		}
-		if (feat.getStructure().isMandatory()) {
-			if ((feat.getStructure().getParent() != null) && feat.getStructure().getParent().isAnd()) {
-				fnod.setAttribute(MANDATORY, TRUE);
-			} else if (feat.getStructure().getParent() == null) {
-				fnod.setAttribute(MANDATORY, TRUE);
-			}
-		}
-		if (feat.getStructure().isAbstract()) {
-			fnod.setAttribute(ABSTRACT, TRUE);
-		}
-
-		node.appendChild(fnod);
+	private void addToProblemsList(String message, int lineNumber) {
+		localProblems.add(new Problem(message, lineNumber, de.ovgu.featureide.fm.core.io.Problem.Severity.ERROR));
 	}
 
 	@Override
@@ -145,29 +145,41 @@ public class XmlPropertyLoader {
 		final Set<Entry<String, Type, Object>> result = new HashSet<>();
 		final NodeList properties = propertyContainerNode.getElementsByTagName(PROPERTY);
 		for (final Element property : getElements(properties)) {
-			if (!(property.hasAttribute(KEY) && property.hasAttribute(VALUE) && property.hasAttribute(TYPE))) {
-				throw new UnsupportedOperationException("One property of container " + propertyContainerNode.getAttribute(NAME)
-					+ " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
-			} else {
-				final String key = property.getAttribute(KEY);
-				final Type type = Type.valueOf(property.getAttribute(TYPE));
-				final Object value = castValue(type, property.getAttribute(VALUE));
-				final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
-				if (result.contains(entry)) {
-					for (final Entry<String, Type, Object> e : result) {
-						if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
-							throw new IllegalStateException("Ambigous property definition for key: " + key);
-						}
+			addPropertyEntry(result, propertyContainerNode.getAttribute(NAME), property.hasAttribute(KEY) ? property.getAttribute(KEY) : null,
+					property.hasAttribute(TYPE) ? property.getAttribute(TYPE) : null, property.hasAttribute(VALUE) ? property.getAttribute(VALUE) : null);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds a single property entry to the given set. Used by the DOM-based loader as well as by the streaming reader of {@link XmlFeatureModelFormat}.
+	 *
+	 * @param result the entries of the property container
+	 * @param containerName the name of the property container (used for error messages)
+	 * @param key the value of the key attribute or {@code null} if missing
+	 * @param type the value of the type attribute or {@code null} if missing
+	 * @param value the value of the value attribute or {@code null} if missing
+	 */
+	static void addPropertyEntry(Set<Entry<String, Type, Object>> result, String containerName, String key, String type, String value) {
+		if ((key == null) || (value == null) || (type == null)) {
+			throw new UnsupportedOperationException(
+					"One property of container " + containerName + " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
+		} else {
+			final Type propertyType = Type.valueOf(type);
+			final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, propertyType, castValue(propertyType, value));
+			if (result.contains(entry)) {
+				for (final Entry<String, Type, Object> e : result) {
+					if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
+						throw new IllegalStateException("Ambigous property definition for key: " + key);
 					}
-				} else {
-					result.add(entry);
 				}
+			} else {
+				result.add(entry);
 			}
 		}
-		return result;
 	}
 
-	private Object castValue(Type type, String value) {
+	private static Object castValue(Type type, String value) {
 		if ((value == null) || value.trim().isEmpty()) {
 			throw new RuntimeException("Property value is not allowed to be empty");
 		}
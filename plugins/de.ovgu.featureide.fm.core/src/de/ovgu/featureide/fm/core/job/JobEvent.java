@@ -0,0 +1,121 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+/**
+ * Describes a single finished execution of a {@link LongRunningMethod}.
+ *
+ * @see JobMetrics
+ * @see IJobEventSink
+ */
+public final class JobEvent {
+
+	public enum Outcome {
+		/**
+		 * The method returned normally.
+		 */
+		OK,
+		/**
+		 * The method threw an exception.
+		 */
+		FAILED,
+		/**
+		 * The method was canceled via its monitor.
+		 */
+		CANCELED
+	}
+
+	private final String name;
+	private final String token;
+	private final String thread;
+	private final long startTime;
+	private final long queueTime;
+	private final long runTime;
+	private final int satCalls;
+	private final int satTimeouts;
+	private final Outcome outcome;
+
+	JobEvent(String name, String token, String thread, long startTime, long queueTime, long runTime, int satCalls, int satTimeouts, Outcome outcome) {
+		this.name = name;
+		this.token = token;
+		this.thread = thread;
+		this.startTime = startTime;
+		this.queueTime = queueTime;
+		this.runTime = runTime;
+		this.satCalls = satCalls;
+		this.satTimeouts = satTimeouts;
+		this.outcome = outcome;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return an identifier of the {@link JobToken} of the job or {@code null} if the job was not started via a token.
+	 */
+	public String getToken() {
+		return token;
+	}
+
+	public String getThread() {
+		return thread;
+	}
+
+	/**
+	 * @return the start of the execution in milliseconds since the epoch.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return the time in nanoseconds between scheduling (or queuing) the job and the start of its execution.
+	 */
+	public long getQueueTime() {
+		return queueTime;
+	}
+
+	/**
+	 * @return the time of the execution in nanoseconds.
+	 */
+	public long getRunTime() {
+		return runTime;
+	}
+
+	public int getSatCalls() {
+		return satCalls;
+	}
+
+	public int getSatTimeouts() {
+		return satTimeouts;
+	}
+
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + outcome + "): queued " + (queueTime / 1000000) + " ms, ran " + (runTime / 1000000) + " ms, " + satCalls + " SAT calls";
+	}
+
+}
@@ -0,0 +1,76 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared thread pool for {@link LongRunningThread jobs} that are not run by Eclipse.</br> Idle threads are reused for subsequent jobs and are only terminated
+ * after {@link #KEEP_ALIVE_SECONDS} seconds without work. As jobs may wait for other jobs, a job is never queued behind a busy thread. If all
+ * {@link #MAX_POOLED_THREADS pooled threads} are busy, the job runs in a new thread that is not kept afterwards.
+ */
+final class JobExecutor {
+
+	static final int MAX_POOLED_THREADS = 64;
+	static final int KEEP_ALIVE_SECONDS = 60;
+
+	private static final AtomicInteger threadCounter = new AtomicInteger();
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable r) {
+			final Thread thread = new Thread(r, "FeatureIDE Job " + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	private static final RejectedExecutionHandler OVERFLOW_HANDLER = new RejectedExecutionHandler() {
+
+		@Override
+		public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+			THREAD_FACTORY.newThread(r).start();
+		}
+	};
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(0, MAX_POOLED_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+			new SynchronousQueue<Runnable>(), THREAD_FACTORY, OVERFLOW_HANDLER);
+
+	private JobExecutor() {}
+
+	static void execute(Runnable job) {
+		EXECUTOR.execute(job);
+	}
+
+	/**
+	 * @return the number of threads that are currently kept by the pool.
+	 */
+	static int getPoolSize() {
+		return EXECUTOR.getPoolSize();
+	}
+
+}
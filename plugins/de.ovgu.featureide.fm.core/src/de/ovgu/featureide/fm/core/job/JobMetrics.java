@@ -0,0 +1,340 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.JobEvent.Outcome;
+
+/**
+ * Records queue time, run time, SAT calls, and the outcome of all executions of {@link LongRunningMethod}s that are started via {@link LongRunningWrapper}
+ * or {@link LongRunningThread}.</br> The executions are aggregated per name and per {@link JobToken}. Additionally, each execution can be passed to an
+ * {@link IJobEventSink event sink}.</br> SAT calls are reported by the solvers via {@link #satCall(boolean)} and are attributed to the innermost execution of
+ * the calling thread. When a nested execution finishes, its SAT calls are added to the enclosing execution.
+ */
+public final class JobMetrics {
+
+	/**
+	 * Aggregated metrics of several executions.
+	 */
+	public static final class Statistics {
+
+		private int executions, canceled, failed;
+		private long satCalls, satTimeouts;
+		private long totalQueueTime, totalRunTime, maxRunTime;
+
+		private synchronized void add(JobEvent event) {
+			executions++;
+			switch (event.getOutcome()) {
+			case CANCELED:
+				canceled++;
+				break;
+			case FAILED:
+				failed++;
+				break;
+			default:
+				break;
+			}
+			satCalls += event.getSatCalls();
+			satTimeouts += event.getSatTimeouts();
+			totalQueueTime += event.getQueueTime();
+			totalRunTime += event.getRunTime();
+			maxRunTime = Math.max(maxRunTime, event.getRunTime());
+		}
+
+		private synchronized Statistics copy() {
+			final Statistics copy = new Statistics();
+			copy.executions = executions;
+			copy.canceled = canceled;
+			copy.failed = failed;
+			copy.satCalls = satCalls;
+			copy.satTimeouts = satTimeouts;
+			copy.totalQueueTime = totalQueueTime;
+			copy.totalRunTime = totalRunTime;
+			copy.maxRunTime = maxRunTime;
+			return copy;
+		}
+
+		public synchronized int getExecutions() {
+			return executions;
+		}
+
+		public synchronized int getCanceled() {
+			return canceled;
+		}
+
+		public synchronized int getFailed() {
+			return failed;
+		}
+
+		public synchronized long getSatCalls() {
+			return satCalls;
+		}
+
+		public synchronized long getSatTimeouts() {
+			return satTimeouts;
+		}
+
+		/**
+		 * @return the sum of all queue times in nanoseconds.
+		 */
+		public synchronized long getTotalQueueTime() {
+			return totalQueueTime;
+		}
+
+		/**
+		 * @return the sum of all run times in nanoseconds.
+		 */
+		public synchronized long getTotalRunTime() {
+			return totalRunTime;
+		}
+
+		/**
+		 * @return the longest run time in nanoseconds.
+		 */
+		public synchronized long getMaxRunTime() {
+			return maxRunTime;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return executions + " executions (" + canceled + " canceled, " + failed + " failed), queued " + (totalQueueTime / 1000000) + " ms, ran "
+				+ (totalRunTime / 1000000) + " ms (max " + (maxRunTime / 1000000) + " ms), " + satCalls + " SAT calls (" + satTimeouts + " timeouts)";
+		}
+
+	}
+
+	/**
+	 * A running execution. Is created by {@link JobMetrics#start(String, JobToken, long)} and must be passed to
+	 * {@link JobMetrics#finish(Execution, Outcome)}.
+	 */
+	static final class Execution {
+
+		private final String name;
+		private final JobToken token;
+		private final Execution parent;
+		private final long queueTime;
+		private final long startTime = System.currentTimeMillis();
+		private final long startNanos = System.nanoTime();
+
+		private final AtomicInteger satCalls = new AtomicInteger();
+		private final AtomicInteger satTimeouts = new AtomicInteger();
+
+		private Execution(String name, JobToken token, Execution parent, long queueTime) {
+			this.name = name;
+			this.token = token;
+			this.parent = parent;
+			this.queueTime = queueTime;
+		}
+
+	}
+
+	private static volatile boolean enabled = true;
+	private static volatile IJobEventSink eventSink = null;
+
+	private static final ThreadLocal<Execution> currentExecution = new ThreadLocal<>();
+	private static final ConcurrentMap<String, Statistics> statisticsByName = new ConcurrentHashMap<>();
+	private static final Map<JobToken, Statistics> statisticsByToken = Collections.synchronizedMap(new WeakHashMap<JobToken, Statistics>());
+
+	private JobMetrics() {}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables recording. Executions that are already running when recording is enabled are not recorded. The default value is {@code true}.
+	 */
+	public static void setEnabled(boolean enabled) {
+		JobMetrics.enabled = enabled;
+	}
+
+	public static IJobEventSink getEventSink() {
+		return eventSink;
+	}
+
+	/**
+	 * @param eventSink receives an event for each finished execution or {@code null} to only aggregate the executions.
+	 */
+	public static void setEventSink(IJobEventSink eventSink) {
+		JobMetrics.eventSink = eventSink;
+	}
+
+	/**
+	 * @return a copy of the aggregated metrics of all executions with the given name or {@code null} if there was no such execution.
+	 */
+	public static Statistics getStatistics(String name) {
+		final Statistics statistics = statisticsByName.get(name);
+		return statistics == null ? null : statistics.copy();
+	}
+
+	/**
+	 * @return a copy of the aggregated metrics of all executions that were started via the given token or {@code null} if there was no such execution.
+	 */
+	public static Statistics getStatistics(JobToken token) {
+		final Statistics statistics = statisticsByToken.get(token);
+		return statistics == null ? null : statistics.copy();
+	}
+
+	/**
+	 * @return a copy of the aggregated metrics of all recorded executions, sorted by name.
+	 */
+	public static Map<String, Statistics> getStatistics() {
+		final Map<String, Statistics> copy = new TreeMap<>();
+		for (final Map.Entry<String, Statistics> entry : statisticsByName.entrySet()) {
+			copy.put(entry.getKey(), entry.getValue().copy());
+		}
+		return copy;
+	}
+
+	/**
+	 * Removes all aggregated metrics.
+	 */
+	public static void reset() {
+		statisticsByName.clear();
+		statisticsByToken.clear();
+	}
+
+	/**
+	 * Counts a call of a SAT solver for the current execution of the calling thread.
+	 *
+	 * @param timeout {@code true} if the call exceeded the solver's timeout
+	 */
+	public static void satCall(boolean timeout) {
+		if (enabled) {
+			final Execution execution = currentExecution.get();
+			if (execution != null) {
+				execution.satCalls.incrementAndGet();
+				if (timeout) {
+					execution.satTimeouts.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	static String getName(LongRunningMethod<?> method) {
+		final Class<?> methodClass = method.getClass();
+		final String simpleName = methodClass.getSimpleName();
+		return simpleName.isEmpty() ? methodClass.getName() : simpleName;
+	}
+
+	/**
+	 * Starts recording an execution in the calling thread.
+	 *
+	 * @param name the name of the job
+	 * @param token the token via which the job was started; may be {@code null}
+	 * @param queuedSince the value of {@link System#nanoTime()} when the job was scheduled or 0 if it was not queued
+	 * @return the execution or {@code null} if recording is disabled
+	 */
+	static Execution start(String name, JobToken token, long queuedSince) {
+		if (!enabled) {
+			return null;
+		}
+		final Execution execution = new Execution(name, token, currentExecution.get(), queuedSince == 0 ? 0 : Math.max(0, System.nanoTime() - queuedSince));
+		currentExecution.set(execution);
+		return execution;
+	}
+
+	/**
+	 * Makes the given execution the current execution of the calling thread, such that SAT calls of helper threads are attributed to it.
+	 *
+	 * @return the former execution of the calling thread, which has to be restored with {@link #detach(Execution)}
+	 */
+	static Execution attach(Execution execution) {
+		final Execution formerExecution = currentExecution.get();
+		currentExecution.set(execution);
+		return formerExecution;
+	}
+
+	static void detach(Execution formerExecution) {
+		if (formerExecution == null) {
+			currentExecution.remove();
+		} else {
+			currentExecution.set(formerExecution);
+		}
+	}
+
+	static Execution current() {
+		return currentExecution.get();
+	}
+
+	/**
+	 * Finishes the recording of the given execution and restores the enclosing execution of the calling thread.
+	 *
+	 * @param execution the execution returned by {@link #start(String, JobToken, long)}; may be {@code null}
+	 * @param outcome the outcome of the execution
+	 */
+	static void finish(Execution execution, Outcome outcome) {
+		if (execution == null) {
+			return;
+		}
+		final long runTime = System.nanoTime() - execution.startNanos;
+		detach(execution.parent);
+
+		final int satCalls = execution.satCalls.get();
+		final int satTimeouts = execution.satTimeouts.get();
+		if (execution.parent != null) {
+			execution.parent.satCalls.addAndGet(satCalls);
+			execution.parent.satTimeouts.addAndGet(satTimeouts);
+		}
+
+		final JobEvent event = new JobEvent(execution.name, execution.token == null ? null : Integer.toHexString(execution.token.hashCode()),
+				Thread.currentThread().getName(), execution.startTime, execution.queueTime, runTime, satCalls, satTimeouts, outcome);
+		getOrCreate(statisticsByName, execution.name).add(event);
+		if (execution.token != null) {
+			synchronized (statisticsByToken) {
+				Statistics statistics = statisticsByToken.get(execution.token);
+				if (statistics == null) {
+					statistics = new Statistics();
+					statisticsByToken.put(execution.token, statistics);
+				}
+				statistics.add(event);
+			}
+		}
+
+		final IJobEventSink sink = eventSink;
+		if (sink != null) {
+			try {
+				sink.jobFinished(event);
+			} catch (final Throwable e) {
+				Logger.logError(e);
+			}
+		}
+	}
+
+	private static Statistics getOrCreate(ConcurrentMap<String, Statistics> map, String name) {
+		final Statistics statistics = map.get(name);
+		if (statistics != null) {
+			return statistics;
+		}
+		final Statistics newStatistics = new Statistics();
+		final Statistics oldStatistics = map.putIfAbsent(name, newStatistics);
+		return oldStatistics == null ? newStatistics : oldStatistics;
+	}
+
+}
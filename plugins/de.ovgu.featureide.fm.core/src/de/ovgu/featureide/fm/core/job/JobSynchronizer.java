@@ -20,39 +20,53 @@
  */
 package de.ovgu.featureide.fm.core.job;
 
+import java.util.ArrayDeque;
 import java.util.Iterator;
-import java.util.Queue;
 import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.Semaphore;
+
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 
 /**
- * Maps related jobs.
+ * Maps related jobs.</br> Jobs of the same {@link JobToken token} are run one after another. Instead of a waiting thread per job, each token has a queue that
+ * schedules the next job when the running job finishes.
  *
  * @author Sebastian Krieter
  */
 public final class JobSynchronizer {
 
-	private static class JobEntry {
-
-		private final ConcurrentLinkedDeque<IRunner<?>> jobs = new ConcurrentLinkedDeque<>();
-		private final Semaphore semaphore = new Semaphore(1);
+	private static class JobEntry implements JobFinishListener<Object> {
 
+		private final ArrayDeque<IRunner<?>> waitingJobs = new ArrayDeque<>();
 		private final JobStartingStrategy strategy;
 
+		private IRunner<?> runningJob = null;
+
+		/**
+		 * {@code true} if the running job was removed by {@link #cancelAll()}. Such a job does not count for the strategy, but still blocks the queue until it
+		 * has finished.
+		 */
+		private boolean runningJobRemoved = false;
+
 		public JobEntry(JobStartingStrategy strategy) {
 			this.strategy = strategy;
 		}
 
-		private synchronized void run(IRunner<?> job) {
+		private int size() {
+			return waitingJobs.size() + (((runningJob != null) && !runningJobRemoved) ? 1 : 0);
+		}
+
+		private synchronized void run(JobToken token, IRunner<?> job) {
+			if (job instanceof LongRunningThread) {
+				((LongRunningThread<?>) job).setToken(token);
+			}
 			switch (strategy) {
 			case RETURN:
-				if (jobs.isEmpty()) {
+				if (size() == 0) {
 					start(job);
 				}
 				break;
 			case WAIT_ONE:
-				if (jobs.size() > 1) {
+				if (size() > 1) {
 					return;
 				}
 			case WAIT: {
@@ -60,13 +74,16 @@ public final class JobSynchronizer {
 				break;
 			}
 			case CANCEL_WAIT_ONE:
-				if (jobs.size() > 1) {
+				if (size() > 1) {
 					return;
 				}
 			case CANCEL_WAIT:
-				for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
+				for (final Iterator<IRunner<?>> iterator = waitingJobs.descendingIterator(); iterator.hasNext();) {
 					iterator.next().cancel();
 				}
+				if ((runningJob != null) && !runningJobRemoved) {
+					runningJob.cancel();
+				}
 				start(job);
 				break;
 			default:
@@ -74,46 +91,51 @@ public final class JobSynchronizer {
 			}
 		}
 
+		@SuppressWarnings("unchecked")
 		private void start(IRunner<?> job) {
-			jobs.offer(job);
-			new Starter(semaphore, jobs).start();
-		}
-
-		public synchronized void cancelAll() {
-			for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
-				iterator.next().cancel();
-				iterator.remove();
+			((IRunner<Object>) job).addJobFinishedListener(this);
+			if (runningJob == null) {
+				scheduleNext(job);
+			} else {
+				if (job instanceof LongRunningThread) {
+					((LongRunningThread<?>) job).setQueued();
+				}
+				waitingJobs.offer(job);
 			}
 		}
 
-	}
-
-	private static class Starter extends Thread {
-
-		private final Semaphore semaphore;
-		private final Queue<IRunner<?>> jobs;
-
-		public Starter(Semaphore semaphore, Queue<IRunner<?>> jobs) {
-			this.semaphore = semaphore;
-			this.jobs = jobs;
+		private void scheduleNext(IRunner<?> job) {
+			runningJob = job;
+			runningJobRemoved = false;
+			job.schedule();
 		}
 
 		@Override
-		public void run() {
-			try {
-				semaphore.acquire();
-				try {
-					final IRunner<?> job = jobs.peek();
-					if (job != null) {
-						job.schedule();
-						job.join();
-					}
-				} finally {
-					jobs.poll();
-					semaphore.release();
+		public synchronized void jobFinished(IJob<Object> finishedJob) {
+			if (finishedJob == runningJob) {
+				runningJob = null;
+				final IRunner<?> nextJob = waitingJobs.poll();
+				if (nextJob != null) {
+					scheduleNext(nextJob);
+				}
+			}
+		}
+
+		/**
+		 * Cancels all jobs. Waiting jobs are removed without being scheduled, such that their slots are free immediately.
+		 */
+		public synchronized void cancelAll() {
+			for (final Iterator<IRunner<?>> iterator = waitingJobs.descendingIterator(); iterator.hasNext();) {
+				final IRunner<?> job = iterator.next();
+				job.cancel();
+				if (job instanceof LongRunningThread) {
+					((LongRunningThread<?>) job).discard();
 				}
-			} catch (final InterruptedException e) {
-				return;
+				iterator.remove();
+			}
+			if (runningJob != null) {
+				runningJob.cancel();
+				runningJobRemoved = true;
 			}
 		}
 
@@ -133,7 +155,7 @@ public final class JobSynchronizer {
 		if (job == null) {
 			return;
 		}
-		jobMap.get(token).run(job);
+		jobMap.get(token).run(token, job);
 	}
 
 	static void cancelAllJobs(JobToken token) {
@@ -0,0 +1,118 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.ovgu.featureide.fm.core.Logger;
+
+/**
+ * Writes each {@link JobEvent} as a JSON object in a separate line. The output can be processed line by line by common log and profiling tools.
+ */
+public class JsonLinesJobEventSink implements IJobEventSink, Closeable {
+
+	private final Writer writer;
+
+	public JsonLinesJobEventSink(Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Appends events to the given file.
+	 */
+	public JsonLinesJobEventSink(Path path) throws IOException {
+		this(Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+	}
+
+	@Override
+	public void jobFinished(JobEvent event) {
+		final StringBuilder sb = new StringBuilder(200);
+		sb.append("{\"name\":");
+		appendString(sb, event.getName());
+		sb.append(",\"token\":");
+		appendString(sb, event.getToken());
+		sb.append(",\"thread\":");
+		appendString(sb, event.getThread());
+		sb.append(",\"start\":").append(event.getStartTime());
+		sb.append(",\"queueNanos\":").append(event.getQueueTime());
+		sb.append(",\"runNanos\":").append(event.getRunTime());
+		sb.append(",\"satCalls\":").append(event.getSatCalls());
+		sb.append(",\"satTimeouts\":").append(event.getSatTimeouts());
+		sb.append(",\"outcome\":\"").append(event.getOutcome()).append("\"}\n");
+		synchronized (writer) {
+			try {
+				writer.write(sb.toString());
+				writer.flush();
+			} catch (final IOException e) {
+				Logger.logError(e);
+			}
+		}
+	}
+
+	private static void appendString(StringBuilder sb, String text) {
+		if (text == null) {
+			sb.append("null");
+			return;
+		}
+		sb.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (writer) {
+			writer.close();
+		}
+	}
+
+}
@@ -22,7 +22,9 @@ package de.ovgu.featureide.fm.core.job;
 
 import org.eclipse.core.runtime.jobs.Job;
 
+import de.ovgu.featureide.fm.core.job.JobEvent.Outcome;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 
 /**
  * Job that wraps the functionality of a {@link LongRunningMethod}.
@@ -44,9 +46,19 @@ public class LongRunningJob<T> extends AbstractJob<T> implements IRunner<T> {
 
 	@Override
 	protected T work(IMonitor monitor) throws Exception {
-		executer = cancelingTimeout < 0 ? new Executer<>(method) : new StoppableExecuter<>(method, cancelingTimeout);
-		methodResult = executer.execute(monitor);
-		return methodResult;
+		final JobMetrics.Execution execution = JobMetrics.start(getName(), null, 0);
+		Outcome outcome = Outcome.FAILED;
+		try {
+			executer = cancelingTimeout < 0 ? new Executer<>(method) : new StoppableExecuter<>(method, cancelingTimeout);
+			methodResult = executer.execute(monitor);
+			outcome = Outcome.OK;
+			return methodResult;
+		} catch (final MethodCancelException e) {
+			outcome = Outcome.CANCELED;
+			throw e;
+		} finally {
+			JobMetrics.finish(execution, outcome);
+		}
 	}
 
 	@Override
@@ -20,42 +20,56 @@
  */
 package de.ovgu.featureide.fm.core.job;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.JobEvent.Outcome;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 
 /**
- * Job that wraps the functionality of a {@link LongRunningMethod}.
+ * Job that wraps the functionality of a {@link LongRunningMethod}.</br> The job does not own a thread, but is {@link #schedule() scheduled} on the shared
+ * {@link JobExecutor}. A job that is canceled before it starts finishes immediately without executing its method.
  *
  * @author Sebastian Krieter
  */
-// TODO Change to Runnable so it can be started more than once
 // TODO Implement prioritization
-public class LongRunningThread<T> extends Thread implements IRunner<T> {
+public class LongRunningThread<T> implements Runnable, IRunner<T> {
 
-	protected final List<JobFinishListener<T>> listenerList = new LinkedList<>();
+	protected final List<JobFinishListener<T>> listenerList = new CopyOnWriteArrayList<>();
 
+	private final String name;
 	private final LongRunningMethod<T> method;
 	private final IMonitor monitor;
-	private Executer<T> executer;
+	private final CountDownLatch finished = new CountDownLatch(1);
+	private volatile Executer<T> executer;
 
 	private int cancelingTimeout = -1;
-	private T methodResult = null;
-	private JobStatus status = JobStatus.NOT_STARTED;
+	private int priority = Thread.NORM_PRIORITY;
+	private volatile T methodResult = null;
+	private volatile JobStatus status = JobStatus.NOT_STARTED;
+	private volatile boolean scheduled = false;
+	private volatile boolean queued = false;
+	private volatile long queuedSince = 0;
+	private volatile JobToken token = null;
 
 	private boolean stoppable;
 
 	public LongRunningThread(String name, LongRunningMethod<T> method, IMonitor monitor) {
-		super(name);
+		this.name = name;
 		this.method = method;
 		this.monitor = monitor != null ? monitor : new NullMonitor();
 	}
 
+	public String getName() {
+		return name;
+	}
+
 	@Override
 	public void addJobFinishedListener(JobFinishListener<T> listener) {
 		if (!listenerList.contains(listener)) {
@@ -65,10 +79,13 @@ public class LongRunningThread<T> extends Thread implements IRunner<T> {
 
 	@Override
 	public boolean cancel() {
-		if (executer != null) {
-			executer.cancel();
+		final Executer<T> currentExecuter = executer;
+		if (currentExecuter != null) {
+			currentExecuter.cancel();
+		} else {
+			monitor.cancel();
 		}
-		return !isAlive();
+		return status != JobStatus.RUNNING;
 	}
 
 	public void fireEvent() {
@@ -113,30 +130,89 @@ public class LongRunningThread<T> extends Thread implements IRunner<T> {
 
 	@Override
 	public void run() {
-		// TODO check fo cancel at beginning
+		final Thread currentThread = Thread.currentThread();
+		final String threadName = currentThread.getName();
+		final int threadPriority = currentThread.getPriority();
+		currentThread.setName(name);
+		currentThread.setPriority(priority);
 		status = JobStatus.RUNNING;
+		final JobMetrics.Execution execution = JobMetrics.start(name.isEmpty() ? JobMetrics.getName(method) : name, token, queuedSince);
+		Outcome outcome = Outcome.FAILED;
 		try {
-			executer = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
-			methodResult = executer.execute(monitor);
+			monitor.checkCancel();
+			final Executer<T> newExecuter = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
+			executer = newExecuter;
+			methodResult = newExecuter.execute(monitor);
 			status = JobStatus.OK;
+			outcome = Outcome.OK;
+		} catch (final MethodCancelException e) {
+			status = JobStatus.FAILED;
+			outcome = Outcome.CANCELED;
 		} catch (final Exception e) {
 			Logger.logError(e);
 			status = JobStatus.FAILED;
 		} finally {
 			monitor.done();
-			for (final JobFinishListener<T> listener : listenerList) {
-				try {
-					listener.jobFinished(this);
-				} catch (final Throwable e) {
-					Logger.logError(e);
-				}
-			}
+			JobMetrics.finish(execution, outcome);
+			currentThread.setName(threadName);
+			currentThread.setPriority(threadPriority);
+			finished.countDown();
+			fireEvent();
+		}
+	}
+
+	/**
+	 * Submits this job to the {@link JobExecutor}.
+	 *
+	 * @throws IllegalStateException if the job was already scheduled
+	 */
+	@Override
+	public synchronized void schedule() {
+		if (scheduled) {
+			throw new IllegalStateException("Job was already scheduled: " + name);
+		}
+		scheduled = true;
+		if (queuedSince == 0) {
+			queuedSince = System.nanoTime();
+		}
+		JobExecutor.execute(this);
+	}
+
+	/**
+	 * Marks this job as waiting in the queue of a {@link JobSynchronizer}, such that {@link #join()} waits for it.
+	 */
+	void setQueued() {
+		queued = true;
+		queuedSince = System.nanoTime();
+	}
+
+	/**
+	 * Sets the token via which this job was started, such that its {@link JobMetrics metrics} are also aggregated per token.
+	 */
+	void setToken(JobToken token) {
+		this.token = token;
+	}
+
+	/**
+	 * Releases all threads that {@link #join() wait} for this job, as it was removed from its queue without being scheduled.
+	 */
+	void discard() {
+		finished.countDown();
+	}
+
+	/**
+	 * Waits for this job to finish. Returns immediately, if the job was neither scheduled nor queued by a {@link JobSynchronizer}.
+	 */
+	@Override
+	public void join() throws InterruptedException {
+		if (scheduled || queued) {
+			finished.await();
 		}
 	}
 
 	@Override
-	public void schedule() {
-		start();
+	public void setPriority(int priority) {
+		this.priority = Math.max(Thread.MIN_PRIORITY, Math.min(Thread.MAX_PRIORITY, priority));
 	}
 
 	@Override
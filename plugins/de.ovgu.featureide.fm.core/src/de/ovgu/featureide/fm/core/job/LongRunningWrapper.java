@@ -21,6 +21,7 @@
 package de.ovgu.featureide.fm.core.job;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.JobEvent.Outcome;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
@@ -42,15 +43,21 @@ public final class LongRunningWrapper {
 
 	public static <T> T runMethod(LongRunningMethod<T> method, IMonitor monitor) {
 		monitor = monitor != null ? monitor : new NullMonitor();
+		final JobMetrics.Execution execution = JobMetrics.start(JobMetrics.getName(method), null, 0);
+		Outcome outcome = Outcome.FAILED;
 		try {
-			return method.execute(monitor);
+			final T result = method.execute(monitor);
+			outcome = Outcome.OK;
+			return result;
 		} catch (final MethodCancelException e) {
+			outcome = Outcome.CANCELED;
 			return null;
 		} catch (final Exception e) {
 			Logger.logError(e);
 			return null;
 		} finally {
 			monitor.done();
+			JobMetrics.finish(execution, outcome);
 		}
 	}
 
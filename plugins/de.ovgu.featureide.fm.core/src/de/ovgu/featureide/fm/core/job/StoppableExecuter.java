@@ -35,11 +35,14 @@ class StoppableExecuter<T> extends Executer<T> {
 
 	private class InnerThread extends Thread {
 
+		private final JobMetrics.Execution execution = JobMetrics.current();
+
 		private T result = null;
 		private Exception exception = null;
 
 		@Override
 		public void run() {
+			JobMetrics.attach(execution);
 			try {
 				result = method.execute(monitor);
 			} catch (final MethodCancelException e) {
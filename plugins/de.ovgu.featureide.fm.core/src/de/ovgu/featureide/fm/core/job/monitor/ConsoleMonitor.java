@@ -32,7 +32,7 @@ public class ConsoleMonitor extends ATaskMonitor {
 
 	private boolean output = true;
 
-	private boolean canceled = false;
+	private volatile boolean canceled = false;
 	private int work = 0;
 
 	public ConsoleMonitor() {
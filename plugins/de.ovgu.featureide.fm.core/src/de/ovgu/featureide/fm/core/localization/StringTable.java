@@ -378,6 +378,7 @@ public class StringTable {
 	public static final String CALCULATING____ = "Calculating ...";
 	public static final String VALID_COMMA_ = "valid, ";
 	public static final String MORE_THAN = "more than ";
+	public static final String UNKNOWN_NUMBER_OF = "unknown number of";
 	public static final String POSSIBLE_CONFIGURATIONS = " possible configurations";
 	public static final String THERE_IS_NO_FEATURE_MODEL_CORRESPONDING_TO_THIS_CONFIGURATION_COMMA__REOPEN_THE_EDITOR_AND_SELECT_ONE_ =
 		"There is no feature model corresponding to this configuration, reopen the editor and select one.";
@@ -0,0 +1,212 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Checks the satisfiability of expressions with respect to a fixed base formula (e.g., a feature model) and a context of further expressions (e.g., the
+ * enclosing preprocessor annotations).</br> All checks share one solver instance. The clauses of the base formula are added once and are guarded by a
+ * selector variable, which is enabled or disabled via an assumption. Each distinct (sub-)expression is added once by a Tseitin definition. Since a definition
+ * does not restrict the original variables, it can remain in the solver and the expression is referenced by its definition variable in the assumptions of
+ * later checks. The results are memoized per expression and context.
+ */
+public class ContextSatSolver {
+
+	private final ISolver solver;
+	private final int baseSelector;
+
+	private final Map<Object, Integer> variables = new HashMap<>();
+	private final Map<Node, Integer> definitions = new HashMap<>();
+	private final Map<List<Object>, Boolean> results = new HashMap<>();
+
+	/**
+	 * @param base the base formula; not necessarily in CNF
+	 * @param timeout the timeout in milliseconds for each check
+	 */
+	public ContextSatSolver(Node base, long timeout) {
+		solver = SolverFactory.newDefault();
+		solver.setTimeoutMs(timeout);
+		baseSelector = solver.nextFreeVarId(true);
+
+		for (final Node clause : base.toRegularCNF().getChildren()) {
+			final Node[] literals = clause.getChildren();
+			final int[] guardedClause = new int[literals.length + 1];
+			for (int i = 0; i < literals.length; i++) {
+				guardedClause[i] = define(literals[i]);
+			}
+			guardedClause[literals.length] = -baseSelector;
+			addClause(guardedClause);
+		}
+	}
+
+	/**
+	 * @return {@code true} if the base formula is satisfiable.
+	 * @throws TimeoutException if the solver exceeds the timeout
+	 */
+	public boolean isSatisfiable() throws TimeoutException {
+		return isSatisfiable(true);
+	}
+
+	/**
+	 * Checks whether the conjunction of the given expressions (and the base formula, if requested) is satisfiable.
+	 *
+	 * @param useBase whether the base formula is part of the conjunction
+	 * @param expressions the expressions to check
+	 * @return {@code true} if the conjunction is satisfiable.
+	 * @throws TimeoutException if the solver exceeds the timeout
+	 */
+	public boolean isSatisfiable(boolean useBase, Node... expressions) throws TimeoutException {
+		final List<Object> key = new ArrayList<>(expressions.length + 1);
+		key.add(useBase);
+		for (final Node expression : expressions) {
+			key.add(normalize(expression));
+		}
+
+		Boolean result = results.get(key);
+		if (result == null) {
+			final VecInt assumptions = new VecInt(expressions.length + 1);
+			assumptions.push(useBase ? baseSelector : -baseSelector);
+			for (int i = 1; i < key.size(); i++) {
+				assumptions.push(define((Node) key.get(i)));
+			}
+			result = solver.isSatisfiable(assumptions);
+			results.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Replaces cardinality constraints, as their {@link Node#equals(Object) equals} method does not consider the cardinality.
+	 */
+	private static Node normalize(Node expression) {
+		return containsCardinality(expression) ? expression.eliminateNonCNFOperators() : expression;
+	}
+
+	private static boolean containsCardinality(Node node) {
+		if ((node instanceof Choose) || (node instanceof AtLeast) || (node instanceof AtMost)) {
+			return true;
+		}
+		final Node[] children = node.getChildren();
+		if (children != null) {
+			for (final Node child : children) {
+				if (containsCardinality(child)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return a literal that is equivalent to the given expression.
+	 */
+	private int define(Node node) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			Integer variable = variables.get(literal.var);
+			if (variable == null) {
+				variable = solver.nextFreeVarId(true);
+				variables.put(literal.var, variable);
+			}
+			return literal.positive ? variable : -variable;
+		} else if (node instanceof Not) {
+			return -define(node.getChildren()[0]);
+		}
+
+		final Integer knownDefinition = definitions.get(node);
+		if (knownDefinition != null) {
+			return knownDefinition;
+		}
+		final Node[] children = node.getChildren();
+		final int definition;
+		if (node instanceof And) {
+			definition = defineOr(negate(defineChildren(children)), true);
+		} else if (node instanceof Or) {
+			definition = defineOr(defineChildren(children), false);
+		} else if (node instanceof Implies) {
+			definition = defineOr(new int[] { -define(children[0]), define(children[1]) }, false);
+		} else if (node instanceof Equals) {
+			final int left = define(children[0]);
+			final int right = define(children[1]);
+			definition = solver.nextFreeVarId(true);
+			addClause(-definition, -left, right);
+			addClause(-definition, left, -right);
+			addClause(definition, left, right);
+			addClause(definition, -left, -right);
+		} else {
+			return define(node.eliminateNonCNFOperators());
+		}
+		definitions.put(node, definition);
+		return definition;
+	}
+
+	private int[] defineChildren(Node[] children) {
+		final int[] literals = new int[children.length];
+		for (int i = 0; i < children.length; i++) {
+			literals[i] = define(children[i]);
+		}
+		return literals;
+	}
+
+	private static int[] negate(int[] literals) {
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = -literals[i];
+		}
+		return literals;
+	}
+
+	/**
+	 * Defines a new variable that is equivalent to the disjunction of the given literals (or to its negation, which is the conjunction of the negated
+	 * literals).
+	 */
+	private int defineOr(int[] literals, boolean negated) {
+		final int variable = solver.nextFreeVarId(true);
+		final int or = negated ? -variable : variable;
+		final int[] clause = new int[literals.length + 1];
+		for (int i = 0; i < literals.length; i++) {
+			addClause(or, -literals[i]);
+			clause[i] = literals[i];
+		}
+		clause[literals.length] = -or;
+		addClause(clause);
+		return variable;
+	}
+
+	private void addClause(int... clause) {
+		try {
+			solver.addClause(new VecInt(clause));
+		} catch (final ContradictionException e) {
+			// cannot happen, as each clause contains a new definition or selector variable
+			throw new RuntimeException(e);
+		}
+	}
+
+}
@@ -27,10 +27,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.prop4j.solver.VariableMap;
 import org.sat4j.core.ConstrGroup;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.SolverFactory;
@@ -72,9 +72,7 @@ public class SatSolver {
 
 	protected boolean contradiction = false;
 
-	protected HashMap<Object, Integer> varToInt;
-
-	protected HashMap<Integer, Object> intToVar;
+	protected VariableMap varToInt;
 
 	protected ISolver solver;
 
@@ -83,8 +81,7 @@ public class SatSolver {
 	}
 
 	public SatSolver(Node node, long timeout, boolean createCNF) {
-		varToInt = new HashMap<Object, Integer>();
-		intToVar = new HashMap<Integer, Object>();
+		varToInt = new VariableMap();
 		readVars(node);
 
 		initSolver(node, timeout, createCNF);
@@ -92,12 +89,7 @@ public class SatSolver {
 
 	protected void readVars(Node node) {
 		if (node instanceof Literal) {
-			final Object var = ((Literal) node).var;
-			if (!varToInt.containsKey(var)) {
-				final int index = varToInt.size() + 1;
-				varToInt.put(var, index);
-				intToVar.put(index, var);
-			}
+			varToInt.add(((Literal) node).var);
 		} else {
 			for (final Node child : node.getChildren()) {
 				readVars(child);
@@ -159,10 +151,10 @@ public class SatSolver {
 
 	protected int getIntOfLiteral(Node node) {
 		final Object var = ((Literal) node).var;
-		if (!varToInt.containsKey(var)) {
-			final int index = varToInt.size() + 1;
-			varToInt.put(var, index);
-			intToVar.put(index, var);
+		int value = varToInt.get(var);
+		if (value == 0) {
+			final int index = varToInt.add(var);
+			value = index;
 			solver.newVar(1);
 			// hack to get around an ArrayIndexOutOfBoundsException by Sat4J
 			// 2.0.5
@@ -173,7 +165,6 @@ public class SatSolver {
 			}
 			// hack end
 		}
-		int value = varToInt.get(var);
 		value *= ((Literal) node).positive ? 1 : -1;
 		return value;
 	}
@@ -283,7 +274,7 @@ public class SatSolver {
 				final int x = model[i];
 				if (!sat(backbone, -x)) {
 					done[i] = 2;
-					result.get((x > 0) ? 0 : 1).add(new Literal(intToVar.get(Math.abs(x))));
+					result.get((x > 0) ? 0 : 1).add(new Literal(varToInt.getVariableObject(Math.abs(x))));
 					backbone.push(x);
 				}
 			}
@@ -293,7 +284,7 @@ public class SatSolver {
 				if (done[j] < 2) {
 					done[j] = 2;
 					final ArrayList<Literal> setList = new ArrayList<>();
-					setList.add(new Literal(intToVar.get(Math.abs(y))));
+					setList.add(new Literal(varToInt.getVariableObject(Math.abs(y))));
 
 					backbone.push(y);
 					for (int i = 0; i < model.length; i++) {
@@ -309,7 +300,7 @@ public class SatSolver {
 							final int x = model[i];
 							if (!sat(backbone, x)) {
 								done[i] = 2;
-								setList.add(new Literal(intToVar.get(Math.abs(x))));
+								setList.add(new Literal(varToInt.getVariableObject(Math.abs(x))));
 							}
 						}
 					}
@@ -341,8 +332,8 @@ public class SatSolver {
 
 			Arrays.fill(done, (byte) 2);
 			for (final String b : featureSet) {
-				final Integer x = varToInt.get(b);
-				if (x != null) {
+				final int x = varToInt.get(b);
+				if (x != 0) {
 					done[x - 1] = 0;
 					max++;
 				} else {
@@ -373,10 +364,10 @@ public class SatSolver {
 
 				if (!sat(backbone, -x)) {
 					backbone.push(x);
-					coreList.add(new Literal(intToVar.get(Math.abs(x)), x > 0));
+					coreList.add(new Literal(varToInt.getVariableObject(Math.abs(x)), x > 0));
 				} else {
 					final ArrayList<Literal> setList = new ArrayList<>();
-					setList.add(new Literal(intToVar.get(Math.abs(x)), x > 0));
+					setList.add(new Literal(varToInt.getVariableObject(Math.abs(x)), x > 0));
 
 					final int[] model = solver.model();
 					backbone.push(-x);
@@ -398,7 +389,7 @@ public class SatSolver {
 
 							if (!sat(backbone, y)) {
 								done[j] = 2;
-								setList.add(new Literal(intToVar.get(Math.abs(y)), y > 0));
+								setList.add(new Literal(varToInt.getVariableObject(Math.abs(y)), y > 0));
 								System.out.println("\t\t" + ++c + " / " + max);
 							} else {
 								done[j] = 0;
@@ -431,7 +422,7 @@ public class SatSolver {
 		final IteratorInt iter = backbone.iterator();
 		while (iter.hasNext()) {
 			final int value = iter.next();
-			list.add(new Literal(intToVar.get(Math.abs(value)), value > 0));
+			list.add(new Literal(varToInt.getVariableObject(Math.abs(value)), value > 0));
 		}
 		return list;
 	}
@@ -604,9 +595,9 @@ public class SatSolver {
 			final StringBuilder neg = new StringBuilder();
 			for (final int var : model) {
 				if (var > 0) {
-					pos.append(intToVar.get(Math.abs(var)) + " ");
+					pos.append(varToInt.getVariableObject(Math.abs(var)) + " ");
 				} else {
-					neg.append(intToVar.get(Math.abs(var)) + " ");
+					neg.append(varToInt.getVariableObject(Math.abs(var)) + " ");
 				}
 			}
 			out.append("true: " + pos + "    false: " + neg + "\n");
@@ -631,7 +622,7 @@ public class SatSolver {
 				final List<String> featureList = new LinkedList<>();
 				for (final int var : model) {
 					if (var > 0) {
-						featureList.add(intToVar.get(Math.abs(var)).toString());
+						featureList.add(varToInt.getVariableObject(Math.abs(var)).toString());
 					}
 				}
 				solutionList.add(featureList);
@@ -671,7 +662,7 @@ public class SatSolver {
 
 				for (final int var : model) {
 					if (var > 0) {
-						featureList.add(intToVar.get(Math.abs(var)).toString());
+						featureList.add(varToInt.getVariableObject(Math.abs(var)).toString());
 					}
 				}
 				solutionList.add(featureList);
@@ -694,7 +685,7 @@ public class SatSolver {
 		final int[] model = problem.model();
 		for (final int var : model) {
 			if (var > 0) {
-				out.append(intToVar.get(Math.abs(var)) + "\n");
+				out.append(varToInt.getVariableObject(Math.abs(var)) + "\n");
 			}
 		}
 		return out.toString();
@@ -712,9 +703,11 @@ public class SatSolver {
 				if (model != null) {
 					final List<String> resultList = new ArrayList<>();
 					for (final int var : model) {
-						final Object varObject = intToVar.get(var);
-						if (varObject instanceof String) {
-							resultList.add((String) varObject);
+						if (var > 0) {
+							final Object varObject = varToInt.getVariableObject(var);
+							if (varObject instanceof String) {
+								resultList.add((String) varObject);
+							}
 						}
 					}
 
@@ -765,7 +758,7 @@ public class SatSolver {
 		final List<String> featureList = new ArrayList<String>(model.length);
 		for (final int var : model) {
 			if (var > 0) {
-				featureList.add(intToVar.get(var).toString().intern());
+				featureList.add(varToInt.getVariableObject(var).toString().intern());
 			}
 		}
 
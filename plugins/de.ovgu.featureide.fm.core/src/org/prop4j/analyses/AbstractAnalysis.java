@@ -20,6 +20,8 @@
  */
 package org.prop4j.analyses;
 
+import java.util.List;
+
 import org.prop4j.solver.BasicSolver;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.SatInstance;
@@ -39,6 +41,12 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 
 	protected int[] assumptions = null;
 
+	/**
+	 * Literals implied by the formula, which are exchanged between analyses running in parallel on clones of the same solver.
+	 */
+	protected List<Integer> sharedLiterals = null;
+	private int sharedLiteralIndex = 0;
+
 	public AbstractAnalysis(SatInstance satInstance) {
 		try {
 			this.solver = new BasicSolver(satInstance);
@@ -61,6 +69,7 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 				solver.assignmentPush(assumption);
 			}
 		}
+		sharedLiteralIndex = 0;
 		monitor.checkCancel();
 		try {
 			return analyze(monitor);
@@ -81,4 +90,39 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 		this.assumptions = assumptions;
 	}
 
+	public List<Integer> getSharedLiterals() {
+		return sharedLiterals;
+	}
+
+	/**
+	 * Sets a list of implied literals that is shared with other analyses. Each analysis can add found literals to this list and uses the literals found by
+	 * other analyses as additional assumptions.
+	 *
+	 * @param sharedLiterals a synchronized list or {@code null}
+	 */
+	public void setSharedLiterals(List<Integer> sharedLiterals) {
+		this.sharedLiterals = sharedLiterals;
+	}
+
+	/**
+	 * Adds all literals that were shared since the last call to the assignment of the solver.
+	 */
+	protected void pullSharedLiterals() {
+		if (sharedLiterals != null) {
+			synchronized (sharedLiterals) {
+				for (final int size = sharedLiterals.size(); sharedLiteralIndex < size; sharedLiteralIndex++) {
+					solver.assignmentPush(sharedLiterals.get(sharedLiteralIndex));
+				}
+			}
+		}
+	}
+
+	protected void shareLiteral(int literal) {
+		if (sharedLiterals != null) {
+			synchronized (sharedLiterals) {
+				sharedLiterals.add(literal);
+			}
+		}
+	}
+
 }
@@ -20,11 +20,14 @@
  */
 package org.prop4j.analyses;
 
+import java.util.Arrays;
+
 import org.prop4j.solver.FixedLiteralSelectionStrategy;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
 import org.prop4j.solver.VarOrderHeap2;
+import org.sat4j.core.VecInt;
 import org.sat4j.minisat.core.Solver;
 
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -58,7 +61,7 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 
 	@Override
 	public int[] analyze(IMonitor monitor) throws Exception {
-		final int orgAssignmentSize = solver.getAssignment().size();
+		final VecInt result = new VecInt();
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 		int[] model1 = solver.findModel();
 
@@ -83,10 +86,13 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 			for (int i = 0; i < model1.length; i++) {
 				final int varX = model1[i];
 				if (varX != 0) {
+					pullSharedLiterals();
 					solver.assignmentPush(-varX);
 					switch (solver.isSatisfiable()) {
 					case FALSE:
 						solver.assignmentReplaceLast(varX);
+						result.push(varX);
+						shareLiteral(varX);
 						monitor.invoke(varX);
 						break;
 					case TIMEOUT:
@@ -102,7 +108,7 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 			}
 		}
 
-		return solver.getAssignmentArray(orgAssignmentSize, solver.getAssignment().size());
+		return Arrays.copyOf(result.toArray(), result.size());
 	}
 
 	public int[] getFeatures() {
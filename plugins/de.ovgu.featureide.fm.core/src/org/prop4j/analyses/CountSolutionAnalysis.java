@@ -20,71 +20,95 @@
  */
 package org.prop4j.analyses;
 
-import org.prop4j.solver.BasicSolver;
+import java.math.BigInteger;
+
 import org.prop4j.solver.ISatSolver;
-import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.ModelCounter;
 import org.prop4j.solver.SatInstance;
-import org.sat4j.core.VecInt;
-import org.sat4j.minisat.core.Solver;
-import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.TimeoutException;
 
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Computes the number of valid solutions for the given {@link SatInstance}.
+ * Computes the number of valid solutions for the given {@link SatInstance}.</br> Uses a {@link ModelCounter}, which counts exactly without enumerating the
+ * solutions.
  *
  * @author Sebastian Krieter
  */
-public class CountSolutionAnalysis extends AbstractAnalysis<Long> {
+public class CountSolutionAnalysis implements LongRunningMethod<BigInteger> {
+
+	/**
+	 * Result of the analysis, if the time budget was exceeded.
+	 */
+	public static final BigInteger TIMEOUT = BigInteger.valueOf(-1);
+
+	private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+	/**
+	 * Converts a result of this analysis to a {@code long}. Numbers that are too large are truncated to {@link Long#MAX_VALUE}.
+	 *
+	 * @param count the number of solutions (may be {@code null})
+	 * @return the number of solutions, -1 if a timeout occurred, or 0 if the given number is {@code null}
+	 */
+	public static long toLong(BigInteger count) {
+		if (count == null) {
+			return 0;
+		}
+		return (count.compareTo(MAX_LONG) > 0) ? Long.MAX_VALUE : count.longValue();
+	}
+
+	private final SatInstance satInstance;
+	private final long timeout;
+
+	private int[] assumptions = null;
+	private int cacheSize = ModelCounter.DEFAULT_CACHE_SIZE;
 
 	public CountSolutionAnalysis(SatInstance satInstance) {
 		this(satInstance, ISatSolver.DEFAULT_TIMEOUT);
 	}
 
+	/**
+	 * @param satInstance the formula
+	 * @param globalTimeout the time budget in milliseconds (0 for no limit)
+	 */
 	public CountSolutionAnalysis(SatInstance satInstance, long globalTimeout) {
-		super(createSolver(satInstance, globalTimeout));
+		this.satInstance = satInstance;
+		timeout = globalTimeout;
 	}
 
-	private static BasicSolver createSolver(SatInstance satInstance, final long timeout) {
+	/**
+	 * @return the number of solutions or {@link #TIMEOUT} if the time budget was exceeded.
+	 */
+	@Override
+	public BigInteger execute(IMonitor monitor) throws Exception {
+		final ModelCounter counter = new ModelCounter(satInstance);
+		counter.setTimeout(timeout);
+		counter.setCacheSize(cacheSize);
 		try {
-			return new BasicSolver(satInstance) {
-				@Override
-				protected Solver<?> initSolver() {
-					final Solver<?> solver = super.initSolver();
-					solver.setTimeoutMs(timeout);
-					setGlobalTimeout(true);
-					return solver;
-				}
-			};
-		} catch (final ContradictionException e) {
-			return null;
+			return counter.count(assumptions, monitor);
+		} catch (final TimeoutException e) {
+			return TIMEOUT;
 		}
 	}
 
-	@Override
-	public Long analyze(IMonitor monitor) throws Exception {
-		long lowerBound = 0;
-		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
-		solutionLoop: while (true) {
-			switch (solver.isSatisfiable()) {
-			case TIMEOUT:
-				lowerBound = -1 - lowerBound;
-			case FALSE:
-				break solutionLoop;
-			case TRUE:
-				lowerBound++;
-				try {
-					solver.getInternalSolver().addClause(new VecInt(SatInstance.negateModel(solver.getModel())));
-				} catch (final ContradictionException e) {
-					break solutionLoop;
-				}
-				solver.shuffleOrder();
-				break;
-			default:
-				throw new RuntimeException();
-			}
-		}
-		return lowerBound;
+	public int[] getAssumptions() {
+		return assumptions;
+	}
+
+	public void setAssumptions(int[] assumptions) {
+		this.assumptions = assumptions;
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * @param cacheSize the maximal number of integers stored in the component cache of the counter.
+	 */
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = cacheSize;
 	}
 
 }
@@ -24,8 +24,7 @@ import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedList;
 
-import org.prop4j.Literal;
-import org.prop4j.Node;
+import org.prop4j.solver.ClauseArena;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
@@ -33,6 +32,7 @@ import org.prop4j.solver.SatInstance;
 import de.ovgu.featureide.fm.core.conf.AFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -42,6 +42,9 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  */
 public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
+	/** Default maximum number of entries of a dense adjacency matrix. For larger graphs a {@link SparseFeatureGraph} is used. */
+	public static final long DEFAULT_MAX_MATRIX_SIZE = 1L << 26;
+
 	private byte[] core = new byte[0];
 
 	private final Deque<Integer> parentStack = new LinkedList<>();
@@ -52,6 +55,8 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 	private int[] index;
 	private IFeatureGraph featureGraph;
 
+	private long maxMatrixSize = DEFAULT_MAX_MATRIX_SIZE;
+
 	public FGBuilder(ISatSolver solver) {
 		super(solver);
 	}
@@ -60,6 +65,18 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 		super(satInstance);
 	}
 
+	public long getMaxMatrixSize() {
+		return maxMatrixSize;
+	}
+
+	/**
+	 * @param maxMatrixSize the maximum number of entries of a dense adjacency matrix. If the squared number of non-core features exceeds this value, a
+	 *        {@link SparseFeatureGraph} is built instead of a {@link MatrixFeatureGraph}.
+	 */
+	public void setMaxMatrixSize(long maxMatrixSize) {
+		this.maxMatrixSize = maxMatrixSize;
+	}
+
 	@Override
 	public IFeatureGraph analyze(IMonitor monitor) throws Exception {
 		parentStack.clear();
@@ -125,14 +142,19 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 			}
 
 			final SatInstance satInstance = solver.getSatInstance();
-			featureGraph = new MatrixFeatureGraph(satInstance, index);
-
-			final Node cnf = satInstance.getCnf();
-			outer: for (final Node clause : cnf.getChildren()) {
-				final Node[] literals = clause.getChildren();
-				int childrenCount = literals.length;
+			final long size = index.length - count;
+			featureGraph = ((size * size) <= maxMatrixSize) ? new MatrixFeatureGraph(satInstance, index) : new SparseFeatureGraph(satInstance, index);
+
+			final ClauseArena clauses = satInstance.getClauses();
+			int[] literals = new int[0];
+			outer: for (int clauseIndex = 0; clauseIndex < clauses.size(); clauseIndex++) {
+				int childrenCount = clauses.getClauseLength(clauseIndex);
+				if (literals.length < childrenCount) {
+					literals = new int[childrenCount];
+				}
+				System.arraycopy(clauses.getLiterals(), clauses.getStart(clauseIndex), literals, 0, childrenCount);
 				for (int i = 0; i < childrenCount; i++) {
-					final int var = satInstance.getSignedVariable((Literal) literals[i]);
+					final int var = literals[i];
 					final int coreB = var * core[Math.abs(var) - 1];
 					if (coreB > 0) {
 						continue outer;
@@ -141,23 +163,23 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 							continue outer;
 						}
 						childrenCount--;
-						final Node temp = literals[i];
+						final int temp = literals[i];
 						literals[i] = literals[childrenCount];
 						literals[childrenCount] = temp;
 						i--;
 					}
 				}
 				if (childrenCount == 2) {
-					final int x = satInstance.getSignedVariable((Literal) literals[0]);
-					final int y = satInstance.getSignedVariable((Literal) literals[1]);
+					final int x = literals[0];
+					final int y = literals[1];
 					addRelation(x, y);
 				} else {
 					for (int i = 0; i < (childrenCount - 1); i++) {
-						final int x = satInstance.getSignedVariable((Literal) literals[i]);
+						final int x = literals[i];
 						final int indexX = index[Math.abs(x) - 1];
 
 						for (int j = i + 1; j < childrenCount; j++) {
-							final int y = satInstance.getSignedVariable((Literal) literals[j]);
+							final int y = literals[j];
 							final int indexY = index[Math.abs(y) - 1];
 
 							if (x > 0) {
@@ -221,6 +243,9 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 				complete[i] = true;
 			}
 
+			if (featureGraph instanceof SparseFeatureGraph) {
+				((SparseFeatureGraph) featureGraph).trimToSize();
+			}
 			return featureGraph;
 		}
 		return null;
@@ -20,11 +20,25 @@
  */
 package org.prop4j.analyses;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.prop4j.Node;
 import org.prop4j.Not;
@@ -47,9 +61,11 @@ import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
 import de.ovgu.featureide.fm.core.filter.HiddenFeatureFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.AnalysisCache;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 /**
@@ -62,6 +78,22 @@ import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
  */
 public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, Object>> {
 
+	/**
+	 * Minimal number of features or pairs of features per parallel task.
+	 */
+	private static final int MIN_PARTITION_SIZE = 32;
+
+	/**
+	 * Interval (in ms) for checking whether the analysis was canceled while waiting for parallel tasks.
+	 */
+	private static final long CANCEL_CHECK_INTERVAL = 100;
+
+	/**
+	 * Work-stealing thread pool that is shared by all analyses. It is created on first use and replaced by a larger one, if an analysis requests more
+	 * threads.
+	 */
+	private static ForkJoinPool sharedPool = null;
+
 	/**
 	 * Defines whether constraints should be included into calculations.
 	 */
@@ -98,6 +130,21 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 	private IMonitor monitor = new NullMonitor();
 
+	/**
+	 * Long-lived analysis for core and dead features. If {@code null} a new {@link CoreDeadAnalysis} is used for each call.
+	 */
+	private IncrementalCoreDeadAnalysis incrementalCoreDeadAnalysis = null;
+
+	/**
+	 * Number of threads used for independent analyses. If 1, all analyses are executed sequentially in the calling thread.
+	 */
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Persistent cache for the analysis results. If {@code null} the results are always computed.
+	 */
+	private AnalysisCache analysisCache = null;
+
 	public FeatureModelAnalysis(IFeatureModel fm) {
 		this.fm = fm;
 
@@ -167,6 +214,43 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		this.calculateDeadConstraints = calculateDeadConstraints;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public IncrementalCoreDeadAnalysis getIncrementalCoreDeadAnalysis() {
+		return incrementalCoreDeadAnalysis;
+	}
+
+	/**
+	 * Sets an incremental analysis for core and dead features, which must be initialized with the structure of the current feature model (i.e.,
+	 * {@link ModelType#OnlyStructure}). The constraints of the analysis are synchronized with the constraints of the feature model before each computation.
+	 *
+	 * @param incrementalCoreDeadAnalysis the analysis or {@code null}
+	 */
+	public void setIncrementalCoreDeadAnalysis(IncrementalCoreDeadAnalysis incrementalCoreDeadAnalysis) {
+		this.incrementalCoreDeadAnalysis = incrementalCoreDeadAnalysis;
+	}
+
+	public AnalysisCache getAnalysisCache() {
+		return analysisCache;
+	}
+
+	/**
+	 * Sets a persistent cache for the analysis results. If the cache contains results for the current feature model (i.e., for a model with the same
+	 * fingerprint) and the same analysis settings, these results are restored instead of being computed. Otherwise, the computed results are stored in the
+	 * cache.
+	 *
+	 * @param analysisCache the cache or {@code null}
+	 */
+	public void setAnalysisCache(AnalysisCache analysisCache) {
+		this.analysisCache = analysisCache;
+	}
+
 	/**
 	 * @return Hashmap: key entry is Feature/Constraint, value usually indicating the kind of attribute (non-Javadoc)
 	 */
@@ -195,6 +279,15 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			valid = true;
 
 			if (calculateFeatures) {
+				byte[] fingerprint = null;
+				if (analysisCache != null) {
+					fingerprint = AnalysisCache.computeFingerprint(fm);
+					final byte[] cachedResults = analysisCache.getSection(fingerprint, getCacheKey());
+					if ((cachedResults != null) && restoreResults(cachedResults)) {
+						return changedAttributes;
+					}
+				}
+
 				monitor.checkCancel();
 				updateFeatures();
 
@@ -202,11 +295,156 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 					monitor.checkCancel();
 					updateConstraints();
 				}
+
+				if (analysisCache != null) {
+					final byte[] results = storeResults();
+					if (results != null) {
+						analysisCache.putSection(fingerprint, getCacheKey(), results);
+					}
+				}
 			}
 		}
 		return changedAttributes;
 	}
 
+	private String getCacheKey() {
+		final StringBuilder sb = new StringBuilder("analysis:");
+		sb.append(calculateConstraints ? 'C' : '-');
+		sb.append(calculateRedundantConstraints ? 'R' : '-');
+		sb.append(calculateTautologyConstraints ? 'T' : '-');
+		sb.append(calculateDeadConstraints ? 'D' : '-');
+		sb.append(calculateFOConstraints ? 'F' : '-');
+		return sb.toString();
+	}
+
+	private byte[] storeResults() {
+		final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(byteOut)) {
+			out.writeBoolean(valid);
+
+			final List<String> changedFeatures = new ArrayList<>();
+			for (final Entry<Object, Object> entry : changedAttributes.entrySet()) {
+				if (entry.getKey() instanceof IFeature) {
+					changedFeatures.add(((IFeature) entry.getKey()).getName());
+					changedFeatures.add(((FeatureStatus) entry.getValue()).name());
+				}
+			}
+			AnalysisCache.writeNames(out, changedFeatures);
+
+			final List<String> featureStatus = new ArrayList<>();
+			for (final IFeature feature : fm.getFeatures()) {
+				final FeatureStatus status = feature.getProperty().getFeatureStatus();
+				if (status != FeatureStatus.NORMAL) {
+					featureStatus.add(feature.getName());
+					featureStatus.add(status.name());
+				}
+			}
+			AnalysisCache.writeNames(out, featureStatus);
+
+			AnalysisCache.writeNames(out, Functional.map(coreFeatures, FeatureUtils.GET_FEATURE_NAME));
+			AnalysisCache.writeNames(out, Functional.map(deadFeatures, FeatureUtils.GET_FEATURE_NAME));
+			AnalysisCache.writeNames(out, Functional.map(falseOptionalFeatures, FeatureUtils.GET_FEATURE_NAME));
+
+			if (calculateConstraints) {
+				final List<IConstraint> constraints = fm.getConstraints();
+				out.writeInt(constraints.size());
+				for (final IConstraint constraint : constraints) {
+					out.writeUTF(constraint.getConstraintAttribute().name());
+					out.writeBoolean(changedAttributes.containsKey(constraint));
+					AnalysisCache.writeNames(out, getNames(constraint.getDeadFeatures()));
+					AnalysisCache.writeNames(out, getNames(constraint.getFalseOptional()));
+				}
+			}
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return null;
+		}
+		return byteOut.toByteArray();
+	}
+
+	private static List<String> getNames(Iterable<IFeature> features) {
+		final List<String> names = new ArrayList<>();
+		if (features != null) {
+			for (final IFeature feature : features) {
+				names.add(feature.getName());
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Restores the results of a previous analysis.
+	 *
+	 * @param data the stored results
+	 * @return {@code true} if the results could be restored, {@code false} if they do not fit the current feature model.
+	 */
+	private boolean restoreResults(byte[] data) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			for (final IFeature feature : fm.getFeatures()) {
+				feature.getProperty().setFeatureStatus(FeatureStatus.NORMAL, false);
+				FeatureUtils.setRelevantConstraints(feature);
+			}
+
+			valid = in.readBoolean();
+
+			final List<String> changedFeatures = AnalysisCache.readNames(in);
+			for (int i = 0; i < changedFeatures.size(); i += 2) {
+				changedAttributes.put(getFeature(changedFeatures.get(i)), FeatureStatus.valueOf(changedFeatures.get(i + 1)));
+			}
+			final List<String> featureStatus = AnalysisCache.readNames(in);
+			for (int i = 0; i < featureStatus.size(); i += 2) {
+				getFeature(featureStatus.get(i)).getProperty().setFeatureStatus(FeatureStatus.valueOf(featureStatus.get(i + 1)), false);
+			}
+
+			coreFeatures.addAll(getFeatures(AnalysisCache.readNames(in)));
+			deadFeatures.addAll(getFeatures(AnalysisCache.readNames(in)));
+			falseOptionalFeatures.addAll(getFeatures(AnalysisCache.readNames(in)));
+
+			if (calculateConstraints) {
+				final List<IConstraint> constraints = fm.getConstraints();
+				if (in.readInt() != constraints.size()) {
+					throw new IOException("Number of constraints does not match.");
+				}
+				for (final IConstraint constraint : constraints) {
+					final ConstraintAttribute attribute = ConstraintAttribute.valueOf(in.readUTF());
+					constraint.setConstraintAttribute(attribute, false);
+					constraint.setContainedFeatures();
+					if (in.readBoolean()) {
+						changedAttributes.put(constraint, attribute);
+					}
+					constraint.setDeadFeatures(getFeatures(AnalysisCache.readNames(in)));
+					constraint.setFalseOptionalFeatures(getFeatures(AnalysisCache.readNames(in)));
+				}
+			}
+			return true;
+		} catch (IOException | IllegalArgumentException e) {
+			Logger.logError(e);
+			changedAttributes.clear();
+			changedAttributes.put(fm.getStructure().getRoot().getFeature(), FeatureStatus.NORMAL);
+			coreFeatures.clear();
+			deadFeatures.clear();
+			falseOptionalFeatures.clear();
+			valid = true;
+			return false;
+		}
+	}
+
+	private IFeature getFeature(String name) throws IOException {
+		final IFeature feature = fm.getFeature(name);
+		if (feature == null) {
+			throw new IOException("Unknown feature: " + name);
+		}
+		return feature;
+	}
+
+	private List<IFeature> getFeatures(List<String> names) throws IOException {
+		final List<IFeature> features = new ArrayList<>(names.size());
+		for (final String name : names) {
+			features.add(getFeature(name));
+		}
+		return features;
+	}
+
 	public void updateFeatures() {
 		final Iterable<IFeature> features = fm.getFeatures();
 		for (final IFeature feature : features) {
@@ -222,13 +460,72 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		monitor.step();
 
 		if (valid) {
-			checkFeatureFalseOptional(features, si);
+			final BasicSolver solver;
+			try {
+				solver = new BasicSolver(si);
+			} catch (final ContradictionException e) {
+				Logger.logError(e);
+				return;
+			}
+			final List<Integer> sharedLiterals = Collections.synchronizedList(new ArrayList<Integer>());
+			final List<LongRunningMethod<?>> methods = new ArrayList<>();
+
+			for (final List<int[]> partition : partition(getPossibleFalseOptionalFeatures(features, si))) {
+				final ImplicationAnalysis analysis = new ImplicationAnalysis(getSolver(solver), partition);
+				analysis.setSharedLiterals(sharedLiterals);
+				methods.add(analysis);
+			}
+			final int coreDeadIndex = methods.size();
+
+			final SatInstance coreDeadInstance;
+			if (incrementalCoreDeadAnalysis != null) {
+				final LinkedHashMap<IConstraint, Node> constraintNodes = new LinkedHashMap<>();
+				for (final IConstraint constraint : fm.getConstraints()) {
+					constraintNodes.put(constraint, nodeCreator.createConstraintNode(constraint));
+				}
+				incrementalCoreDeadAnalysis.setConstraints(constraintNodes);
+				coreDeadInstance = incrementalCoreDeadAnalysis.getSatInstance();
+				methods.add(incrementalCoreDeadAnalysis);
+			} else {
+				coreDeadInstance = si;
+				final List<Integer> variables = new ArrayList<>();
+				for (int i = 1; i <= si.getNumberOfVariables(); i++) {
+					variables.add(i);
+				}
+				for (final List<Integer> partition : partition(variables)) {
+					final int[] partitionVariables = new int[partition.size()];
+					for (int i = 0; i < partitionVariables.length; i++) {
+						partitionVariables[i] = partition.get(i);
+					}
+					final CoreDeadAnalysis analysis = new CoreDeadAnalysis(getSolver(solver), partitionVariables);
+					analysis.setSharedLiterals(sharedLiterals);
+					methods.add(analysis);
+				}
+			}
+			final int hiddenIndex = methods.size();
+
+			final SatInstance hiddenInstance = createHiddenAnalysis(features, methods);
+
+			final List<Object> results = runMethods(methods);
+
+			falseOptionalFeatures.clear();
+			for (int i = 0; i < coreDeadIndex; i++) {
+				@SuppressWarnings("unchecked")
+				final List<int[]> pairs = (List<int[]>) results.get(i);
+				checkFeatureFalseOptional(pairs, si);
+			}
 			monitor.step();
 
-			checkFeatureDead(si);
+			deadFeatures.clear();
+			coreFeatures.clear();
+			for (int i = coreDeadIndex; i < hiddenIndex; i++) {
+				checkFeatureDead((int[]) results.get(i), coreDeadInstance);
+			}
 			monitor.step();
 
-			checkFeatureHidden(features);
+			if (hiddenInstance != null) {
+				checkFeatureHidden((int[]) results.get(hiddenIndex), hiddenInstance);
+			}
 			monitor.step();
 		}
 	}
@@ -329,6 +626,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			}
 			monitor.checkCancel();
 
+			final List<IConstraint> redundantConstraints = new ArrayList<>();
 			int i = -1;
 			for (final IConstraint constraint : constraints) {
 				i++;
@@ -355,27 +653,43 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 					}
 
 					if (redundant) {
-						if (checkConstraintTautology(constraint.getNode())) {
-							setConstraintAttribute(constraint, ConstraintAttribute.TAUTOLOGY);
-						} else {
-							setConstraintAttribute(constraint, ConstraintAttribute.REDUNDANT);
-						}
+						redundantConstraints.add(constraint);
 					}
 				}
 				monitor.checkCancel();
 			}
+
+			final List<Boolean> tautologies = checkConstraintTautology(redundantConstraints);
+			for (int j = 0; j < tautologies.size(); j++) {
+				setConstraintAttribute(redundantConstraints.get(j), tautologies.get(j) ? ConstraintAttribute.TAUTOLOGY : ConstraintAttribute.REDUNDANT);
+			}
 		} else if (calculateTautologyConstraints) {
-			for (final IConstraint constraint : constraints) {
-				if (checkConstraintTautology(constraint.getNode())) {
-					setConstraintAttribute(constraint, ConstraintAttribute.TAUTOLOGY);
+			final List<Boolean> tautologies = checkConstraintTautology(constraints);
+			for (int j = 0; j < tautologies.size(); j++) {
+				if (tautologies.get(j)) {
+					setConstraintAttribute(constraints.get(j), ConstraintAttribute.TAUTOLOGY);
 				}
-				monitor.checkCancel();
 			}
 		}
 	}
 
-	private boolean checkConstraintTautology(Node constraintNode) {
-		return checkConstraintContradiction(new Not(constraintNode).toRegularCNF());
+	/**
+	 * Checks for each given constraint (in parallel) whether it is a tautology.
+	 *
+	 * @param constraints the constraints to check
+	 * @return for each constraint {@code true} if it is a tautology
+	 */
+	private List<Boolean> checkConstraintTautology(List<IConstraint> constraints) {
+		final List<LongRunningMethod<?>> methods = new ArrayList<>(constraints.size());
+		for (final IConstraint constraint : constraints) {
+			methods.add(new ValidAnalysis(new SatInstance(new Not(constraint.getNode()).toRegularCNF())));
+		}
+		final List<Object> results = runMethods(methods);
+		final List<Boolean> tautologies = new ArrayList<>(results.size());
+		for (final Object result : results) {
+			tautologies.add(result == null);
+		}
+		return tautologies;
 	}
 
 	private void checkConstraintUnsatisfiable(final List<IConstraint> constraints) throws ContradictionException {
@@ -417,11 +731,10 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 	}
 
-	private void checkFeatureDead(final SatInstance si) {
-		deadFeatures.clear();
-		coreFeatures.clear();
-		final int[] solution2 = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si), monitor.subTask(0));
-		monitor.checkCancel();
+	private void checkFeatureDead(final int[] solution2, final SatInstance si) {
+		if (solution2 == null) {
+			return;
+		}
 		for (int i = 0; i < solution2.length; i++) {
 			monitor.checkCancel();
 			final int var = solution2[i];
@@ -455,7 +768,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		return result;
 	}
 
-	private void checkFeatureFalseOptional(final Iterable<IFeature> features, final SatInstance si) {
+	private List<int[]> getPossibleFalseOptionalFeatures(final Iterable<IFeature> features, final SatInstance si) {
 		final List<int[]> possibleFOFeatures = new ArrayList<>();
 		for (final IFeature feature : features) {
 			final IFeature parent = FeatureUtils.getParent(feature);
@@ -463,9 +776,13 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 				possibleFOFeatures.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
 			}
 		}
-		final List<int[]> solution3 = LongRunningWrapper.runMethod(new ImplicationAnalysis(si, possibleFOFeatures), monitor.subTask(0));
-		monitor.checkCancel();
-		falseOptionalFeatures.clear();
+		return possibleFOFeatures;
+	}
+
+	private void checkFeatureFalseOptional(final List<int[]> solution3, final SatInstance si) {
+		if (solution3 == null) {
+			return;
+		}
 		for (final int[] pair : solution3) {
 			monitor.checkCancel();
 			final IFeature feature = fm.getFeature((CharSequence) si.getVariableObject(pair[1]));
@@ -495,13 +812,13 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	}
 
 	/**
-	 * Calculations for indeterminate hidden features
+	 * Creates the analysis for indeterminate hidden features and adds it to the given list.
 	 *
-	 * @param changedAttributes
+	 * @return the sat instance used by the analysis; null if there are no hidden features
 	 */
-	private void checkFeatureHidden(final Iterable<IFeature> features) {
+	private SatInstance createHiddenAnalysis(final Iterable<IFeature> features, final List<LongRunningMethod<?>> methods) {
 		if (!fm.getStructure().hasHidden()) {
-			return;
+			return null;
 		}
 
 		nodeCreator.setModelType(ModelType.All);
@@ -516,12 +833,116 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			}
 		}));
 
-		final int[] determinedHidden = LongRunningWrapper.runMethod(new IndeterminedAnalysis(si, hiddenLiterals));
+		methods.add(new IndeterminedAnalysis(si, hiddenLiterals));
+		return si;
+	}
+
+	/**
+	 * Calculations for indeterminate hidden features
+	 */
+	private void checkFeatureHidden(final int[] determinedHidden, final SatInstance si) {
+		if (determinedHidden == null) {
+			return;
+		}
 		for (final int feature : determinedHidden) {
 			setFeatureAttribute(fm.getFeature(si.getVariableObject(feature).toString()), FeatureStatus.INDETERMINATE_HIDDEN);
 		}
 	}
 
+	private BasicSolver getSolver(BasicSolver solver) {
+		return numberOfThreads > 1 ? solver.clone() : solver;
+	}
+
+	/**
+	 * Splits the given list into contiguous partitions, such that each partition can be analyzed by a separate task.
+	 */
+	private <T> List<List<T>> partition(List<T> list) {
+		final List<List<T>> partitions = new ArrayList<>();
+		if (!list.isEmpty()) {
+			final int numberOfPartitions = Math.max(1, Math.min(2 * numberOfThreads, list.size() / MIN_PARTITION_SIZE));
+			final int partitionSize = ((list.size() - 1) / numberOfPartitions) + 1;
+			for (int i = 0; i < list.size(); i += partitionSize) {
+				partitions.add(list.subList(i, Math.min(i + partitionSize, list.size())));
+			}
+		}
+		return partitions;
+	}
+
+	/**
+	 * Executes the given methods. If more than one thread is available, the methods are distributed to a work-stealing thread pool.
+	 *
+	 * @return the results of the methods in the same order as the methods
+	 */
+	private List<Object> runMethods(final List<? extends LongRunningMethod<?>> methods) {
+		final List<Object> results = new ArrayList<>(methods.size());
+		if ((numberOfThreads <= 1) || (methods.size() <= 1)) {
+			for (final LongRunningMethod<?> method : methods) {
+				results.add(LongRunningWrapper.runMethod(method, monitor.subTask(0)));
+				monitor.checkCancel();
+			}
+			return results;
+		}
+
+		// at most numberOfThreads workers take the methods one after another, such that an analysis never uses more threads of the shared pool
+		final int numberOfWorkers = Math.min(numberOfThreads, methods.size());
+		final ForkJoinPool pool = getSharedPool(numberOfWorkers);
+		final Object[] methodResults = new Object[methods.size()];
+		final AtomicInteger nextMethod = new AtomicInteger();
+		final NullMonitor taskMonitor = new NullMonitor();
+		final List<Future<?>> futures = new ArrayList<>(numberOfWorkers);
+		try {
+			for (int i = 0; i < numberOfWorkers; i++) {
+				futures.add(pool.submit(new Runnable() {
+
+					@Override
+					public void run() {
+						for (int index = nextMethod.getAndIncrement(); index < methods.size(); index = nextMethod.getAndIncrement()) {
+							methodResults[index] = LongRunningWrapper.runMethod(methods.get(index), taskMonitor);
+						}
+					}
+				}));
+			}
+			for (final Future<?> future : futures) {
+				while (true) {
+					try {
+						future.get(CANCEL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+						break;
+					} catch (final TimeoutException e) {
+						monitor.checkCancel();
+					} catch (final ExecutionException e) {
+						Logger.logError(e);
+						break;
+					}
+				}
+			}
+		} catch (final MethodCancelException e) {
+			taskMonitor.cancel();
+			throw e;
+		} catch (final InterruptedException e) {
+			taskMonitor.cancel();
+			throw new MethodCancelException();
+		}
+		results.addAll(Arrays.asList(methodResults));
+		return results;
+	}
+
+	/**
+	 * Returns the shared thread pool. The pool is created lazily with at least as many threads as processors are available.
+	 *
+	 * @param parallelism the number of threads required by the caller
+	 * @return a pool with a parallelism of at least {@code parallelism}
+	 */
+	private static synchronized ForkJoinPool getSharedPool(int parallelism) {
+		if ((sharedPool == null) || (sharedPool.getParallelism() < parallelism)) {
+			if (sharedPool != null) {
+				// running tasks of the old pool are still completed
+				sharedPool.shutdown();
+			}
+			sharedPool = new ForkJoinPool(Math.max(parallelism, Runtime.getRuntime().availableProcessors()));
+		}
+		return sharedPool;
+	}
+
 	private void checkValidity(final SatInstance si) {
 		valid = LongRunningWrapper.runMethod(new ValidAnalysis(si)) != null;
 		if (!valid) {
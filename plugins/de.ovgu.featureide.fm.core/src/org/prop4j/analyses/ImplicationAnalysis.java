@@ -88,6 +88,7 @@ public class ImplicationAnalysis extends AbstractAnalysis<List<int[]>> {
 					}
 					continue pairLoop;
 				}
+				pullSharedLiterals();
 				for (final int i : pair) {
 					solver.assignmentPush(-i);
 				}
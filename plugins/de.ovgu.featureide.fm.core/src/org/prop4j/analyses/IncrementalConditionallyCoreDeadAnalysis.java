@@ -0,0 +1,262 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import org.prop4j.solver.ClauseArena;
+import org.prop4j.solver.FixedLiteralSelectionStrategy;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+import org.prop4j.solver.VarOrderHeap2;
+import org.sat4j.minisat.core.Solver;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Finds core and dead features under the given assumptions and reuses the result of a previous call with other assumptions.</br> If assumptions were only
+ * added, all previously implied literals are still implied. A previously undecided variable can only become implied, if it is connected to an added literal
+ * via clauses that are not satisfied by the unchanged assumptions. If assumptions were removed, only the previously implied variables and the removed
+ * variables can become undecided. Thus, the solver only checks these candidates instead of all variables.
+ */
+public class IncrementalConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
+
+	/**
+	 * Computes for each variable the indices of the clauses containing it.
+	 *
+	 * @param satInstance the instance
+	 * @return an array containing the clause indices for each variable (the first entry is empty)
+	 */
+	public static int[][] computeOccurrences(SatInstance satInstance) {
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		final ClauseArena clauses = satInstance.getClauses();
+		final int[] counts = new int[numberOfVariables + 1];
+		final int[] literals = clauses.getLiterals();
+		for (int i = 0; i < clauses.size(); i++) {
+			for (int j = clauses.getStart(i); j < clauses.getEnd(i); j++) {
+				counts[Math.abs(literals[j])]++;
+			}
+		}
+		final int[][] occurrences = new int[numberOfVariables + 1][];
+		for (int var = 0; var <= numberOfVariables; var++) {
+			occurrences[var] = new int[counts[var]];
+			counts[var] = 0;
+		}
+		for (int i = 0; i < clauses.size(); i++) {
+			for (int j = clauses.getStart(i); j < clauses.getEnd(i); j++) {
+				final int var = Math.abs(literals[j]);
+				final int[] clauseIndices = occurrences[var];
+				// a variable may occur twice in one clause
+				if ((counts[var] == 0) || (clauseIndices[counts[var] - 1] != i)) {
+					clauseIndices[counts[var]++] = i;
+				}
+			}
+		}
+		for (int var = 0; var <= numberOfVariables; var++) {
+			if (counts[var] < occurrences[var].length) {
+				final int[] clauseIndices = new int[counts[var]];
+				System.arraycopy(occurrences[var], 0, clauseIndices, 0, counts[var]);
+				occurrences[var] = clauseIndices;
+			}
+		}
+		return occurrences;
+	}
+
+	private final int[][] occurrences;
+	private final int[] previousAssumptions;
+	private final int[] previousResult;
+
+	private boolean satisfiable = false;
+	private int numberOfCandidates = 0;
+
+	/**
+	 * @param solver the solver
+	 * @param occurrences the clause indices of each variable (see {@link #computeOccurrences(SatInstance)})
+	 * @param previousAssumptions the assumptions of the previous call or {@code null}, if there is no previous result
+	 * @param previousResult the implied literals of the previous call. Must only be given, if the previous assumptions were satisfiable.
+	 */
+	public IncrementalConditionallyCoreDeadAnalysis(ISatSolver solver, int[][] occurrences, int[] previousAssumptions, int[] previousResult) {
+		super(solver);
+		this.occurrences = occurrences;
+		this.previousAssumptions = (previousResult == null) ? null : previousAssumptions;
+		this.previousResult = (previousAssumptions == null) ? null : previousResult;
+	}
+
+	@Override
+	public int[] analyze(IMonitor monitor) throws Exception {
+		final SatInstance satInstance = solver.getSatInstance();
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		final int[] currentAssumptions = (assumptions == null) ? new int[0] : assumptions;
+
+		final int[] current = new int[numberOfVariables + 1];
+		for (final int literal : currentAssumptions) {
+			current[Math.abs(literal)] = literal;
+		}
+
+		final boolean[] candidates = new boolean[numberOfVariables + 1];
+		if (previousAssumptions == null) {
+			for (int var = 1; var <= numberOfVariables; var++) {
+				candidates[var] = current[var] == 0;
+			}
+		} else {
+			// the assignment under which the remaining clauses are examined
+			final int[] base = new int[numberOfVariables + 1];
+			boolean removed = false;
+			for (final int literal : previousAssumptions) {
+				final int var = Math.abs(literal);
+				if (current[var] == literal) {
+					base[var] = literal;
+				} else {
+					removed = true;
+					if (current[var] == 0) {
+						candidates[var] = true;
+					}
+				}
+			}
+			for (final int literal : previousResult) {
+				final int var = Math.abs(literal);
+				if (current[var] == 0) {
+					if (removed) {
+						candidates[var] = true;
+					} else {
+						// still implied
+						base[var] = literal;
+						solver.assignmentPush(literal);
+					}
+				}
+			}
+			markConnectedVariables(satInstance.getClauses(), current, base, candidates);
+		}
+
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		final int[] model1 = solver.findModel();
+		if (model1 == null) {
+			return new int[0];
+		}
+		satisfiable = true;
+
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		final int[] model2 = solver.findModel();
+		SatInstance.updateModel(model1, model2);
+		for (int i = 0; i < model1.length; i++) {
+			if (!candidates[i + 1]) {
+				model1[i] = 0;
+			}
+		}
+		final int[] fixedAssignment = solver.getAssignmentArray(0, solver.getAssignment().size());
+		for (final int literal : fixedAssignment) {
+			model1[Math.abs(literal) - 1] = 0;
+		}
+		for (int i = 0; i < model1.length; i++) {
+			if (model1[i] != 0) {
+				numberOfCandidates++;
+			}
+		}
+
+		((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), solver.getOrder()));
+
+		for (int i = 0; i < model1.length; i++) {
+			final int varX = model1[i];
+			if (varX != 0) {
+				solver.assignmentPush(-varX);
+				switch (solver.isSatisfiable()) {
+				case FALSE:
+					solver.assignmentReplaceLast(varX);
+					break;
+				case TIMEOUT:
+					solver.assignmentPop();
+					break;
+				case TRUE:
+					solver.assignmentPop();
+					SatInstance.updateModel(model1, solver.getModel());
+					solver.shuffleOrder();
+					break;
+				}
+			}
+			monitor.checkCancel();
+		}
+		return solver.getAssignmentArray(currentAssumptions.length, solver.getAssignment().size());
+	}
+
+	/**
+	 * Marks all unassigned variables that are connected to an added assumption via clauses that are not satisfied by the base assignment.
+	 */
+	private void markConnectedVariables(ClauseArena clauses, int[] current, int[] base, boolean[] candidates) {
+		final boolean[] visitedVariables = new boolean[current.length];
+		final boolean[] visitedClauses = new boolean[clauses.size()];
+		final int[] literals = clauses.getLiterals();
+		final int[] queue = new int[current.length];
+		int queueEnd = 0;
+		for (int var = 1; var < current.length; var++) {
+			if ((current[var] != 0) && (base[var] == 0)) {
+				visitedVariables[var] = true;
+				queue[queueEnd++] = var;
+			}
+		}
+		for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+			for (final int clauseIndex : occurrences[queue[queueStart]]) {
+				if (visitedClauses[clauseIndex]) {
+					continue;
+				}
+				visitedClauses[clauseIndex] = true;
+				final int start = clauses.getStart(clauseIndex);
+				final int end = clauses.getEnd(clauseIndex);
+				if (isSatisfied(literals, start, end, base)) {
+					continue;
+				}
+				for (int j = start; j < end; j++) {
+					final int var = Math.abs(literals[j]);
+					if (!visitedVariables[var] && (base[var] == 0)) {
+						visitedVariables[var] = true;
+						queue[queueEnd++] = var;
+						if (current[var] == 0) {
+							candidates[var] = true;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean isSatisfied(int[] literals, int start, int end, int[] assignment) {
+		for (int j = start; j < end; j++) {
+			final int literal = literals[j];
+			if (assignment[Math.abs(literal)] == literal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return {@code true} if the assumptions of the last call were satisfiable. Only then, its result can be passed to the next analysis.
+	 */
+	public boolean isSatisfiable() {
+		return satisfiable;
+	}
+
+	/**
+	 * @return the number of variables that were checked by the solver in the last call.
+	 */
+	public int getNumberOfCandidates() {
+		return numberOfCandidates;
+	}
+
+}
@@ -0,0 +1,362 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.solver.ClauseArena;
+import org.prop4j.solver.FixedLiteralSelectionStrategy;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.minisat.orders.PositiveLiteralSelectionStrategy;
+import org.sat4j.minisat.orders.VarOrderHeap;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.base.util.RingList;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Finds core and dead features incrementally.</br> Keeps one solver instance alive between calls. The clauses of the feature structure are added permanently,
+ * whereas the clauses of each constraint are guarded by a selector variable, which is activated via assumptions. Thus, constraints can be added and retracted
+ * without rebuilding the solver and learned clauses remain valid.</br> The backbone and a bounded cache of solutions from the previous call are reused, such
+ * that after a small edit only variables that could have changed are checked by the solver.
+ */
+public class IncrementalCoreDeadAnalysis implements LongRunningMethod<int[]> {
+
+	private static final int MODEL_CACHE_SIZE = 64;
+
+	private static final class ConstraintGroup {
+
+		private final Node cnf;
+		private final int selector;
+		private final int[][] clauses;
+		private final IConstr[] constraints;
+
+		public ConstraintGroup(Node cnf, int selector, int[][] clauses, IConstr[] constraints) {
+			this.cnf = cnf;
+			this.selector = selector;
+			this.clauses = clauses;
+			this.constraints = constraints;
+		}
+
+	}
+
+	private final SatInstance satInstance;
+	private final Solver<?> solver;
+	private final int numberOfVariables;
+
+	private final LinkedHashMap<Object, ConstraintGroup> constraintGroups = new LinkedHashMap<>();
+	private final RingList<int[]> modelCache = new RingList<>(MODEL_CACHE_SIZE);
+
+	private int[] backbone = null;
+	private boolean constraintsAdded = false;
+	private boolean constraintsRemoved = false;
+
+	/**
+	 * @param structureInstance contains all variables and the permanent clauses (usually the feature structure without cross-tree constraints).
+	 * @throws ContradictionException if the permanent clauses are already unsatisfiable.
+	 */
+	public IncrementalCoreDeadAnalysis(SatInstance structureInstance) throws ContradictionException {
+		satInstance = structureInstance;
+		numberOfVariables = structureInstance.getNumberOfVariables();
+
+		solver = (Solver<?>) SolverFactory.newDefault();
+		solver.setTimeoutMs(ISatSolver.DEFAULT_TIMEOUT);
+		solver.setDBSimplificationAllowed(false);
+		solver.setVerbose(false);
+
+		if (numberOfVariables > 0) {
+			solver.newVar(numberOfVariables);
+			final ClauseArena clauses = structureInstance.getClauses();
+			final VecInt clause = new VecInt();
+			for (int i = 0; i < clauses.size(); i++) {
+				solver.addClause(clauses.getClause(i, clause));
+			}
+			final VecInt pseudoClause = new VecInt(numberOfVariables + 1);
+			for (int i = 1; i <= numberOfVariables; i++) {
+				pseudoClause.push(i);
+			}
+			pseudoClause.push(-1);
+			solver.addClause(pseudoClause);
+		}
+	}
+
+	/**
+	 * Synchronizes the active constraints with the given map. Constraints that are not contained in the map anymore are retracted, new or modified constraints
+	 * are added with a new selector variable. Constraints with an unchanged CNF keep their clauses and selector.
+	 *
+	 * @param constraints maps an arbitrary (but stable) key for each constraint to its CNF (an {@link org.prop4j.And And} of {@link org.prop4j.Or Or} clauses).
+	 */
+	public synchronized void setConstraints(Map<?, Node> constraints) {
+		for (final Iterator<Entry<Object, ConstraintGroup>> it = constraintGroups.entrySet().iterator(); it.hasNext();) {
+			final Entry<Object, ConstraintGroup> entry = it.next();
+			final Node newCnf = constraints.get(entry.getKey());
+			if ((newCnf == null) || !newCnf.equals(entry.getValue().cnf)) {
+				retract(entry.getValue());
+				it.remove();
+			}
+		}
+		for (final Entry<?, Node> entry : constraints.entrySet()) {
+			if (!constraintGroups.containsKey(entry.getKey())) {
+				constraintGroups.put(entry.getKey(), activate(entry.getValue()));
+			}
+		}
+	}
+
+	public synchronized void addConstraint(Object key, Node cnf) {
+		final ConstraintGroup oldGroup = constraintGroups.remove(key);
+		if (oldGroup != null) {
+			retract(oldGroup);
+		}
+		constraintGroups.put(key, activate(cnf));
+	}
+
+	public synchronized void removeConstraint(Object key) {
+		final ConstraintGroup oldGroup = constraintGroups.remove(key);
+		if (oldGroup != null) {
+			retract(oldGroup);
+		}
+	}
+
+	private ConstraintGroup activate(Node cnf) {
+		final int selector = solver.nextFreeVarId(true);
+		final Node[] clauseNodes = cnf.getChildren();
+		final int[][] clauses = new int[clauseNodes.length][];
+		final IConstr[] constraints = new IConstr[clauseNodes.length];
+		try {
+			for (int i = 0; i < clauseNodes.length; i++) {
+				final int[] clause = convertClause(clauseNodes[i]);
+				clauses[i] = clause;
+				final int[] guardedClause = Arrays.copyOf(clause, clause.length + 1);
+				guardedClause[clause.length] = -selector;
+				constraints[i] = solver.addClause(new VecInt(guardedClause));
+			}
+		} catch (final ContradictionException e) {
+			// cannot happen, as the selector variable is always unassigned at this point
+			throw new RuntimeException(e);
+		}
+		constraintsAdded = true;
+		return new ConstraintGroup(cnf, selector, clauses, constraints);
+	}
+
+	/**
+	 * Removes the guarded clauses of the given group from the solver. Learned clauses that were derived from them contain the negated selector variable,
+	 * which is never assumed again, so they remain harmless.
+	 */
+	private void retract(ConstraintGroup group) {
+		for (final IConstr constraint : group.constraints) {
+			// null for clauses that the solver did not store (e.g., unit clauses)
+			if (constraint != null) {
+				solver.removeConstr(constraint);
+			}
+		}
+		constraintsRemoved = true;
+	}
+
+	private int[] convertClause(Node clauseNode) {
+		final Node[] literals = clauseNode.getChildren();
+		final int[] clause = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			clause[i] = satInstance.getSignedVariable((Literal) literals[i]);
+		}
+		return clause;
+	}
+
+	/**
+	 * Computes the backbone of the current formula (i.e., the structure and all active constraints).
+	 *
+	 * @return the core (positive) and dead (negative) variables; an empty array, if the formula is unsatisfiable.
+	 * @throws TimeoutException if the satisfiability of the formula could not be decided in time.
+	 */
+	@Override
+	public synchronized int[] execute(IMonitor monitor) throws Exception {
+		final VecInt assumptions = new VecInt(constraintGroups.size() + numberOfVariables);
+		for (final ConstraintGroup group : constraintGroups.values()) {
+			assumptions.push(group.selector);
+		}
+		monitor.checkCancel();
+
+		final List<int[]> validModels = new ArrayList<>();
+		for (final int[] model : modelCache) {
+			if (isValid(model)) {
+				validModels.add(model);
+			}
+		}
+
+		final int[] model1;
+		if (validModels.isEmpty()) {
+			solver.setOrder(new VarOrderHeap(new PositiveLiteralSelectionStrategy()));
+			final int[] firstModel = solve(assumptions);
+			if (firstModel == null) {
+				backbone = new int[0];
+				resetChanges();
+				return backbone;
+			}
+			model1 = firstModel;
+		} else {
+			model1 = Arrays.copyOf(validModels.get(0), numberOfVariables);
+		}
+		if (validModels.size() < 2) {
+			solver.setOrder(new VarOrderHeap(new FixedLiteralSelectionStrategy(extend(model1), true)));
+			try {
+				final int[] model2 = solve(assumptions);
+				if (model2 != null) {
+					SatInstance.updateModel(model1, model2);
+				}
+			} catch (final TimeoutException e) {
+				// the second solution is only used to exclude variables early
+			}
+		}
+		SatInstance.updateModel(model1, validModels);
+
+		// if constraints were only added, each former backbone literal is still implied
+		final Set<Integer> knownBackbone = new HashSet<>();
+		if ((backbone != null) && !constraintsRemoved) {
+			for (final int literal : backbone) {
+				knownBackbone.add(literal);
+			}
+		}
+
+		final int[] phase = extend(model1);
+		solver.setOrder(new VarOrderHeap(new FixedLiteralSelectionStrategy(phase, true)));
+
+		final List<Integer> result = new ArrayList<>();
+		for (int i = 0; i < numberOfVariables; i++) {
+			final int varX = model1[i];
+			if (varX != 0) {
+				if (knownBackbone.contains(varX)) {
+					assumptions.push(varX);
+					result.add(varX);
+					monitor.invoke(varX);
+				} else {
+					assumptions.push(-varX);
+					try {
+						if (solver.isSatisfiable(assumptions, false)) {
+							assumptions.pop();
+							final int[] model = convertModel(solver.model());
+							SatInstance.updateModel(model1, model);
+							System.arraycopy(model1, 0, phase, 0, numberOfVariables);
+						} else {
+							assumptions.pop().unsafePush(varX);
+							result.add(varX);
+							monitor.invoke(varX);
+						}
+					} catch (final TimeoutException e) {
+						assumptions.pop();
+					}
+				}
+			}
+			monitor.checkCancel();
+		}
+
+		backbone = new int[result.size()];
+		for (int i = 0; i < backbone.length; i++) {
+			backbone[i] = result.get(i);
+		}
+		resetChanges();
+		return Arrays.copyOf(backbone, backbone.length);
+	}
+
+	private void resetChanges() {
+		constraintsAdded = false;
+		constraintsRemoved = false;
+	}
+
+	/**
+	 * @return a solution or {@code null} if the formula is unsatisfiable.
+	 * @throws TimeoutException if the solver did not finish in time.
+	 */
+	private int[] solve(VecInt assumptions) throws TimeoutException {
+		if (solver.isSatisfiable(assumptions, false)) {
+			return convertModel(solver.model());
+		}
+		return null;
+	}
+
+	/**
+	 * Converts a solution of the internal solver to a model over the variables of the {@link SatInstance} (i.e., removes all selector variables) and adds it
+	 * to the model cache.
+	 */
+	private int[] convertModel(int[] internalModel) {
+		final int[] model = new int[numberOfVariables];
+		for (final int literal : internalModel) {
+			final int var = Math.abs(literal);
+			if (var <= numberOfVariables) {
+				model[var - 1] = literal;
+			}
+		}
+		modelCache.add(Arrays.copyOf(model, numberOfVariables));
+		return model;
+	}
+
+	private int[] extend(int[] model) {
+		return Arrays.copyOf(model, solver.realNumberOfVariables());
+	}
+
+	private boolean isValid(int[] model) {
+		for (final ConstraintGroup group : constraintGroups.values()) {
+			clauseLoop: for (final int[] clause : group.clauses) {
+				for (final int literal : clause) {
+					if (model[Math.abs(literal) - 1] == literal) {
+						continue clauseLoop;
+					}
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public SatInstance getSatInstance() {
+		return satInstance;
+	}
+
+	/**
+	 * @return the backbone of the last call of {@link #execute(IMonitor)} or {@code null} if there was no such call.
+	 */
+	public synchronized int[] getBackbone() {
+		return backbone == null ? null : Arrays.copyOf(backbone, backbone.length);
+	}
+
+	/**
+	 * @return {@code true} if constraints were added or retracted since the last computation of the backbone.
+	 */
+	public synchronized boolean hasChanged() {
+		return constraintsAdded || constraintsRemoved;
+	}
+
+}
@@ -0,0 +1,254 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+/**
+ * Dense bit set over all t-wise interactions of a set of variables.</br> An interaction consists of t distinct variables and a selection (positive or negative)
+ * for each of them. The variables of an interaction are ranked in the combinatorial number system (i.e., the sorted indices {@code c_0 < ... < c_t-1} have the
+ * rank {@code C(c_0, 1) + ... + C(c_t-1, t)}) and the selections are stored in the lowest t bits of the index. Thus, each interaction occupies exactly one bit
+ * and no interaction is stored twice.
+ */
+public class InteractionBitSet {
+
+	private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+	/**
+	 * The maximum number of variables per interaction, such that all selections of one combination fit into a single word.
+	 */
+	public static final int MAX_T = 6;
+
+	/**
+	 * Computes the number of interactions.
+	 *
+	 * @param numberOfVariables the number of variables
+	 * @param t the number of variables per interaction
+	 * @return the number of interactions or -1 if it does not fit into a long value
+	 */
+	public static long getNumberOfInteractions(int numberOfVariables, int t) {
+		if ((t < 0) || (t > numberOfVariables) || (t > 62)) {
+			return t > numberOfVariables ? 0 : -1;
+		}
+		long result = 1;
+		for (int i = 1; i <= t; i++) {
+			final long factor = (numberOfVariables - t) + i;
+			if (result > (Long.MAX_VALUE / factor)) {
+				return -1;
+			}
+			result = (result * factor) / i;
+		}
+		return (result > (Long.MAX_VALUE >>> t)) ? -1 : result << t;
+	}
+
+	private final int numberOfVariables;
+	private final int t;
+	private final long size;
+	private final long[] words;
+
+	/**
+	 * binomial[c][k] = C(c, k)
+	 */
+	private final long[][] binomial;
+
+	/**
+	 * @param numberOfVariables the number of variables
+	 * @param t the number of variables per interaction (at least 1 and at most the number of variables and {@link #MAX_T})
+	 * @throws IllegalArgumentException if t is out of range or the number of interactions is too large
+	 */
+	public InteractionBitSet(int numberOfVariables, int t) {
+		if ((t < 1) || (t > numberOfVariables) || (t > MAX_T)) {
+			throw new IllegalArgumentException("Invalid interaction size: " + t);
+		}
+		size = getNumberOfInteractions(numberOfVariables, t);
+		if ((size < 0) || (((size + 63) >>> 6) > MAX_WORDS)) {
+			throw new IllegalArgumentException("Too many interactions for " + numberOfVariables + " variables and t = " + t);
+		}
+		this.numberOfVariables = numberOfVariables;
+		this.t = t;
+		words = new long[(int) ((size + 63) >>> 6)];
+
+		binomial = new long[numberOfVariables + 1][t + 1];
+		for (int c = 0; c <= numberOfVariables; c++) {
+			binomial[c][0] = 1;
+			for (int k = 1; k <= Math.min(c, t); k++) {
+				binomial[c][k] = binomial[c - 1][k - 1] + ((k <= (c - 1)) ? binomial[c - 1][k] : 0);
+			}
+		}
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	/**
+	 * @return the number of interactions (i.e., the number of bits)
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @param combination the sorted indices of the variables
+	 * @param selection bit k is set, iff the variable at combination[k] is selected
+	 * @return the index of the interaction
+	 */
+	public long getIndex(int[] combination, int selection) {
+		long rank = 0;
+		for (int k = 0; k < t; k++) {
+			rank += binomial[combination[k]][k + 1];
+		}
+		return (rank << t) | selection;
+	}
+
+	/**
+	 * Computes the variables of an interaction.
+	 *
+	 * @param index the index of the interaction
+	 * @param combination array of length t, which is filled with the sorted indices of the variables
+	 * @return the selection of the variables (bit k is set, iff the variable at combination[k] is selected)
+	 */
+	public int getInteraction(long index, int[] combination) {
+		long rank = index >>> t;
+		int high = numberOfVariables - 1;
+		for (int k = t; k > 0; k--) {
+			// largest c with C(c, k) <= rank
+			int low = k - 1;
+			while (low < high) {
+				final int mid = (low + high + 1) >>> 1;
+				if (binomial[mid][k] <= rank) {
+					low = mid;
+				} else {
+					high = mid - 1;
+				}
+			}
+			combination[k - 1] = low;
+			rank -= binomial[low][k];
+			high = low - 1;
+		}
+		return (int) (index & ((1 << t) - 1));
+	}
+
+	/**
+	 * Returns the selections of all interactions of one combination that are not set.
+	 *
+	 * @param rank the rank of the combination (i.e., the index of the interaction shifted by t)
+	 * @return a mask, in which bit s is set, iff the interaction with the selection s is not set
+	 */
+	public long getClearSelections(long rank) {
+		final long index = rank << t;
+		final long selections = ~words[(int) (index >>> 6)] >>> index;
+		return (t == MAX_T) ? selections : selections & ((1L << (1 << t)) - 1);
+	}
+
+	/**
+	 * Advances the given combination to the next combination in colexicographic order, which is the combination with the next higher rank.
+	 *
+	 * @param combination the sorted indices of the variables
+	 * @return {@code false} if the given combination was the last one
+	 */
+	public boolean nextCombination(int[] combination) {
+		int k = 0;
+		while ((k < (t - 1)) && ((combination[k] + 1) == combination[k + 1])) {
+			combination[k] = k;
+			k++;
+		}
+		return ++combination[k] < numberOfVariables;
+	}
+
+	public boolean get(long index) {
+		return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	public void set(long index) {
+		words[(int) (index >>> 6)] |= (1L << index);
+	}
+
+	/**
+	 * @param fromIndex the first index to check
+	 * @return the index of the first interaction that is not set or -1 if all remaining interactions are set
+	 */
+	public long nextClearBit(long fromIndex) {
+		if (fromIndex >= size) {
+			return -1;
+		}
+		int wordIndex = (int) (fromIndex >>> 6);
+		long word = ~words[wordIndex] & (-1L << fromIndex);
+		while (true) {
+			if (word != 0) {
+				final long index = ((long) wordIndex << 6) + Long.numberOfTrailingZeros(word);
+				return index < size ? index : -1;
+			}
+			if (++wordIndex == words.length) {
+				return -1;
+			}
+			word = ~words[wordIndex];
+		}
+	}
+
+	/**
+	 * @return the number of interactions that are set
+	 */
+	public long cardinality() {
+		long count = 0;
+		for (final long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Sets all interactions that are covered by the given assignment.
+	 *
+	 * @param selection the selection of each variable
+	 * @return the number of interactions that were not set before
+	 */
+	public long setAll(boolean[] selection) {
+		final int[] combination = new int[t];
+		for (int k = 0; k < t; k++) {
+			combination[k] = k;
+		}
+		long newlySet = 0;
+		// enumerate all combinations in colexicographic order, which is the order of their ranks
+		for (long rank = 0;; rank++) {
+			int selectionBits = 0;
+			for (int k = 0; k < t; k++) {
+				if (selection[combination[k]]) {
+					selectionBits |= 1 << k;
+				}
+			}
+			final long index = (rank << t) | selectionBits;
+			final int wordIndex = (int) (index >>> 6);
+			final long bit = 1L << index;
+			if ((words[wordIndex] & bit) == 0) {
+				words[wordIndex] |= bit;
+				newlySet++;
+			}
+
+			if (!nextCombination(combination)) {
+				return newlySet;
+			}
+		}
+	}
+
+}
@@ -27,12 +27,17 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 
-import org.prop4j.Literal;
-import org.prop4j.Node;
+import org.prop4j.solver.ClauseArena;
 import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.core.VecInt;
@@ -43,7 +48,10 @@ import org.sat4j.specs.IVecInt;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Finds certain solutions of propositional formulas.
+ * Finds certain solutions of propositional formulas.</br> If more than one thread is used, each thread builds a candidate configuration with its own solver
+ * and its own (randomly perturbed) order of features in each round. All threads read the same table of covered combinations, which is only modified after all
+ * candidates of a round are built. The candidate that covers the most combinations is added. Thus, for the same seed and number of threads, the result does
+ * not depend on the scheduling of the threads.
  *
  * @author Sebastian Krieter
  */
@@ -54,6 +62,7 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 		private static final double minBackJumpingDelta = 0.0;
 
 		private IConstr blockingClauseConstraint = null;
+		private IConstr[] additionalBlockingClauseConstraints = new IConstr[0];
 
 		private int deltaCoverage;
 		private final int[] model;
@@ -100,6 +109,31 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 		}
 	}
 
+	/**
+	 * Builds a candidate configuration with its own solver.
+	 */
+	private class CandidateBuilder implements Callable<Configuration> {
+
+		private final ISatSolver candidateSolver;
+		private final boolean[] featuresUsedOrg;
+		private final int numberOfFixedFeatures;
+		private FeatureIndex[] order;
+
+		public CandidateBuilder(ISatSolver candidateSolver, boolean[] featuresUsedOrg, int numberOfFixedFeatures) {
+			this.candidateSolver = candidateSolver;
+			this.featuresUsedOrg = featuresUsedOrg;
+			this.numberOfFixedFeatures = numberOfFixedFeatures;
+		}
+
+		@Override
+		public Configuration call() throws Exception {
+			candidateSolver.assignmentClear(numberOfFixedFeatures);
+			final int[] model = buildModel(candidateSolver, order, featuresUsedOrg);
+			return model == null ? null : new Configuration(model, 0, count(model));
+		}
+
+	}
+
 	private static class FeatureIndex implements Comparable<FeatureIndex> {
 
 		private int coveredCombinations = 0, selected = 0;
@@ -177,6 +211,23 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 
 	private List<int[]> predefinedConfigurations;
 
+	/**
+	 * Number of threads that build candidate configurations in each round.
+	 */
+	private int numberOfThreads = 1;
+
+	/**
+	 * Seed for the variable order of the solver and for perturbing the order of features in additional threads.
+	 */
+	private long seed = 0;
+
+	private final List<ISatSolver> additionalSolvers = new ArrayList<>();
+
+	/**
+	 * Random number generator for the variable order of the solver, which is initialized with the seed.
+	 */
+	private Random random = new Random(seed);
+
 	public PairWiseConfigurationGenerator(SatInstance satInstance, int maxNumber) {
 		super(satInstance);
 		this.maxNumber = maxNumber;
@@ -189,6 +240,7 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 			return Collections.emptyList();
 		}
 		time = System.nanoTime();
+		random = new Random(seed);
 		synchronized (tempConfigurationList) {
 			tempConfigurationList.clear();
 		}
@@ -223,6 +275,12 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 
 		solver = solver.clone();
 		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		additionalSolvers.clear();
+		for (int i = 1; i < numberOfThreads; i++) {
+			final ISatSolver additionalSolver = solver.clone();
+			additionalSolver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+			additionalSolvers.add(additionalSolver);
+		}
 
 		// allyes
 		handleNewConfig(allYesSolution);
@@ -238,69 +296,156 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 			}
 		}
 
-		final int[] varStatus = new int[2];
+		final List<CandidateBuilder> candidateBuilders = new ArrayList<>(numberOfThreads);
+		candidateBuilders.add(new CandidateBuilder(solver, featuresUsedOrg, numberOfFixedFeatures));
+		for (final ISatSolver additionalSolver : additionalSolvers) {
+			candidateBuilders.add(new CandidateBuilder(additionalSolver, featuresUsedOrg, numberOfFixedFeatures));
+		}
+		final ForkJoinPool pool = (candidateBuilders.size() > 1) ? new ForkJoinPool(candidateBuilders.size()) : null;
+
+		try {
+			while (count <= maxNumber) {
+				monitor.checkCancel();
+
+				countLoops = featureIndexArray.length;
+				int prio = 0;
+				for (final FeatureIndex featureIndex : featureIndexArray) {
+					featureIndex.setPriority(prio++);
+				}
+				Arrays.sort(featureIndexArray);
 
-		while (count <= maxNumber) {
-			monitor.checkCancel();
-			final boolean[] featuresUsed = Arrays.copyOf(featuresUsedOrg, featuresUsedOrg.length);
+				final int[] nextModel;
+				if (pool == null) {
+					nextModel = buildModel(solver, featureIndexArray, featuresUsedOrg);
+				} else {
+					nextModel = buildModelInParallel(pool, candidateBuilders);
+				}
 
-			countLoops = featureIndexArray.length;
-			int prio = 0;
-			for (final FeatureIndex featureIndex : featureIndexArray) {
-				featureIndex.setPriority(prio++);
+				if (handleNewConfig(nextModel)) {
+					break;
+				}
+				solver.assignmentClear(numberOfFixedFeatures);
 			}
-			Arrays.sort(featureIndexArray);
+		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+			additionalSolvers.clear();
+		}
+		return getConfigurations();
+	}
 
-			for (int x = 1, end = featureIndexArray.length; x < end; x++) {
-				final FeatureIndex featureIndexA = featureIndexArray[x];
-				final int a = featureIndexA.getIndex();
-				if (featuresUsed[a]) {
+	private int[] buildModelInParallel(ForkJoinPool pool, List<CandidateBuilder> candidateBuilders) throws InterruptedException, ExecutionException {
+		candidateBuilders.get(0).order = featureIndexArray;
+		for (int i = 1; i < candidateBuilders.size(); i++) {
+			candidateBuilders.get(i).order = getPerturbedOrder();
+		}
+
+		final List<Future<Configuration>> futures = pool.invokeAll(candidateBuilders);
+
+		Configuration bestCandidate = null;
+		for (final Future<Configuration> future : futures) {
+			final Configuration candidate = future.get();
+			if ((candidate != null) && ((bestCandidate == null) || (candidate.getTotalCoverage() > bestCandidate.getTotalCoverage()))) {
+				bestCandidate = candidate;
+			}
+		}
+		return bestCandidate == null ? null : bestCandidate.getModel();
+	}
+
+	/**
+	 * @return a copy of the current feature order, in which features with the same number of covered combinations are shuffled.
+	 */
+	private FeatureIndex[] getPerturbedOrder() {
+		final FeatureIndex[] order = Arrays.copyOf(featureIndexArray, featureIndexArray.length);
+		int start = 0;
+		for (int i = 1; i <= order.length; i++) {
+			if ((i == order.length) || (order[i].coveredCombinations != order[start].coveredCombinations)) {
+				for (int j = i - 1; j > start; j--) {
+					final int k = start + random.nextInt((j - start) + 1);
+					final FeatureIndex temp = order[j];
+					order[j] = order[k];
+					order[k] = temp;
+				}
+				start = i;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Greedily assigns pairs of features that are not yet covered in the given order and completes the assignment to a configuration.
+	 */
+	private int[] buildModel(ISatSolver solver, FeatureIndex[] order, boolean[] featuresUsedOrg) {
+		final boolean[] featuresUsed = Arrays.copyOf(featuresUsedOrg, featuresUsedOrg.length);
+		final int[] varStatus = new int[2];
+
+		for (int x = 1, end = order.length; x < end; x++) {
+			final FeatureIndex featureIndexA = order[x];
+			final int a = featureIndexA.getIndex();
+			if (featuresUsed[a]) {
+				continue;
+			}
+			bLoop: for (int y = 0; y < x; y++) {
+				final FeatureIndex featureIndexB = order[y];
+				final int b = featureIndexB.getIndex();
+				final int index = (a * numVariables) + b;
+				final byte curCombo = (combinations2[index]);
+				if ((curCombo == 15) || featuresUsed[b]) {
 					continue;
 				}
-				bLoop: for (int y = 0; y < x; y++) {
-					final FeatureIndex featureIndexB = featureIndexArray[y];
-					final int b = featureIndexB.getIndex();
-					final int index = (a * numVariables) + b;
-					final byte curCombo = (combinations2[index]);
-					if ((curCombo == 15) || featuresUsed[b]) {
-						continue;
-					}
 
-					varStatus[0] = 0;
-					varStatus[1] = 0;
-
-					final int[] combinationOrder = getCombinationOrder(featureIndexA.getSelected(), featureIndexB.getSelected(), curCombo);
-					comboLoop: for (int i = 0; i < combinationOrder.length; i++) {
-						final boolean result;
-						switch (combinationOrder[i]) {
-						case BIT_00:
-							result = testCombination(varStatus, featuresUsed, -(a + 1), -(b + 1));
-							break;
-						case BIT_01:
-							result = testCombination(varStatus, featuresUsed, -(a + 1), (b + 1));
-							break;
-						case BIT_10:
-							result = testCombination(varStatus, featuresUsed, (a + 1), -(b + 1));
-							break;
-						case BIT_11:
-							result = testCombination(varStatus, featuresUsed, (a + 1), (b + 1));
-							break;
-						default:
-							continue comboLoop;
-						}
-						if (result) {
-							break bLoop;
-						}
+				varStatus[0] = 0;
+				varStatus[1] = 0;
+
+				final int[] combinationOrder = getCombinationOrder(featureIndexA.getSelected(), featureIndexB.getSelected(), curCombo);
+				comboLoop: for (int i = 0; i < combinationOrder.length; i++) {
+					final boolean result;
+					switch (combinationOrder[i]) {
+					case BIT_00:
+						result = testCombination(solver, varStatus, featuresUsed, -(a + 1), -(b + 1));
+						break;
+					case BIT_01:
+						result = testCombination(solver, varStatus, featuresUsed, -(a + 1), (b + 1));
+						break;
+					case BIT_10:
+						result = testCombination(solver, varStatus, featuresUsed, (a + 1), -(b + 1));
+						break;
+					case BIT_11:
+						result = testCombination(solver, varStatus, featuresUsed, (a + 1), (b + 1));
+						break;
+					default:
+						continue comboLoop;
+					}
+					if (result) {
+						break bLoop;
 					}
 				}
 			}
-
-			if (handleNewConfig(solver.findModel())) {
-				break;
-			}
-			solver.assignmentClear(numberOfFixedFeatures);
 		}
-		return getConfigurations();
+
+		return solver.findModel();
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that build candidate configurations in parallel. If 1, the configurations are built sequentially in the calling thread.
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
 	}
 
 	public List<int[]> getPredefinedConfigurations() {
@@ -583,7 +728,7 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 					case TRUE:
 						solver.assignmentPop();
 						SatInstance.updateModel(model1Copy, solver.getModel());
-						solver.shuffleOrder();
+						solver.shuffleOrder(random);
 						break;
 					}
 				}
@@ -591,11 +736,16 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 			combinations = new byte[numVariables * numVariables];
 			combinations2 = new byte[numVariables * numVariables];
 
-			outer: for (final Node clause : solver.getSatInstance().getCnf().getChildren()) {
-				final Node[] literals = clause.getChildren();
-				int childrenCount = literals.length;
+			final ClauseArena clauses = solver.getSatInstance().getClauses();
+			int[] literals = new int[0];
+			outer: for (int clauseIndex = 0; clauseIndex < clauses.size(); clauseIndex++) {
+				int childrenCount = clauses.getClauseLength(clauseIndex);
+				if (literals.length < childrenCount) {
+					literals = new int[childrenCount];
+				}
+				System.arraycopy(clauses.getLiterals(), clauses.getStart(clauseIndex), literals, 0, childrenCount);
 				for (int i = 0; i < childrenCount; i++) {
-					final int var = solver.getSatInstance().getSignedVariable((Literal) literals[i]);
+					final int var = literals[i];
 					final int coreB = var * core[Math.abs(var) - 1];
 					if (coreB > 0) {
 						continue outer;
@@ -604,15 +754,15 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 							continue outer;
 						}
 						childrenCount--;
-						final Node temp = literals[i];
+						final int temp = literals[i];
 						literals[i] = literals[childrenCount];
 						literals[childrenCount] = temp;
 						i--;
 					}
 				}
 				if (childrenCount == 2) {
-					final int x = solver.getSatInstance().getSignedVariable((Literal) literals[0]);
-					final int y = solver.getSatInstance().getSignedVariable((Literal) literals[1]);
+					final int x = literals[0];
+					final int y = literals[1];
 					if (Math.abs(x) < Math.abs(y)) {
 						addRelation(-x, y);
 					} else {
@@ -620,9 +770,9 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 					}
 				}
 				for (int i = 0; i < (childrenCount - 1); i++) {
-					final int x = solver.getSatInstance().getVariable((Literal) literals[i]) - 1;
+					final int x = Math.abs(literals[i]) - 1;
 					for (int j = i + 1; j < childrenCount; j++) {
-						final int y = solver.getSatInstance().getVariable((Literal) literals[j]) - 1;
+						final int y = Math.abs(literals[j]) - 1;
 						combinations[(x * numVariables) + y] |= BIT_CHECK;
 						combinations[(y * numVariables) + x] |= BIT_CHECK;
 					}
@@ -743,6 +893,9 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 				while (config.isBetterThan(tempConfigurationList.getLast()) && ((count - lesserCount) > finalCount)) {
 					final Configuration lastConfig = tempConfigurationList.removeLast();
 					solver.getInternalSolver().removeConstr(lastConfig.getBlockingClauseConstraint());
+					for (int i = 0; i < lastConfig.additionalBlockingClauseConstraints.length; i++) {
+						additionalSolvers.get(i).getInternalSolver().removeConstr(lastConfig.additionalBlockingClauseConstraints[i]);
+					}
 					lesserCount++;
 				}
 			}
@@ -815,6 +968,11 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 
 		try {
 			config.setBlockingClauseConstraint(solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(curModel))));
+			config.additionalBlockingClauseConstraints = new IConstr[additionalSolvers.size()];
+			for (int i = 0; i < config.additionalBlockingClauseConstraints.length; i++) {
+				config.additionalBlockingClauseConstraints[i] =
+					additionalSolvers.get(i).getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(curModel)));
+			}
 		} catch (final ContradictionException e) {
 			return true;
 		}
@@ -850,6 +1008,10 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 	}
 
 	protected boolean testCombination(int[] varStatus, boolean[] featuresUsed, int sa, int sb) {
+		return testCombination(solver, varStatus, featuresUsed, sa, sb);
+	}
+
+	private boolean testCombination(ISatSolver solver, int[] varStatus, boolean[] featuresUsed, int sa, int sb) {
 		final int a = Math.abs(sa) - 1;
 		final int b = Math.abs(sb) - 1;
 
@@ -928,7 +1090,15 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 				}
 			}
 			if (xModel1 == null) {
-				throw new RuntimeException();
+				// the solution buffer may not contain a solution with mx1 anymore
+				solver.assignmentPush(mx1);
+				if (solver.isSatisfiable() == SatResult.TRUE) {
+					xModel1 = solver.getModel();
+				}
+				solver.assignmentPop();
+				if (xModel1 == null) {
+					throw new RuntimeException();
+				}
 			}
 
 			int c = 0;
@@ -968,7 +1138,7 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 						solver.assignmentPop();
 						break;
 					case TRUE:
-						solver.shuffleOrder();
+						solver.shuffleOrder(random);
 						solver.assignmentPop();
 						break;
 					}
@@ -0,0 +1,313 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.conf.AFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Generates configurations that cover all valid t-wise interactions of a propositional formula.</br> Core and dead variables are removed and each atomic set
+ * is represented by a single variable, since all interactions of the other variables are determined by this representative. The interactions over the
+ * representatives are tracked in an {@link InteractionBitSet}, in which an interaction is set if it is either covered by a generated configuration or known to be
+ * invalid.</br> Each configuration is built greedily: the remaining interactions are visited in the order of their rank and added to the current partial
+ * assignment if this is still satisfiable. If an interaction cannot be added, it is checked once without any partial assignment to detect invalid
+ * interactions. A configuration is completed after a {@link #setMaxFailedChecks(int) number} of consecutive unsuccessful solver calls. Optionally, a
+ * {@link IFeatureGraph feature graph} is used to skip interactions with contradicting pairs of variables without calling the solver.
+ */
+public class TWiseConfigurationGenerator extends AbstractAnalysis<List<List<String>>> {
+
+	private final int t;
+	private final int maxNumber;
+
+	private int maxFailedChecks = 1000;
+
+	private IFeatureGraph featureGraph = null;
+
+	private InteractionBitSet interactions = null;
+
+	public TWiseConfigurationGenerator(SatInstance satInstance, int t, int maxNumber) {
+		super(satInstance);
+		this.t = t;
+		this.maxNumber = maxNumber;
+	}
+
+	public TWiseConfigurationGenerator(ISatSolver solver, int t, int maxNumber) {
+		super(solver);
+		this.t = t;
+		this.maxNumber = maxNumber;
+	}
+
+	public int getMaxFailedChecks() {
+		return maxFailedChecks;
+	}
+
+	/**
+	 * Sets the number of consecutive unsuccessful solver calls after which a configuration is completed.
+	 * A higher number usually results in fewer configurations, but increases the computation time.
+	 *
+	 * @param maxFailedChecks the maximum number of consecutive unsuccessful solver calls per configuration
+	 */
+	public void setMaxFailedChecks(int maxFailedChecks) {
+		this.maxFailedChecks = maxFailedChecks;
+	}
+
+	public IFeatureGraph getFeatureGraph() {
+		return featureGraph;
+	}
+
+	/**
+	 * Sets a feature graph for the formula, which is used to detect invalid interactions without calling the solver.
+	 *
+	 * @param featureGraph the feature graph or {@code null}
+	 */
+	public void setFeatureGraph(IFeatureGraph featureGraph) {
+		this.featureGraph = featureGraph;
+	}
+
+	/**
+	 * @return the interactions of the last call, in which all covered and invalid interactions are set; {@code null} if there was no such call.
+	 */
+	public InteractionBitSet getInteractions() {
+		return interactions;
+	}
+
+	@Override
+	public List<List<String>> analyze(IMonitor monitor) throws Exception {
+		if ((maxNumber <= 0) || (t <= 0)) {
+			return Collections.emptyList();
+		}
+		final SatInstance satInstance = solver.getSatInstance();
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+
+		final ISatSolver atomicSetSolver = solver.clone();
+		atomicSetSolver.initSolutionList(Math.min(numberOfVariables, ISatSolver.MAX_SOLUTION_BUFFER));
+		final List<int[]> atomicSets = new AtomicSetAnalysis(atomicSetSolver).execute(monitor);
+		if (atomicSets.isEmpty()) {
+			return Collections.emptyList();
+		}
+		monitor.checkCancel();
+
+		final int fixedSize = solver.getAssignment().size();
+		final int[] values = new int[numberOfVariables + 1];
+		for (int i = 0; i < fixedSize; i++) {
+			final int literal = solver.getAssignment().get(i);
+			values[Math.abs(literal)] = literal;
+		}
+		for (final int literal : atomicSets.get(0)) {
+			if (values[Math.abs(literal)] == 0) {
+				solver.assignmentPush(literal);
+				values[Math.abs(literal)] = literal;
+			}
+		}
+		final int coreSize = solver.getAssignment().size();
+
+		final int[] representatives = new int[atomicSets.size() - 1];
+		for (int i = 0; i < representatives.length; i++) {
+			representatives[i] = Math.abs(atomicSets.get(i + 1)[0]);
+		}
+		final int[] graphIndex = getGraphIndex(satInstance, representatives);
+
+		final int strength = Math.min(t, representatives.length);
+		final List<List<String>> result = new ArrayList<>();
+		if (strength == 0) {
+			final int[] model = solver.findModel();
+			if (model != null) {
+				result.add(satInstance.convertToString(model));
+			}
+			solver.assignmentClear(fixedSize);
+			return result;
+		}
+
+		interactions = new InteractionBitSet(representatives.length, strength);
+		final InteractionBitSet validInteractions = new InteractionBitSet(representatives.length, strength);
+		final ISatSolver validitySolver = solver.clone();
+		validitySolver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+
+		// selectionMasks[k][1] contains all selections in which the k-th variable is selected, selectionMasks[k][0] all others
+		final long[][] selectionMasks = new long[strength][2];
+		for (int selectionBits = 0; selectionBits < (1 << strength); selectionBits++) {
+			for (int k = 0; k < strength; k++) {
+				selectionMasks[k][(selectionBits >>> k) & 1] |= 1L << selectionBits;
+			}
+		}
+		final int[] combination = new int[strength];
+		final int[] literals = new int[strength];
+		final boolean[] selection = new boolean[representatives.length];
+
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		while (result.size() < maxNumber) {
+			monitor.checkCancel();
+			int[] model = null;
+			int failedChecks = 0;
+			for (int k = 0; k < strength; k++) {
+				combination[k] = k;
+			}
+			long rank = 0;
+			do {
+				long clearSelections = interactions.getClearSelections(rank);
+				for (int k = 0; (k < strength) && (clearSelections != 0); k++) {
+					final int value = values[representatives[combination[k]]];
+					if (value != 0) {
+						clearSelections &= selectionMasks[k][value > 0 ? 1 : 0];
+					}
+				}
+				for (; clearSelections != 0; clearSelections &= clearSelections - 1) {
+					final int selectionBits = Long.numberOfTrailingZeros(clearSelections);
+					final long index = (rank << strength) | selectionBits;
+					boolean satisfiedByModel = model != null;
+					for (int k = 0; k < strength; k++) {
+						final int var = representatives[combination[k]];
+						final int literal = ((selectionBits >>> k) & 1) != 0 ? var : -var;
+						literals[k] = literal;
+						if (satisfiedByModel && (model[var - 1] != literal)) {
+							satisfiedByModel = false;
+						}
+					}
+
+					final boolean unassigned = solver.getAssignment().size() == coreSize;
+					if (isContradicting(graphIndex, combination, selectionBits)) {
+						if (unassigned) {
+							interactions.set(index);
+						}
+						continue;
+					}
+
+					final int assignmentSize = solver.getAssignment().size();
+					for (final int literal : literals) {
+						if (values[Math.abs(literal)] == 0) {
+							solver.assignmentPush(literal);
+							values[Math.abs(literal)] = literal;
+						}
+					}
+					if (!satisfiedByModel) {
+						switch (solver.isSatisfiable()) {
+						case TRUE:
+							model = solver.getModel();
+							failedChecks = 0;
+							break;
+						case FALSE:
+						case TIMEOUT:
+						default:
+							for (int i = solver.getAssignment().size() - 1; i >= assignmentSize; i--) {
+								values[Math.abs(solver.getAssignment().get(i))] = 0;
+							}
+							solver.assignmentClear(assignmentSize);
+							if (unassigned) {
+								interactions.set(index);
+							} else if (validInteractions.get(index) || isValid(validitySolver, coreSize, literals)) {
+								// the interaction is valid, but incompatible with the current partial assignment
+								validInteractions.set(index);
+								failedChecks++;
+							} else {
+								// the interaction is invalid and is not tried again for the next configurations
+								interactions.set(index);
+							}
+							continue;
+						}
+					}
+					// all other selections of this combination are incompatible with the new assignment
+					break;
+				}
+				rank++;
+			} while ((failedChecks < maxFailedChecks) && interactions.nextCombination(combination));
+
+			if (model != null) {
+				model = solver.findModel();
+			}
+			for (int i = solver.getAssignment().size() - 1; i >= coreSize; i--) {
+				values[Math.abs(solver.getAssignment().get(i))] = 0;
+			}
+			solver.assignmentClear(coreSize);
+			if (model == null) {
+				break;
+			}
+
+			for (int i = 0; i < representatives.length; i++) {
+				selection[i] = model[representatives[i] - 1] > 0;
+			}
+			interactions.setAll(selection);
+			result.add(satInstance.convertToString(model));
+		}
+		solver.assignmentClear(fixedSize);
+		return result;
+	}
+
+	private boolean isValid(ISatSolver validitySolver, int coreSize, int[] literals) {
+		for (final int literal : literals) {
+			validitySolver.assignmentPush(literal);
+		}
+		final boolean valid = validitySolver.isSatisfiable() != SatResult.FALSE;
+		validitySolver.assignmentClear(coreSize);
+		return valid;
+	}
+
+	private int[] getGraphIndex(SatInstance satInstance, int[] representatives) {
+		if ((featureGraph == null) || (featureGraph.getSatInstance() == null)) {
+			return null;
+		}
+		final SatInstance graphInstance = featureGraph.getSatInstance();
+		final int[] graphIndex = new int[representatives.length];
+		for (int i = 0; i < representatives.length; i++) {
+			final int graphVariable = graphInstance.getVariableIndex(satInstance.getVariableObject(representatives[i]));
+			graphIndex[i] = (graphVariable > 0) ? featureGraph.getIndex()[graphVariable - 1] : -1;
+		}
+		return graphIndex;
+	}
+
+	/**
+	 * Checks whether the feature graph implies that two variables of an interaction cannot be combined.
+	 */
+	private boolean isContradicting(int[] graphIndex, int[] combination, int selectionBits) {
+		if (graphIndex == null) {
+			return false;
+		}
+		for (int k = 0; k < combination.length; k++) {
+			final int fromIndex = graphIndex[combination[k]];
+			if (fromIndex < 0) {
+				continue;
+			}
+			final boolean fromSelected = ((selectionBits >>> k) & 1) != 0;
+			for (int l = 0; l < combination.length; l++) {
+				final int toIndex = graphIndex[combination[l]];
+				if ((l == k) || (toIndex < 0)) {
+					continue;
+				}
+				final byte value = featureGraph.getValue(fromIndex, toIndex, fromSelected);
+				final boolean toSelected = ((selectionBits >>> l) & 1) != 0;
+				if ((toSelected && ((value & AFeatureGraph.VALUE_0) != 0)) || (!toSelected && ((value & AFeatureGraph.VALUE_1) != 0))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
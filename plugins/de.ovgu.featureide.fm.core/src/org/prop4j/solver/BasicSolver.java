@@ -44,6 +44,7 @@ import org.sat4j.specs.TimeoutException;
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.util.RingList;
+import de.ovgu.featureide.fm.core.job.JobMetrics;
 
 /**
  * Finds certain solutions of propositional formulas.
@@ -73,7 +74,7 @@ public class BasicSolver implements ISatSolver {
 
 	protected BasicSolver(BasicSolver oldSolver) {
 		satInstance = oldSolver.satInstance;
-		order = new int[satInstance.intToVar.length - 1];
+		order = new int[satInstance.getNumberOfVariables()];
 		assignment = new VecInt(0);
 		oldSolver.assignment.copyTo(assignment);
 
@@ -90,8 +91,9 @@ public class BasicSolver implements ISatSolver {
 		final int size = satInstance.getNumberOfVariables();
 		if (size > 0) {
 			solver.newVar(size);
-			solver.setExpectedNumberOfClauses(satInstance.getCnf().getChildren().length + 1);
-			addCNF(satInstance.getCnf().getChildren());
+			final ClauseArena clauses = satInstance.getClauses();
+			solver.setExpectedNumberOfClauses(clauses.size() + 1);
+			addCNF(clauses);
 			final VecInt pseudoClause = new VecInt(size + 1);
 			for (int i = 1; i <= size; i++) {
 				pseudoClause.push(i);
@@ -124,6 +126,16 @@ public class BasicSolver implements ISatSolver {
 		return result;
 	}
 
+	/**
+	 * Adds all given clauses. The same vector is reused for each clause, as the internal solver copies the literals.
+	 */
+	protected void addCNF(final ClauseArena clauses) throws ContradictionException {
+		final VecInt clause = new VecInt();
+		for (int i = 0; i < clauses.size(); i++) {
+			solver.addClause(clauses.getClause(i, clause));
+		}
+	}
+
 	protected IConstr addClause(final Node node) throws ContradictionException {
 		final Node[] children = node.getChildren();
 		final int[] clause = new int[children.length];
@@ -173,14 +185,17 @@ public class BasicSolver implements ISatSolver {
 	public SatResult isSatisfiable() {
 		try {
 			if (solver.isSatisfiable(assignment, globalTimeout)) {
+				JobMetrics.satCall(false);
 				if (solutionList != null) {
 					solutionList.add(solver.model());
 				}
 				return SatResult.TRUE;
 			} else {
+				JobMetrics.satCall(false);
 				return SatResult.FALSE;
 			}
 		} catch (final TimeoutException e) {
+			JobMetrics.satCall(true);
 			timeoutOccured = true;
 			return SatResult.TIMEOUT;
 		}
@@ -221,7 +236,11 @@ public class BasicSolver implements ISatSolver {
 
 	@Override
 	public void shuffleOrder() {
-		final Random rnd = new Random();
+		shuffleOrder(new Random());
+	}
+
+	@Override
+	public void shuffleOrder(Random rnd) {
 		for (int i = order.length - 1; i >= 0; i--) {
 			final int index = rnd.nextInt(i + 1);
 			final int a = order[index];
@@ -255,6 +274,19 @@ public class BasicSolver implements ISatSolver {
 		timeoutOccured = false;
 	}
 
+	/**
+	 * Restores the initial state of this solver (i.e., clears the assignment and the solution list and resets the variable order and the timeout settings).
+	 * The clauses, including all learned clauses, are kept.
+	 */
+	public void reset() {
+		assignment.clear();
+		solutionList = null;
+		globalTimeout = false;
+		timeoutOccured = false;
+		fixOrder();
+		setSelectionStrategy(SelectionStrategy.ORG);
+	}
+
 	@Override
 	public BasicSolver clone() {
 		return new BasicSolver(this);
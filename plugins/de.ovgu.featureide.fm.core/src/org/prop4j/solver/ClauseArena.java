@@ -0,0 +1,152 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.Arrays;
+
+import org.sat4j.core.VecInt;
+
+/**
+ * Stores a list of clauses as one flat array of literals.</br> The literals of clause {@code i} are located between {@link #getStart(int) getStart(i)}
+ * (inclusive) and {@link #getEnd(int) getEnd(i)} (exclusive) in the array returned by {@link #getLiterals()}. Thus, the clauses of a CNF can be iterated and
+ * passed to a solver without creating an object for each clause or literal.
+ */
+public class ClauseArena {
+
+	private int[] literals;
+	private int[] offsets;
+	private int numberOfLiterals = 0;
+	private int numberOfClauses = 0;
+
+	public ClauseArena() {
+		this(16, 64);
+	}
+
+	/**
+	 * @param expectedClauses the expected number of clauses.
+	 * @param expectedLiterals the expected total number of literals.
+	 */
+	public ClauseArena(int expectedClauses, int expectedLiterals) {
+		literals = new int[Math.max(expectedLiterals, 1)];
+		offsets = new int[Math.max(expectedClauses, 1) + 1];
+	}
+
+	/**
+	 * Appends a literal to the current (not yet finished) clause.
+	 *
+	 * @see #finishClause()
+	 */
+	public void addLiteral(int literal) {
+		if (numberOfLiterals == literals.length) {
+			literals = Arrays.copyOf(literals, literals.length << 1);
+		}
+		literals[numberOfLiterals++] = literal;
+	}
+
+	/**
+	 * Finishes the current clause, which consists of all literals added since the last call of this method.
+	 *
+	 * @return the index of the finished clause.
+	 */
+	public int finishClause() {
+		if ((numberOfClauses + 1) == offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length << 1);
+		}
+		offsets[++numberOfClauses] = numberOfLiterals;
+		return numberOfClauses - 1;
+	}
+
+	/**
+	 * Adds a complete clause.
+	 *
+	 * @return the index of the new clause.
+	 */
+	public int addClause(int... clause) {
+		if ((numberOfLiterals + clause.length) > literals.length) {
+			literals = Arrays.copyOf(literals, Math.max(literals.length << 1, numberOfLiterals + clause.length));
+		}
+		System.arraycopy(clause, 0, literals, numberOfLiterals, clause.length);
+		numberOfLiterals += clause.length;
+		return finishClause();
+	}
+
+	public int size() {
+		return numberOfClauses;
+	}
+
+	public int getNumberOfLiterals() {
+		return offsets[numberOfClauses];
+	}
+
+	public int getStart(int clauseIndex) {
+		return offsets[clauseIndex];
+	}
+
+	public int getEnd(int clauseIndex) {
+		return offsets[clauseIndex + 1];
+	}
+
+	public int getClauseLength(int clauseIndex) {
+		return offsets[clauseIndex + 1] - offsets[clauseIndex];
+	}
+
+	public int getLiteral(int clauseIndex, int position) {
+		return literals[offsets[clauseIndex] + position];
+	}
+
+	/**
+	 * @return the backing array of all literals. Must not be modified.
+	 */
+	public int[] getLiterals() {
+		return literals;
+	}
+
+	/**
+	 * @return a copy of the literals of the given clause.
+	 */
+	public int[] getClause(int clauseIndex) {
+		return Arrays.copyOfRange(literals, offsets[clauseIndex], offsets[clauseIndex + 1]);
+	}
+
+	/**
+	 * Copies the literals of the given clause into the given vector (which is cleared before).
+	 *
+	 * @return the given vector.
+	 */
+	public VecInt getClause(int clauseIndex, VecInt clause) {
+		final int end = offsets[clauseIndex + 1];
+		clause.clear();
+		clause.ensure(end - offsets[clauseIndex]);
+		for (int i = offsets[clauseIndex]; i < end; i++) {
+			clause.unsafePush(literals[i]);
+		}
+		return clause;
+	}
+
+	/**
+	 * Reduces the capacity of the internal arrays to the current size.
+	 */
+	public void trimToSize() {
+		literals = Arrays.copyOf(literals, Math.max(getNumberOfLiterals(), 1));
+		offsets = Arrays.copyOf(offsets, numberOfClauses + 1);
+	}
+
+}
@@ -21,6 +21,7 @@
 package org.prop4j.solver;
 
 import java.util.List;
+import java.util.Random;
 
 import org.prop4j.Node;
 import org.sat4j.specs.ContradictionException;
@@ -87,6 +88,11 @@ public interface ISatSolver extends Cloneable {
 
 	void shuffleOrder();
 
+	/**
+	 * Shuffles the variable order using the given random number generator.
+	 */
+	void shuffleOrder(Random random);
+
 	int[] getOrder();
 
 	List<IConstr> addClauses(Node constraint) throws ContradictionException;
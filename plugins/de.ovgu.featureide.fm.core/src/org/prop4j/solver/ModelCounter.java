@@ -0,0 +1,411 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Computes the exact number of solutions of a {@link SatInstance} (#SAT).</br> Uses a DPLL-style search with unit propagation, which decomposes the residual
+ * formula into independent components (whose counts are multiplied) and caches the count of each component. The cache is bounded by the number of stored
+ * integers and evicts the least recently used components.
+ */
+public class ModelCounter {
+
+	/**
+	 * Default size of the component cache (in number of stored integers, i.e., about 16 MB).
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 1 << 22;
+
+	private static final int ENTRY_OVERHEAD = 16;
+
+	private static final int CONFLICT = Integer.MIN_VALUE;
+
+	private static final class ComponentKey {
+
+		private final int[] key;
+		private final int hashCode;
+
+		public ComponentKey(int[] key) {
+			this.key = key;
+			hashCode = Arrays.hashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof ComponentKey) && Arrays.equals(key, ((ComponentKey) obj).key);
+		}
+
+	}
+
+	private final int numberOfVariables;
+	private final int numberOfClauses;
+	private final int[] literals;
+	private final int[] clauseStart;
+	private final int[] occurrenceStart;
+	private final int[] occurrences;
+
+	private final int[] assignment;
+	private final int[] trail;
+	private int trailSize = 0;
+
+	private final int[] variableMarks;
+	private final int[] clauseMarks;
+	private final int[] variableScores;
+	private int currentMark = 0;
+
+	private final LinkedHashMap<ComponentKey, BigInteger> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private long cacheSize = 0;
+	private int maxCacheSize = DEFAULT_CACHE_SIZE;
+
+	private long timeout = 0;
+	private long deadline = 0;
+	private IMonitor monitor = null;
+
+	public ModelCounter(SatInstance satInstance) {
+		numberOfVariables = satInstance.getNumberOfVariables();
+		final ClauseArena clauses = satInstance.getClauses();
+		numberOfClauses = clauses.size();
+		literals = clauses.getLiterals();
+		clauseStart = new int[numberOfClauses + 1];
+		for (int i = 0; i <= numberOfClauses; i++) {
+			clauseStart[i] = (i < numberOfClauses) ? clauses.getStart(i) : clauses.getNumberOfLiterals();
+		}
+
+		occurrenceStart = new int[numberOfVariables + 2];
+		for (int i = 0; i < clauseStart[numberOfClauses]; i++) {
+			occurrenceStart[Math.abs(literals[i]) + 1]++;
+		}
+		for (int i = 1; i < occurrenceStart.length; i++) {
+			occurrenceStart[i] += occurrenceStart[i - 1];
+		}
+		occurrences = new int[clauseStart[numberOfClauses]];
+		final int[] position = Arrays.copyOf(occurrenceStart, occurrenceStart.length);
+		for (int clause = 0; clause < numberOfClauses; clause++) {
+			for (int i = clauseStart[clause]; i < clauseStart[clause + 1]; i++) {
+				occurrences[position[Math.abs(literals[i])]++] = clause;
+			}
+		}
+
+		assignment = new int[numberOfVariables + 1];
+		trail = new int[numberOfVariables];
+		variableMarks = new int[numberOfVariables + 1];
+		clauseMarks = new int[numberOfClauses];
+		variableScores = new int[numberOfVariables + 1];
+	}
+
+	/**
+	 * @param timeout the time budget for one call of {@link #count(int[], IMonitor)} in milliseconds (0 for no limit).
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @param maxCacheSize the maximal number of integers stored in the component cache.
+	 */
+	public void setCacheSize(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+		shrinkCache();
+	}
+
+	public int getCacheSize() {
+		return maxCacheSize;
+	}
+
+	/**
+	 * Counts all solutions that satisfy the given assumptions.
+	 *
+	 * @param assumptions literals that must be satisfied (may be {@code null}; variables with index 0 are ignored).
+	 * @param monitor the monitor, which is used for cancellation and reports the progress of the independent top level components.
+	 * @return the number of solutions
+	 * @throws TimeoutException if the time budget was exceeded or the search was too deep.
+	 */
+	public BigInteger count(int[] assumptions, IMonitor monitor) throws TimeoutException {
+		this.monitor = monitor;
+		deadline = (timeout > 0) ? System.currentTimeMillis() + timeout : 0;
+		try {
+			if (!assignInitialLiterals(assumptions)) {
+				return BigInteger.ZERO;
+			}
+			final int[] variables = new int[numberOfVariables];
+			for (int i = 0; i < numberOfVariables; i++) {
+				variables[i] = i + 1;
+			}
+			return count(variables, true);
+		} catch (final StackOverflowError e) {
+			throw new TimeoutException("Search is too deep");
+		} finally {
+			undo(0);
+			this.monitor = null;
+		}
+	}
+
+	private boolean assignInitialLiterals(int[] assumptions) {
+		if (assumptions != null) {
+			for (final int literal : assumptions) {
+				if (literal != 0) {
+					final int value = assignment[Math.abs(literal)];
+					if (value == 0) {
+						if (!propagate(literal)) {
+							return false;
+						}
+					} else if (value != literal) {
+						return false;
+					}
+				}
+			}
+		}
+		for (int clause = 0; clause < numberOfClauses; clause++) {
+			final int unit = getUnitLiteral(clause);
+			if (unit == CONFLICT) {
+				return false;
+			} else if ((unit != 0) && !propagate(unit)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return 0 if the clause is satisfied or has more than one unassigned literal, {@link #CONFLICT} if all literals are false, and the only unassigned
+	 *         literal otherwise.
+	 */
+	private int getUnitLiteral(int clause) {
+		int unassigned = 0;
+		int unit = 0;
+		for (int i = clauseStart[clause]; i < clauseStart[clause + 1]; i++) {
+			final int literal = literals[i];
+			final int value = assignment[Math.abs(literal)];
+			if (value == 0) {
+				unassigned++;
+				unit = literal;
+			} else if (value == literal) {
+				return 0;
+			}
+		}
+		switch (unassigned) {
+		case 0:
+			return CONFLICT;
+		case 1:
+			return unit;
+		default:
+			return 0;
+		}
+	}
+
+	private boolean isSatisfied(int clause) {
+		for (int i = clauseStart[clause]; i < clauseStart[clause + 1]; i++) {
+			final int literal = literals[i];
+			if (assignment[Math.abs(literal)] == literal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Assigns the given literal and all literals implied by unit propagation.
+	 *
+	 * @return {@code false} if a conflict occurred.
+	 */
+	private boolean propagate(int literal) {
+		int head = trailSize;
+		assign(literal);
+		while (head < trailSize) {
+			final int var = trail[head++];
+			for (int i = occurrenceStart[var]; i < occurrenceStart[var + 1]; i++) {
+				final int unit = getUnitLiteral(occurrences[i]);
+				if (unit == CONFLICT) {
+					return false;
+				} else if (unit != 0) {
+					assign(unit);
+				}
+			}
+		}
+		return true;
+	}
+
+	private void assign(int literal) {
+		final int var = Math.abs(literal);
+		assignment[var] = literal;
+		trail[trailSize++] = var;
+	}
+
+	private void undo(int trailPosition) {
+		while (trailSize > trailPosition) {
+			assignment[trail[--trailSize]] = 0;
+		}
+	}
+
+	/**
+	 * Counts the solutions for the given variables, which are independent from all other unassigned variables.
+	 */
+	private BigInteger count(int[] variables, boolean topLevel) throws TimeoutException {
+		final List<int[][]> components = new ArrayList<>();
+		int freeVariables = 0;
+
+		final int mark = ++currentMark;
+		final int[] variableQueue = new int[variables.length];
+		final List<Integer> componentClauses = new ArrayList<>();
+		for (final int root : variables) {
+			if ((assignment[root] == 0) && (variableMarks[root] != mark)) {
+				variableMarks[root] = mark;
+				variableQueue[0] = root;
+				int queueSize = 1;
+				componentClauses.clear();
+				for (int head = 0; head < queueSize; head++) {
+					final int var = variableQueue[head];
+					for (int i = occurrenceStart[var]; i < occurrenceStart[var + 1]; i++) {
+						final int clause = occurrences[i];
+						if ((clauseMarks[clause] != mark) && !isSatisfied(clause)) {
+							clauseMarks[clause] = mark;
+							componentClauses.add(clause);
+							for (int j = clauseStart[clause]; j < clauseStart[clause + 1]; j++) {
+								final int otherVar = Math.abs(literals[j]);
+								if ((assignment[otherVar] == 0) && (variableMarks[otherVar] != mark)) {
+									variableMarks[otherVar] = mark;
+									variableQueue[queueSize++] = otherVar;
+								}
+							}
+						}
+					}
+				}
+				if (componentClauses.isEmpty()) {
+					freeVariables++;
+				} else {
+					final int[] clauses = new int[componentClauses.size()];
+					for (int i = 0; i < clauses.length; i++) {
+						clauses[i] = componentClauses.get(i);
+					}
+					components.add(new int[][] { Arrays.copyOf(variableQueue, queueSize), clauses });
+				}
+			}
+		}
+
+		if (topLevel) {
+			monitor.setRemainingWork(components.size());
+		}
+		BigInteger result = BigInteger.ONE;
+		for (final int[][] component : components) {
+			final BigInteger componentCount = countComponent(component[0], component[1]);
+			if (componentCount.signum() == 0) {
+				return BigInteger.ZERO;
+			}
+			result = result.multiply(componentCount);
+			if (topLevel) {
+				monitor.step();
+			}
+		}
+		return result.shiftLeft(freeVariables);
+	}
+
+	private BigInteger countComponent(int[] variables, int[] clauses) throws TimeoutException {
+		monitor.checkCancel();
+		if ((deadline > 0) && (System.currentTimeMillis() > deadline)) {
+			throw new TimeoutException();
+		}
+
+		Arrays.sort(variables);
+		Arrays.sort(clauses);
+		final int[] keyArray = Arrays.copyOf(variables, variables.length + clauses.length);
+		for (int i = 0; i < clauses.length; i++) {
+			keyArray[variables.length + i] = -1 - clauses[i];
+		}
+		final ComponentKey key = new ComponentKey(keyArray);
+		final BigInteger cachedCount = cache.get(key);
+		if (cachedCount != null) {
+			return cachedCount;
+		}
+
+		final int branchVariable = selectVariable(variables, clauses);
+		BigInteger sum = BigInteger.ZERO;
+		for (final int literal : new int[] { branchVariable, -branchVariable }) {
+			final int trailPosition = trailSize;
+			if (propagate(literal)) {
+				sum = sum.add(count(variables, false));
+			}
+			undo(trailPosition);
+		}
+
+		cache.put(key, sum);
+		cacheSize += keyArray.length + ENTRY_OVERHEAD;
+		shrinkCache();
+		return sum;
+	}
+
+	/**
+	 * @return the unassigned variable that occurs most often in the given clauses.
+	 */
+	private int selectVariable(int[] variables, int[] clauses) {
+		for (final int clause : clauses) {
+			for (int i = clauseStart[clause]; i < clauseStart[clause + 1]; i++) {
+				variableScores[Math.abs(literals[i])]++;
+			}
+		}
+		int bestVariable = variables[0];
+		for (final int var : variables) {
+			if (variableScores[var] > variableScores[bestVariable]) {
+				bestVariable = var;
+			}
+		}
+		for (final int clause : clauses) {
+			for (int i = clauseStart[clause]; i < clauseStart[clause + 1]; i++) {
+				variableScores[Math.abs(literals[i])] = 0;
+			}
+		}
+		return bestVariable;
+	}
+
+	private void shrinkCache() {
+		for (final Iterator<Entry<ComponentKey, BigInteger>> it = cache.entrySet().iterator(); (cacheSize > maxCacheSize) && it.hasNext();) {
+			cacheSize -= it.next().getKey().key.length + ENTRY_OVERHEAD;
+			it.remove();
+		}
+	}
+
+	/**
+	 * Removes all entries from the component cache.
+	 */
+	public void clearCache() {
+		cache.clear();
+		cacheSize = 0;
+	}
+
+}
@@ -79,6 +79,23 @@ public class ModifiableSolver extends BasicSolver {
 		return new ArrayList<>(constrList.subList(oldSize, constrList.size()));
 	}
 
+	@Override
+	protected void addCNF(final ClauseArena clauses) throws ContradictionException {
+		if (constrList == null) {
+			constrList = new ArrayList<>(clauses.size());
+		}
+		final int oldSize = constrList.size();
+		final VecInt clause = new VecInt();
+		try {
+			for (int i = 0; i < clauses.size(); i++) {
+				constrList.add(solver.addClause(clauses.getClause(i, clause)));
+			}
+		} catch (final ContradictionException e) {
+			removeLastClauses(constrList.size() - oldSize);
+			throw e;
+		}
+	}
+
 	@Override
 	protected List<IConstr> addCNF(final Node[] cnfChildren) throws ContradictionException {
 		if (constrList == null) {
@@ -41,6 +41,7 @@ import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.job.JobMetrics;
 
 /**
  * Finds certain solutions of propositional formulas.
@@ -234,14 +235,17 @@ public class MultiSolver extends BasicSolver {
 	public SatResult isSatisfiable() {
 		try {
 			if (solver.isSatisfiable(assignment, false)) {
+				JobMetrics.satCall(false);
 				synchronized (solutionList) {
 					solutionList.add(solver.model());
 				}
 				return SatResult.TRUE;
 			} else {
+				JobMetrics.satCall(false);
 				return SatResult.FALSE;
 			}
 		} catch (final TimeoutException e) {
+			JobMetrics.satCall(true);
 			e.printStackTrace();
 			return SatResult.TIMEOUT;
 		}
@@ -270,7 +274,11 @@ public class MultiSolver extends BasicSolver {
 
 	@Override
 	public void shuffleOrder() {
-		final Random rnd = new Random();
+		shuffleOrder(new Random());
+	}
+
+	@Override
+	public void shuffleOrder(Random rnd) {
 		synchronized (orderLock) {
 			for (int i = order.length - 1; i >= 0; i--) {
 				final int index = rnd.nextInt(i + 1);
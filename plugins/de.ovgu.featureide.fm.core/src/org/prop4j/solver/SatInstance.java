@@ -23,19 +23,21 @@ package org.prop4j.solver;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
+import org.prop4j.Or;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
 
 /**
  * Represents an instance of a satisfiability problem in CNF.</br> Use a {@link ISatSolverProvider solver provider} or the {@link #getSolver()} method to get a
- * {@link BasicSolver solver} for this problem.
+ * {@link BasicSolver solver} for this problem.</br> Variables are indexed by a {@link VariableMap} and the clauses are additionally available as a flat
+ * {@link ClauseArena}, which is used to initialize solvers.
  *
  * @author Sebastian Krieter
  */
@@ -72,13 +74,30 @@ public class SatInstance {
 		return nar;
 	}
 
-	protected final HashMap<Object, Integer> varToInt = new HashMap<>();
+	protected final VariableMap varToInt;
 	protected final Object[] intToVar;
-	protected final Node cnf;
+	protected Node cnf;
+	protected ClauseArena clauses;
 
 	public SatInstance(Node root, Collection<?> featureList) {
-		intToVar = new Object[featureList.size() + 1];
+		this(featureList);
 		cnf = root;
+	}
+
+	/**
+	 * Creates a new instance directly from integer clauses.
+	 *
+	 * @param clauses the clauses over the indices of the given variables.
+	 * @param featureList the variables. The first variable has the index 1.
+	 */
+	public SatInstance(ClauseArena clauses, Collection<?> featureList) {
+		this(featureList);
+		this.clauses = clauses;
+	}
+
+	private SatInstance(Collection<?> featureList) {
+		intToVar = new Object[featureList.size() + 1];
+		varToInt = new VariableMap(featureList.size());
 
 		int index = 0;
 		for (final Object feature : featureList) {
@@ -86,8 +105,8 @@ public class SatInstance {
 			if (name == null) {
 				throw new RuntimeException();
 			}
-			varToInt.put(name, ++index);
-			intToVar[index] = name;
+			varToInt.add(name);
+			intToVar[++index] = name;
 		}
 	}
 
@@ -130,8 +149,8 @@ public class SatInstance {
 		final int[] resultList = new int[literals.size()];
 		int i = 0;
 		for (final Literal literal : literals) {
-			final Integer varIndex = varToInt.get(literal.var);
-			resultList[i++] = varIndex == null ? 0 : (literal.positive ? varIndex : -varIndex);
+			final int varIndex = varToInt.get(literal.var);
+			resultList[i++] = literal.positive ? varIndex : -varIndex;
 		}
 		return resultList;
 	}
@@ -145,8 +164,8 @@ public class SatInstance {
 		int i = 0;
 		for (final Node node : literals) {
 			final Literal literal = (Literal) node;
-			final Integer varIndex = varToInt.get(literal.var);
-			resultList[i++] = varIndex == null ? 0 : (literal.positive ? varIndex : -varIndex);
+			final int varIndex = varToInt.get(literal.var);
+			resultList[i++] = literal.positive ? varIndex : -varIndex;
 		}
 		return resultList;
 	}
@@ -172,10 +191,54 @@ public class SatInstance {
 		return resultList;
 	}
 
-	public Node getCnf() {
+	/**
+	 * @return the CNF as node. If this instance was created from integer clauses, the node is created on the first call.
+	 */
+	public synchronized Node getCnf() {
+		if (cnf == null) {
+			final Node[] clauseNodes = new Node[clauses.size()];
+			for (int i = 0; i < clauseNodes.length; i++) {
+				final int start = clauses.getStart(i);
+				final Node[] literals = new Node[clauses.getEnd(i) - start];
+				for (int j = 0; j < literals.length; j++) {
+					literals[j] = getLiteral(clauses.getLiterals()[start + j]);
+				}
+				clauseNodes[i] = new Or(literals);
+			}
+			cnf = new And(clauseNodes);
+		}
 		return cnf;
 	}
 
+	/**
+	 * @return the clauses of the CNF over the variable indices. If this instance was created from a node, the clauses are converted on the first call.
+	 */
+	public synchronized ClauseArena getClauses() {
+		if (clauses == null) {
+			final Node[] clauseNodes = cnf.getChildren();
+			int numberOfLiterals = 0;
+			for (final Node clause : clauseNodes) {
+				numberOfLiterals += clause.getChildren().length;
+			}
+			final ClauseArena newClauses = new ClauseArena(clauseNodes.length, numberOfLiterals);
+			for (final Node clause : clauseNodes) {
+				for (final Node literal : clause.getChildren()) {
+					newClauses.addLiteral(getSignedVariable((Literal) literal));
+				}
+				newClauses.finishClause();
+			}
+			clauses = newClauses;
+		}
+		return clauses;
+	}
+
+	/**
+	 * @return the number of clauses without creating the CNF node.
+	 */
+	public synchronized int getNumberOfClauses() {
+		return (cnf != null) ? cnf.getChildren().length : clauses.size();
+	}
+
 	public int getNumberOfVariables() {
 		return intToVar.length - 1;
 	}
@@ -185,14 +248,26 @@ public class SatInstance {
 	}
 
 	public int getSignedVariable(Literal l) {
-		return l.positive ? varToInt.get(l.var) : -varToInt.get(l.var);
+		final int index = getVariable(l.var);
+		return l.positive ? index : -index;
 	}
 
 	public int getVariable(Literal l) {
-		return varToInt.get(l.var);
+		return getVariable(l.var);
 	}
 
 	public int getVariable(Object var) {
+		final int index = varToInt.get(var);
+		if (index == 0) {
+			throw new IllegalArgumentException("Unknown variable: " + var);
+		}
+		return index;
+	}
+
+	/**
+	 * @return the index of the given variable or 0 if it is not part of this instance.
+	 */
+	public int getVariableIndex(Object var) {
 		return varToInt.get(var);
 	}
 
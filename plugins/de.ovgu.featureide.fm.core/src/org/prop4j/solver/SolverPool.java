@@ -0,0 +1,134 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayDeque;
+
+import org.sat4j.specs.ContradictionException;
+
+/**
+ * Keeps initialized {@link BasicSolver solvers} for a {@link SatInstance}, such that short analyses do not have to add all clauses to a new solver for each
+ * call.</br> A solver is {@link #borrow() borrowed} for a single analysis and must be {@link #release(BasicSolver) released} afterwards, which
+ * {@link BasicSolver#reset() resets} its assignment and order. Learned clauses remain valid, as long as no clauses are added to a borrowed solver. Thus,
+ * analyses that add clauses (e.g., blocking clauses for solution enumeration) should not use pooled solvers.
+ */
+public class SolverPool {
+
+	public static final int DEFAULT_MAX_IDLE_SOLVERS = 4;
+
+	private final SatInstance satInstance;
+	private final int maxIdleSolvers;
+
+	private final ArrayDeque<BasicSolver> idleSolvers = new ArrayDeque<>();
+
+	/**
+	 * Is incremented with every call of {@link #invalidate()}. Solvers that were borrowed before are not put back into the pool.
+	 */
+	private int generation = 0;
+
+	public SolverPool(SatInstance satInstance) {
+		this(satInstance, DEFAULT_MAX_IDLE_SOLVERS);
+	}
+
+	/**
+	 * @param satInstance the formula
+	 * @param maxIdleSolvers the maximum number of solvers that are kept between two analyses
+	 */
+	public SolverPool(SatInstance satInstance, int maxIdleSolvers) {
+		this.satInstance = satInstance;
+		this.maxIdleSolvers = maxIdleSolvers;
+	}
+
+	/**
+	 * Returns an idle solver or creates a new one, if there is none.
+	 *
+	 * @return a solver with an empty assignment
+	 * @throws ContradictionException if the formula is unsatisfiable
+	 */
+	public BasicSolver borrow() throws ContradictionException {
+		synchronized (idleSolvers) {
+			final BasicSolver solver = idleSolvers.poll();
+			if (solver != null) {
+				return solver;
+			}
+		}
+		return new PooledSolver(satInstance, getGeneration());
+	}
+
+	/**
+	 * Puts a borrowed solver back into the pool. Solvers that were not borrowed from this pool or before the last call of {@link #invalidate()} are
+	 * discarded.
+	 *
+	 * @param solver the solver
+	 */
+	public void release(BasicSolver solver) {
+		if (!(solver instanceof PooledSolver)) {
+			return;
+		}
+		solver.reset();
+		synchronized (idleSolvers) {
+			if ((((PooledSolver) solver).generation == generation) && (solver.getSatInstance() == satInstance) && (idleSolvers.size() < maxIdleSolvers)) {
+				idleSolvers.push(solver);
+			}
+		}
+	}
+
+	/**
+	 * Discards all idle solvers. Solvers that are currently borrowed are discarded on release.
+	 */
+	public void invalidate() {
+		synchronized (idleSolvers) {
+			generation++;
+			idleSolvers.clear();
+		}
+	}
+
+	public SatInstance getSatInstance() {
+		return satInstance;
+	}
+
+	/**
+	 * @return the current number of idle solvers
+	 */
+	public int getNumberOfIdleSolvers() {
+		synchronized (idleSolvers) {
+			return idleSolvers.size();
+		}
+	}
+
+	private int getGeneration() {
+		synchronized (idleSolvers) {
+			return generation;
+		}
+	}
+
+	private static class PooledSolver extends BasicSolver {
+
+		private final int generation;
+
+		public PooledSolver(SatInstance satInstance, int generation) throws ContradictionException {
+			super(satInstance);
+			this.generation = generation;
+		}
+
+	}
+
+}
@@ -0,0 +1,137 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.Arrays;
+
+/**
+ * Maps variable objects to consecutive indices (starting at 1) and vice versa.</br> Uses an open-addressing hash table with linear probing, such that a lookup
+ * neither boxes the index nor allocates an entry object.
+ */
+public class VariableMap {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private Object[] keys;
+	private int[] values;
+	private Object[] variables;
+	private int size = 0;
+
+	public VariableMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * @param expectedSize the expected number of variables.
+	 */
+	public VariableMap(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < (expectedSize << 1)) {
+			capacity <<= 1;
+		}
+		keys = new Object[capacity];
+		values = new int[capacity];
+		variables = new Object[Math.max(expectedSize, 1) + 1];
+	}
+
+	private static int hash(Object key) {
+		final int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Adds the given variable if it is not already contained.
+	 *
+	 * @return the index of the variable.
+	 */
+	public int add(Object variable) {
+		final int mask = keys.length - 1;
+		int slot = hash(variable) & mask;
+		for (Object key = keys[slot]; key != null; key = keys[slot]) {
+			if (key.equals(variable)) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		final int index = ++size;
+		keys[slot] = variable;
+		values[slot] = index;
+		if (index >= variables.length) {
+			variables = Arrays.copyOf(variables, variables.length << 1);
+		}
+		variables[index] = variable;
+		if ((size << 1) > keys.length) {
+			rehash(keys.length << 1);
+		}
+		return index;
+	}
+
+	/**
+	 * @return the index of the given variable or 0 if the variable is not contained.
+	 */
+	public int get(Object variable) {
+		final int mask = keys.length - 1;
+		int slot = hash(variable) & mask;
+		for (Object key = keys[slot]; key != null; key = keys[slot]) {
+			if (key.equals(variable)) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return 0;
+	}
+
+	public boolean containsKey(Object variable) {
+		return get(variable) != 0;
+	}
+
+	/**
+	 * @param index the index of a variable (the sign is ignored).
+	 * @return the variable object for the given index.
+	 */
+	public Object getVariableObject(int index) {
+		return variables[Math.abs(index)];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private void rehash(int capacity) {
+		final Object[] oldKeys = keys;
+		final int[] oldValues = values;
+		keys = new Object[capacity];
+		values = new int[capacity];
+		final int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			final Object key = oldKeys[i];
+			if (key != null) {
+				int slot = hash(key) & mask;
+				while (keys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+}
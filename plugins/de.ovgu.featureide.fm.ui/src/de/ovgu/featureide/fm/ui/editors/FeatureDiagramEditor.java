@@ -495,6 +495,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 				}
 
 				analyzer = getFeatureModel().getAnalyser();
+				analyzer.setUseAnalysisCache(true);
 				final HashMap<Object, Object> changedAttributes = analyzer.analyzeFeatureModel(monitor);
 				refreshGraphics(changedAttributes);
 				return true;
@@ -62,7 +62,7 @@ import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.color.FeatureColorManager;
 import de.ovgu.featureide.fm.core.conf.ConfigurationFG;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
-import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
 import de.ovgu.featureide.fm.core.configuration.Selection;
@@ -296,7 +296,7 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 	}
 
 	private IFeatureGraph loadFeatureGraph(Path filePath) {
-		final IFeatureGraph featureGraph = new MatrixFeatureGraph();
+		final IFeatureGraph featureGraph = new SparseFeatureGraph();
 		final FeatureGraphFormat format = new FeatureGraphFormat();
 		if (!FileSystem.exists(filePath) || SimpleFileHandler.load(filePath, featureGraph, format).containsError()) {
 			return null;
@@ -373,6 +373,7 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 		case MODEL_DATA_OVERRIDDEN:
 		case COLOR_CHANGED:
 			if (evt.getSource() instanceof IFeatureModel) {
+				configurationManager.getObject().getPropagator().releaseSolvers();
 				final Configuration configuration = new Configuration(configurationManager.getObject(), featureModelManager.getObject());
 				configuration.loadPropagator();
 				LongRunningWrapper.runMethod(configuration.getPropagator().resolve());
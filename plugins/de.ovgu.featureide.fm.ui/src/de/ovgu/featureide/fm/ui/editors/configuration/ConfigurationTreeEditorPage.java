@@ -25,11 +25,12 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.ARIAL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATING____;
 import static de.ovgu.featureide.fm.core.localization.StringTable.DOES_NOT_EXIST_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.INVALID_COMMA_;
-import static de.ovgu.featureide.fm.core.localization.StringTable.MORE_THAN;
 import static de.ovgu.featureide.fm.core.localization.StringTable.POSSIBLE_CONFIGURATIONS;
 import static de.ovgu.featureide.fm.core.localization.StringTable.THERE_IS_NO_FEATURE_MODEL_CORRESPONDING_TO_THIS_CONFIGURATION_COMMA__REOPEN_THE_EDITOR_AND_SELECT_ONE_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.THE_FEATURE_MODEL_FOR_THIS_PROJECT_IS_VOID_COMMA__I_E__COMMA__THERE_IS_NO_VALID_CONFIGURATION__YOU_NEED_TO_CORRECT_THE_FEATURE_MODEL_BEFORE_YOU_CAN_CREATE_OR_EDIT_CONFIGURATIONS_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.THE_GIVEN_FEATURE_MODEL;
+import static de.ovgu.featureide.fm.core.localization.StringTable.TIMEOUT_STRING;
+import static de.ovgu.featureide.fm.core.localization.StringTable.UNKNOWN_NUMBER_OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.VALID_COMMA_;
 
 import java.nio.file.Paths;
@@ -608,12 +609,14 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 				final Long number = finishedJob.getResults();
 				if (number != null) {
 					if (number < 0) {
-						sb.append(MORE_THAN);
-						sb.append(-1 - number);
+						// timeout
+						sb.append(UNKNOWN_NUMBER_OF);
+						sb.append(POSSIBLE_CONFIGURATIONS);
+						sb.append(" (" + TIMEOUT_STRING + ")");
 					} else {
 						sb.append(number);
+						sb.append(POSSIBLE_CONFIGURATIONS);
 					}
-					sb.append(POSSIBLE_CONFIGURATIONS);
 
 					if ((number == 0) && !configurationEditor.isAutoSelectFeatures()) {
 						sb.append(" - Autoselect not possible!");
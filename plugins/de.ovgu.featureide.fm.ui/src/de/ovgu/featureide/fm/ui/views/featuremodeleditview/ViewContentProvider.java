@@ -26,7 +26,6 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATE_NUMB
 import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATING___;
 import static de.ovgu.featureide.fm.core.localization.StringTable.COMPARE_MODELS;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CONFIGURATIONS;
-import static de.ovgu.featureide.fm.core.localization.StringTable.MORE_THAN;
 import static de.ovgu.featureide.fm.core.localization.StringTable.NUMBER_OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OPEN_A_FEATURE_MODEL_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.PROGRAM_VARIANTS;
@@ -35,6 +34,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.START_MANUAL_O
 import static de.ovgu.featureide.fm.core.localization.StringTable.STATISTICS_ON_AFTER_EDIT_VERSION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.STATISTICS_ON_BEFORE_EDIT_VERSION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.TIMEOUT_STRING;
+import static de.ovgu.featureide.fm.core.localization.StringTable.UNKNOWN_NUMBER_OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WAITING_FOR_SUBTASKS_TO_FINISH;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WAITING_FOR_SUBTASK_TO_FINISH;
 
@@ -460,11 +460,11 @@ public class ViewContentProvider implements IStructuredContentProvider, ITreeCon
 		final long number = new Configuration(model, false, ignoreAbstractFeatures).number(TIMEOUT_CONFIGURATION, !ignoreAbstractFeatures);
 		String s = "";
 		if (number < 0) {
-			s += MORE_THAN + (-1 - number);
+			// timeout
+			s += UNKNOWN_NUMBER_OF + " " + variants + " (" + TIMEOUT_STRING + ")";
 		} else {
-			s += number;
+			s += number + " " + variants;
 		}
-		s += " " + variants;
 		p.addChild(s);
 		return p;
 	}
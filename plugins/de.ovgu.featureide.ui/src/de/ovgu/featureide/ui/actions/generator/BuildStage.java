@@ -0,0 +1,230 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.CheckForNull;
+
+import de.ovgu.featureide.ui.UIPlugin;
+
+/**
+ * One stage of the build pipeline of the {@link ConfigurationBuilder} (composition, compilation, or testing).</br> Each stage has its own worker threads that
+ * take configurations from a bounded input queue and pass them to the next stage. If the queue of the next stage is full, the workers wait until it has
+ * caught up, such that a fast stage cannot run arbitrarily far ahead of a slow one.</br> When all workers of a stage have terminated, the next stage is
+ * closed, i.e., its workers terminate after the remaining configurations are processed.
+ */
+abstract class BuildStage {
+
+	/**
+	 * A configuration passed between two stages together with the compiler whose output folder contains its class files (if already compiled).
+	 */
+	static final class Item {
+
+		final BuilderConfiguration configuration;
+
+		@CheckForNull
+		final JavaCompiler compiler;
+
+		Item(BuilderConfiguration configuration, JavaCompiler compiler) {
+			this.configuration = configuration;
+			this.compiler = compiler;
+		}
+
+	}
+
+	/**
+	 * Signals a worker that no more configurations will arrive.
+	 */
+	private static final Item END = new Item(null, null);
+
+	protected final ConfigurationBuilder builder;
+
+	private final String name;
+	private final BlockingQueue<Item> input;
+	private final List<Thread> workers = new ArrayList<>();
+	private final AtomicInteger runningWorkers = new AtomicInteger();
+
+	@CheckForNull
+	private BuildStage next;
+
+	/**
+	 * @param name The name of the stage, used for the worker threads
+	 * @param builder The {@link ConfigurationBuilder} running this stage
+	 * @param capacity The maximal number of configurations waiting for this stage
+	 */
+	BuildStage(String name, ConfigurationBuilder builder, int capacity) {
+		this.name = name;
+		this.builder = builder;
+		input = new ArrayBlockingQueue<>(Math.max(1, capacity));
+	}
+
+	void setNext(BuildStage next) {
+		this.next = next;
+	}
+
+	protected boolean hasNext() {
+		return next != null;
+	}
+
+	/**
+	 * Starts the given number of worker threads.
+	 */
+	void start(int threads) {
+		runningWorkers.set(threads);
+		for (int i = 0; i < threads; i++) {
+			final int nr = i;
+			final Thread worker = new Thread(name + " " + i) {
+
+				@Override
+				public void run() {
+					work(nr);
+				}
+
+			};
+			worker.setDaemon(true);
+			workers.add(worker);
+		}
+		for (final Thread worker : workers) {
+			worker.start();
+		}
+	}
+
+	/**
+	 * Hands a configuration to this stage. Blocks while the input queue is full.
+	 */
+	void put(Item item) throws InterruptedException {
+		input.put(item);
+	}
+
+	/**
+	 * Takes the next configuration to process.
+	 *
+	 * @return The next configuration or <code>null</code> if there are no more configurations
+	 */
+	@CheckForNull
+	protected Item take() throws InterruptedException {
+		final Item item = input.take();
+		return item == END ? null : item;
+	}
+
+	/**
+	 * Processes one configuration.
+	 *
+	 * @param item The configuration to process
+	 * @param nr The number of the worker
+	 * @return The item to pass to the next stage
+	 */
+	protected abstract Item process(Item item, int nr) throws Exception;
+
+	private void work(int nr) {
+		try {
+			while (!builder.cancelGeneratorJobs) {
+				final Item item = take();
+				if (item == null) {
+					break;
+				}
+				final Item result;
+				try {
+					result = process(item, nr);
+				} catch (final InterruptedException e) {
+					throw e;
+				} catch (final Exception e) {
+					// skip this configuration, the worker continues with the next one
+					UIPlugin.getDefault().logError(ERROR_IN_CONFIGURATION + item.configuration, e);
+					continue;
+				}
+				if (next != null) {
+					next.put(result);
+				} else {
+					builder.builtConfiguration();
+				}
+			}
+		} catch (final InterruptedException e) {
+			// canceled
+		} finally {
+			if (runningWorkers.decrementAndGet() == 0) {
+				finished();
+				if (next != null) {
+					next.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Called by the last worker of this stage before it terminates.
+	 */
+	protected void finished() {}
+
+	/**
+	 * Lets the workers terminate as soon as the queued configurations are processed.
+	 */
+	private void close() {
+		try {
+			for (int i = 0; i < workers.size(); i++) {
+				input.put(END);
+			}
+		} catch (final InterruptedException e) {
+			// canceled
+		}
+	}
+
+	/**
+	 * Interrupts all workers of this stage.
+	 */
+	void cancel() {
+		for (final Thread worker : workers) {
+			worker.interrupt();
+		}
+	}
+
+	/**
+	 * Waits for the termination of all workers at most the given time.
+	 *
+	 * @return <code>true</code> if all workers have terminated
+	 */
+	boolean join(long millis) throws InterruptedException {
+		final long end = System.currentTimeMillis() + millis;
+		for (final Thread worker : workers) {
+			final long remaining = end - System.currentTimeMillis();
+			if (remaining <= 0) {
+				return runningWorkers.get() == 0;
+			}
+			worker.join(remaining);
+		}
+		return runningWorkers.get() == 0;
+	}
+
+	/**
+	 * @return The number of configurations waiting for this stage.
+	 */
+	int getBufferSize() {
+		return input.size();
+	}
+
+}
@@ -0,0 +1,83 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The compilation stage of the {@link ConfigurationBuilder}.</br> Holds a fixed number of {@link JavaCompiler compilers}, each with its own output folder. A
+ * compiler is blocked until the configuration compiled by it has been tested, such that the test stage can load the class files from its output folder.
+ */
+class CompilationStage extends BuildStage {
+
+	private final List<JavaCompiler> compilers = new ArrayList<>();
+	private final BlockingQueue<JavaCompiler> freeCompilers;
+
+	/**
+	 * @param builder The {@link ConfigurationBuilder} running this stage
+	 * @param capacity The maximal number of composed configurations waiting for compilation
+	 * @param numberOfCompilers The number of compilers (i.e., output folders)
+	 */
+	CompilationStage(ConfigurationBuilder builder, int capacity, int numberOfCompilers) {
+		super("Compiler", builder, capacity);
+		freeCompilers = new ArrayBlockingQueue<>(numberOfCompilers);
+		for (int i = 0; i < numberOfCompilers; i++) {
+			compilers.add(new JavaCompiler(i, builder));
+		}
+		freeCompilers.addAll(compilers);
+	}
+
+	@Override
+	protected Item process(Item item, int nr) throws Exception {
+		final JavaCompiler compiler = freeCompilers.take();
+		boolean passed = false;
+		try {
+			compiler.compile(item.configuration);
+			if (hasNext()) {
+				passed = true;
+				return new Item(item.configuration, compiler);
+			}
+			return item;
+		} finally {
+			if (!passed) {
+				release(compiler);
+			}
+		}
+	}
+
+	@Override
+	protected void finished() {
+		for (final JavaCompiler compiler : compilers) {
+			compiler.dispose();
+		}
+	}
+
+	/**
+	 * Marks the output folder of the given compiler as free.
+	 */
+	void release(JavaCompiler compiler) {
+		freeCompilers.add(compiler);
+	}
+
+}
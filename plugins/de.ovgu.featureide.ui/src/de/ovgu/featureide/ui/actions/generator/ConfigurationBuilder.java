@@ -25,9 +25,12 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 
-import java.security.KeyStore.Builder;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.annotation.CheckForNull;
 
@@ -39,6 +42,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
@@ -99,6 +103,16 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	String classpath = "";
 
+	/**
+	 * The entries of the classpath for in-process compilation.
+	 */
+	final List<File> classpathEntries = new ArrayList<>();
+
+	/**
+	 * The problems of all compiled configurations by the hash of their source files.
+	 */
+	final Map<String, List<JavaCompiler.Problem>> compiledProducts = new ConcurrentHashMap<>();
+
 	/**
 	 * This folder is used for compilation.
 	 */
@@ -117,7 +131,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	/**
 	 * This flag indicates that all jobs should be aborted.
 	 */
-	boolean cancelGeneratorJobs = false;
+	volatile boolean cancelGeneratorJobs = false;
 
 	/**
 	 * Saves the time of start.
@@ -135,9 +149,11 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	BuildType buildType;
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * The stages of the build pipeline (composition, compilation, and testing) in their order.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private final List<BuildStage> stages = new CopyOnWriteArrayList<>();
+
+	static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
 
 	public AbstractConfigurationSorter sorter;
 
@@ -157,6 +173,26 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		return sorter.getConfiguration();
 	}
 
+	/**
+	 * Waits until a configuration is available and returns it.
+	 *
+	 * @return The first entry or <code>null</code> if no more configurations will be added or the build was canceled
+	 */
+	@CheckForNull
+	synchronized BuilderConfiguration takeConfiguration() throws InterruptedException {
+		while (!cancelGeneratorJobs) {
+			final BuilderConfiguration configuration = sorter.getConfiguration();
+			if (configuration != null) {
+				return configuration;
+			}
+			if (finish && (sorter.getBufferSize() == 0)) {
+				return null;
+			}
+			wait();
+		}
+		return null;
+	}
+
 	/**
 	 * Adds the given configuration to configurations.
 	 *
@@ -164,6 +200,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	public synchronized void addConfiguration(BuilderConfiguration configuration) {
 		sorter.addConfiguration(configuration);
+		notifyAll();
 	}
 
 	// TODO revise long parameter list
@@ -241,7 +278,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			break;
 		case T_WISE:
 			if (algorithm.equals(INCLING)) {
-				configurationBuilder = new IncLingConfigurationGenerator(this, featureModel, featureProject);
+				configurationBuilder = new IncLingConfigurationGenerator(this, featureModel, featureProject, t);
 			} else {
 				configurationBuilder = new SPLCAToolConfigurationGenerator(this, featureModel, featureProject, algorithm, t);
 			}
@@ -275,18 +312,19 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 					time = System.currentTimeMillis();
 
+					final int processors = Runtime.getRuntime().availableProcessors();
 					if (featureProject.getComposer().canGeneratInParallelJobs()) {
 						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
+							startPipeline(processors * 2, processors);
 						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
+							int contJobs = processors * 2;
 							if (configurationNumber < contJobs) {
 								contJobs = (int) configurationNumber;
 							}
-							newgeneratorJobs(contJobs);
+							startPipeline(contJobs, processors);
 						}
 					} else {
-						newgeneratorJobs(1);
+						startPipeline(1, processors);
 					}
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationBuilder, "Create Configurations " + id++);
 					configurationBuilderJob.schedule();
@@ -301,83 +339,66 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 				} finally {
 					configurationBuilderJob.cancel();
 					cancelGenerationJobs();
-					for (final Thread g : generatorJobs) {
-						g.interrupt();
-					}
 					monitor.done();
 				}
 				return Status.OK_STATUS;
 			}
 
 			private void showStatistics(IProgressMonitor monitor) {
-				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
+				while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
+					try {
+						Thread.sleep(150);
+					} catch (final InterruptedException e) {
+						LOGGER.logError(e);
 					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
-						monitor.setTaskName(getTaskName());
-						if (monitor.isCanceled()) {
-							cancelGenerationJobs();
-							configurationBuilderJob.cancel();
-							return;
-						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
+				}
+				while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
+					monitor.setTaskName(getTaskName());
+					if (monitor.isCanceled()) {
+						cancelGenerationJobs();
+						configurationBuilderJob.cancel();
+						return;
 					}
-					System.err.println(configurationBuilderJob.getStatus());
-
-					if (!sorter.isSorted()) {
-						final IMonitor workMonitor = new ProgressMonitor(getTaskName(), monitor);
-						configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
+					try {
+						Thread.sleep(150);
+					} catch (final InterruptedException e) {
+						LOGGER.logError(e);
 					}
-					finish();
+				}
+				System.err.println(configurationBuilderJob.getStatus());
 
-					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
+				if (!sorter.isSorted()) {
+					final IMonitor workMonitor = new ProgressMonitor(getTaskName(), monitor);
+					configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
+				}
+				finish();
+
+				((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
+				try {
+					// the stages terminate in their order, each one after its predecessor
+					stageLoop: for (final BuildStage stage : stages) {
+						while (!stage.join(150)) {
 							if (monitor.isCanceled()) {
 								cancelGenerationJobs();
-								break;
-							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
+								break stageLoop;
 							}
 							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
 						}
 					}
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
+				}
 
-					final long duration = System.currentTimeMillis() - time;
-					final long s = (duration / 1000) % 60;
-					final long min = (duration / (60 * 1000)) % 60;
-					final long h = duration / (60 * 60 * 1000);
-					final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
+				final long duration = System.currentTimeMillis() - time;
+				final long s = (duration / 1000) % 60;
+				final long min = (duration / (60 * 1000)) % 60;
+				final long h = duration / (60 * 60 * 1000);
+				final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 
-					if (built > configurationNumber) {
-						built = (int) configurationNumber;
-					}
-					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
+				if (built > configurationNumber) {
+					built = (int) configurationNumber;
 				}
+				LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
 			}
 
 		};
@@ -473,10 +494,12 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 				final String path = e.getPath().toOSString();
 				if (e.getPath().isAbsolute()) {
 					classpath += sep + "\"" + path + "\"";
+					classpathEntries.add(new File(path));
 				} else {
 					final IResource resource = e.getResource();
 					if ((resource != null) && "jar".equals(resource.getFileExtension())) {
 						classpath += sep + "\"" + resource.getLocation().toOSString() + "\"";
+						classpathEntries.add(resource.getLocation().toFile());
 					} else {
 						UIPlugin.getDefault().logWarning("ClassPath element " + e.toString() + " is missing.");
 					}
@@ -489,48 +512,67 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Creates new {@link Generator}s
+	 * Creates and starts the stages of the build pipeline.<br> The configurations are composed by the {@link Generator}, compiled by the
+	 * {@link CompilationStage}, and tested by the {@link TestStage}. The stages are connected by bounded queues, such that composition, compilation, and
+	 * testing of different configurations overlap.
 	 *
-	 * @param count The amount of Generators that will be created.
+	 * @param compositionThreads The number of threads composing configurations
+	 * @param processors The number of available processors, used for the threads of the compilation and test stage
 	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
+	private void startPipeline(int compositionThreads, int processors) {
+		if (compositionThreads < 1) {
 			return;
 		}
+		final Generator generator = new Generator(this);
+		stages.add(generator);
 
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
+		boolean compile = false;
+		if (!createNewProjects) {
+			try {
+				compile = featureProject.getProject().hasNature(Generator.JAVA_NATURE);
+			} catch (final CoreException e) {
+				LOGGER.logError(e);
+			}
 		}
-
-		for (; count > 0; count--) {
-			createNewGenerator(count);
+		final int[] threads = new int[3];
+		threads[0] = compositionThreads;
+		if (compile) {
+			threads[1] = processors;
+			threads[2] = (runTests && JUNIT_INSTALLED) ? processors : 0;
+			// each test thread blocks the output folder of one compiler
+			final CompilationStage compilation = new CompilationStage(this, 2 * threads[1], threads[1] + threads[2]);
+			generator.setNext(compilation);
+			stages.add(compilation);
+			if (threads[2] > 0) {
+				final TestStage test = new TestStage(this, 2 * threads[2], compilation);
+				compilation.setNext(test);
+				stages.add(test);
+			}
+		}
+		for (int i = stages.size() - 1; i >= 0; i--) {
+			stages.get(i).start(threads[i]);
 		}
 	}
 
 	/**
-	 * Created a new {@link Generator} with the given number
-	 *
-	 * @param nr
-	 */
-	void createNewGenerator(int nr) {
-		final Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
-	}
-
-	/**
-	 * This is called if the main job is canceled and all {@link Builder} and {@link JavaCompiler} should finish.
+	 * This is called if the main job is canceled and all {@link Generator} and {@link JavaCompiler} should finish.
 	 */
 	public void cancelGenerationJobs() {
-		cancelGeneratorJobs = true;
+		synchronized (this) {
+			cancelGeneratorJobs = true;
+			notifyAll();
+		}
+		for (final BuildStage stage : stages) {
+			stage.cancel();
+		}
 	}
 
 	/**
 	 * This is called if the main job has finished and no more configurations will be added.
 	 */
-	public void finish() {
+	public synchronized void finish() {
 		finish = true;
+		notifyAll();
 	}
 
 	/**
@@ -546,7 +588,10 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			final long h = duration / (60 * 60 * 1000);
 			t = " " + h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 		}
-		final long buffer = sorter.getBufferSize();
+		long buffer = sorter.getBufferSize();
+		for (final BuildStage stage : stages) {
+			buffer += stage.getBufferSize();
+		}
 		return "Built configurations: " + built + "/" + (configurationNumber == Integer.MAX_VALUE ? COUNTING___ : configurationNumber) + "(" + buffer
 			+ " buffered)" + " Expected time: " + t;
 	}
@@ -115,4 +115,5 @@ public interface IConfigurationBuilderBasics {
 	int ICPL_MAX = 3;
 	int CASA_MAX = 6;
 	int MASK_MAX = 2;
+	int INCLING_MAX = 4;
 }
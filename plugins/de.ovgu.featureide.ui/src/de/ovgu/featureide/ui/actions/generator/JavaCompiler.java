@@ -24,34 +24,95 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.CANNOT_FIND_SY
 import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILER;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.CheckForNull;
+import javax.lang.model.SourceVersion;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import de.ovgu.featureide.ui.UIPlugin;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * Compiles configurations into its own temporary folder. Used by the {@link CompilationStage}.</br> If a system compiler is available, configurations are
+ * compiled in-process via <code>javax.tools</code>. The compiler instance is shared, and each {@link JavaCompiler} keeps its file manager (and thereby the
+ * opened class path) between configurations. Otherwise, the batch compiler of the JDT is used.
  *
  * @author Jens Meinicke
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
-	private final Generator generator;
+	/**
+	 * A problem reported by the compiler for a file of a configuration.
+	 */
+	static final class Problem {
+
+		/**
+		 * The path of the file relative to the folder of the configuration.
+		 */
+		final String path;
+		final int line;
+		final String message;
+		final boolean warning;
+
+		Problem(String path, int line, String message, boolean warning) {
+			this.path = path;
+			this.line = line;
+			this.message = message;
+			this.warning = warning;
+		}
+
+	}
+
+	@CheckForNull
+	private static final javax.tools.JavaCompiler SYSTEM_COMPILER = ToolProvider.getSystemJavaCompiler();
+
+	private static final List<String> OPTIONS = new ArrayList<>();
+	static {
+		OPTIONS.add("-g");
+		// raw types, redundant casts, missing serial versions, and deprecations are ignored anyway
+		OPTIONS.add("-Xlint:all,-rawtypes,-cast,-serial,-deprecation");
+		OPTIONS.add("-proc:none");
+		if ((SYSTEM_COMPILER != null) && SYSTEM_COMPILER.getSourceVersions().contains(SourceVersion.RELEASE_7)) {
+			OPTIONS.add("-source");
+			OPTIONS.add("1.7");
+		}
+	}
+
+	private final ConfigurationBuilder builder;
+
+	@CheckForNull
+	private StandardJavaFileManager fileManager;
 
 	/**
 	 * The parent folder of the generated variants
@@ -61,12 +122,12 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	/**
 	 *
 	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param builder The {@link ConfigurationBuilder} using this compiler
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
+	public JavaCompiler(int nr, ConfigurationBuilder builder) {
+		this.builder = builder;
 
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
+		tmp = builder.tmp.getFolder(COMPILER + nr);
 		if (!tmp.exists()) {
 			try {
 				tmp.create(true, true, null);
@@ -85,7 +146,7 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 */
 	protected void compile(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
@@ -101,7 +162,19 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 * @param confName
 	 */
 	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
+		final IFolder confFolder = builder.folder.getFolder(confName);
+		final LinkedList<IFile> files = getJavaFiles(confFolder);
+		if (SYSTEM_COMPILER != null) {
+			try {
+				final List<IFile> errorFiles = compileInProcess(files, confFolder, confName);
+				for (final IFile file : errorFiles) {
+					builder.featureProject.getComposer().postCompile(null, file);
+				}
+				return;
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+		}
 		final LinkedList<String> options = new LinkedList<>();
 		for (final IFile file : files) {
 			options.add(setupPath(file));
@@ -110,18 +183,183 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 		options.add("-Xlint");
 		options.add("-source");
 		options.add("1.7");
+		final String charset = getCharset();
+		if (charset != null) {
+			options.add("-encoding");
+			options.add(charset);
+		}
 		options.add("-d");
 		options.add(setupPath(tmp.getRawLocation().toOSString()));
 		options.add("-classpath");
-		options.add(generator.builder.classpath);
+		options.add(builder.classpath);
 
 		final String output = process(options);
 		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
 		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+			builder.featureProject.getComposer().postCompile(null, file);
 		}
 	}
 
+	/**
+	 * Compiles the given files with the system compiler and creates the problem markers.<br> If no tests are executed, a configuration whose files are
+	 * identical to an already compiled configuration is not compiled again, but gets the problems of the former one.
+	 *
+	 * @return The files containing errors
+	 */
+	private List<IFile> compileInProcess(List<IFile> files, IFolder confFolder, String confName) throws IOException {
+		final Map<String, IFile> relativePaths = new HashMap<>();
+		for (final IFile file : files) {
+			relativePaths.put(file.getFullPath().makeRelativeTo(confFolder.getFullPath()).toString(), file);
+		}
+		// the tests need the class files of each configuration
+		final String key = builder.runTests ? null : getContentHash(relativePaths);
+		List<Problem> problems = (key == null) ? null : builder.compiledProducts.get(key);
+		if (problems == null) {
+			problems = compileFiles(relativePaths);
+			if (key != null) {
+				builder.compiledProducts.put(key, problems);
+			}
+		}
+
+		final List<IFile> errorFiles = new ArrayList<>();
+		for (final Problem problem : problems) {
+			final IFile file = relativePaths.get(problem.path);
+			if ((file == null) || isIgnored(problem.message)) {
+				continue;
+			}
+			if (!errorFiles.contains(file)) {
+				errorFiles.add(file);
+			}
+			try {
+				createMarker(file, problem.line, confName + " " + problem.message, problem.warning);
+			} catch (final CoreException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+		}
+		return errorFiles;
+	}
+
+	private List<Problem> compileFiles(Map<String, IFile> relativePaths) throws IOException {
+		final StandardJavaFileManager fileManager = getFileManager();
+		final Map<String, String> paths = new HashMap<>();
+		final List<File> sources = new ArrayList<>(relativePaths.size());
+		for (final Map.Entry<String, IFile> entry : relativePaths.entrySet()) {
+			final File source = entry.getValue().getLocation().toFile();
+			paths.put(source.getAbsolutePath(), entry.getKey());
+			sources.add(source);
+		}
+
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		SYSTEM_COMPILER.getTask(null, fileManager, diagnostics, OPTIONS, null, fileManager.getJavaFileObjectsFromFiles(sources)).call();
+
+		final List<Problem> problems = new ArrayList<>();
+		for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			final boolean warning;
+			switch (diagnostic.getKind()) {
+			case ERROR:
+				warning = false;
+				break;
+			case WARNING:
+			case MANDATORY_WARNING:
+				warning = true;
+				break;
+			default:
+				continue;
+			}
+			if (diagnostic.getSource() == null) {
+				continue;
+			}
+			final String path = paths.get(new File(diagnostic.getSource().toUri()).getAbsolutePath());
+			if (path != null) {
+				final String message = diagnostic.getMessage(null).split("\\r?\\n", 2)[0];
+				problems.add(new Problem(path, (int) Math.max(1, diagnostic.getLineNumber()), message, warning));
+			}
+		}
+		return problems;
+	}
+
+	/**
+	 * @return The default charset of the project, which is used to read the source files, or {@code null} if it is not available.
+	 */
+	@CheckForNull
+	private String getCharset() {
+		try {
+			return builder.featureProject.getProject().getDefaultCharset();
+		} catch (final CoreException e) {
+			UIPlugin.getDefault().logError(e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return The default charset of the project, or {@code null} for the platform default if the project charset is not available or not supported.
+	 */
+	@CheckForNull
+	private Charset getFileManagerCharset() {
+		final String charset = getCharset();
+		if (charset != null) {
+			try {
+				return Charset.forName(charset);
+			} catch (final IllegalArgumentException e) {
+				// IllegalCharsetNameException and UnsupportedCharsetException
+				UIPlugin.getDefault().logError(e);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return The file manager of this compiler. The class path and the output folder are set on the first call.
+	 */
+	private StandardJavaFileManager getFileManager() throws IOException {
+		if (fileManager == null) {
+			final StandardJavaFileManager newFileManager = SYSTEM_COMPILER.getStandardFileManager(null, null, getFileManagerCharset());
+			newFileManager.setLocation(StandardLocation.CLASS_PATH, builder.classpathEntries);
+			newFileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(tmp.getLocation().toFile()));
+			fileManager = newFileManager;
+		}
+		return fileManager;
+	}
+
+	/**
+	 * Closes the file manager of this compiler.
+	 */
+	void dispose() {
+		if (fileManager != null) {
+			try {
+				fileManager.close();
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+			fileManager = null;
+		}
+	}
+
+	/**
+	 * @return A hash over the paths and contents of the given files
+	 */
+	private static String getContentHash(Map<String, IFile> relativePaths) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+		for (final Map.Entry<String, IFile> entry : new TreeMap<>(relativePaths).entrySet()) {
+			digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			final byte[] content = Files.readAllBytes(entry.getValue().getLocation().toFile().toPath());
+			digest.update(Integer.toString(content.length).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(content);
+		}
+		final StringBuilder sb = new StringBuilder();
+		for (final byte b : digest.digest()) {
+			sb.append(Integer.toHexString((b & 0xff) | 0x100).substring(1));
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Adds quotation marks to the path name if it contains white spaces.
 	 */
@@ -210,21 +448,13 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 				// if (CANNOT_FIND_SYMBOL.equals(errorMessage)) {
 				// errorMessage = parseCannotFindSymbolMessage(scanner);
 				// }
-				if (errorMessage.contains(ERROR_IGNOR_RAW_TYPE) || errorMessage.contains(ERROR_IGNOR_CAST) || errorMessage.contains(ERROR_IGNOR_SERIIZABLE)
-					|| (errorMessage.contains(ERROR_IGNOR_UNUSED_IMPORT) && !errorMessage.contains("cannot be resolved"))
-					|| errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
+				if (isIgnored(errorMessage)) {
 					continue;
 				}
 				if (!errorFiles.contains(currentFile)) {
 					errorFiles.add(currentFile);
 				}
-				IMarker newMarker;
-				newMarker = currentFile.createMarker(PROBLEM_MARKER);
-				if (newMarker.exists()) {
-					newMarker.setAttribute(IMarker.LINE_NUMBER, line);
-					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
-					newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
-				}
+				createMarker(currentFile, line, configurationName + " " + errorMessage, warning);
 			}
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
@@ -233,6 +463,20 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 		return errorFiles;
 	}
 
+	private boolean isIgnored(String errorMessage) {
+		return errorMessage.contains(ERROR_IGNOR_RAW_TYPE) || errorMessage.contains(ERROR_IGNOR_CAST) || errorMessage.contains(ERROR_IGNOR_SERIIZABLE)
+			|| (errorMessage.contains(ERROR_IGNOR_UNUSED_IMPORT) && !errorMessage.contains("cannot be resolved")) || errorMessage.contains(ERROR_IGNOR_DEPRECATION);
+	}
+
+	private void createMarker(IFile file, int line, String message, boolean warning) throws CoreException {
+		final IMarker newMarker = file.createMarker(PROBLEM_MARKER);
+		if (newMarker.exists()) {
+			newMarker.setAttribute(IMarker.LINE_NUMBER, line);
+			newMarker.setAttribute(IMarker.MESSAGE, message);
+			newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+		}
+	}
+
 	@SuppressWarnings("unused")
 	private String parseCannotFindSymbolMessage(Scanner scanner) {
 		while (scanner.hasNextLine()) {
@@ -0,0 +1,50 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+/**
+ * The test stage of the {@link ConfigurationBuilder}. Runs the tests of a configuration on the class files in the output folder of its compiler.
+ */
+class TestStage extends BuildStage {
+
+	private final CompilationStage compilation;
+
+	/**
+	 * @param builder The {@link ConfigurationBuilder} running this stage
+	 * @param capacity The maximal number of compiled configurations waiting for their tests
+	 * @param compilation The stage providing the compiled configurations
+	 */
+	TestStage(ConfigurationBuilder builder, int capacity, CompilationStage compilation) {
+		super("Test Runner", builder, capacity);
+		this.compilation = compilation;
+	}
+
+	@Override
+	protected Item process(Item item, int nr) {
+		try {
+			new TestRunner(item.compiler.tmp, builder.testResults, builder).runTests(item.configuration);
+		} finally {
+			compilation.release(item.compiler);
+		}
+		return item;
+	}
+
+}
@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.prop4j.Node;
 import org.prop4j.analyses.PairWiseConfigurationGenerator;
+import org.prop4j.analyses.TWiseConfigurationGenerator;
 import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.core.IFeatureProject;
@@ -47,8 +48,18 @@ import de.ovgu.featureide.ui.actions.generator.ConfigurationBuilder;
  */
 public class IncLingConfigurationGenerator extends AConfigurationGenerator {
 
+	/**
+	 * The strength of the interactions. For t = 2 the IncLing pairwise algorithm is used, for larger values the {@link TWiseConfigurationGenerator}.
+	 */
+	private final int t;
+
 	public IncLingConfigurationGenerator(ConfigurationBuilder builder, IFeatureModel featureModel, IFeatureProject featureProject) {
+		this(builder, featureModel, featureProject, 2);
+	}
+
+	public IncLingConfigurationGenerator(ConfigurationBuilder builder, IFeatureModel featureModel, IFeatureProject featureProject, int t) {
 		super(builder, featureModel, featureProject);
+		this.t = t;
 	}
 
 	@Override
@@ -64,7 +75,18 @@ public class IncLingConfigurationGenerator extends AConfigurationGenerator {
 
 		final Node createNodes = advancedNodeCreator.createNodes();
 		final SatInstance satInstance = new SatInstance(createNodes, Functional.toList(FeatureUtils.getConcreteFeatureNames(fm)));
+		if (t > 2) {
+			final List<List<String>> solutions = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(satInstance, t, solutionCount), monitor);
+			if (solutions != null) {
+				builder.configurationNumber = solutions.size();
+				for (final List<String> solution : solutions) {
+					generateConfiguration(solution);
+				}
+			}
+			return;
+		}
 		final PairWiseConfigurationGenerator gen = getGenerator(satInstance, solutionCount);
+		gen.setNumberOfThreads(Runtime.getRuntime().availableProcessors());
 		exec(satInstance, gen, monitor);
 	}
 
@@ -92,18 +114,18 @@ public class IncLingConfigurationGenerator extends AConfigurationGenerator {
 					generateConfiguration(satInstance.convertToString(c.getModel()));
 				}
 			}
-
-			private void generateConfiguration(List<String> solution) {
-				configuration.resetValues();
-				for (final String selection : solution) {
-					configuration.setManual(selection, Selection.SELECTED);
-				}
-				addConfiguration(configuration);
-			}
 		};
 		consumer.start();
 		LongRunningWrapper.runMethod(as, monitor);
 		consumer.interrupt();
 	}
 
+	private void generateConfiguration(List<String> solution) {
+		configuration.resetValues();
+		for (final String selection : solution) {
+			configuration.setManual(selection, Selection.SELECTED);
+		}
+		addConfiguration(configuration);
+	}
+
 }
@@ -24,20 +24,16 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.LinkedList;
 
-import org.prop4j.analyses.FGBuilder;
-import org.prop4j.solver.SatInstance;
-
 import de.ovgu.featureide.core.IFeatureProject;
-import de.ovgu.featureide.fm.core.base.FeatureUtils;
-import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
-import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.io.FeatureGraphFormat;
 import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.ui.handlers.base.AFeatureProjectHandler;
 
@@ -54,10 +50,15 @@ public class BuildFeatureGraphHandler extends AFeatureProjectHandler {
 	protected void endAction() {
 		for (final IFeatureProject project : projectList) {
 			final Path path = Paths.get(project.getProject().getFile("model.fg").getLocationURI());
-			final IFeatureModel fm = project.getFeatureModel();
-			final SatInstance sat =
-				new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
-			final IRunner<IFeatureGraph> runner = LongRunningWrapper.getRunner(new FGBuilder(sat));
+			final FeatureModelAnalyzer analyzer = project.getFeatureModel().getAnalyser();
+			analyzer.setUseAnalysisCache(true);
+			final IRunner<IFeatureGraph> runner = LongRunningWrapper.getRunner(new LongRunningMethod<IFeatureGraph>() {
+
+				@Override
+				public IFeatureGraph execute(IMonitor monitor) throws Exception {
+					return analyzer.getFeatureGraph(monitor);
+				}
+			});
 			runner.addJobFinishedListener(new JobFinishListener<IFeatureGraph>() {
 
 				@Override
@@ -21,7 +21,8 @@
 package de.ovgu.featureide.ui.statistics.core.composite.lazyimplementations;
 
 import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATING;
-import static de.ovgu.featureide.fm.core.localization.StringTable.MORE_THAN;
+import static de.ovgu.featureide.fm.core.localization.StringTable.TIMEOUT_STRING;
+import static de.ovgu.featureide.fm.core.localization.StringTable.UNKNOWN;
 
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
@@ -63,7 +64,8 @@ public class ConfigNode extends Parent {
 
 				final long number = new Configuration(innerModel, false, ignoreAbstract).number(timeout, !ignoreAbstract);
 
-				return ((number < 0) ? MORE_THAN + (-number - 1) : String.valueOf(number));
+				// a negative number indicates a timeout
+				return ((number < 0) ? UNKNOWN + " (" + TIMEOUT_STRING + ")" : String.valueOf(number));
 			}
 
 			@Override
@@ -0,0 +1,69 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.prop4j.analyses.AtomicSetAnalysis;
+import org.prop4j.analyses.CoreDeadAnalysis;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.analyses.PairWiseConfigurationGenerator;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Benchmarks the analyses of prop4j on the CNF of a feature model. Each invocation creates a new solver, as the analyses do in the feature model analyzer.
+ */
+public class AnalysisBenchmark extends ABenchmark {
+
+	/**
+	 * The maximum number of configurations for the pairwise sampling.
+	 */
+	private static final int MAX_CONFIGURATIONS = 1000;
+
+	@Benchmark
+	public int[] coreDeadAnalysis(FeatureModelState state) {
+		return LongRunningWrapper.runMethod(new CoreDeadAnalysis(state.satInstance));
+	}
+
+	@Benchmark
+	public List<int[]> atomicSetAnalysis(FeatureModelState state) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(state.satInstance);
+		solver.initSolutionList(Math.min(state.satInstance.getNumberOfVariables(), ISatSolver.MAX_SOLUTION_BUFFER));
+		return LongRunningWrapper.runMethod(new AtomicSetAnalysis(solver));
+	}
+
+	@Benchmark
+	public IFeatureGraph featureGraphBuilder(FeatureModelState state) {
+		return LongRunningWrapper.runMethod(new FGBuilder(state.satInstance));
+	}
+
+	@Benchmark
+	public List<List<String>> pairWiseConfigurationGenerator(FeatureModelState state) {
+		return LongRunningWrapper.runMethod(new PairWiseConfigurationGenerator(state.satInstance, MAX_CONFIGURATIONS));
+	}
+
+}
@@ -0,0 +1,55 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, such that the allocation rate is reported in addition to the throughput. The results are written to
+ * {@value #RESULT_FILE} for comparison between versions.</br> Accepts the same arguments as the JMH command line (e.g., a regular expression to select
+ * benchmarks or {@code -p model=<path>} to use other models).
+ */
+public class BenchmarkRunner {
+
+	public static final String RESULT_FILE = "jmh-result.json";
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		final ChainedOptionsBuilder options = new OptionsBuilder() //
+				.parent(commandLineOptions) //
+				.resultFormat(ResultFormatType.JSON) //
+				.result(RESULT_FILE) //
+				.jvmArgsAppend("-Xmx2g", "-D" + FeatureModelState.MODEL_DIRECTORY_PROPERTY + "="
+					+ System.getProperty(FeatureModelState.MODEL_DIRECTORY_PROPERTY, FeatureModelState.DEFAULT_MODEL_DIRECTORY));
+		if (commandLineOptions.getProfilers().isEmpty()) {
+			options.addProfiler(GCProfiler.class);
+		}
+		new Runner(options.build()).run();
+	}
+
+}
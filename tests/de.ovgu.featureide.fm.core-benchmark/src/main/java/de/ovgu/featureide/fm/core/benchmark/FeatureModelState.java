@@ -0,0 +1,95 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.prop4j.Node;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsWriter;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Loads a feature model and provides its different representations as input for the benchmarks.</br> The models are resolved relative to the directory
+ * given by the system property {@value #MODEL_DIRECTORY_PROPERTY}, which defaults to the source folder of the fm.core tests.
+ */
+@State(Scope.Benchmark)
+public class FeatureModelState {
+
+	public static final String MODEL_DIRECTORY_PROPERTY = "featureide.benchmark.models";
+	public static final String DEFAULT_MODEL_DIRECTORY = "../de.ovgu.featureide.fm.core-test/src";
+
+	@Param({ "benchmarkFeatureModels/100-100.xml", "benchmarkFeatureModels/500-101.xml", "benchmarkFeatureModels/berkeley_db_model.xml",
+		"splotmodels/arcade_game_pl_fm.xml", "splotmodels/REAL-FM-3.xml" })
+	public String model;
+
+	/**
+	 * The feature model in the XML format of FeatureIDE.
+	 */
+	public String xml;
+	public IFeatureModel featureModel;
+	/**
+	 * The propositional formula of the feature model (not in CNF).
+	 */
+	public Node formula;
+	/**
+	 * The regular CNF of the feature model.
+	 */
+	public Node cnf;
+	public SatInstance satInstance;
+	/**
+	 * The CNF in DIMACS format, including the variable directory.
+	 */
+	public String dimacs;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final Path path = Paths.get(System.getProperty(MODEL_DIRECTORY_PROPERTY, DEFAULT_MODEL_DIRECTORY), model);
+		featureModel = FeatureModelManager.load(path).getObject();
+		if (featureModel == null) {
+			throw new IOException("Could not load feature model " + path);
+		}
+
+		xml = new XmlFeatureModelFormat().write(featureModel);
+		formula = NodeCreator.createNodes(featureModel);
+		cnf = AdvancedNodeCreator.createRegularCNF(featureModel);
+		satInstance = new SatInstance(cnf, Functional.mapToList(featureModel.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+
+		final DimacsWriter writer = new DimacsWriter();
+		writer.setWritingVariableDirectory(true);
+		dimacs = writer.write(cnf);
+	}
+
+}
@@ -0,0 +1,67 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsWriter;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Benchmarks reading and writing feature models in the XML format of FeatureIDE and their CNF in the DIMACS format. Models in other formats (e.g., SPLOT
+ * models) are converted into the XML format before.
+ */
+public class IOBenchmark extends ABenchmark {
+
+	@Benchmark
+	public IFeatureModel readXml(FeatureModelState state) {
+		final IFeatureModel featureModel = FMFactoryManager.getEmptyFeatureModel();
+		new XmlFeatureModelFormat().read(featureModel, state.xml);
+		return featureModel;
+	}
+
+	@Benchmark
+	public String writeXml(FeatureModelState state) {
+		return new XmlFeatureModelFormat().write(state.featureModel);
+	}
+
+	@Benchmark
+	public Node readDimacs(FeatureModelState state) throws ParseException, IOException {
+		final DimacsReader reader = new DimacsReader();
+		reader.setReadingVariableDirectory(true);
+		return reader.read(state.dimacs);
+	}
+
+	@Benchmark
+	public String writeDimacs(FeatureModelState state) {
+		final DimacsWriter writer = new DimacsWriter();
+		writer.setWritingVariableDirectory(true);
+		return writer.write(state.cnf);
+	}
+
+}
@@ -29,11 +29,15 @@ import java.io.FileFilter;
 import java.util.HashMap;
 
 import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
 
 import de.ovgu.featureide.Commons;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 
 /**
@@ -287,4 +291,30 @@ public class TFeatureModelAnalyzer {
 		assertTrue(FM4_F1.getProperty().getFeatureStatus() == FeatureStatus.INDETERMINATE_HIDDEN);
 	}
 
+	@Test
+	public void TUnannouncedStructureChange() {
+		final IFeatureModelFactory factory = FMFactoryManager.getDefaultFactory();
+		final IFeatureModel fm = factory.createFeatureModel();
+		final IFeature root = factory.createFeature(fm, "Root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		final IFeature a = factory.createFeature(fm, "A");
+		fm.addFeature(a);
+		root.getStructure().addChild(a.getStructure());
+		final IFeature b = factory.createFeature(fm, "B");
+		fm.addFeature(b);
+		root.getStructure().addChild(b.getStructure());
+		final IConstraint constraint = factory.createConstraint(fm, new Implies(new Literal("A"), new Literal("B")));
+		fm.addConstraint(constraint);
+
+		fm.getAnalyser().analyzeFeatureModel(null);
+		// does not fire an event
+		root.getStructure().setAlternative();
+		final HashMap<Object, Object> data = fm.getAnalyser().analyzeFeatureModel(null);
+
+		assertEquals(FeatureStatus.DEAD, data.get(a));
+		assertEquals(FeatureStatus.FALSE_OPTIONAL, data.get(b));
+		assertEquals(ConstraintAttribute.DEAD, data.get(constraint));
+	}
+
 }
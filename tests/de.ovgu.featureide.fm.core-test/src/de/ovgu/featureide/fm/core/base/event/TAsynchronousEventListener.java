@@ -0,0 +1,112 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+
+/**
+ * Test class for {@link AsynchronousEventListener}
+ */
+public class TAsynchronousEventListener {
+
+	private static class RecordingListener implements IEventListener {
+
+		private final List<FeatureIDEEvent> events = Collections.synchronizedList(new ArrayList<FeatureIDEEvent>());
+
+		@Override
+		public void propertyChange(FeatureIDEEvent event) {
+			events.add(event);
+		}
+	}
+
+	@Test
+	public void testCoalescing() throws InterruptedException {
+		final Object source = new Object();
+		final RecordingListener recorder = new RecordingListener();
+		final AsynchronousEventListener listener = new AsynchronousEventListener(recorder, 500);
+
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		eventManager.addListener(listener);
+		for (int i = 0; i < 1000; i++) {
+			eventManager.fireEvent(new FeatureIDEEvent(source, EventType.FEATURE_ADD, null, i));
+		}
+		eventManager.fireEvent(new FeatureIDEEvent(source, EventType.STRUCTURE_CHANGED));
+		eventManager.fireEvent(new FeatureIDEEvent(source, EventType.FEATURE_ADD, null, 1000));
+		assertTrue(listener.waitForDelivery(10000));
+
+		assertEquals(3, recorder.events.size());
+		final BatchedFeatureIDEEvent batch = (BatchedFeatureIDEEvent) recorder.events.get(0);
+		assertEquals(EventType.FEATURE_ADD, batch.getEventType());
+		assertEquals(1000, batch.getEvents().size());
+		assertEquals(999, batch.getNewValue());
+		assertEquals(EventType.STRUCTURE_CHANGED, recorder.events.get(1).getEventType());
+		assertEquals(1000, recorder.events.get(2).getNewValue());
+	}
+
+	@Test
+	public void testDifferentSources() throws InterruptedException {
+		final RecordingListener recorder = new RecordingListener();
+		final AsynchronousEventListener listener = new AsynchronousEventListener(recorder, 0);
+		listener.propertyChange(new FeatureIDEEvent(new Object(), EventType.FEATURE_MODIFY));
+		listener.propertyChange(new FeatureIDEEvent(new Object(), EventType.FEATURE_MODIFY));
+		assertTrue(listener.waitForDelivery(10000));
+
+		assertEquals(2, recorder.events.size());
+		assertTrue(!(recorder.events.get(0) instanceof BatchedFeatureIDEEvent));
+	}
+
+	@Test
+	public void testRemoveViaWrappedListener() {
+		final RecordingListener recorder = new RecordingListener();
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		eventManager.addListener(new AsynchronousEventListener(recorder, 0));
+		eventManager.addListener(recorder);
+		assertEquals(1, eventManager.listenerList.size());
+		eventManager.removeListener(recorder);
+		assertEquals(0, eventManager.listenerList.size());
+	}
+
+	@Test
+	public void testEqualityIsIdentity() {
+		final RecordingListener recorder = new RecordingListener();
+		final AsynchronousEventListener wrapper = new AsynchronousEventListener(recorder, 0);
+		assertTrue(!wrapper.equals(recorder));
+		assertTrue(!recorder.equals(wrapper));
+		assertTrue(!wrapper.equals(new AsynchronousEventListener(recorder, 0)));
+
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		eventManager.addListener(recorder);
+		eventManager.addListener(wrapper);
+		assertEquals(1, eventManager.listenerList.size());
+		eventManager.removeListener(wrapper);
+		assertEquals(0, eventManager.listenerList.size());
+	}
+
+}
@@ -0,0 +1,91 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link MultiStringMatcher}
+ */
+public class TMultiStringMatcher {
+
+	@Test
+	public void testOverlappingPatterns() {
+		final MultiStringMatcher matcher = new MultiStringMatcher(Arrays.asList("he", "she", "his", "hers", "x"));
+		assertEquals(Arrays.asList("he", "she", "hers"), matcher.findAll("ushers"));
+		assertEquals(Arrays.asList("he", "his"), matcher.findAll("ahis he"));
+		assertEquals(Collections.emptyList(), matcher.findAll("abc"));
+		assertEquals(Collections.emptyList(), matcher.findAll(""));
+	}
+
+	@Test
+	public void testSuffixPatterns() {
+		final MultiStringMatcher matcher = new MultiStringMatcher(Arrays.asList("Base", "DatabaseAccess", "Access", "aseA"));
+		assertEquals(Arrays.asList("Base"), matcher.findAll("//#if Base"));
+		assertEquals(Arrays.asList("DatabaseAccess", "Access", "aseA"), matcher.findAll("//#if DatabaseAccess"));
+	}
+
+	@Test
+	public void testDuplicatesAndEmptyPatterns() {
+		final MultiStringMatcher matcher = new MultiStringMatcher(Arrays.asList("A", "", "B", "A"));
+		assertEquals(Arrays.asList("A", "B"), matcher.getPatterns());
+		assertEquals(Arrays.asList("A", "B"), matcher.findAll("BA"));
+		assertEquals(Collections.emptyList(), new MultiStringMatcher(Collections.<String> emptyList()).findAll("A"));
+	}
+
+	@Test
+	public void testRandom() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 200; i++) {
+			final List<String> patterns = new ArrayList<>();
+			for (int j = random.nextInt(30); j >= 0; j--) {
+				patterns.add(randomString(random, 1 + random.nextInt(5)));
+			}
+			final MultiStringMatcher matcher = new MultiStringMatcher(patterns);
+			final String text = randomString(random, random.nextInt(200));
+
+			final List<String> expected = new ArrayList<>();
+			for (final String pattern : matcher.getPatterns()) {
+				if (text.contains(pattern)) {
+					expected.add(pattern);
+				}
+			}
+			assertEquals(expected, matcher.findAll(text));
+		}
+	}
+
+	private static String randomString(Random random, int length) {
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append((char) ('a' + random.nextInt(3)));
+		}
+		return sb.toString();
+	}
+
+}
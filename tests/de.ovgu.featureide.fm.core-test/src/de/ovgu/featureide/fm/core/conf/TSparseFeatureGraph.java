@@ -0,0 +1,207 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.FeatureGraphFormat;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link SparseFeatureGraph}.
+ */
+public class TSparseFeatureGraph {
+
+	private static final File MODEL_FILE_FOLDER = Commons.getRemoteOrLocalFolder("analyzefeaturemodels/");
+
+	private static final FileFilter filter = new FileFilter() {
+
+		@Override
+		public boolean accept(File pathname) {
+			return pathname.getName().endsWith(".xml");
+		}
+	};
+
+	private static final byte[] EDGE_TYPES = { AFeatureGraph.EDGE_NONE, AFeatureGraph.EDGE_00Q, AFeatureGraph.EDGE_00, AFeatureGraph.EDGE_01Q,
+		AFeatureGraph.EDGE_01, AFeatureGraph.EDGE_10Q, AFeatureGraph.EDGE_10, AFeatureGraph.EDGE_11Q, AFeatureGraph.EDGE_11 };
+
+	@Test
+	public void testSetEdge() {
+		final int[] index = new int[40];
+		for (int i = 0; i < index.length; i++) {
+			index[i] = i;
+		}
+		final MatrixFeatureGraph matrixGraph = new MatrixFeatureGraph(null, index);
+		final SparseFeatureGraph sparseGraph = new SparseFeatureGraph(null, index);
+		final Random random = new Random(0);
+		for (int i = 0; i < 20000; i++) {
+			final int from = random.nextInt(index.length);
+			final int to = random.nextInt(index.length);
+			final byte edgeType = getValidEdgeType(random, matrixGraph.getEdge(from, to));
+			assertEquals(matrixGraph.setEdge(from, to, edgeType), sparseGraph.setEdge(from, to, edgeType));
+		}
+		assertSameEdges(matrixGraph, sparseGraph);
+	}
+
+	@Test
+	public void testFGBuilder() {
+		for (final File modelFile : MODEL_FILE_FOLDER.listFiles(filter)) {
+			final IFeatureModel fm = FeatureModelManager.load(modelFile.toPath()).getObject();
+			final SatInstance satInstance =
+				new SatInstance(fm.getAnalyser().getCnf(), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+
+			final IFeatureGraph matrixGraph = LongRunningWrapper.runMethod(new FGBuilder(satInstance));
+			final FGBuilder sparseBuilder = new FGBuilder(satInstance);
+			sparseBuilder.setMaxMatrixSize(0);
+			final IFeatureGraph sparseGraph = LongRunningWrapper.runMethod(sparseBuilder);
+
+			if (matrixGraph == null) {
+				assertNull(modelFile.getName(), sparseGraph);
+				continue;
+			}
+			assertTrue(modelFile.getName(), matrixGraph instanceof MatrixFeatureGraph);
+			assertTrue(modelFile.getName(), (sparseGraph instanceof SparseFeatureGraph) || (sparseGraph.getSize() == 0));
+			assertSameEdges(matrixGraph, sparseGraph);
+		}
+	}
+
+	@Test
+	public void testFeatureGraphFormat() {
+		for (final File modelFile : MODEL_FILE_FOLDER.listFiles(filter)) {
+			final IFeatureModel fm = FeatureModelManager.load(modelFile.toPath()).getObject();
+			final SatInstance satInstance =
+				new SatInstance(fm.getAnalyser().getCnf(), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+			final FGBuilder sparseBuilder = new FGBuilder(satInstance);
+			sparseBuilder.setMaxMatrixSize(0);
+			final IFeatureGraph sparseGraph = LongRunningWrapper.runMethod(sparseBuilder);
+			final IFeatureGraph matrixGraph = LongRunningWrapper.runMethod(new FGBuilder(satInstance));
+			if (matrixGraph == null) {
+				continue;
+			}
+
+			final FeatureGraphFormat format = new FeatureGraphFormat();
+			final String sparseSource = format.write(sparseGraph);
+			final String matrixSource = format.write(matrixGraph);
+
+			final SparseFeatureGraph sparseFromSparse = new SparseFeatureGraph();
+			assertFalse(format.read(sparseFromSparse, sparseSource).containsError());
+			assertSameEdges(sparseGraph, sparseFromSparse);
+
+			final SparseFeatureGraph sparseFromMatrix = new SparseFeatureGraph();
+			assertFalse(format.read(sparseFromMatrix, matrixSource).containsError());
+			assertSameEdges(sparseGraph, sparseFromMatrix);
+
+			final MatrixFeatureGraph matrixFromSparse = new MatrixFeatureGraph();
+			assertFalse(format.read(matrixFromSparse, sparseSource).containsError());
+			assertSameEdges(matrixGraph, matrixFromSparse);
+		}
+	}
+
+	@Test
+	public void testBinaryLayout() throws IOException {
+		for (final File modelFile : MODEL_FILE_FOLDER.listFiles(filter)) {
+			final IFeatureModel fm = FeatureModelManager.load(modelFile.toPath()).getObject();
+			final SatInstance satInstance =
+				new SatInstance(fm.getAnalyser().getCnf(), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+			final FGBuilder sparseBuilder = new FGBuilder(satInstance);
+			sparseBuilder.setMaxMatrixSize(0);
+			final IFeatureGraph sparseGraph = LongRunningWrapper.runMethod(sparseBuilder);
+			final IFeatureGraph matrixGraph = LongRunningWrapper.runMethod(new FGBuilder(satInstance));
+			if (matrixGraph == null) {
+				continue;
+			}
+
+			for (final IFeatureGraph graph : new IFeatureGraph[] { sparseGraph, matrixGraph }) {
+				final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+				try (DataOutputStream out = new DataOutputStream(byteOut)) {
+					AFeatureGraph.writeGraph(out, graph);
+				}
+				final AFeatureGraph restoredGraph;
+				try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(byteOut.toByteArray()))) {
+					restoredGraph = AFeatureGraph.readGraph(in, satInstance);
+				}
+				assertEquals(modelFile.getName(), graph.getClass(), restoredGraph.getClass());
+				assertSame(satInstance, restoredGraph.getSatInstance());
+				assertSameEdges(graph, restoredGraph);
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testBinaryLayoutMismatch() throws IOException {
+		final IFeatureModel fm = FeatureModelManager.load(new File(MODEL_FILE_FOLDER, "test_2.xml").toPath()).getObject();
+		final SatInstance satInstance = new SatInstance(fm.getAnalyser().getCnf(), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+		final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(byteOut)) {
+			AFeatureGraph.writeGraph(out, new MatrixFeatureGraph(null, new int[] { 0 }));
+		}
+		AFeatureGraph.readGraph(new DataInputStream(new ByteArrayInputStream(byteOut.toByteArray())), satInstance);
+	}
+
+	private static byte getValidEdgeType(Random random, byte oldValue) {
+		while (true) {
+			final byte edgeType = EDGE_TYPES[random.nextInt(EDGE_TYPES.length)];
+			if (((edgeType == AFeatureGraph.EDGE_00) && AFeatureGraph.isEdge(oldValue, AFeatureGraph.EDGE_01))
+				|| ((edgeType == AFeatureGraph.EDGE_01) && AFeatureGraph.isEdge(oldValue, AFeatureGraph.EDGE_00))
+				|| ((edgeType == AFeatureGraph.EDGE_10) && AFeatureGraph.isEdge(oldValue, AFeatureGraph.EDGE_11))
+				|| ((edgeType == AFeatureGraph.EDGE_11) && AFeatureGraph.isEdge(oldValue, AFeatureGraph.EDGE_10))) {
+				continue;
+			}
+			return edgeType;
+		}
+	}
+
+	private static void assertSameEdges(IFeatureGraph expected, IFeatureGraph actual) {
+		assertEquals(expected.getSize(), actual.getSize());
+		assertArrayEquals(expected.getIndex(), actual.getIndex());
+		for (int from = 0; from < expected.getSize(); from++) {
+			for (int to = 0; to < expected.getSize(); to++) {
+				assertEquals(expected.getEdge(from, to), actual.getEdge(from, to));
+				assertEquals(expected.getValue(from, to, true), actual.getValue(from, to, true));
+				assertEquals(expected.getValue(from, to, false), actual.getValue(from, to, false));
+			}
+		}
+	}
+
+}
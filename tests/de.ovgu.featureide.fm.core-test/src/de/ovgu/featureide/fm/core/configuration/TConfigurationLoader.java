@@ -0,0 +1,195 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
+import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
+import de.ovgu.featureide.fm.core.io.AnalysisCache;
+
+/**
+ * Test class for {@link ConfigurationLoader}
+ */
+public class TConfigurationLoader extends AbstractConfigurationTest {
+
+	private static final String[] SELECTIONS = { "A", "B", "C" };
+
+	@Override
+	IFeatureModel loadModel() {
+		return loadGUIDSL("S : [A] [B] C :: _S; %% A implies C;");
+	}
+
+	@Test
+	public void testSequentialAndParallel() throws IOException {
+		final Path folder = createConfigurations(200);
+		try {
+			final List<String> expected = load(folder, 1, false);
+			assertEquals(200, expected.size());
+			assertEquals(expected, load(folder, 4, false));
+		} finally {
+			delete(folder);
+		}
+	}
+
+	@Test
+	public void testPropagation() throws IOException {
+		final Path folder = createConfigurations(20);
+		try {
+			final List<String> expected = load(folder, 1, true);
+			assertEquals(expected, load(folder, 4, true));
+			for (final String configuration : expected) {
+				assertEquals(true, configuration.contains("C"));
+			}
+		} finally {
+			delete(folder);
+		}
+	}
+
+	@Test
+	public void testProcessConfigurations() throws IOException {
+		final Path folder = createConfigurations(50);
+		try {
+			final List<Path> paths = new ArrayList<>();
+			final ConfigurationLoader loader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
+
+				@Override
+				public void onLoadingStarted() {}
+
+				@Override
+				public void onConfigurationLoaded(Configuration configuration, Path path) {
+					paths.add(path);
+				}
+
+				@Override
+				public void onLoadingFinished() {}
+
+				@Override
+				public void onLoadingError(IOException exception) {}
+			});
+			loader.setNumberOfThreads(3);
+			assertEquals(49, loader.processConfigurations(fm, folder, "0.config"));
+			assertEquals(49, paths.size());
+		} finally {
+			delete(folder);
+		}
+	}
+
+	@Test
+	public void testSelectionMatrix() throws IOException {
+		final Path folder = createConfigurations(100);
+		try {
+			final List<Path> files = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				files.add(folder.resolve(i + ".config"));
+			}
+			final List<String> features = Arrays.asList(SELECTIONS);
+			final int[] loaded = new int[1];
+			final ConfigurationLoader loader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
+
+				@Override
+				public void onLoadingStarted() {}
+
+				@Override
+				public void onConfigurationLoaded(Configuration configuration, Path path) {
+					loaded[0]++;
+				}
+
+				@Override
+				public void onLoadingFinished() {}
+
+				@Override
+				public void onLoadingError(IOException exception) {}
+			});
+			loader.setNumberOfThreads(3);
+
+			final SelectionMatrix matrix = loader.loadSelectionMatrix(fm, files, features);
+			assertEquals(100, matrix.getNumberOfRows());
+			for (int i = 0; i < 100; i++) {
+				assertEquals(i + ".config", matrix.getRowNames().get(i));
+				for (int column = 0; column < features.size(); column++) {
+					assertEquals((i % SELECTIONS.length) == column, matrix.isSelected(i, column));
+				}
+			}
+
+			final AnalysisCache cache = new AnalysisCache(folder.resolve("configs.selections"));
+			assertArrayEquals(matrix.toArray(), loader.loadSelectionMatrix(fm, files, features, cache).toArray());
+			loaded[0] = 0;
+			assertArrayEquals(matrix.toArray(), loader.loadSelectionMatrix(fm, files, features, cache).toArray());
+			assertEquals(0, loaded[0]);
+
+			final Path changedFile = files.get(0);
+			Files.write(changedFile, "S\nA\nB\n".getBytes(StandardCharsets.UTF_8));
+			Files.setLastModifiedTime(changedFile, FileTime.fromMillis(Files.getLastModifiedTime(changedFile).toMillis() + 10000));
+			final SelectionMatrix changedMatrix = loader.loadSelectionMatrix(fm, files, features, cache);
+			assertEquals(100, loaded[0]);
+			assertTrue(changedMatrix.isSelected(0, 0));
+			assertTrue(changedMatrix.isSelected(0, 1));
+		} finally {
+			delete(folder);
+		}
+	}
+
+	private List<String> load(Path folder, int numberOfThreads, boolean propagate) {
+		final ConfigurationLoader loader = new ConfigurationLoader(null, propagate);
+		loader.setNumberOfThreads(numberOfThreads);
+		final List<String> result = new ArrayList<>();
+		for (final Configuration configuration : loader.loadConfigurations(fm, folder)) {
+			result.add(new TreeSet<>(configuration.getSelectedFeatureNames()).toString());
+		}
+		return result;
+	}
+
+	private static Path createConfigurations(int number) throws IOException {
+		final Path folder = Files.createTempDirectory("configs");
+		for (int i = 0; i < number; i++) {
+			final String content = "S\n" + SELECTIONS[i % SELECTIONS.length] + "\n";
+			Files.write(folder.resolve(i + ".config"), content.getBytes(StandardCharsets.UTF_8));
+		}
+		return folder;
+	}
+
+	private static void delete(Path folder) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(folder)) {
+			for (final Path file : files) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(folder);
+	}
+
+}
@@ -0,0 +1,115 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link SelectionMatrix}
+ */
+public class TSelectionMatrix {
+
+	private static final List<String> FEATURES = Arrays.asList("A", "B", "C", "D");
+
+	@Test
+	public void testStatistics() {
+		final SelectionMatrix matrix = new SelectionMatrix(FEATURES);
+		assertEquals(Collections.emptyList(), matrix.getUnusedFeatures());
+		assertEquals(Collections.emptyList(), matrix.getAlwaysSelectedFeatures());
+
+		matrix.addRow("c1", Arrays.asList("A", "B", "X"));
+		matrix.addRow("c2", Arrays.asList("A", "C"));
+		assertEquals(2, matrix.getNumberOfRows());
+		assertTrue(matrix.isSelected(0, 1));
+		assertFalse(matrix.isSelected(1, 1));
+		assertEquals(2, matrix.getSelectionCount("A"));
+		assertEquals(-1, matrix.getSelectionCount("X"));
+		assertEquals(Arrays.asList("D"), matrix.getUnusedFeatures());
+		assertEquals(Arrays.asList("A"), matrix.getAlwaysSelectedFeatures());
+	}
+
+	@Test
+	public void testArrayConversion() {
+		final Random random = new Random(0);
+		final boolean[][] selections = new boolean[200][FEATURES.size()];
+		for (final boolean[] row : selections) {
+			for (int i = 0; i < row.length; i++) {
+				row[i] = random.nextBoolean();
+			}
+		}
+		final SelectionMatrix matrix = SelectionMatrix.fromArray(FEATURES, selections);
+		assertEquals(selections.length, matrix.getNumberOfRows());
+		assertArrayEquals(selections, matrix.toArray());
+		for (int column = 0; column < FEATURES.size(); column++) {
+			int count = 0;
+			for (final boolean[] row : selections) {
+				if (row[column]) {
+					count++;
+				}
+			}
+			assertEquals(count, matrix.getSelectionCount(column));
+		}
+	}
+
+	@Test
+	public void testReadWrite() throws IOException {
+		final SelectionMatrix matrix = new SelectionMatrix(FEATURES);
+		final List<String> names = new ArrayList<>();
+		for (int i = 0; i < 130; i++) {
+			names.add("c" + i);
+			matrix.addRow("c" + i, (i % 3) == 0 ? Arrays.asList("A", "D") : Arrays.asList("B"));
+		}
+
+		final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(byteOut)) {
+			matrix.write(out);
+		}
+		final SelectionMatrix readMatrix;
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(byteOut.toByteArray()))) {
+			readMatrix = SelectionMatrix.read(in);
+		}
+
+		assertEquals(FEATURES, readMatrix.getFeatures());
+		assertEquals(names, readMatrix.getRowNames());
+		assertArrayEquals(matrix.toArray(), readMatrix.toArray());
+		assertEquals(Arrays.asList("C"), readMatrix.getUnusedFeatures());
+
+		readMatrix.addRow("c130", FEATURES);
+		assertEquals(Collections.emptyList(), readMatrix.getUnusedFeatures());
+	}
+
+}
@@ -0,0 +1,162 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.analyses.FeatureModelAnalysis;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link AnalysisCache}.
+ */
+public class TAnalysisCache {
+
+	private static final File MODEL_FILE_FOLDER = Commons.getRemoteOrLocalFolder("analyzefeaturemodels/");
+
+	private static final FileFilter filter = new FileFilter() {
+
+		@Override
+		public boolean accept(File pathname) {
+			return pathname.getName().endsWith(".xml");
+		}
+	};
+
+	private Path tempFolder;
+
+	@Before
+	public void createTempFolder() throws IOException {
+		tempFolder = Files.createTempDirectory("analysisCache");
+	}
+
+	@After
+	public void deleteTempFolder() throws IOException {
+		for (final File file : tempFolder.toFile().listFiles()) {
+			Files.delete(file.toPath());
+		}
+		Files.delete(tempFolder);
+	}
+
+	@Test
+	public void testRestoredResults() {
+		for (final File modelFile : MODEL_FILE_FOLDER.listFiles(filter)) {
+			final Path cachePath = tempFolder.resolve(modelFile.getName() + ".analysis");
+
+			final IFeatureModel computedModel = FeatureModelManager.load(modelFile.toPath()).getObject();
+			final FeatureModelAnalysis computedAnalysis = new FeatureModelAnalysis(computedModel);
+			computedAnalysis.setAnalysisCache(new AnalysisCache(cachePath));
+			final Map<String, String> expected = toStringMap(LongRunningWrapper.runMethod(computedAnalysis));
+			assertTrue(modelFile.getName(), Files.exists(cachePath));
+
+			final IFeatureModel restoredModel = FeatureModelManager.load(modelFile.toPath()).getObject();
+			final FeatureModelAnalysis restoredAnalysis = new FeatureModelAnalysis(restoredModel);
+			restoredAnalysis.setAnalysisCache(new AnalysisCache(cachePath));
+			final Map<String, String> actual = toStringMap(LongRunningWrapper.runMethod(restoredAnalysis));
+
+			assertEquals(modelFile.getName(), expected, actual);
+			assertEquals(modelFile.getName(), computedAnalysis.isValid(), restoredAnalysis.isValid());
+			assertEquals(modelFile.getName(), computedAnalysis.getCoreFeatures().toString(), restoredAnalysis.getCoreFeatures().toString());
+			assertEquals(modelFile.getName(), computedAnalysis.getDeadFeatures().toString(), restoredAnalysis.getDeadFeatures().toString());
+			assertEquals(modelFile.getName(), computedAnalysis.getFalseOptionalFeatures().toString(),
+					restoredAnalysis.getFalseOptionalFeatures().toString());
+			for (final IFeature feature : computedModel.getFeatures()) {
+				assertEquals(modelFile.getName(), feature.getProperty().getFeatureStatus(),
+						restoredModel.getFeature(feature.getName()).getProperty().getFeatureStatus());
+			}
+			for (int i = 0; i < computedModel.getConstraints().size(); i++) {
+				final IConstraint computedConstraint = computedModel.getConstraints().get(i);
+				final IConstraint restoredConstraint = restoredModel.getConstraints().get(i);
+				assertEquals(modelFile.getName(), computedConstraint.getConstraintAttribute(), restoredConstraint.getConstraintAttribute());
+				assertEquals(modelFile.getName(), computedConstraint.getDeadFeatures().toString(), restoredConstraint.getDeadFeatures().toString());
+				assertEquals(modelFile.getName(), computedConstraint.getFalseOptional().toString(), restoredConstraint.getFalseOptional().toString());
+			}
+		}
+	}
+
+	@Test
+	public void testFingerprint() {
+		final File modelFile = new File(MODEL_FILE_FOLDER, "test_2.xml");
+		final IFeatureModel fm1 = FeatureModelManager.load(modelFile.toPath()).getObject();
+		final IFeatureModel fm2 = FeatureModelManager.load(modelFile.toPath()).getObject();
+		final byte[] fingerprint = AnalysisCache.computeFingerprint(fm1);
+		assertArrayEquals(fingerprint, AnalysisCache.computeFingerprint(fm2));
+
+		fm2.removeConstraint(fm2.getConstraints().get(0));
+		assertFalse(Arrays.equals(fingerprint, AnalysisCache.computeFingerprint(fm2)));
+	}
+
+	@Test
+	public void testFingerprintMismatch() {
+		final Path cachePath = tempFolder.resolve("model.analysis");
+		final byte[] fingerprint1 = new byte[] { 1, 2, 3 };
+		final byte[] fingerprint2 = new byte[] { 4, 5, 6 };
+
+		final AnalysisCache cache = new AnalysisCache(cachePath);
+		cache.putSection(fingerprint1, "a", new byte[] { 42 });
+		cache.putSection(fingerprint1, "b", new byte[] { 43 });
+
+		final AnalysisCache reloadedCache = new AnalysisCache(cachePath);
+		assertArrayEquals(new byte[] { 42 }, reloadedCache.getSection(fingerprint1, "a"));
+		assertArrayEquals(new byte[] { 43 }, reloadedCache.getSection(fingerprint1, "b"));
+		assertNull(reloadedCache.getSection(fingerprint2, "a"));
+
+		reloadedCache.putSection(fingerprint2, "a", new byte[] { 44 });
+		assertNull(reloadedCache.getSection(fingerprint2, "b"));
+		assertNotNull(new AnalysisCache(cachePath).getSection(fingerprint2, "a"));
+		assertNull(new AnalysisCache(cachePath).getSection(fingerprint1, "a"));
+	}
+
+	private static Map<String, String> toStringMap(HashMap<Object, Object> attributes) {
+		final Map<String, String> map = new TreeMap<>();
+		for (final Entry<Object, Object> entry : attributes.entrySet()) {
+			final Object key = entry.getKey();
+			final String name = (key instanceof IFeature) ? "F:" + ((IFeature) key).getName() : "C:" + ((IConstraint) key).getNode().toString();
+			map.put(name, String.valueOf(entry.getValue()));
+		}
+		return map;
+	}
+
+}
@@ -0,0 +1,115 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
+import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.TAbstractFeatureModelReaderWriter;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Test class for {@link BinaryFeatureModelFormat}.
+ */
+public class TBinaryFeatureModelFormat extends TAbstractFeatureModelReaderWriter {
+
+	public TBinaryFeatureModelFormat(IFeatureModel fm, String s) throws UnsupportedModelException {
+		super(fm, s);
+	}
+
+	@Override
+	protected IFeatureModelFormat getFormat() {
+		return new BinaryFeatureModelFormat();
+	}
+
+	@Test
+	public void testEquivalentToXml() {
+		final XmlFeatureModelFormat xmlFormat = new XmlFeatureModelFormat();
+		assertEquals(failureMessage, xmlFormat.write(origFm), xmlFormat.write(newFm));
+	}
+
+	@Test
+	public void testMemoryMappedFile() throws IOException {
+		final Path file = Files.createTempFile("model", "." + BinaryFeatureModelFormat.FILE_EXTENSION);
+		try {
+			final BinaryFeatureModelFormat format = new BinaryFeatureModelFormat();
+			format.write(origFm, file);
+
+			final IFeatureModel fm = FMFactoryManager.getDefaultFactory().createFeatureModel();
+			final ProblemList problems = format.read(fm, file);
+			assertFalse(failureMessage + problems, problems.containsError());
+			final XmlFeatureModelFormat xmlFormat = new XmlFeatureModelFormat();
+			assertEquals(failureMessage, xmlFormat.write(origFm), xmlFormat.write(fm));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testLazyProperties() throws IOException {
+		final Path file = Files.createTempFile("model", "." + BinaryFeatureModelFormat.FILE_EXTENSION);
+		try {
+			Files.write(file, new BinaryFeatureModelFormat().write(origFm).getBytes("US-ASCII"));
+			final BinaryFeatureModelFormat format = new BinaryFeatureModelFormat();
+
+			final IFeatureModel fm = FMFactoryManager.getDefaultFactory().createFeatureModel();
+			assertFalse(failureMessage, format.readStructure(fm, file).containsError());
+			assertEquals(failureMessage, origFm.getNumberOfFeatures(), fm.getNumberOfFeatures());
+			assertEquals(failureMessage, origFm.getConstraintCount(), fm.getConstraintCount());
+			assertFalse(failureMessage, fm.getProperty().getComments().iterator().hasNext());
+
+			assertFalse(failureMessage, format.readProperties(fm, file).containsError());
+			for (final IFeature feature : origFm.getFeatures()) {
+				assertEquals(failureMessage, feature.getProperty().getDescription(), fm.getFeature(feature.getName()).getProperty().getDescription());
+				assertEquals(failureMessage, feature.getCustomProperties().entrySet(), fm.getFeature(feature.getName()).getCustomProperties().entrySet());
+			}
+			for (int i = 0; i < origFm.getConstraintCount(); i++) {
+				final IConstraint constraint = origFm.getConstraints().get(i);
+				assertEquals(failureMessage, constraint.getDescription(), fm.getConstraints().get(i).getDescription());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testFormatManager() {
+		final String content = new BinaryFeatureModelFormat().write(origFm);
+		final IFeatureModelFormat format = FMFormatManager.getInstance().getFormatByContent(content, "model." + BinaryFeatureModelFormat.FILE_EXTENSION);
+		assertTrue(failureMessage, format instanceof BinaryFeatureModelFormat);
+	}
+
+}
@@ -0,0 +1,219 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.w3c.dom.Document;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+
+/**
+ * Test class for the streaming reader and writer of {@link XmlFeatureModelFormat}.
+ */
+public class TXmlFeatureModelStreaming {
+
+	private static final File MODEL_FILE_FOLDER = Commons.getRemoteOrLocalFolder("testFeatureModels/");
+
+	private static final String MODEL_WITH_UNKNOWN_FEATURE = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+		+ "<featureModel>\n" //
+		+ "\t<struct>\n" //
+		+ "\t\t<and name=\"Root\">\n" //
+		+ "\t\t\t<feature name=\"A\"/>\n" //
+		+ "\t\t</and>\n" //
+		+ "\t</struct>\n" //
+		+ "\t<constraints>\n" //
+		+ "\t\t<rule>\n" //
+		+ "\t\t\t<var>B</var>\n" //
+		+ "\t\t</rule>\n" //
+		+ "\t</constraints>\n" //
+		+ "</featureModel>\n";
+
+	@Test
+	public void testRoundTripModelFiles() throws Exception {
+		for (final File file : getModelFiles()) {
+			final String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+			final IFeatureModel featureModel = createFeatureModel();
+			ProblemList problems = new XmlFeatureModelFormat().read(featureModel, source);
+			assertFalse(file.getName() + ": " + problems, problems.containsError());
+			final String xml = new XmlFeatureModelFormat().write(featureModel);
+
+			final IFeatureModel readModel = createFeatureModel();
+			problems = new XmlFeatureModelFormat().read(readModel, xml);
+			assertFalse(file.getName() + ": " + problems, problems.containsError());
+			assertEquals(file.getName(), xml, new XmlFeatureModelFormat().write(readModel));
+		}
+	}
+
+	@Test
+	public void testSectionOrder() {
+		final String xml = new XmlFeatureModelFormat().write(createSpecialModel());
+		final int structStart = xml.indexOf("<struct>");
+		final int structEnd = xml.indexOf("</struct>") + "</struct>".length();
+		final int modelEnd = xml.indexOf("</featureModel>");
+		final String reordered = xml.substring(0, structStart) + xml.substring(structEnd, modelEnd) + xml.substring(structStart, structEnd)
+			+ xml.substring(modelEnd);
+
+		final IFeatureModel readModel = createFeatureModel();
+		final ProblemList problems = new XmlFeatureModelFormat().read(readModel, reordered);
+		assertFalse(problems.toString(), problems.containsError());
+		assertEquals(xml, new XmlFeatureModelFormat().write(readModel));
+	}
+
+	@Test
+	public void testSectionOrderUnknownFeature() {
+		final String reordered = MODEL_WITH_UNKNOWN_FEATURE.replace("\t<constraints>\n\t\t<rule>\n\t\t\t<var>B</var>\n\t\t</rule>\n\t</constraints>\n", "")
+				.replace("<featureModel>\n", "<featureModel>\n\t<constraints>\n\t\t<rule>\n\t\t\t<var>B</var>\n\t\t</rule>\n\t</constraints>\n");
+		final ProblemList problems = new XmlFeatureModelFormat().read(createFeatureModel(), reordered);
+		assertEquals(1, problems.size());
+		assertEquals(5, problems.get(0).getLine());
+	}
+
+	@Test
+	public void testDocumentAdapter() throws Exception {
+		final IFeatureModel featureModel = createSpecialModel();
+		final String xml = new XmlFeatureModelFormat().write(featureModel);
+
+		final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		final XmlFeatureModelFormat writeFormat = new XmlFeatureModelFormat();
+		writeFormat.object = featureModel;
+		writeFormat.writeDocument(doc);
+
+		final IFeatureModel readModel = createFeatureModel();
+		final XmlFeatureModelFormat readFormat = new XmlFeatureModelFormat();
+		readFormat.object = readModel;
+		final ArrayList<Problem> problems = new ArrayList<>();
+		readFormat.readDocument(doc, problems);
+		assertTrue(problems.toString(), problems.isEmpty());
+		assertEquals(xml, new XmlFeatureModelFormat().write(readModel));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		final IFeatureModel featureModel = createSpecialModel();
+		final String xml = new XmlFeatureModelFormat().write(featureModel);
+
+		final IFeatureModel readModel = createFeatureModel();
+		final ProblemList problems = new XmlFeatureModelFormat().read(readModel, xml);
+		assertFalse(problems.toString(), problems.containsError());
+
+		assertEquals("The <root> & \"description\"", readModel.getFeature("Root").getProperty().getDescription());
+		assertEquals("first line\nsecond line", readModel.getConstraints().get(0).getDescription());
+		assertEquals(Arrays.asList("A comment with <tags> & entities"), readModel.getProperty().getComments());
+		assertEquals(Integer.valueOf(42), readModel.getFeature("A").getCustomProperties().get("answer", Type.INT));
+		assertTrue(readModel.getFeature("B").getStructure().isHidden());
+		assertTrue(readModel.getFeature("C").getStructure().isAbstract());
+		assertEquals(new ArrayList<>(featureModel.getFeatureOrderList()), new ArrayList<>(readModel.getFeatureOrderList()));
+		assertEquals(xml, new XmlFeatureModelFormat().write(readModel));
+	}
+
+	@Test
+	public void testWriteToWriter() throws Exception {
+		final IFeatureModel featureModel = createSpecialModel();
+		final StringWriter writer = new StringWriter();
+		new XmlFeatureModelFormat().write(featureModel, writer);
+		assertEquals(new XmlFeatureModelFormat().write(featureModel), writer.toString());
+	}
+
+	@Test
+	public void testProblemLineNumber() {
+		final ProblemList problems = new XmlFeatureModelFormat().read(createFeatureModel(), MODEL_WITH_UNKNOWN_FEATURE);
+		assertEquals(1, problems.size());
+		assertEquals(10, problems.get(0).getLine());
+	}
+
+	@Test
+	public void testMalformedLineNumber() {
+		final String malformed = MODEL_WITH_UNKNOWN_FEATURE.replace("\t\t</and>", "\t\t</or>");
+		final ProblemList problems = new XmlFeatureModelFormat().read(createFeatureModel(), malformed);
+		assertEquals(1, problems.size());
+		assertEquals(6, problems.get(0).getLine());
+	}
+
+	private static File[] getModelFiles() {
+		return MODEL_FILE_FOLDER.listFiles(new FileFilter() {
+
+			@Override
+			public boolean accept(File pathname) {
+				return pathname.isFile() && pathname.getName().endsWith(".xml");
+			}
+		});
+	}
+
+	private static IFeatureModel createFeatureModel() {
+		return FMFactoryManager.getDefaultFactory().createFeatureModel();
+	}
+
+	private static IFeatureModel createSpecialModel() {
+		final IFeatureModelFactory factory = FMFactoryManager.getDefaultFactory();
+		final IFeatureModel featureModel = factory.createFeatureModel();
+		final IFeature root = factory.createFeature(featureModel, "Root");
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+		root.getProperty().setDescription("The <root> & \"description\"");
+
+		final IFeature a = factory.createFeature(featureModel, "A");
+		final IFeature b = factory.createFeature(featureModel, "B");
+		final IFeature c = factory.createFeature(featureModel, "C");
+		for (final IFeature feature : Arrays.asList(a, b, c)) {
+			featureModel.addFeature(feature);
+			root.getStructure().addChild(feature.getStructure());
+		}
+		a.getCustomProperties().set("answer", Type.INT, 42);
+		b.getStructure().setHidden(true);
+		c.getStructure().setAbstract(true);
+
+		final IConstraint constraint = factory.createConstraint(featureModel, new Or(new Not(new Literal("A")), new Literal("B", false)));
+		constraint.setDescription("first line\r\nsecond line");
+		featureModel.addConstraint(constraint);
+
+		featureModel.getProperty().addComment("A comment with <tags> & entities");
+		featureModel.setFeatureOrderUserDefined(true);
+		featureModel.setFeatureOrderList(Arrays.asList("B", "A"));
+		return featureModel;
+	}
+
+}
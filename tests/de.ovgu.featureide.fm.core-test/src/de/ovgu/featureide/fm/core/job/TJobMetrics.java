@@ -0,0 +1,142 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Test class for {@link JobMetrics}
+ */
+public class TJobMetrics {
+
+	private static class SatMethod implements LongRunningMethod<Boolean> {
+
+		private final int calls;
+
+		public SatMethod(int calls) {
+			this.calls = calls;
+		}
+
+		@Override
+		public Boolean execute(IMonitor monitor) throws Exception {
+			final BasicSolver solver = new BasicSolver(new SatInstance(new And(new Or(new Literal("A"), new Literal("B"))), Arrays.asList("A", "B")));
+			for (int i = 0; i < calls; i++) {
+				solver.isSatisfiable();
+			}
+			return true;
+		}
+	}
+
+	private static class NestedMethod implements LongRunningMethod<Boolean> {
+
+		@Override
+		public Boolean execute(IMonitor monitor) throws Exception {
+			LongRunningWrapper.runMethod(new SatMethod(2));
+			return LongRunningWrapper.runMethod(new SatMethod(1));
+		}
+	}
+
+	private static class CanceledMethod implements LongRunningMethod<Boolean> {
+
+		@Override
+		public Boolean execute(IMonitor monitor) throws Exception {
+			monitor.cancel();
+			monitor.checkCancel();
+			return true;
+		}
+	}
+
+	@Before
+	public void reset() {
+		JobMetrics.reset();
+	}
+
+	@After
+	public void removeSink() {
+		JobMetrics.setEventSink(null);
+	}
+
+	@Test
+	public void testRunMethod() {
+		LongRunningWrapper.runMethod(new SatMethod(3));
+		LongRunningWrapper.runMethod(new SatMethod(2));
+
+		final JobMetrics.Statistics statistics = JobMetrics.getStatistics("SatMethod");
+		assertNotNull(statistics);
+		assertEquals(2, statistics.getExecutions());
+		assertEquals(5, statistics.getSatCalls());
+		assertEquals(0, statistics.getCanceled());
+		assertTrue(statistics.getTotalRunTime() >= statistics.getMaxRunTime());
+	}
+
+	@Test
+	public void testNestedAndCanceled() {
+		LongRunningWrapper.runMethod(new NestedMethod());
+		LongRunningWrapper.runMethod(new CanceledMethod());
+
+		assertEquals(3, JobMetrics.getStatistics("NestedMethod").getSatCalls());
+		assertEquals(2, JobMetrics.getStatistics("SatMethod").getExecutions());
+		assertEquals(1, JobMetrics.getStatistics("CanceledMethod").getCanceled());
+		assertEquals(3, JobMetrics.getStatistics().size());
+	}
+
+	@Test
+	public void testTokenAndSink() throws InterruptedException {
+		final StringWriter writer = new StringWriter();
+		JobMetrics.setEventSink(new JsonLinesJobEventSink(writer));
+
+		final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.WAIT);
+		final IRunner<Boolean> job1 = LongRunningWrapper.getThread(new SatMethod(1), "job \"1\"");
+		final IRunner<Boolean> job2 = LongRunningWrapper.getThread(new SatMethod(4));
+		LongRunningWrapper.startJob(token, job1);
+		LongRunningWrapper.startJob(token, job2);
+		job1.join();
+		job2.join();
+
+		final JobMetrics.Statistics statistics = JobMetrics.getStatistics(token);
+		assertEquals(2, statistics.getExecutions());
+		assertEquals(5, statistics.getSatCalls());
+		assertEquals(1, JobMetrics.getStatistics("job \"1\"").getExecutions());
+
+		final String[] lines = writer.toString().split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[0], lines[0].startsWith("{\"name\":\"job \\\"1\\\"\",\"token\":\""));
+		assertTrue(lines[1], lines[1].contains("\"satCalls\":4,"));
+		assertTrue(lines[1], lines[1].endsWith("\"outcome\":\"OK\"}"));
+	}
+
+}
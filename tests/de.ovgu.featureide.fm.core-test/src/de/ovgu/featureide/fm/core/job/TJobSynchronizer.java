@@ -0,0 +1,159 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Test class for {@link JobSynchronizer} and {@link LongRunningThread}
+ */
+public class TJobSynchronizer {
+
+	private static class CountingMethod implements LongRunningMethod<Integer> {
+
+		private final int id;
+		private final List<Integer> executed;
+		private final AtomicInteger running;
+		private final AtomicInteger maxRunning;
+
+		public CountingMethod(int id, List<Integer> executed, AtomicInteger running, AtomicInteger maxRunning) {
+			this.id = id;
+			this.executed = executed;
+			this.running = running;
+			this.maxRunning = maxRunning;
+		}
+
+		@Override
+		public Integer execute(IMonitor monitor) throws Exception {
+			final int current = running.incrementAndGet();
+			synchronized (maxRunning) {
+				maxRunning.set(Math.max(maxRunning.get(), current));
+			}
+			Thread.sleep(2);
+			executed.add(id);
+			running.decrementAndGet();
+			return id;
+		}
+	}
+
+	private static class BlockingMethod implements LongRunningMethod<Boolean> {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+
+		@Override
+		public Boolean execute(IMonitor monitor) throws Exception {
+			started.countDown();
+			while (true) {
+				monitor.checkCancel();
+				Thread.sleep(1);
+			}
+		}
+	}
+
+	@Test
+	public void testWaitRunsJobsSerially() throws InterruptedException {
+		final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.WAIT);
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+
+		final List<IRunner<Integer>> jobs = new ArrayList<>();
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			final IRunner<Integer> job = LongRunningWrapper.getThread(new CountingMethod(i, executed, running, maxRunning));
+			jobs.add(job);
+			expected.add(i);
+			LongRunningWrapper.startJob(token, job);
+		}
+		for (final IRunner<Integer> job : jobs) {
+			job.join();
+		}
+
+		assertEquals(expected, executed);
+		assertEquals(1, maxRunning.get());
+		assertEquals(Integer.valueOf(49), jobs.get(49).getResults());
+		assertTrue(JobExecutor.getPoolSize() <= JobExecutor.MAX_POOLED_THREADS);
+	}
+
+	@Test
+	public void testReturn() throws InterruptedException {
+		final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.RETURN);
+		final BlockingMethod blockingMethod = new BlockingMethod();
+		final IRunner<Boolean> blockingJob = LongRunningWrapper.getThread(blockingMethod);
+		LongRunningWrapper.startJob(token, blockingJob);
+		assertTrue(blockingMethod.started.await(10, TimeUnit.SECONDS));
+
+		final IRunner<Integer> skippedJob = LongRunningWrapper.getThread(new CountingMethod(0, new ArrayList<Integer>(), new AtomicInteger(), new AtomicInteger()));
+		LongRunningWrapper.startJob(token, skippedJob);
+		LongRunningWrapper.cancelAllJobs(token);
+		blockingJob.join();
+		skippedJob.join();
+
+		assertEquals(JobStatus.FAILED, blockingJob.getStatus());
+		assertEquals(JobStatus.NOT_STARTED, skippedJob.getStatus());
+	}
+
+	@Test
+	public void testCancelWait() throws InterruptedException {
+		final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT);
+		final BlockingMethod blockingMethod = new BlockingMethod();
+		final IRunner<Boolean> blockingJob = LongRunningWrapper.getThread(blockingMethod);
+		LongRunningWrapper.startJob(token, blockingJob);
+		assertTrue(blockingMethod.started.await(10, TimeUnit.SECONDS));
+
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+		final IRunner<Integer> job = LongRunningWrapper.getThread(new CountingMethod(1, executed, new AtomicInteger(), new AtomicInteger()));
+		LongRunningWrapper.startJob(token, job);
+		job.join();
+
+		assertEquals(JobStatus.FAILED, blockingJob.getStatus());
+		assertNull(blockingJob.getResults());
+		assertEquals(Collections.singletonList(1), executed);
+	}
+
+	@Test
+	public void testCancelBeforeStart() throws InterruptedException {
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+		final IRunner<Integer> job = LongRunningWrapper.getThread(new CountingMethod(1, executed, new AtomicInteger(), new AtomicInteger()));
+		assertTrue(job.cancel());
+		job.schedule();
+		job.join();
+
+		assertEquals(JobStatus.FAILED, job.getStatus());
+		assertFalse(executed.contains(1));
+	}
+
+}
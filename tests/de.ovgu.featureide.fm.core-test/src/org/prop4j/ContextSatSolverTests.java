@@ -0,0 +1,120 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Tests for {@link ContextSatSolver}.
+ */
+public class ContextSatSolverTests {
+
+	private static final String[] VARIABLES = { "A", "B", "C", "D", "E", "F" };
+
+	private static final Node BASE = new And(new Literal("A"), new Implies(new Literal("B"), new Literal("A")), new Implies(new Literal("C"), new Literal("B")),
+			new Or(new Literal("C", false), new Literal("D", false)), new Equals(new Literal("E"), new Or(new Literal("B"), new Literal("D"))));
+
+	@Test
+	public void testBase() throws TimeoutException {
+		assertTrue(new ContextSatSolver(BASE, 1000).isSatisfiable());
+		assertFalse(new ContextSatSolver(new And(BASE, new Literal("A", false)), 1000).isSatisfiable());
+	}
+
+	@Test
+	public void testWithoutBase() throws TimeoutException {
+		final ContextSatSolver solver = new ContextSatSolver(BASE, 1000);
+		assertTrue(solver.isSatisfiable(false, new Literal("A", false)));
+		assertFalse(solver.isSatisfiable(true, new Literal("A", false)));
+		assertFalse(solver.isSatisfiable(false, new And(new Literal("F"), new Not(new Literal("F")))));
+		assertFalse(solver.isSatisfiable(false, new Not(new Or(new Literal("F"), new Not(new Literal("F"))))));
+		assertTrue(solver.isSatisfiable(false, new Literal("F"), new Literal("C", false)));
+	}
+
+	@Test
+	public void testContext() throws TimeoutException {
+		final ContextSatSolver solver = new ContextSatSolver(BASE, 1000);
+		assertTrue(solver.isSatisfiable(true, new Literal("C")));
+		assertFalse(solver.isSatisfiable(true, new Literal("C"), new Literal("D")));
+		assertTrue(solver.isSatisfiable(true, new Literal("C"), new Literal("D", false)));
+		assertFalse(solver.isSatisfiable(true, new Literal("C"), new Literal("E", false)));
+		assertTrue(solver.isSatisfiable(true, new Literal("C")));
+	}
+
+	@Test
+	public void testCardinality() throws TimeoutException {
+		final ContextSatSolver solver = new ContextSatSolver(BASE, 1000);
+		final Node[] literals = { new Literal("C"), new Literal("D"), new Literal("F") };
+		assertFalse(solver.isSatisfiable(true, new AtLeast(3, literals)));
+		assertTrue(solver.isSatisfiable(true, new AtLeast(2, literals)));
+		assertTrue(solver.isSatisfiable(true, new Choose(1, literals)));
+		assertFalse(solver.isSatisfiable(true, new Choose(3, literals)));
+	}
+
+	@Test
+	public void testRandomExpressions() throws TimeoutException {
+		final Random random = new Random(0);
+		final ContextSatSolver solver = new ContextSatSolver(BASE, 1000);
+		final List<Node> expressions = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			final Node[] context = new Node[1 + random.nextInt(3)];
+			for (int j = 0; j < context.length; j++) {
+				if (!expressions.isEmpty() && random.nextBoolean()) {
+					context[j] = expressions.get(random.nextInt(expressions.size())).clone();
+				} else {
+					context[j] = randomExpression(random, 3);
+					expressions.add(context[j]);
+				}
+			}
+			final boolean useBase = random.nextBoolean();
+			final Node conjunction = useBase ? new And(BASE.clone(), new And((Object[]) Node.clone(context))) : new And((Object[]) Node.clone(context));
+			final boolean expected = new SatSolver(conjunction, 1000).isSatisfiable();
+			assertEquals(conjunction.toString(), expected, solver.isSatisfiable(useBase, context));
+		}
+	}
+
+	private static Node randomExpression(Random random, int depth) {
+		if ((depth == 0) || (random.nextInt(4) == 0)) {
+			return new Literal(VARIABLES[random.nextInt(VARIABLES.length)], random.nextBoolean());
+		}
+		switch (random.nextInt(5)) {
+		case 0:
+			return new Not(randomExpression(random, depth - 1));
+		case 1:
+			return new And(randomExpression(random, depth - 1), randomExpression(random, depth - 1));
+		case 2:
+			return new Or(randomExpression(random, depth - 1), randomExpression(random, depth - 1), randomExpression(random, depth - 1));
+		case 3:
+			return new Implies(randomExpression(random, depth - 1), randomExpression(random, depth - 1));
+		default:
+			return new Equals(randomExpression(random, depth - 1), randomExpression(random, depth - 1));
+		}
+	}
+
+}
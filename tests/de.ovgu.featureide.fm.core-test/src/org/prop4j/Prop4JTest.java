@@ -27,6 +27,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 
 import org.junit.Test;
 import org.sat4j.core.VecInt;
@@ -696,6 +697,16 @@ public class Prop4JTest {
 
 	}
 
+	@Test
+	public void testGetSolutionContainsOnlySelectedVariables() {
+		final Node node = new And(new Literal("A"), new Literal("B", false), new Or(new Literal("C"), new Literal("C", false)));
+		final SatSolver solver = new SatSolver(node, 1000);
+		assertEquals(Arrays.asList("A"), solver.getSolution(false));
+		final List<String> solution = solver.getSolution(true);
+		assertTrue(solution.contains("A"));
+		assertFalse(solution.contains("B"));
+	}
+
 	@Test
 	public void problemAymericHervieu() {
 		final String ctr = "(C => A) & (E => C) & (G => C) & (D => A) & (F => C) & (C => A) & "
@@ -0,0 +1,161 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link IncrementalConditionallyCoreDeadAnalysis}.
+ */
+public class IncrementalConditionallyCoreDeadAnalysisTests {
+
+	private static final int NUMBER_OF_VARIABLES = 16;
+
+	@Test
+	public void testOccurrences() {
+		final List<String> variables = Arrays.asList("A", "B", "C");
+		final Node cnf = new And(new Or(new Literal("A"), new Literal("B")), new Or(new Literal("B", false), new Literal("C")), new Or(new Literal("A", false)),
+				new Or(new Literal("C"), new Literal("C")));
+		final int[][] occurrences = IncrementalConditionallyCoreDeadAnalysis.computeOccurrences(new SatInstance(cnf, variables));
+		assertArrayEquals(new int[0], occurrences[0]);
+		assertArrayEquals(new int[] { 0, 2 }, occurrences[1]);
+		assertArrayEquals(new int[] { 0, 1 }, occurrences[2]);
+		assertArrayEquals(new int[] { 1, 3 }, occurrences[3]);
+	}
+
+	@Test
+	public void testAddedAssumptionOnlyChecksConnectedVariables() throws ContradictionException {
+		final List<String> variables = Arrays.asList("A", "B", "C", "D");
+		// A and B are independent of C and D
+		final Node cnf = new And(new Or(new Literal("A", false), new Literal("B")), new Or(new Literal("C", false), new Literal("D"), new Literal("B")));
+		final BasicSolver solver = new BasicSolver(new SatInstance(cnf, variables));
+		final int[][] occurrences = IncrementalConditionallyCoreDeadAnalysis.computeOccurrences(solver.getSatInstance());
+
+		final IncrementalConditionallyCoreDeadAnalysis first = new IncrementalConditionallyCoreDeadAnalysis(solver, occurrences, null, null);
+		first.setAssumptions(new int[] { 1 });
+		final int[] firstResult = LongRunningWrapper.runMethod(first);
+		assertArrayEquals(new int[] { 2 }, firstResult);
+
+		// B is already selected, so the second clause is satisfied and C is not connected to D anymore
+		final IncrementalConditionallyCoreDeadAnalysis second = new IncrementalConditionallyCoreDeadAnalysis(solver, occurrences, new int[] { 1 }, firstResult);
+		second.setAssumptions(new int[] { 1, 3 });
+		assertArrayEquals(new int[] { 2 }, LongRunningWrapper.runMethod(second));
+		assertEquals(0, second.getNumberOfCandidates());
+	}
+
+	@Test
+	public void testRandomEdits() throws ContradictionException {
+		final Random random = new Random(0);
+		final List<String> variables = new ArrayList<>();
+		for (int i = 1; i <= NUMBER_OF_VARIABLES; i++) {
+			variables.add("V" + i);
+		}
+		for (int round = 0; round < 10; round++) {
+			final Node cnf = randomCnf(random, variables);
+			final BasicSolver solver = new BasicSolver(new SatInstance(cnf, variables));
+			final int[][] occurrences = IncrementalConditionallyCoreDeadAnalysis.computeOccurrences(solver.getSatInstance());
+
+			final Map<Integer, Integer> assumptions = new LinkedHashMap<>();
+			int[] previousAssumptions = null;
+			int[] previousResult = null;
+			for (int i = 0; i < 50; i++) {
+				final int var = random.nextInt(NUMBER_OF_VARIABLES) + 1;
+				switch (random.nextInt(3)) {
+				case 0:
+					assumptions.remove(var);
+					break;
+				default:
+					assumptions.put(var, random.nextBoolean() ? var : -var);
+					break;
+				}
+				final int[] currentAssumptions = toArray(assumptions);
+
+				final IncrementalConditionallyCoreDeadAnalysis analysis =
+					new IncrementalConditionallyCoreDeadAnalysis(solver, occurrences, previousAssumptions, previousResult);
+				analysis.setAssumptions(currentAssumptions);
+				final int[] actual = LongRunningWrapper.runMethod(analysis);
+
+				final ConditionallyCoreDeadAnalysis fullAnalysis = new ConditionallyCoreDeadAnalysis(solver);
+				fullAnalysis.setAssumptions(currentAssumptions);
+				final int[] expected = LongRunningWrapper.runMethod(fullAnalysis);
+
+				Arrays.sort(actual);
+				Arrays.sort(expected);
+				assertArrayEquals(expected, actual);
+				assertTrue(analysis.getNumberOfCandidates() <= NUMBER_OF_VARIABLES);
+
+				if (analysis.isSatisfiable()) {
+					previousAssumptions = currentAssumptions;
+					previousResult = actual;
+				} else {
+					previousAssumptions = null;
+					previousResult = null;
+				}
+			}
+		}
+	}
+
+	private static int[] toArray(Map<Integer, Integer> assumptions) {
+		final int[] array = new int[assumptions.size()];
+		int i = 0;
+		for (final int literal : assumptions.values()) {
+			array[i++] = literal;
+		}
+		return array;
+	}
+
+	private static Node randomCnf(Random random, List<String> variables) {
+		final List<Node> clauses = new ArrayList<>();
+		// a tree-like structure
+		for (int i = 1; i < variables.size(); i++) {
+			clauses.add(new Or(new Literal(variables.get(i), false), new Literal(variables.get(random.nextInt(i)))));
+		}
+		for (int i = 0; i < 6; i++) {
+			final Node[] literals = new Node[2 + random.nextInt(2)];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = new Literal(variables.get(random.nextInt(variables.size())), random.nextBoolean());
+			}
+			clauses.add(new Or(literals));
+		}
+		return new And(clauses.toArray(new Node[0]));
+	}
+
+}
@@ -0,0 +1,146 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link IncrementalCoreDeadAnalysis}.
+ */
+public class IncrementalCoreDeadAnalysisTests {
+
+	private static final List<String> VARIABLES = Arrays.asList("A", "B", "C", "D", "E");
+
+	private static final Node STRUCTURE = new And(new Or(new Literal("A")), new Or(new Literal("B", false), new Literal("A")),
+			new Or(new Literal("C", false), new Literal("A")), new Or(new Literal("D", false), new Literal("B")));
+
+	@Test
+	public void testStructureOnly() throws ContradictionException {
+		final IncrementalCoreDeadAnalysis analysis = new IncrementalCoreDeadAnalysis(new SatInstance(STRUCTURE, VARIABLES));
+		assertBackbone(analysis, new LinkedHashMap<Object, Node>());
+	}
+
+	@Test
+	public void testAddConstraint() throws ContradictionException {
+		final IncrementalCoreDeadAnalysis analysis = new IncrementalCoreDeadAnalysis(new SatInstance(STRUCTURE, VARIABLES));
+		final Map<Object, Node> constraints = new LinkedHashMap<>();
+		assertBackbone(analysis, constraints);
+		constraints.put("c1", new And(new Or(new Literal("D"))));
+		assertBackbone(analysis, constraints);
+		constraints.put("c2", new And(new Or(new Literal("C", false), new Literal("E", false)), new Or(new Literal("E"))));
+		assertBackbone(analysis, constraints);
+	}
+
+	@Test
+	public void testRemoveConstraint() throws ContradictionException {
+		final IncrementalCoreDeadAnalysis analysis = new IncrementalCoreDeadAnalysis(new SatInstance(STRUCTURE, VARIABLES));
+		final Map<Object, Node> constraints = new LinkedHashMap<>();
+		constraints.put("c1", new And(new Or(new Literal("D"))));
+		constraints.put("c2", new And(new Or(new Literal("C", false), new Literal("E", false)), new Or(new Literal("E"))));
+		assertBackbone(analysis, constraints);
+		constraints.remove("c1");
+		assertBackbone(analysis, constraints);
+		constraints.remove("c2");
+		assertBackbone(analysis, constraints);
+	}
+
+	@Test
+	public void testModifyConstraint() throws ContradictionException {
+		final IncrementalCoreDeadAnalysis analysis = new IncrementalCoreDeadAnalysis(new SatInstance(STRUCTURE, VARIABLES));
+		final Map<Object, Node> constraints = new LinkedHashMap<>();
+		constraints.put("c1", new And(new Or(new Literal("D"))));
+		assertBackbone(analysis, constraints);
+		constraints.put("c1", new And(new Or(new Literal("D", false))));
+		assertBackbone(analysis, constraints);
+	}
+
+	@Test
+	public void testVoidModel() throws ContradictionException {
+		final IncrementalCoreDeadAnalysis analysis = new IncrementalCoreDeadAnalysis(new SatInstance(STRUCTURE, VARIABLES));
+		final Map<Object, Node> constraints = new LinkedHashMap<>();
+		constraints.put("c1", new And(new Or(new Literal("A", false))));
+		analysis.setConstraints(constraints);
+		assertArrayEquals(new int[0], LongRunningWrapper.runMethod(analysis));
+		constraints.remove("c1");
+		assertBackbone(analysis, constraints);
+	}
+
+	@Test
+	public void testRandomEdits() throws ContradictionException {
+		final Random random = new Random(0);
+		final IncrementalCoreDeadAnalysis analysis = new IncrementalCoreDeadAnalysis(new SatInstance(STRUCTURE, VARIABLES));
+		final Map<Object, Node> constraints = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			final String key = "c" + random.nextInt(6);
+			if (random.nextInt(3) == 0) {
+				constraints.remove(key);
+			} else {
+				constraints.put(key, new And(randomClause(random), randomClause(random)));
+			}
+			assertBackbone(analysis, constraints);
+		}
+	}
+
+	private static Node randomClause(Random random) {
+		return new Or(new Literal(VARIABLES.get(random.nextInt(VARIABLES.size())), random.nextBoolean()),
+				new Literal(VARIABLES.get(random.nextInt(VARIABLES.size())), random.nextBoolean()));
+	}
+
+	private static void assertBackbone(IncrementalCoreDeadAnalysis analysis, Map<Object, Node> constraints) {
+		analysis.setConstraints(constraints);
+		final int[] actual = LongRunningWrapper.runMethod(analysis);
+
+		final List<Node> clauses = new ArrayList<>(Arrays.asList(STRUCTURE.getChildren()));
+		for (final Node constraint : constraints.values()) {
+			clauses.addAll(Arrays.asList(constraint.getChildren()));
+		}
+		int[] expected;
+		try {
+			final BasicSolver solver = new BasicSolver(new SatInstance(new And(clauses.toArray(new Node[0])), VARIABLES));
+			expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(solver));
+		} catch (final ContradictionException e) {
+			expected = new int[0];
+		}
+
+		Arrays.sort(actual);
+		Arrays.sort(expected);
+		assertArrayEquals(expected, actual);
+	}
+
+}
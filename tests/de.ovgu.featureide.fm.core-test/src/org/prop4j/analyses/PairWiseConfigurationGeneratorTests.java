@@ -0,0 +1,115 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.solver.ClauseArena;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link PairWiseConfigurationGenerator}.
+ */
+public class PairWiseConfigurationGeneratorTests {
+
+	private static final int NUMBER_OF_VARIABLES = 10;
+
+	private static final List<String> VARIABLES = RandomClauses.getVariables(NUMBER_OF_VARIABLES);
+
+	private static final int MAX_CONFIGURATIONS = 1000;
+
+	private static ClauseArena createRandomClauses(Random random) {
+		return RandomClauses.createRandomClauses(random, NUMBER_OF_VARIABLES, 8, 2, 3);
+	}
+
+	private static Set<String> getPairs(boolean[] selection) {
+		final Set<String> pairs = new HashSet<>();
+		for (int a = 0; a < selection.length; a++) {
+			for (int b = a + 1; b < selection.length; b++) {
+				pairs.add((selection[a] ? "+" : "-") + a + (selection[b] ? "+" : "-") + b);
+			}
+		}
+		return pairs;
+	}
+
+	private static Set<String> getValidPairs(ClauseArena clauses) {
+		final Set<String> validPairs = new HashSet<>();
+		for (int solution = 0; solution < (1 << NUMBER_OF_VARIABLES); solution++) {
+			final boolean[] selection = RandomClauses.getSelection(solution, NUMBER_OF_VARIABLES);
+			if (RandomClauses.isSolution(clauses, selection)) {
+				validPairs.addAll(getPairs(selection));
+			}
+		}
+		return validPairs;
+	}
+
+	private static Set<String> getCoveredPairs(List<List<String>> configurations) {
+		final Set<String> coveredPairs = new HashSet<>();
+		for (final List<String> configuration : configurations) {
+			coveredPairs.addAll(getPairs(RandomClauses.getSelection(configuration, NUMBER_OF_VARIABLES)));
+		}
+		return coveredPairs;
+	}
+
+	private static List<List<String>> generate(ClauseArena clauses, int numberOfThreads, long seed) {
+		final PairWiseConfigurationGenerator generator =
+			new PairWiseConfigurationGenerator(new SatInstance(clauses, VARIABLES), MAX_CONFIGURATIONS);
+		generator.setNumberOfThreads(numberOfThreads);
+		generator.setSeed(seed);
+		return LongRunningWrapper.runMethod(generator);
+	}
+
+	@Test
+	public void testCoverage() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 20; i++) {
+			final ClauseArena clauses = createRandomClauses(random);
+			final Set<String> validPairs = getValidPairs(clauses);
+			if (validPairs.isEmpty()) {
+				continue;
+			}
+			for (final int numberOfThreads : new int[] { 1, 4 }) {
+				final List<List<String>> configurations = generate(clauses, numberOfThreads, i);
+				assertTrue(configurations.size() < MAX_CONFIGURATIONS);
+				assertEquals(validPairs, getCoveredPairs(configurations));
+			}
+		}
+	}
+
+	@Test
+	public void testDeterministicWithSeed() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 10; i++) {
+			final ClauseArena clauses = createRandomClauses(random);
+			assertEquals(generate(clauses, 4, 42), generate(clauses, 4, 42));
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.prop4j.solver.ClauseArena;
+
+/**
+ * Random CNF formulas over the variables <i>x1</i> to <i>xn</i> for the tests of the configuration generators.</br> The formulas are small enough to
+ * enumerate all assignments and compare them with the generated configurations.
+ */
+final class RandomClauses {
+
+	private RandomClauses() {}
+
+	static List<String> getVariables(int numberOfVariables) {
+		final List<String> variables = new ArrayList<>();
+		for (int i = 1; i <= numberOfVariables; i++) {
+			variables.add("x" + i);
+		}
+		return variables;
+	}
+
+	/**
+	 * @param random the source of randomness
+	 * @param numberOfVariables the number of variables
+	 * @param numberOfClauses the number of clauses
+	 * @param minLength the minimal number of literals per clause
+	 * @param maxLength the maximal number of literals per clause
+	 * @return A new formula with random literals.
+	 */
+	static ClauseArena createRandomClauses(Random random, int numberOfVariables, int numberOfClauses, int minLength, int maxLength) {
+		final ClauseArena clauses = new ClauseArena();
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int length = minLength + random.nextInt((maxLength - minLength) + 1);
+			for (int j = 0; j < length; j++) {
+				final int variable = 1 + random.nextInt(numberOfVariables);
+				clauses.addLiteral(random.nextBoolean() ? variable : -variable);
+			}
+			clauses.finishClause();
+		}
+		return clauses;
+	}
+
+	/**
+	 * @param assignment the assignment encoded as bits, where bit <i>i</i> is the value of variable <i>x(i+1)</i>
+	 * @param numberOfVariables the number of variables
+	 * @return The selection of each variable.
+	 */
+	static boolean[] getSelection(int assignment, int numberOfVariables) {
+		final boolean[] selection = new boolean[numberOfVariables];
+		for (int i = 0; i < numberOfVariables; i++) {
+			selection[i] = (assignment & (1 << i)) != 0;
+		}
+		return selection;
+	}
+
+	/**
+	 * @param configuration the names of the selected variables
+	 * @param numberOfVariables the number of variables
+	 * @return The selection of each variable.
+	 */
+	static boolean[] getSelection(List<String> configuration, int numberOfVariables) {
+		final boolean[] selection = new boolean[numberOfVariables];
+		for (final String variable : configuration) {
+			selection[Integer.parseInt(variable.substring(1)) - 1] = true;
+		}
+		return selection;
+	}
+
+	static boolean isSolution(ClauseArena clauses, boolean[] selection) {
+		clauseLoop: for (int i = 0; i < clauses.size(); i++) {
+			for (int j = 0; j < clauses.getClauseLength(i); j++) {
+				final int literal = clauses.getLiteral(i, j);
+				if (selection[Math.abs(literal) - 1] == (literal > 0)) {
+					continue clauseLoop;
+				}
+			}
+			return false;
+		}
+		return true;
+	}
+
+}
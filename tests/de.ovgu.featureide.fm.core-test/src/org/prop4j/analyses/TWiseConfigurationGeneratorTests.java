@@ -0,0 +1,141 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.solver.ClauseArena;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link TWiseConfigurationGenerator} and {@link InteractionBitSet}.
+ */
+public class TWiseConfigurationGeneratorTests {
+
+	private static final int NUMBER_OF_VARIABLES = 8;
+
+	private static final List<String> VARIABLES = RandomClauses.getVariables(NUMBER_OF_VARIABLES);
+
+	private static ClauseArena createRandomClauses(Random random) {
+		return RandomClauses.createRandomClauses(random, NUMBER_OF_VARIABLES, 6, 1, 3);
+	}
+
+	private static void addInteractions(Set<String> interactions, boolean[] selection, int t, int start, String prefix) {
+		if (t == 0) {
+			interactions.add(prefix);
+			return;
+		}
+		for (int i = start; i < selection.length; i++) {
+			addInteractions(interactions, selection, t - 1, i + 1, prefix + (selection[i] ? "+" : "-") + i);
+		}
+	}
+
+	private static Set<String> getValidInteractions(ClauseArena clauses, int t) {
+		final Set<String> interactions = new HashSet<>();
+		for (int solution = 0; solution < (1 << NUMBER_OF_VARIABLES); solution++) {
+			final boolean[] selection = RandomClauses.getSelection(solution, NUMBER_OF_VARIABLES);
+			if (RandomClauses.isSolution(clauses, selection)) {
+				addInteractions(interactions, selection, t, 0, "");
+			}
+		}
+		return interactions;
+	}
+
+	private static Set<String> getCoveredInteractions(ClauseArena clauses, List<List<String>> configurations, int t) {
+		final Set<String> interactions = new HashSet<>();
+		for (final List<String> configuration : configurations) {
+			final boolean[] selection = RandomClauses.getSelection(configuration, NUMBER_OF_VARIABLES);
+			assertTrue(RandomClauses.isSolution(clauses, selection));
+			addInteractions(interactions, selection, t, 0, "");
+		}
+		return interactions;
+	}
+
+	@Test
+	public void testCoverage() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 30; i++) {
+			final ClauseArena clauses = createRandomClauses(random);
+			for (int t = 1; t <= 4; t++) {
+				final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(new SatInstance(clauses, VARIABLES), t, Integer.MAX_VALUE);
+				// every second run completes each configuration after the first unsuccessful solver call
+				generator.setMaxFailedChecks((i % 2) == 0 ? 1000 : 1);
+				List<List<String>> configurations = LongRunningWrapper.runMethod(generator);
+				if (configurations == null) {
+					// unsatisfiable formula
+					configurations = Collections.emptyList();
+				}
+				assertEquals(getValidInteractions(clauses, t), getCoveredInteractions(clauses, configurations, t));
+			}
+		}
+	}
+
+	@Test
+	public void testMaxNumber() {
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(new SatInstance(new ClauseArena(), VARIABLES), 3, 2);
+		assertEquals(2, LongRunningWrapper.runMethod(generator).size());
+	}
+
+	@Test
+	public void testInteractionIndex() {
+		final InteractionBitSet interactions = new InteractionBitSet(9, 3);
+		assertEquals(84 * 8, interactions.size());
+		final int[] combination = new int[3];
+		long expectedIndex = 0;
+		for (int c2 = 2; c2 < 9; c2++) {
+			for (int c1 = 1; c1 < c2; c1++) {
+				for (int c0 = 0; c0 < c1; c0++) {
+					for (int selection = 0; selection < 8; selection++) {
+						final long index = interactions.getIndex(new int[] { c0, c1, c2 }, selection);
+						assertEquals(expectedIndex++, index);
+						assertEquals(selection, interactions.getInteraction(index, combination));
+						assertArrayEquals(new int[] { c0, c1, c2 }, combination);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSetAll() {
+		final InteractionBitSet interactions = new InteractionBitSet(10, 3);
+		final boolean[] selection = new boolean[10];
+		assertEquals(120, interactions.setAll(selection));
+		assertEquals(0, interactions.setAll(selection));
+		assertEquals(1, interactions.nextClearBit(0));
+		selection[0] = true;
+		assertEquals(36, interactions.setAll(selection));
+		assertEquals(156, interactions.cardinality());
+		assertEquals(-1, new InteractionBitSet(1, 1).nextClearBit(2));
+	}
+
+}
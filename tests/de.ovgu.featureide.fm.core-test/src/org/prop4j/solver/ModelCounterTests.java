@@ -0,0 +1,136 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link ModelCounter}.
+ */
+public class ModelCounterTests {
+
+	private static SatInstance createInstance(int numberOfVariables, ClauseArena clauses) {
+		final List<String> variables = new ArrayList<>();
+		for (int i = 1; i <= numberOfVariables; i++) {
+			variables.add("x" + i);
+		}
+		return new SatInstance(clauses, variables);
+	}
+
+	private static long countBruteForce(int numberOfVariables, ClauseArena clauses, int[] assumptions) {
+		long count = 0;
+		solutionLoop: for (int solution = 0; solution < (1 << numberOfVariables); solution++) {
+			for (final int literal : assumptions) {
+				if (isFalse(solution, literal)) {
+					continue solutionLoop;
+				}
+			}
+			clauseLoop: for (int i = 0; i < clauses.size(); i++) {
+				for (int j = 0; j < clauses.getClauseLength(i); j++) {
+					if (!isFalse(solution, clauses.getLiteral(i, j))) {
+						continue clauseLoop;
+					}
+				}
+				continue solutionLoop;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	private static boolean isFalse(int solution, int literal) {
+		final boolean value = (solution & (1 << (Math.abs(literal) - 1))) != 0;
+		return value != (literal > 0);
+	}
+
+	@Test
+	public void testEmptyFormula() throws TimeoutException {
+		final ModelCounter counter = new ModelCounter(createInstance(70, new ClauseArena()));
+		assertEquals(BigInteger.ONE.shiftLeft(70), counter.count(null, new NullMonitor()));
+	}
+
+	@Test
+	public void testContradiction() throws TimeoutException {
+		final ClauseArena clauses = new ClauseArena();
+		clauses.addClause(1, 2);
+		clauses.addClause(-1);
+		clauses.addClause(-2);
+		final ModelCounter counter = new ModelCounter(createInstance(3, clauses));
+		assertEquals(BigInteger.ZERO, counter.count(null, new NullMonitor()));
+	}
+
+	@Test
+	public void testAssumptions() throws TimeoutException {
+		final ClauseArena clauses = new ClauseArena();
+		clauses.addClause(-1, 2);
+		clauses.addClause(-2, 3);
+		final ModelCounter counter = new ModelCounter(createInstance(4, clauses));
+		assertEquals(BigInteger.valueOf(8), counter.count(null, new NullMonitor()));
+		assertEquals(BigInteger.valueOf(2), counter.count(new int[] { 1 }, new NullMonitor()));
+		assertEquals(BigInteger.ZERO, counter.count(new int[] { 1, -3 }, new NullMonitor()));
+		assertEquals(BigInteger.valueOf(8), counter.count(new int[0], new NullMonitor()));
+	}
+
+	@Test
+	public void testRandomFormulas() throws TimeoutException {
+		final Random random = new Random(0);
+		for (int run = 0; run < 200; run++) {
+			final int numberOfVariables = 1 + random.nextInt(12);
+			final ClauseArena clauses = new ClauseArena();
+			final int numberOfClauses = random.nextInt(3 * numberOfVariables);
+			for (int i = 0; i < numberOfClauses; i++) {
+				final int[] clause = new int[1 + random.nextInt(3)];
+				for (int j = 0; j < clause.length; j++) {
+					clause[j] = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+				}
+				clauses.addClause(clause);
+			}
+			final int[] assumptions = random.nextBoolean() ? new int[0] : new int[] { (1 + random.nextInt(numberOfVariables)) };
+
+			final ModelCounter counter = new ModelCounter(createInstance(numberOfVariables, clauses));
+			final long expected = countBruteForce(numberOfVariables, clauses, assumptions);
+			assertEquals(BigInteger.valueOf(expected), counter.count(assumptions, new NullMonitor()));
+			assertEquals(BigInteger.valueOf(expected), counter.count(assumptions, new NullMonitor()));
+		}
+	}
+
+	@Test
+	public void testSmallCache() throws TimeoutException {
+		final ClauseArena clauses = new ClauseArena();
+		for (int i = 1; i < 40; i += 2) {
+			clauses.addClause(i, i + 1);
+		}
+		final ModelCounter counter = new ModelCounter(createInstance(40, clauses));
+		counter.setCacheSize(0);
+		assertEquals(BigInteger.valueOf(3).pow(20), counter.count(null, new NullMonitor()));
+	}
+
+}
@@ -0,0 +1,119 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.sat4j.specs.ContradictionException;
+
+/**
+ * Tests for {@link SatInstance}, {@link VariableMap} and {@link ClauseArena}.
+ */
+public class SatInstanceTests {
+
+	private static final List<String> VARIABLES = Arrays.asList("A", "B", "C");
+
+	private static final Node CNF = new And(new Or(new Literal("A")), new Or(new Literal("B", false), new Literal("A")),
+			new Or(new Literal("C", false), new Literal("A"), new Literal("B")));
+
+	@Test
+	public void testVariableMap() {
+		final VariableMap map = new VariableMap(1);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i + 1, map.add("v" + i));
+		}
+		assertEquals(1000, map.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i + 1, map.get("v" + i));
+			assertEquals(i + 1, map.add("v" + i));
+			assertEquals("v" + i, map.getVariableObject(-(i + 1)));
+		}
+		assertEquals(0, map.get("v1000"));
+		assertEquals(1000, map.size());
+	}
+
+	@Test
+	public void testClauseArena() {
+		final ClauseArena clauses = new ClauseArena(1, 1);
+		clauses.addClause(1, -2);
+		clauses.addLiteral(3);
+		assertEquals(1, clauses.finishClause());
+		clauses.addClause();
+		clauses.addClause(-1, 2, -3);
+
+		assertEquals(4, clauses.size());
+		assertEquals(6, clauses.getNumberOfLiterals());
+		assertArrayEquals(new int[] { 1, -2 }, clauses.getClause(0));
+		assertArrayEquals(new int[] { 3 }, clauses.getClause(1));
+		assertEquals(0, clauses.getClauseLength(2));
+		assertEquals(2, clauses.getLiteral(3, 1));
+	}
+
+	@Test
+	public void testNodeToClauses() {
+		final SatInstance instance = new SatInstance(CNF, VARIABLES);
+		final ClauseArena clauses = instance.getClauses();
+		assertSame(clauses, instance.getClauses());
+		assertEquals(3, clauses.size());
+		assertArrayEquals(new int[] { 1 }, clauses.getClause(0));
+		assertArrayEquals(new int[] { -2, 1 }, clauses.getClause(1));
+		assertArrayEquals(new int[] { -3, 1, 2 }, clauses.getClause(2));
+	}
+
+	@Test
+	public void testClausesToNode() {
+		final ClauseArena clauses = new ClauseArena();
+		clauses.addClause(1);
+		clauses.addClause(-2, 1);
+		clauses.addClause(-3, 1, 2);
+		final SatInstance instance = new SatInstance(clauses, VARIABLES);
+		assertEquals(3, instance.getNumberOfClauses());
+		assertEquals(CNF, instance.getCnf());
+	}
+
+	@Test
+	public void testSolverFromClauses() throws ContradictionException {
+		final ClauseArena clauses = new ClauseArena();
+		clauses.addClause(1);
+		clauses.addClause(-2, 1);
+		clauses.addClause(-3, -1);
+		final BasicSolver solver = new BasicSolver(new SatInstance(clauses, VARIABLES));
+		final int[] model = solver.findModel();
+		final List<Integer> literals = new ArrayList<>();
+		for (final int literal : model) {
+			literals.add(literal);
+		}
+		assertEquals(true, literals.contains(1));
+		assertEquals(true, literals.contains(-3));
+	}
+
+}
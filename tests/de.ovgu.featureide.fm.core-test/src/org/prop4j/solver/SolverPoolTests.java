@@ -0,0 +1,112 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.analyses.ConditionallyCoreDeadAnalysis;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link SolverPool}.
+ */
+public class SolverPoolTests {
+
+	private static final List<String> VARIABLES = Arrays.asList("A", "B", "C");
+
+	private static final Node CNF = new And(new Or(new Literal("A")), new Or(new Literal("B", false), new Literal("A")),
+			new Or(new Literal("C", false), new Literal("B", false)));
+
+	@Test
+	public void testReuse() throws ContradictionException {
+		final SolverPool pool = new SolverPool(new SatInstance(CNF, VARIABLES));
+		final BasicSolver solver = pool.borrow();
+		solver.assignmentPush(2);
+		solver.initSolutionList(1);
+		solver.shuffleOrder();
+		assertEquals(SatResult.TRUE, solver.isSatisfiable());
+		pool.release(solver);
+		assertEquals(1, pool.getNumberOfIdleSolvers());
+
+		final BasicSolver reusedSolver = pool.borrow();
+		assertSame(solver, reusedSolver);
+		assertEquals(0, reusedSolver.getAssignment().size());
+		assertEquals(0, reusedSolver.getNumberOfSolutions());
+		assertEquals(Arrays.asList(1, 2, 3), Arrays.asList(reusedSolver.getOrder()[0], reusedSolver.getOrder()[1], reusedSolver.getOrder()[2]));
+		reusedSolver.assignmentPush(2);
+		reusedSolver.assignmentPush(3);
+		assertEquals(SatResult.FALSE, reusedSolver.isSatisfiable());
+		pool.release(reusedSolver);
+	}
+
+	@Test
+	public void testConcurrentBorrow() throws ContradictionException {
+		final SolverPool pool = new SolverPool(new SatInstance(CNF, VARIABLES), 1);
+		final BasicSolver solver1 = pool.borrow();
+		final BasicSolver solver2 = pool.borrow();
+		assertNotSame(solver1, solver2);
+		pool.release(solver1);
+		pool.release(solver2);
+		assertEquals(1, pool.getNumberOfIdleSolvers());
+	}
+
+	@Test
+	public void testInvalidate() throws ContradictionException {
+		final SolverPool pool = new SolverPool(new SatInstance(CNF, VARIABLES));
+		final BasicSolver borrowedSolver = pool.borrow();
+		pool.release(pool.borrow());
+		pool.invalidate();
+		assertEquals(0, pool.getNumberOfIdleSolvers());
+		pool.release(borrowedSolver);
+		assertEquals(0, pool.getNumberOfIdleSolvers());
+		pool.release(new BasicSolver(pool.getSatInstance()));
+		assertEquals(0, pool.getNumberOfIdleSolvers());
+	}
+
+	@Test
+	public void testAnalysisWithPooledSolver() throws ContradictionException {
+		final SolverPool pool = new SolverPool(new SatInstance(CNF, VARIABLES));
+		for (int i = 0; i < 3; i++) {
+			final BasicSolver solver = pool.borrow();
+			final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(solver);
+			analysis.setAssumptions(new int[] { 2 });
+			final int[] result = LongRunningWrapper.runMethod(analysis);
+			Arrays.sort(result);
+			assertEquals(Arrays.asList(-3, 1), Arrays.asList(result[0], result[1]));
+			pool.release(solver);
+		}
+		assertEquals(1, pool.getNumberOfIdleSolvers());
+	}
+
+}
@@ -0,0 +1,279 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.transform;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import org.prop4j.Node;
+import org.prop4j.solver.ClauseArena;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ISolver;
+
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsStreamReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsStreamWriter;
+import de.ovgu.featureide.fm.core.io.dimacs.SatInstanceSink;
+import de.ovgu.featureide.fm.core.io.dimacs.SolverSink;
+
+/**
+ * Tests for {@link DimacsStreamReader} and {@link DimacsStreamWriter}.
+ */
+public class DimacsStreamReaderTests {
+
+	private static final String[] INPUTS = { //
+		"p cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2 1 -3 0 2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n\n\n \n \n\n2 3 -1 0", //
+		"p cnf 3 2\r\n1\r\n-3 0\r\n2 3 -1 0\r\n", //
+		"p\tcnf\t3\t2\n1\t-3\t0\t\n2\t3\t-1\t0", //
+		"  p cnf 3 2\n  " + "  1 -3 0  \n" + "  2 3 -1 0  ", //
+		"p\n  cnf\n    3\n    2\n  1 -3 0\n  2 3 -1 0", //
+		"c Hello!\nc\nc \np cnf 3 2\nc middle\n1 -3 0\nc more\n2 3 -1 0\nc Bye!", //
+		"cWhere is my space?p cnf 3 2\n1 -3 0\n2 3 -1 0\n", //
+		"p cnf 3 2\n1 c inline -3 0\n2 3 -1 0", //
+		"p cnf c comment\n3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1 0\nBye, correctness!", //
+		"P cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p CNF 3 2\n1 -3 0\n2 3 -1 0", //
+		"C comment\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1\nc comment", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1\nc comment\nby trailing data", //
+		"cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 0 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf -3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 4 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 2 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 0\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 3\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 1\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3x -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3 - 1 0", //
+		"", //
+		"p cnf 0 0", //
+		"1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1 0\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n11 -13 0\n12 13 -11 0", //
+		"p cnf 3 2\n1 -4 0\n2 4 -1 0", //
+		"p cnf 1 2\n1 -1 0\n1 1 -1 0", //
+	};
+
+	private static final String[] DIRECTORY_INPUTS = { //
+		"c 1 Foo\nc 2 Bar\nc 3 Baz\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 1 Variable\twith\twhitespace\nc 2  \nc 3   Surrounding whitespace  \np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 1\nc 2 \nc\t\t3 c 3 Foo\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 3 Baz\nc 2 Bar\nc 1 Foo\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 1 Foo\nc 1 Overwritten\nc 2 Bar\nc 3 Baz\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\nc 1 Foo\nc 2 Bar\nc 3 Baz\n1 -3 0\n2 3 -1 0", //
+		"c 1 Foo\nc 2 Bar\np cnf 3 2\nc 3 Baz\n1 -3 0\n2 3 -1 0", //
+		"c 1 Foo\nc 2 Bar\np cnf 3 2\n1 -3 0\nc 3 Baz\n2 3 -1 0", //
+		"c 1 Föö\nc 2 Bär\nc 3 Baz\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+	};
+
+	@Test
+	public void testSameAsDimacsReader() throws IOException {
+		for (final String input : INPUTS) {
+			assertSameResult(input, false);
+		}
+	}
+
+	@Test
+	public void testVariableDirectorySameAsDimacsReader() throws IOException {
+		for (final String input : DIRECTORY_INPUTS) {
+			assertSameResult(input, true);
+		}
+	}
+
+	@Test
+	public void testSequential() throws ParseException, IOException {
+		final DimacsStreamReader reader = new DimacsStreamReader();
+		final Node expected = new DimacsReader().read(INPUTS[0]);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(expected, read(reader, INPUTS[0].getBytes(StandardCharsets.UTF_8)).getCnf());
+		}
+	}
+
+	@Test
+	public void testGzip() throws ParseException, IOException {
+		final byte[] plain = INPUTS[7].getBytes(StandardCharsets.UTF_8);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+			gzipOut.write(plain);
+		}
+		final DimacsStreamReader reader = new DimacsStreamReader();
+		assertEquals(read(reader, plain).getCnf(), read(reader, out.toByteArray()).getCnf());
+	}
+
+	@Test
+	public void testFile() throws ParseException, IOException {
+		final SatInstance expected = createRandomInstance(new Random(0), 200, 2000);
+		final Path directory = Files.createTempDirectory("dimacs");
+		try {
+			final Path plainFile = directory.resolve("random.dimacs");
+			final Path gzipFile = directory.resolve("random.dimacs.gz");
+			final DimacsStreamWriter writer = new DimacsStreamWriter();
+			writer.setWritingVariableDirectory(true);
+			writer.write(expected, plainFile);
+			writer.write(expected, gzipFile);
+			assertTrue(Files.size(gzipFile) < Files.size(plainFile));
+
+			final DimacsStreamReader reader = new DimacsStreamReader();
+			reader.setReadingVariableDirectory(true);
+			assertSameInstance(expected, reader.read(plainFile));
+			assertSameInstance(expected, reader.read(gzipFile));
+		} finally {
+			for (final String fileName : directory.toFile().list()) {
+				Files.delete(directory.resolve(fileName));
+			}
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws ParseException, IOException {
+		final Random random = new Random(1);
+		for (int i = 0; i < 20; i++) {
+			final SatInstance expected = createRandomInstance(random, 1 + random.nextInt(50), 1 + random.nextInt(200));
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			final DimacsStreamWriter writer = new DimacsStreamWriter();
+			writer.setWritingVariableDirectory(true);
+			writer.write(expected, out);
+			final DimacsStreamReader reader = new DimacsStreamReader();
+			reader.setReadingVariableDirectory(true);
+			assertSameInstance(expected, read(reader, out.toByteArray()));
+		}
+	}
+
+	@Test
+	public void testReadableByDimacsReader() throws ParseException, IOException {
+		final SatInstance satInstance = createRandomInstance(new Random(2), 20, 50);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final DimacsStreamWriter writer = new DimacsStreamWriter();
+		writer.setWritingVariableDirectory(true);
+		writer.write(satInstance, out);
+		final DimacsReader reader = new DimacsReader();
+		reader.setReadingVariableDirectory(true);
+		assertEquals(satInstance.getCnf(), reader.read(new String(out.toByteArray(), StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void testSolverSink() throws ParseException, IOException {
+		final SolverSink satisfiableSink = new SolverSink(SolverFactory.newDefault());
+		new DimacsStreamReader().read(new ByteArrayInputStream(INPUTS[0].getBytes(StandardCharsets.UTF_8)), satisfiableSink);
+		assertFalse(satisfiableSink.isContradiction());
+		final ISolver solver = satisfiableSink.getSolver();
+		assertEquals(3, solver.nVars());
+		assertEquals(2, solver.nConstraints());
+
+		final SolverSink contradictionSink = new SolverSink(SolverFactory.newDefault());
+		new DimacsStreamReader().read(new ByteArrayInputStream("p cnf 1 2\n1 0\n-1 0".getBytes(StandardCharsets.UTF_8)), contradictionSink);
+		assertTrue(contradictionSink.isContradiction());
+	}
+
+	private static void assertSameResult(String input, boolean variableDirectory) throws IOException {
+		final DimacsReader reader = new DimacsReader();
+		reader.setReadingVariableDirectory(variableDirectory);
+		Node expected;
+		try {
+			expected = reader.read(input);
+		} catch (final ParseException e) {
+			expected = null;
+		}
+
+		final DimacsStreamReader streamReader = new DimacsStreamReader();
+		streamReader.setReadingVariableDirectory(variableDirectory);
+		try {
+			final Node actual = read(streamReader, input.getBytes(StandardCharsets.UTF_8)).getCnf();
+			if (expected == null) {
+				fail("Expected ParseException for: " + input);
+			}
+			assertEquals(input, expected, actual);
+		} catch (final ParseException e) {
+			if (expected != null) {
+				fail("Unexpected ParseException (" + e.getMessage() + ") for: " + input);
+			}
+		}
+	}
+
+	private static SatInstance read(DimacsStreamReader reader, byte[] input) throws ParseException, IOException {
+		final SatInstanceSink sink = new SatInstanceSink();
+		reader.read(new ByteArrayInputStream(input), sink);
+		return sink.getSatInstance();
+	}
+
+	private static SatInstance createRandomInstance(Random random, int numberOfVariables, int numberOfClauses) {
+		final ClauseArena clauses = new ClauseArena();
+		final boolean[] used = new boolean[numberOfVariables + 1];
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int length = 1 + random.nextInt(5);
+			for (int j = 0; j < length; j++) {
+				final int variable = 1 + random.nextInt(numberOfVariables);
+				used[variable] = true;
+				clauses.addLiteral(random.nextBoolean() ? variable : -variable);
+			}
+			clauses.finishClause();
+		}
+		for (int i = 1; i <= numberOfVariables; i++) {
+			if (!used[i]) {
+				clauses.addClause(i, -i);
+			}
+		}
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= numberOfVariables; i++) {
+			names.add("Feature " + i);
+		}
+		return new SatInstance(clauses, names);
+	}
+
+	private static void assertSameInstance(SatInstance expected, SatInstance actual) {
+		assertEquals(expected.getNumberOfVariables(), actual.getNumberOfVariables());
+		for (int i = 1; i <= expected.getNumberOfVariables(); i++) {
+			assertEquals(expected.getVariableObject(i), actual.getVariableObject(i));
+		}
+		final ClauseArena expectedClauses = expected.getClauses();
+		final ClauseArena actualClauses = actual.getClauses();
+		assertEquals(expectedClauses.size(), actualClauses.size());
+		for (int i = 0; i < expectedClauses.size(); i++) {
+			assertArrayEquals(expectedClauses.getClause(i), actualClauses.getClause(i));
+		}
+	}
+
+}